@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.admission.internal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Controls the admission of the API requests (see {@link AdmissionControlFilter}) unless {@code admission.enabled}
+ * is {@code false}. The filter runs right after the profiling, so rejected requests are profiled as well.
+ */
+@Configuration
+@ConditionalOnProperty(value = "admission.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(AdmissionProperties.class)
+class AdmissionConfig {
+
+    @Bean
+    FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,97 @@
+package com.capgemini.wsb.fitnesstracker.admission.internal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Limits the number of concurrent requests to the API with an {@link AimdLimiter} for the reads and another one
+ * for the writes, and rejects the requests exceeding the limit of their group with {@code 503 Service Unavailable}
+ * and a {@code Retry-After} header, before they wait for a database connection.
+ * <p>
+ * Reads have priority over writes: a read showing queueing decreases the write limit as well, so a flood of writes
+ * is throttled as soon as it slows the reads down, whereas slow writes never decrease the read limit. Queueing is
+ * judged against the latency of the handler pattern the request was routed to.
+ */
+class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String UNMATCHED_ROUTE = "unmatched";
+
+    private final AimdLimiter reads;
+    private final AimdLimiter writes;
+    private final String retryAfterSeconds;
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    AdmissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.reads = limiter(properties.getRead(), properties);
+        this.writes = limiter(properties.getWrite(), properties);
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+        this.rejectedReads = register("read", reads, meterRegistry);
+        this.rejectedWrites = register("write", writes, meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/v1/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean read = READ_METHODS.contains(request.getMethod());
+        AimdLimiter limiter = read ? reads : writes;
+        if (!limiter.tryAcquire()) {
+            (read ? rejectedReads : rejectedWrites).increment();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            boolean congested = limiter.release(route(request), start, System.nanoTime() - start);
+            if (read && congested) {
+                writes.backOff(start);
+            }
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : UNMATCHED_ROUTE);
+    }
+
+    private static AimdLimiter limiter(AdmissionProperties.Limits limits, AdmissionProperties properties) {
+        return new AimdLimiter(limits.initialLimit(), limits.minLimit(), limits.maxLimit(), properties.getBackoffRatio(),
+                               properties.getLatencyTolerance(), properties.getLatencySlack().toNanos(),
+                               properties.getBaselineWindow());
+    }
+
+    private static Counter register(String group, AimdLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("admission.limit", limiter, AimdLimiter::getLimit)
+                .description("Number of concurrent requests currently admitted")
+                .tag("group", group)
+                .register(meterRegistry);
+        Gauge.builder("admission.in.flight", limiter, AimdLimiter::getInFlight)
+                .description("Number of admitted requests in progress")
+                .tag("group", group)
+                .register(meterRegistry);
+        return Counter.builder("admission.rejected")
+                .description("Number of requests rejected because the concurrency limit was reached")
+                .tag("group", group)
+                .register(meterRegistry);
+    }
+}
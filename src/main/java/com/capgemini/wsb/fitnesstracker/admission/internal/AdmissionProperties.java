@@ -0,0 +1,79 @@
+package com.capgemini.wsb.fitnesstracker.admission.internal;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the admission control of the API, which is enabled unless {@code admission.enabled} is
+ * {@code false}.
+ */
+@ConfigurationProperties(prefix = "admission")
+@Getter
+class AdmissionProperties {
+
+    /**
+     * Concurrency limits of the reads ({@code GET}, {@code HEAD} and {@code OPTIONS} requests).
+     */
+    private final Limits read;
+
+    /**
+     * Concurrency limits of the writes (all other requests).
+     */
+    private final Limits write;
+
+    /**
+     * Factor applied to a limit when the latency of its requests shows queueing.
+     */
+    private final double backoffRatio;
+
+    /**
+     * Multiple of the unloaded latency from which a request is considered to have been queued.
+     */
+    private final double latencyTolerance;
+
+    /**
+     * Latency added to the tolerated latency, so that the jitter of very fast requests is not taken for queueing.
+     */
+    private final Duration latencySlack;
+
+    /**
+     * Number of requests of a route over which its unloaded latency is measured, as their lowest latency.
+     */
+    private final int baselineWindow;
+
+    /**
+     * Delay suggested to rejected clients by the {@code Retry-After} header.
+     */
+    private final Duration retryAfter;
+
+    AdmissionProperties(@Nullable Limits read,
+                        @Nullable Limits write,
+                        @DefaultValue("0.9") double backoffRatio,
+                        @DefaultValue("2.0") double latencyTolerance,
+                        @DefaultValue("5ms") Duration latencySlack,
+                        @DefaultValue("500") int baselineWindow,
+                        @DefaultValue("1s") Duration retryAfter) {
+        this.read = read != null ? read : new Limits(100, 20, 400);
+        this.write = write != null ? write : new Limits(20, 2, 200);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.latencySlack = latencySlack;
+        this.baselineWindow = baselineWindow;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Concurrency limits of a group of endpoints.
+     *
+     * @param initialLimit number of concurrent requests admitted at startup
+     * @param minLimit     number of concurrent requests always admitted
+     * @param maxLimit     number of concurrent requests never exceeded
+     */
+    record Limits(int initialLimit, int minLimit, int maxLimit) {
+
+    }
+}
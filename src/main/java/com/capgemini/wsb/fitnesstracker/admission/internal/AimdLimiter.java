@@ -0,0 +1,123 @@
+package com.capgemini.wsb.fitnesstracker.admission.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Concurrency limit adapting to the observed latency with additive increase and multiplicative decrease (AIMD).
+ * <p>
+ * The reference latency is kept per route, as the lowest latency of the route observed over the current and the
+ * previous window of its samples, which follows the latency of the route on an unloaded server. A route slow by
+ * nature, like a report, is thus not taken for a fast route queueing. A request completing within {@code tolerance}
+ * times the reference of its route (plus a constant slack absorbing the jitter of very fast requests) increases the limit by one, as
+ * long as at least half of the limit is in use. A slower request is a sign of queueing, it multiplies the limit by
+ * the backoff ratio. Like TCP congestion control, the limit is decreased at most once per round: only requests
+ * admitted after the previous decrease can decrease it again, so a burst of slow requests admitted under the old
+ * limit does not collapse it.
+ */
+class AimdLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final long slackNanos;
+    private final int window;
+    private final Map<String, Baseline> baselines = new HashMap<>();
+
+    private double limit;
+    private int inFlight;
+    private long decreasedAtNanos = System.nanoTime();
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance, long slackNanos, int window) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.slackNanos = slackNanos;
+        this.window = window;
+    }
+
+    /**
+     * Admits a request if the limit is not reached.
+     *
+     * @return {@code true} if the request is admitted and has to be {@link #release released} once completed
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Completes an admitted request and adapts the limit to its latency compared with the latency of its route.
+     *
+     * @param route        the route of the request, from a bounded set like the patterns of the handlers
+     * @param startNanos   the {@link System#nanoTime()} at which the request was admitted
+     * @param latencyNanos the time the request took
+     * @return {@code true} if the latency shows queueing
+     */
+    synchronized boolean release(String route, long startNanos, long latencyNanos) {
+        int used = inFlight--;
+        long reference = baselines.computeIfAbsent(route, key -> new Baseline()).add(latencyNanos, window);
+        boolean congested = latencyNanos > reference * tolerance + slackNanos;
+        if (congested) {
+            backOff(startNanos);
+        } else if (used * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        return congested;
+    }
+
+    /**
+     * Decreases the limit, unless it has already been decreased since the given request was admitted.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the request signalling the congestion was admitted
+     */
+    synchronized void backOff(long startNanos) {
+        if (startNanos - decreasedAtNanos > 0) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            decreasedAtNanos = System.nanoTime();
+        }
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Unloaded latency of a route.
+     */
+    private static final class Baseline {
+
+        private long referenceNanos = Long.MAX_VALUE;
+        private long windowMinNanos = Long.MAX_VALUE;
+        private int windowSamples;
+
+        /**
+         * Adds a sample to the current window, which becomes the reference once complete.
+         *
+         * @return the lowest latency over the current and the previous window, including the sample
+         */
+        long add(long latencyNanos, int window) {
+            windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+            long reference = Math.min(referenceNanos, windowMinNanos);
+            if (++windowSamples == window) {
+                referenceNanos = windowMinNanos;
+                windowMinNanos = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            return reference;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.coalescing.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read method whose concurrent identical invocations (same method, equal arguments) are coalesced
+ * into a single execution ("single-flight"): the callers arriving while an invocation is in flight wait for it
+ * and share its result (or exception) instead of running the same database query again.
+ * <p>
+ * The shared result is handed to several callers, so it must be treated as read-only.
+ * Invocations within an active transaction are never coalesced, as their callers may rely on the result
+ * belonging to their own persistence context.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+
+}
@@ -0,0 +1,85 @@
+package com.capgemini.wsb.fitnesstracker.coalescing.internal;
+
+import com.capgemini.wsb.fitnesstracker.coalescing.api.Coalesced;
+import com.capgemini.wsb.fitnesstracker.datasource.api.ReadRouting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies single-flight coalescing to the methods annotated with {@link Coalesced}.
+ * <p>
+ * Calls are identified by the method, its arguments and whether they have to read from the primary datasource
+ * ({@link ReadRouting}), so a client reading its own writes never gets the result of a replica read. The aspect
+ * wraps the transaction of the method, so a coalesced read-only method still runs in its own transaction. Metrics are exported per coalesced method
+ * (arguments are left out to keep their cardinality bounded): {@code coalescing.calls} tagged with
+ * {@code key} and {@code result} ({@code executed} or {@code shared}), and the {@code coalescing.in.flight} gauge.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+class CoalescingAspect {
+
+    private final SingleFlight<CallKey> singleFlight = new SingleFlight<>();
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Optional<ReadRouting> readRouting;
+
+    CoalescingAspect(MeterRegistry meterRegistry, Optional<ReadRouting> readRouting) {
+        this.meterRegistry = meterRegistry;
+        this.readRouting = readRouting;
+        Gauge.builder("coalescing.in.flight", singleFlight, SingleFlight::inFlight)
+                .description("Number of coalesced calls currently executing")
+                .register(meterRegistry);
+    }
+
+    @Around("@annotation(com.capgemini.wsb.fitnesstracker.coalescing.api.Coalesced)")
+    Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        SingleFlight.Outcome outcome = singleFlight.execute(new CallKey(method, Arrays.asList(joinPoint.getArgs()), isPrimaryRequired()), joinPoint::proceed);
+        Meters methodMeters = meters.computeIfAbsent(method, this::registerMeters);
+        (outcome.shared() ? methodMeters.shared : methodMeters.executed).increment();
+        return outcome.value();
+    }
+
+    private boolean isPrimaryRequired() {
+        return readRouting.map(ReadRouting::isPrimaryRequired).orElse(false);
+    }
+
+    private Meters registerMeters(Method method) {
+        String key = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        return new Meters(counter(key, "executed"), counter(key, "shared"));
+    }
+
+    private Counter counter(String key, String result) {
+        return Counter.builder("coalescing.calls")
+                .description("Number of calls of coalesced methods, either executed or sharing the result of another call")
+                .tag("key", key)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CallKey(Method method, List<Object> arguments, boolean primaryRequired) {
+    }
+
+    private record Meters(Counter executed, Counter shared) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.capgemini.wsb.fitnesstracker.coalescing.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Executes at most one call per key at a time; callers arriving for a key which is in flight wait for its outcome.
+ * A key stops being in flight before its outcome is published, so no caller ever receives a result which had
+ * already been completed when the caller arrived.
+ *
+ * @param <K> type of the keys identifying identical calls
+ */
+class SingleFlight<K> {
+
+    private final ConcurrentMap<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Call which may throw any exception, like an intercepted method.
+     */
+    @FunctionalInterface
+    interface Call {
+
+        Object execute() throws Throwable;
+    }
+
+    /**
+     * Outcome of a coalesced call.
+     *
+     * @param value  the result of the call
+     * @param shared {@code true} if the result was produced by the call of another caller
+     */
+    record Outcome(Object value, boolean shared) {
+    }
+
+    /**
+     * Executes the call, unless an identical call is in flight, in which case its outcome is awaited.
+     *
+     * @param key  key of the call
+     * @param call the call to execute
+     * @return the outcome of the call
+     * @throws Throwable the exception thrown by the call
+     */
+    Outcome execute(K key, Call call) throws Throwable {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            try {
+                return new Outcome(existing.join(), true);
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+        Object result;
+        try {
+            result = call.execute();
+        } catch (Throwable e) {
+            inFlight.remove(key, own);
+            own.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, own);
+        own.complete(result);
+        return new Outcome(result, false);
+    }
+
+    /**
+     * @return number of calls currently in flight
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.cohort.api;
+
+import java.util.List;
+
+/**
+ * The users matching a {@link CohortQuery}.
+ *
+ * @param count   the number of matching users
+ * @param userIds the unique identifiers of the first matching users, in ascending order
+ */
+public record Cohort(int count, List<Long> userIds) {
+
+}
@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.cohort.api;
+
+/**
+ * Interface (API) for selecting cohorts of users by their age and by the activities they trained.
+ * The cohorts are evaluated in memory and reflect the committed modifications of users and trainings.
+ */
+public interface CohortProvider {
+
+    /**
+     * Retrieves the users matching the given query.
+     *
+     * @param query the conditions to be met by the users
+     * @param limit maximal number of user IDs to be returned, {@code 0} to only count the users
+     * @return the number of matching users and the smallest IDs among them
+     */
+    Cohort getCohort(CohortQuery query, int limit);
+
+}
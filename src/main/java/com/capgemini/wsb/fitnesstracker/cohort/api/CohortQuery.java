@@ -0,0 +1,118 @@
+package com.capgemini.wsb.fitnesstracker.cohort.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import jakarta.annotation.Nullable;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Boolean condition selecting a cohort of users, e.g. "aged 30 to 40, ran this month and never cycled":
+ * <pre>
+ * {"type": "and", "queries": [
+ *     {"type": "age", "min": 30, "max": 40},
+ *     {"type": "activity", "activityType": "RUNNING", "from": "2024-05", "to": "2024-05"},
+ *     {"type": "not", "query": {"type": "activity", "activityType": "CYCLING"}}]}
+ * </pre>
+ * Invalid conditions are rejected with an {@link IllegalArgumentException} when they are created.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = CohortQuery.And.class, name = "and"),
+        @JsonSubTypes.Type(value = CohortQuery.Or.class, name = "or"),
+        @JsonSubTypes.Type(value = CohortQuery.Not.class, name = "not"),
+        @JsonSubTypes.Type(value = CohortQuery.Age.class, name = "age"),
+        @JsonSubTypes.Type(value = CohortQuery.Activity.class, name = "activity"),
+        @JsonSubTypes.Type(value = CohortQuery.Active.class, name = "active")
+})
+public sealed interface CohortQuery {
+
+    /**
+     * Users matching all the given conditions.
+     *
+     * @param queries the conditions, at least one
+     */
+    record And(List<CohortQuery> queries) implements CohortQuery {
+
+        public And {
+            requireNotEmpty(queries);
+        }
+    }
+
+    /**
+     * Users matching any of the given conditions.
+     *
+     * @param queries the conditions, at least one
+     */
+    record Or(List<CohortQuery> queries) implements CohortQuery {
+
+        public Or {
+            requireNotEmpty(queries);
+        }
+    }
+
+    /**
+     * Users not matching the given condition.
+     *
+     * @param query the negated condition
+     */
+    record Not(CohortQuery query) implements CohortQuery {
+
+        public Not {
+            if (query == null) {
+                throw new IllegalArgumentException("Negated query is required");
+            }
+        }
+    }
+
+    /**
+     * Users whose age in years lies in the given range, both ends included.
+     *
+     * @param min the minimal age, no lower limit if {@code null}
+     * @param max the maximal age, no upper limit if {@code null}
+     */
+    record Age(@Nullable Integer min, @Nullable Integer max) implements CohortQuery {
+
+        public Age {
+            if (min != null && min < 0 || max != null && max < 0) {
+                throw new IllegalArgumentException("Age must not be negative");
+            }
+            if (min != null && max != null && min > max) {
+                throw new IllegalArgumentException("Minimal age must not exceed maximal age");
+            }
+        }
+    }
+
+    /**
+     * Users having started at least one training in the given range of months (UTC), both ends included.
+     *
+     * @param activityType the activity type of the trainings, any type if {@code null}
+     * @param from         the first month of the range, no lower limit if {@code null}
+     * @param to           the last month of the range, no upper limit if {@code null}
+     */
+    record Activity(@Nullable ActivityType activityType, @Nullable YearMonth from, @Nullable YearMonth to) implements CohortQuery {
+
+        public Activity {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("Range of months must not end before it starts");
+            }
+        }
+    }
+
+    /**
+     * Users having trained recently, as configured by {@code cohort.active-months}.
+     * Inactive users are selected by negating this condition.
+     */
+    record Active() implements CohortQuery {
+
+    }
+
+    private static void requireNotEmpty(List<CohortQuery> queries) {
+        if (queries == null || queries.isEmpty() || queries.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("At least one query is required");
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.capgemini.wsb.fitnesstracker.cohort.internal;
+
+import com.capgemini.wsb.fitnesstracker.cohort.api.CohortQuery;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Bitmaps of user IDs evaluating {@link CohortQuery cohort queries} with intersections, unions and differences
+ * instead of joins. Every user is set in the bitmap of their birth year, and in the bitmap of every month (UTC)
+ * and activity type in which they started a training, as well as in an "ever" bitmap per activity type.
+ * The number of trainings behind each of these bits is counted per user, so that a bit is cleared with the
+ * last training setting it. Only the birthdates and these counts are written to snapshots, the bitmaps are set
+ * again when they are read.
+ * <p>
+ * User IDs must fit into an int. Not thread-safe.
+ */
+class CohortBitmaps {
+
+    private final CompressedBitmap users = new CompressedBitmap();
+    private final Map<Integer, LocalDate> birthdates = new HashMap<>();
+    private final TreeMap<Integer, CompressedBitmap> usersByBirthYear = new TreeMap<>();
+    private final Map<ActivityType, TreeMap<Integer, CompressedBitmap>> usersByMonth = new EnumMap<>(ActivityType.class);
+    private final Map<ActivityType, CompressedBitmap> usersEver = new EnumMap<>(ActivityType.class);
+    private final Map<Integer, Map<Integer, Integer>> trainingCounts = new HashMap<>();
+    private final int activeMonths;
+
+    /**
+     * @param activeMonths number of months (including the current one) in which active users started a training
+     */
+    CohortBitmaps(int activeMonths) {
+        this.activeMonths = activeMonths;
+        for (ActivityType activityType : ActivityType.values()) {
+            usersByMonth.put(activityType, new TreeMap<>());
+            usersEver.put(activityType, new CompressedBitmap());
+        }
+    }
+
+    /**
+     * Adds a user, or moves them to another birth year.
+     *
+     * @param userId    the ID of the user
+     * @param birthdate the birthdate of the user
+     */
+    void putUser(long userId, LocalDate birthdate) {
+        int user = Math.toIntExact(userId);
+        LocalDate previous = birthdates.put(user, birthdate);
+        if (previous != null && previous.getYear() != birthdate.getYear()) {
+            clear(usersByBirthYear, previous.getYear(), user);
+        }
+        users.add(user);
+        usersByBirthYear.computeIfAbsent(birthdate.getYear(), year -> new CompressedBitmap()).add(user);
+    }
+
+    /**
+     * Removes a user together with all their trainings.
+     *
+     * @param userId the ID of the user
+     */
+    void removeUser(long userId) {
+        int user = Math.toIntExact(userId);
+        LocalDate birthdate = birthdates.remove(user);
+        if (birthdate == null) {
+            return;
+        }
+        users.remove(user);
+        clear(usersByBirthYear, birthdate.getYear(), user);
+        Map<Integer, Integer> counts = trainingCounts.remove(user);
+        if (counts != null) {
+            counts.keySet().forEach(key -> {
+                ActivityType activityType = ActivityType.values()[key >>> 24];
+                clear(usersByMonth.get(activityType), key & 0xFFFFFF, user);
+                usersEver.get(activityType).remove(user);
+            });
+        }
+    }
+
+    /**
+     * Records a training of a user. Trainings of unknown users are ignored.
+     *
+     * @param userId       the ID of the user owning the training
+     * @param activityType the activity type of the training
+     * @param startTime    the start time of the training
+     */
+    void addTraining(long userId, ActivityType activityType, Instant startTime) {
+        int user = Math.toIntExact(userId);
+        if (!users.contains(user)) {
+            return;
+        }
+        int month = monthIndex(YearMonth.from(startTime.atOffset(ZoneOffset.UTC)));
+        addTrainings(user, countKey(activityType, month), 1);
+    }
+
+    /**
+     * Forgets a training recorded by {@link #addTraining}.
+     *
+     * @param userId       the ID of the user owning the training
+     * @param activityType the activity type of the training
+     * @param startTime    the start time of the training
+     */
+    void removeTraining(long userId, ActivityType activityType, Instant startTime) {
+        int user = Math.toIntExact(userId);
+        Map<Integer, Integer> counts = trainingCounts.get(user);
+        int month = monthIndex(YearMonth.from(startTime.atOffset(ZoneOffset.UTC)));
+        int key = countKey(activityType, month);
+        Integer count = counts != null ? counts.get(key) : null;
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            counts.put(key, count - 1);
+            return;
+        }
+        counts.remove(key);
+        clear(usersByMonth.get(activityType), month, user);
+        if (counts.keySet().stream().noneMatch(other -> other >>> 24 == activityType.ordinal())) {
+            usersEver.get(activityType).remove(user);
+        }
+        if (counts.isEmpty()) {
+            trainingCounts.remove(user);
+        }
+    }
+
+    /**
+     * Calls an action with the ID of every user.
+     *
+     * @param action the action to be called
+     */
+    void forEachUser(IntConsumer action) {
+        users.forEach(action);
+    }
+
+    /**
+     * Writes the birthdates of the users and the counts of their trainings per activity type and month.
+     *
+     * @param output the output of the snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    void write(DataOutput output) throws IOException {
+        output.writeInt(birthdates.size());
+        for (Map.Entry<Integer, LocalDate> user : birthdates.entrySet()) {
+            output.writeInt(user.getKey());
+            output.writeInt(Math.toIntExact(user.getValue().toEpochDay()));
+            Map<Integer, Integer> counts = trainingCounts.getOrDefault(user.getKey(), Map.of());
+            output.writeInt(counts.size());
+            for (Map.Entry<Integer, Integer> count : counts.entrySet()) {
+                output.writeInt(count.getKey());
+                output.writeInt(count.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads bitmaps written by {@link #write}.
+     *
+     * @param input        the input of the snapshot
+     * @param activeMonths number of months (including the current one) in which active users started a training
+     * @return the bitmaps
+     * @throws IOException if the snapshot cannot be read
+     */
+    static CohortBitmaps read(DataInput input, int activeMonths) throws IOException {
+        CohortBitmaps bitmaps = new CohortBitmaps(activeMonths);
+        int users = input.readInt();
+        for (int i = 0; i < users; i++) {
+            int user = input.readInt();
+            bitmaps.putUser(user, LocalDate.ofEpochDay(input.readInt()));
+            int counts = input.readInt();
+            for (int j = 0; j < counts; j++) {
+                int key = input.readInt();
+                int count = input.readInt();
+                if (key >>> 24 >= ActivityType.values().length || count < 1) {
+                    throw new IOException("Invalid training count of user " + user);
+                }
+                bitmaps.addTrainings(user, key, count);
+            }
+        }
+        return bitmaps;
+    }
+
+    /**
+     * Evaluates a cohort query.
+     *
+     * @param query the conditions to be met by the users
+     * @param today the current date (UTC), which ages and active users are relative to
+     * @return a new bitmap holding the IDs of the matching users
+     */
+    CompressedBitmap evaluate(CohortQuery query, LocalDate today) {
+        if (query instanceof CohortQuery.And and) {
+            CompressedBitmap result = evaluate(and.queries().get(0), today);
+            for (int i = 1; i < and.queries().size() && !result.isEmpty(); i++) {
+                result = result.and(evaluate(and.queries().get(i), today));
+            }
+            return result;
+        }
+        if (query instanceof CohortQuery.Or or) {
+            return CompressedBitmap.or(or.queries().stream().map(operand -> evaluate(operand, today)).toList());
+        }
+        if (query instanceof CohortQuery.Not not) {
+            return users.andNot(evaluate(not.query(), today));
+        }
+        if (query instanceof CohortQuery.Age age) {
+            return age(age.min(), age.max(), today);
+        }
+        if (query instanceof CohortQuery.Activity activity) {
+            return activity(activity.activityType(), activity.from(), activity.to());
+        }
+        YearMonth current = YearMonth.from(today);
+        return activity(null, current.minusMonths(activeMonths - 1L), current);
+    }
+
+    /**
+     * Retrieves the number of users.
+     *
+     * @return number of users
+     */
+    int size() {
+        return birthdates.size();
+    }
+
+    private CompressedBitmap age(@Nullable Integer min, @Nullable Integer max, LocalDate today) {
+        LocalDate bornAfter = max != null ? today.minusYears(max + 1L) : null;
+        LocalDate bornUntil = min != null ? today.minusYears(min) : null;
+        int fromYear = bornAfter != null ? bornAfter.getYear() : Integer.MIN_VALUE;
+        int toYear = bornUntil != null ? bornUntil.getYear() : Integer.MAX_VALUE;
+        Predicate<LocalDate> inRange = birthdate -> (bornAfter == null || birthdate.isAfter(bornAfter))
+                && (bornUntil == null || !birthdate.isAfter(bornUntil));
+        List<CompressedBitmap> years = new ArrayList<>();
+        usersByBirthYear.subMap(fromYear, true, toYear, true).forEach((year, bitmap) ->
+                years.add(year == fromYear || year == toYear ? filter(bitmap, inRange) : bitmap));
+        return CompressedBitmap.or(years);
+    }
+
+    private CompressedBitmap activity(@Nullable ActivityType activityType, @Nullable YearMonth from, @Nullable YearMonth to) {
+        List<CompressedBitmap> matching = new ArrayList<>();
+        for (ActivityType type : activityType != null ? List.of(activityType) : List.of(ActivityType.values())) {
+            if (from == null && to == null) {
+                matching.add(usersEver.get(type));
+            } else {
+                NavigableMap<Integer, CompressedBitmap> months = usersByMonth.get(type);
+                if (from != null) {
+                    months = months.tailMap(monthIndex(from), true);
+                }
+                if (to != null) {
+                    months = months.headMap(monthIndex(to), true);
+                }
+                matching.addAll(months.values());
+            }
+        }
+        return CompressedBitmap.or(matching);
+    }
+
+    private CompressedBitmap filter(CompressedBitmap bitmap, Predicate<LocalDate> birthdatePredicate) {
+        CompressedBitmap filtered = new CompressedBitmap();
+        bitmap.forEach(user -> {
+            if (birthdatePredicate.test(birthdates.get(user))) {
+                filtered.add(user);
+            }
+        });
+        return filtered;
+    }
+
+    private void addTrainings(int user, int key, int trainings) {
+        int count = trainingCounts.computeIfAbsent(user, id -> new HashMap<>()).merge(key, trainings, Integer::sum);
+        if (count == trainings) {
+            ActivityType activityType = ActivityType.values()[key >>> 24];
+            usersByMonth.get(activityType).computeIfAbsent(key & 0xFFFFFF, month -> new CompressedBitmap()).add(user);
+            usersEver.get(activityType).add(user);
+        }
+    }
+
+    private static void clear(Map<Integer, CompressedBitmap> bitmaps, int key, int user) {
+        CompressedBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(user);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static int monthIndex(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    private static int countKey(ActivityType activityType, int month) {
+        return activityType.ordinal() << 24 | month;
+    }
+}
@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.cohort.internal;
+
+import com.capgemini.wsb.fitnesstracker.cohort.api.Cohort;
+import com.capgemini.wsb.fitnesstracker.cohort.api.CohortProvider;
+import com.capgemini.wsb.fitnesstracker.cohort.api.CohortQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST Controller selecting cohorts of users by boolean combinations of their age, the activities they trained
+ * and their activity status (see {@link CohortQuery} for the format of the queries).
+ */
+@RestController
+@RequestMapping("/v1/cohorts")
+@RequiredArgsConstructor
+class CohortController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final CohortProvider cohortProvider;
+
+    /**
+     * Counts the users matching a query and lists the first of them.
+     *
+     * @param query the conditions to be met by the users
+     * @param limit maximal number of user IDs to be returned (0-1000), {@code 0} to only count the users
+     * @return the number of matching users and their smallest IDs
+     * @throws ResponseStatusException if the limit is out of range
+     */
+    @PostMapping
+    public Cohort getCohort(@RequestBody CohortQuery query, @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 0 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 0 and " + MAX_LIMIT);
+        }
+        return cohortProvider.getCohort(query, limit);
+    }
+}
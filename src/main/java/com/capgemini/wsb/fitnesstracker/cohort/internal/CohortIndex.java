@@ -0,0 +1,251 @@
+package com.capgemini.wsb.fitnesstracker.cohort.internal;
+
+import com.capgemini.wsb.fitnesstracker.cohort.api.Cohort;
+import com.capgemini.wsb.fitnesstracker.cohort.api.CohortProvider;
+import com.capgemini.wsb.fitnesstracker.cohort.api.CohortQuery;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.journal.api.TrainingJournal;
+import com.capgemini.wsb.fitnesstracker.snapshot.api.Snapshottable;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.UserChangedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the {@link CohortBitmaps} of all users in memory. They are updated once the modifications of users have been
+ * committed and with the {@link JournalEntry journaled} changes of trainings, so a cohort query does not touch the
+ * database.
+ * <p>
+ * On startup the bitmaps are restored from a snapshot (see {@link Snapshottable}), replaying the trainings changed
+ * since. As the changes of users are not journaled, the users are indexed again from the {@code users} table, which
+ * is much smaller than the {@code trainings} one.
+ * <p>
+ * A rebuild reads the {@link TrainingJournal#getCommittedSequence() committed sequence} and scans the tables in a
+ * single read-only serializable transaction, which sees a consistent snapshot of the database. The scan thereby
+ * sees exactly the changes up to that sequence, and the journal entries after it are applied, however the commits
+ * and the appends to the journal interleave with the rebuild.
+ */
+@Component
+@Slf4j
+class CohortIndex implements CohortProvider, Snapshottable {
+
+    private static final String SELECT_USERS = "SELECT id, birthdate FROM users WHERE deleted = FALSE";
+    private static final String SELECT_TRAININGS = """
+            SELECT t.user_id, t.activity_type, t.start_time
+            FROM trainings t JOIN users u ON u.id = t.user_id
+            WHERE u.deleted = FALSE
+            """;
+
+    private final int activeMonths;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private CohortBitmaps bitmaps;
+    private long sequence;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final UserProvider userProvider;
+    private final TrainingJournal trainingJournal;
+
+    CohortIndex(CohortProperties properties,
+                JdbcTemplate jdbcTemplate,
+                DataSource dataSource,
+                UserProvider userProvider,
+                TrainingJournal trainingJournal) {
+        this.activeMonths = properties.getActiveMonths();
+        this.bitmaps = new CohortBitmaps(activeMonths);
+        this.jdbcTemplate = jdbcTemplate;
+        // a JDBC transaction, as the JPA one cannot set the isolation level when connections are routed to a replica
+        this.snapshotTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.snapshotTemplate.setReadOnly(true);
+        this.userProvider = userProvider;
+        this.trainingJournal = trainingJournal;
+    }
+
+    @Override
+    public String getSnapshotName() {
+        return "cohorts-v1";
+    }
+
+    @Override
+    public long writeSnapshot(DataOutput output) throws IOException {
+        lock.readLock().lock();
+        try {
+            bitmaps.write(output);
+            return sequence;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the bitmaps with the ones of the snapshot, and indexes the users again.
+     */
+    @Override
+    public void readSnapshot(DataInput input, long sequence) throws IOException {
+        CohortBitmaps restored = CohortBitmaps.read(input, activeMonths);
+        lock.writeLock().lock();
+        try {
+            bitmaps = restored;
+            this.sequence = sequence;
+            CompressedBitmap existingUsers = loadUsers();
+            List<Integer> deletedUsers = new ArrayList<>();
+            bitmaps.forEachUser(user -> {
+                if (!existingUsers.contains(user)) {
+                    deletedUsers.add(user);
+                }
+            });
+            deletedUsers.forEach(bitmaps::removeUser);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes all users and their trainings.
+     */
+    @Override
+    public long rebuild() {
+        long start = System.nanoTime();
+        ActivityType[] activityTypes = ActivityType.values();
+        lock.writeLock().lock();
+        try {
+            bitmaps = new CohortBitmaps(activeMonths);
+            sequence = snapshotTemplate.execute(status -> {
+                long committedSequence = trainingJournal.getCommittedSequence();
+                loadUsers();
+                jdbcTemplate.query(SELECT_TRAININGS, resultSet -> {
+                    bitmaps.addTraining(resultSet.getLong("user_id"),
+                                        activityTypes[resultSet.getInt("activity_type")],
+                                        resultSet.getTimestamp("start_time").toInstant());
+                });
+                return committedSequence;
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} users for cohorts in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+        return sequence;
+    }
+
+    @Override
+    public Cohort getCohort(CohortQuery query, int limit) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        CompressedBitmap cohort;
+        lock.readLock().lock();
+        try {
+            cohort = bitmaps.evaluate(query, today);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new Cohort(cohort.cardinality(), Arrays.stream(cohort.toArray(limit)).mapToObj(Long::valueOf).toList());
+    }
+
+    /**
+     * Retrieves the number of indexed users.
+     *
+     * @return number of users
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return bitmaps.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes the birthdate of a user once their creation or modification has been committed.
+     *
+     * @param event the event announcing the changed user
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userProvider.getUser(event.userId()).ifPresent(user -> {
+            lock.writeLock().lock();
+            try {
+                bitmaps.putUser(user.getId(), user.getBirthdate());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a user and their trainings from the index once their deletion has been committed.
+     *
+     * @param event the event announcing the deleted user
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.removeUser(event.userId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a training between the bitmaps once its change has been journaled.
+     *
+     * @param entry the journal entry describing the change of the training
+     */
+    @EventListener
+    public void onJournalEntry(JournalEntry entry) {
+        apply(entry);
+    }
+
+    @Override
+    public void apply(JournalEntry entry) {
+        TrainingSnapshot previous = entry.previous();
+        TrainingSnapshot current = entry.current();
+        lock.writeLock().lock();
+        try {
+            if (entry.sequence() != sequence + 1) {
+                return;
+            }
+            if (previous != null) {
+                bitmaps.removeTraining(previous.userId(), previous.activityType(), previous.startTime());
+            }
+            if (current != null) {
+                bitmaps.addTraining(current.userId(), current.activityType(), current.startTime());
+            }
+            sequence = entry.sequence();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private CompressedBitmap loadUsers() {
+        CompressedBitmap users = new CompressedBitmap();
+        jdbcTemplate.query(SELECT_USERS, resultSet -> {
+            long userId = resultSet.getLong("id");
+            bitmaps.putUser(userId, resultSet.getObject("birthdate", LocalDate.class));
+            users.add(Math.toIntExact(userId));
+        });
+        return users;
+    }
+}
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.cohort.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the cohort queries.
+ */
+@ConfigurationProperties(prefix = "cohort")
+@Getter
+class CohortProperties {
+
+    /**
+     * Number of months (including the current one) in which a user must have started a training to be active.
+     */
+    private final int activeMonths;
+
+    CohortProperties(@DefaultValue("2") int activeMonths) {
+        this.activeMonths = activeMonths;
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.capgemini.wsb.fitnesstracker.datasource.api;
+
+/**
+ * API interface telling where the read-only transactions of the current request are routed.
+ */
+public interface ReadRouting {
+
+    /**
+     * Tells whether the read-only transactions of the current request must read from the primary datasource,
+     * because the client has written recently and a replica might not have caught up yet.
+     *
+     * @return {@code true} if reads must go to the primary datasource, {@code false} if they may go to a replica
+     */
+    boolean isPrimaryRequired();
+
+}
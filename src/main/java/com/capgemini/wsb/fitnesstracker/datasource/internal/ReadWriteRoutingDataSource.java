@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import com.capgemini.wsb.fitnesstracker.datasource.api.ReadRouting;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes the connections of read-only transactions of service methods (see {@link ReplicaReadAspect}) to the replica
+ * and all other connections to the primary.
+ * <p>
+ * The routing key is only known once the transaction has been set up, so this datasource has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which fetches the target connection
+ * on the first statement.
+ */
+class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReadRouting readRouting;
+
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadRouting readRouting) {
+        this.readRouting = readRouting;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReplicaReadAspect.isReplicaRead() && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+            && !readRouting.isPrimaryRequired()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    private enum Route {
+        PRIMARY, REPLICA
+    }
+}
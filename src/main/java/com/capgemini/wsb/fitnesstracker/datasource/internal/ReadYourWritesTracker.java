@@ -0,0 +1,79 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import com.capgemini.wsb.fitnesstracker.datasource.api.ReadRouting;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * {@link ReadRouting} giving clients read-your-writes consistency despite the replication lag.
+ * <p>
+ * When a read-write transaction of a request commits, the response gets the {@value #COOKIE} cookie holding the
+ * beat of the {@link ReplicationHeartbeat} the replica has to show to have replayed the commit, and the rest of the
+ * request reads from the primary. Requests sending the cookie read from the primary as long as the
+ * {@link ReplicationLagMonitor} has not read that beat from the replica, however long the replica lags behind.
+ * Reads of other clients are not affected, and nothing is kept on the server, so it works behind a load balancer.
+ */
+class ReadYourWritesTracker implements ReadRouting, TransactionExecutionListener {
+
+    static final String COOKIE = "replicated-beat";
+
+    private static final String ATTRIBUTE = ReadYourWritesTracker.class.getName() + ".beat";
+
+    private final ReplicationLagMonitor lagMonitor;
+
+    ReadYourWritesTracker(ReplicationLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public boolean isPrimaryRequired() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        return writtenBeat(attributes.getRequest()) > lagMonitor.getReplicatedBeat();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure != null || transaction.isReadOnly() || !transaction.isNewTransaction()
+            || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        // the next beat is committed after this commit, the beat is read on the primary in case of other nodes
+        long beat = lagMonitor.readPrimaryBeat() + 1;
+        attributes.getRequest().setAttribute(ATTRIBUTE, beat);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(beat));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+    }
+
+    private static long writtenBeat(HttpServletRequest request) {
+        if (request.getAttribute(ATTRIBUTE) instanceof Long beat) {
+            return beat;
+        }
+        long beat = 0;
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        beat = Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        beat = 0;
+                    }
+                }
+            }
+        }
+        request.setAttribute(ATTRIBUTE, beat);
+        return beat;
+    }
+}
@@ -0,0 +1,47 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the read replica, read-only transactions are routed to it when its URL is set.
+ */
+@ConfigurationProperties(prefix = "datasource.replica")
+@Getter
+class ReplicaDataSourceProperties {
+
+    /**
+     * JDBC URL of the replica.
+     */
+    private final String url;
+
+    /**
+     * Login username of the replica.
+     */
+    private final String username;
+
+    /**
+     * Login password of the replica.
+     */
+    private final String password;
+
+    /**
+     * Interval at which the replication heartbeat is incremented on the primary and read from the replica, so a client
+     * which has written reads from the primary for the replication lag and up to this interval longer.
+     */
+    private final Duration heartbeatInterval;
+
+    ReplicaDataSourceProperties(String url,
+                                @DefaultValue("sa") String username,
+                                @DefaultValue("") String password,
+                                @DefaultValue("100ms") Duration heartbeatInterval) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Marks the execution of {@code @Transactional(readOnly = true)} methods of {@code @Service} beans as replica reads.
+ * <p>
+ * Only these are routed to the replica: the read-only transactions Spring Data opens for repository methods called
+ * outside a service transaction (e.g. looking up the user of a new training) keep reading from the primary.
+ */
+@Aspect
+class ReplicaReadAspect {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    /**
+     * Tells whether the current thread executes a read-only service method.
+     *
+     * @return {@code true} if the reads of the current thread may go to the replica
+     */
+    static boolean isReplicaRead() {
+        return REPLICA_READ.get() != null;
+    }
+
+    @Around("@within(org.springframework.stereotype.Service) && @annotation(transactional)")
+    Object markReplicaRead(ProceedingJoinPoint joinPoint, Transactional transactional) throws Throwable {
+        if (!transactional.readOnly() || isReplicaRead()) {
+            return joinPoint.proceed();
+        }
+        REPLICA_READ.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            REPLICA_READ.remove();
+        }
+    }
+}
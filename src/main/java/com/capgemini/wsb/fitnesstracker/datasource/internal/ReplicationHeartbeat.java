@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The single row whose beat is incremented on the primary by every node and read back from the replica, so the
+ * replica has replayed every transaction committed before the beat it shows.
+ */
+@Entity
+@Table(name = "replication_heartbeat")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class ReplicationHeartbeat {
+
+    static final long ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "beat", nullable = false)
+    private Long beat;
+
+}
@@ -0,0 +1,100 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the replica has replayed the primary with the {@link ReplicationHeartbeat}.
+ * <p>
+ * Every {@code datasource.replica.heartbeat-interval} the node increments the beat on the primary and reads the beat
+ * the replica has replayed. The increments of all nodes are serialized on the row, so a beat greater than the one
+ * read on the primary right after a commit has been committed after it: once the replica shows that beat, it has
+ * replayed the commit. Until the beat has been read from the replica, it is taken for having replayed nothing.
+ */
+@Slf4j
+class ReplicationLagMonitor implements SmartInitializingSingleton {
+
+    private static final String INSERT_BEAT = "INSERT INTO replication_heartbeat (id, beat) VALUES (?, 0)";
+    private static final String INCREMENT_BEAT = "UPDATE replication_heartbeat SET beat = beat + 1 WHERE id = ?";
+    private static final String SELECT_BEAT = "SELECT beat FROM replication_heartbeat WHERE id = ?";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration interval;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replication-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long replicatedBeat;
+
+    ReplicationLagMonitor(JdbcTemplate primary, JdbcTemplate replica, Duration interval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.interval = interval;
+    }
+
+    /**
+     * Creates the heartbeat and starts beating, once the schema exists and before the application accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            primary.update(INSERT_BEAT, ReplicationHeartbeat.ID);
+        } catch (DuplicateKeyException e) {
+            // created by an earlier start or by another node
+        }
+        beat();
+        heartbeat.scheduleWithFixedDelay(this::beat, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+    }
+
+    /**
+     * Reads the current beat of the primary, a commit which has completed before is replayed by the replica once it
+     * shows a greater beat.
+     *
+     * @return the beat of the primary
+     */
+    long readPrimaryBeat() {
+        return primary.queryForList(SELECT_BEAT, Long.class, ReplicationHeartbeat.ID).stream().findFirst().orElse(0L);
+    }
+
+    /**
+     * @return the last beat read from the replica, {@code 0} if it has not been read yet
+     */
+    long getReplicatedBeat() {
+        return replicatedBeat;
+    }
+
+    /**
+     * Increments the beat of the primary and reads the beat replayed by the replica.
+     */
+    void beat() {
+        try {
+            primary.update(INCREMENT_BEAT, ReplicationHeartbeat.ID);
+        } catch (DataAccessException e) {
+            log.warn("Cannot increment the replication heartbeat on the primary", e);
+        }
+        try {
+            replica.queryForList(SELECT_BEAT, Long.class, ReplicationHeartbeat.ID).stream()
+                    .findFirst()
+                    .ifPresent(beat -> replicatedBeat = beat);
+        } catch (DataAccessException e) {
+            log.warn("Cannot read the replication heartbeat from the replica, clients which have written read from the primary", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.exception.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Generic business exception indicating that the request conflicts with the current state of some resource,
+ * e.g. it was based on a version of the resource which has been modified in the meantime.
+ * Will resolve to the {@link HttpStatus#CONFLICT} if handled by the Spring's exception handler.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends BusinessException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.capgemini.wsb.fitnesstracker.http.api;
+
+import jakarta.annotation.Nullable;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Validator of a REST resource used to answer conditional requests ({@code If-None-Match} / {@code If-Modified-Since}).
+ * It is computed by a cheap lookup of the {@code version} and {@code last_modified} columns (or their aggregates
+ * for collections), so a client holding a fresh representation gets {@code 304 Not Modified} without the entities
+ * being loaded or serialized.
+ *
+ * @param tag          opaque value of the entity tag
+ * @param lastModified time of the most recent modification, {@code null} if unknown (e.g. an empty collection)
+ */
+public record ResourceVersion(String tag, @Nullable Instant lastModified) {
+
+    /**
+     * Creates a validator of a single entity.
+     *
+     * @param version      the optimistic locking version of the entity
+     * @param lastModified the last modification time of the entity
+     */
+    public ResourceVersion(long version, @Nullable Instant lastModified) {
+        this(Long.toHexString(version), lastModified);
+    }
+
+    /**
+     * Creates a validator of a collection of entities. Insertions and deletions change the count,
+     * modifications change the version sum, and both of them move the last modification time forward.
+     *
+     * @param count        number of the entities in the collection
+     * @param versionSum   sum of the versions of the entities
+     * @param lastModified the most recent modification time within the collection
+     */
+    public ResourceVersion(long count, long versionSum, @Nullable Instant lastModified) {
+        this(Long.toHexString(count) + "-" + Long.toHexString(versionSum), lastModified);
+    }
+
+    /**
+     * Reads the optimistic locking version of a single entity from an entity tag sent back by the client, e.g. in an
+     * {@code If-Match} header.
+     *
+     * @param eTag the entity tag, weak or strong
+     * @return the version, or empty if the tag has not been issued for a single entity
+     */
+    public static Optional<Long> versionOf(String eTag) {
+        String opaque = eTag.trim();
+        if (opaque.startsWith("W/")) {
+            opaque = opaque.substring(2);
+        }
+        int separator = opaque.indexOf('-');
+        if (opaque.length() < 2 || !opaque.startsWith("\"") || !opaque.endsWith("\"") || separator < 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(opaque.substring(1, separator), 16));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Combines this validator with the validator of a resource embedded in the same representation.
+     *
+     * @param other validator of the embedded resource
+     * @return validator changing whenever any of the two does
+     */
+    public ResourceVersion and(ResourceVersion other) {
+        Instant latest = lastModified == null || (other.lastModified != null && other.lastModified.isAfter(lastModified))
+                ? other.lastModified
+                : lastModified;
+        return new ResourceVersion(tag + "." + other.tag, latest);
+    }
+
+    /**
+     * @return weak entity tag, the representation is semantically (not byte-for-byte) identical for the same version
+     */
+    public String eTag() {
+        String millis = lastModified == null ? "0" : Long.toHexString(lastModified.toEpochMilli());
+        return "W/\"" + tag + "-" + millis + "\"";
+    }
+
+    /**
+     * Checks the conditional headers of the request against this validator and sets {@code ETag} and
+     * {@code Last-Modified} headers of the response. A controller should return {@code null} right away
+     * when {@code true} is returned, Spring then responds with {@code 304 Not Modified}.
+     *
+     * @param request the current request
+     * @return {@code true} if the client already holds the current representation
+     */
+    public boolean checkNotModified(WebRequest request) {
+        return request.checkNotModified(eTag(), lastModified == null ? -1 : lastModified.toEpochMilli());
+    }
+}
@@ -0,0 +1,90 @@
+package com.capgemini.wsb.fitnesstracker.http.internal;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.LocalDate;
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Registers compact binary encodings of the REST resources, negotiated by the {@code Accept} and
+ * {@code Content-Type} headers: CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}).
+ * <p>
+ * The binary mappers share the configuration of the JSON one, but write timestamps as epoch milliseconds,
+ * dates as epoch days and enums (e.g. {@code ActivityType}) as ordinals, ignoring the string formats declared
+ * for JSON. Spring MVC registers default CBOR and Smile converters (after the JSON one, so JSON stays the default
+ * representation) as soon as the formats are on the classpath, these are replaced in place by the tuned ones.
+ */
+@Configuration
+@RequiredArgsConstructor
+class BinaryEncodingConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        ObjectMapper cbor = binaryObjectMapper(objectMapperBuilders.getObject(), new CBORFactory());
+        ObjectMapper smile = binaryObjectMapper(objectMapperBuilders.getObject(), new SmileFactory());
+        converters.replaceAll(converter -> {
+            if (converter instanceof MappingJackson2CborHttpMessageConverter) {
+                return new MappingJackson2CborHttpMessageConverter(cbor);
+            }
+            if (converter instanceof MappingJackson2SmileHttpMessageConverter) {
+                return new MappingJackson2SmileHttpMessageConverter(smile);
+            }
+            return converter;
+        });
+    }
+
+    /**
+     * Builds the {@link ObjectMapper} of a binary encoding.
+     *
+     * @param builder builder carrying the application wide Jackson configuration
+     * @param factory factory of the binary format
+     * @return the configured mapper
+     */
+    static ObjectMapper binaryObjectMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .annotationIntrospector(new BinaryAnnotationIntrospector())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+    }
+
+    /**
+     * Replaces the {@link JsonFormat} of dates, times and enums with their numeric shapes.
+     */
+    static class BinaryAnnotationIntrospector extends JacksonAnnotationIntrospector {
+
+        private static final JsonFormat.Value NUMBER = JsonFormat.Value.forShape(JsonFormat.Shape.NUMBER);
+        private static final JsonFormat.Value NUMBER_INT = JsonFormat.Value.forShape(JsonFormat.Shape.NUMBER_INT);
+
+        @Override
+        public JsonFormat.Value findFormat(Annotated annotated) {
+            Class<?> type = annotated.getRawType();
+            if (type == LocalDate.class) {
+                return NUMBER_INT;
+            }
+            if (type.isEnum() || Date.class.isAssignableFrom(type) || Temporal.class.isAssignableFrom(type)) {
+                return NUMBER;
+            }
+            return super.findFormat(annotated);
+        }
+    }
+}
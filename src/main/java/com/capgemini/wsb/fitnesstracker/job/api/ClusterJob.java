@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.job.api;
+
+/**
+ * Job scheduled by a cron expression and executed by exactly one node of the cluster per scheduled run.
+ * <p>
+ * Implement {@link SingleNodeJob} or {@link PartitionedJob} and register the implementation as a bean.
+ */
+public interface ClusterJob {
+
+    /**
+     * Returns the name of the job, unique in the application, under which its lease is stored.
+     *
+     * @return the name of the job
+     */
+    String name();
+
+    /**
+     * Returns the Spring cron expression ({@code second minute hour day month weekday}) of the job,
+     * evaluated in the time zone of the server.
+     *
+     * @return the cron expression of the job
+     */
+    String cron();
+
+}
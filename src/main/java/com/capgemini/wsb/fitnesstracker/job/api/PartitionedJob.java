@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.job.api;
+
+/**
+ * {@link ClusterJob} processing users in ranges of user IDs, which are claimed and processed in parallel by all
+ * nodes of the cluster. The node holding the lease of the job only splits the work and completes the run.
+ */
+public interface PartitionedJob extends ClusterJob {
+
+    /**
+     * Returns the exclusive upper bound of the user IDs to process, the job processes the IDs from 0 below it.
+     *
+     * @return the exclusive upper bound of the user IDs
+     */
+    long userIdBound();
+
+    /**
+     * Returns the number of user IDs in a single range.
+     *
+     * @return the size of a range
+     */
+    int partitionSize();
+
+    /**
+     * Processes the users in the given range. A failed range is retried up to {@code job.max-attempts} times,
+     * so processing must tolerate being repeated.
+     *
+     * @param fromUserId the inclusive lower bound of the range
+     * @param toUserId   the exclusive upper bound of the range
+     */
+    void process(long fromUserId, long toUserId);
+
+    /**
+     * Called on the node holding the lease once all ranges of the run have been processed.
+     *
+     * @param failedPartitions the number of ranges which failed even after retries
+     */
+    default void completed(long failedPartitions) {
+    }
+
+}
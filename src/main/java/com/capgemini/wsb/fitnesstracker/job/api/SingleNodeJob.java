@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.job.api;
+
+/**
+ * {@link ClusterJob} run as a whole by the node holding its lease.
+ */
+public interface SingleNodeJob extends ClusterJob {
+
+    /**
+     * Runs the job. A failed run is not retried before the next scheduled run.
+     */
+    void run();
+
+}
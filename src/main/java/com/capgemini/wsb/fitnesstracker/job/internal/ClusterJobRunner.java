@@ -0,0 +1,268 @@
+package com.capgemini.wsb.fitnesstracker.job.internal;
+
+import com.capgemini.wsb.fitnesstracker.job.api.ClusterJob;
+import com.capgemini.wsb.fitnesstracker.job.api.PartitionedJob;
+import com.capgemini.wsb.fitnesstracker.job.api.SingleNodeJob;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the {@link ClusterJob} beans so that every scheduled run is executed by exactly one node of the cluster.
+ * <p>
+ * Each job has a row in the {@code job_leases} table. A single thread polls the table: a node takes the lease of a
+ * due job with a conditional update, so only one of the nodes succeeds, and extends its leases on every poll. A node
+ * which crashes stops extending them and its lease expires, letting another node take over.
+ * <ul>
+ *     <li>a {@link SingleNodeJob} is run by the lease holder, which then releases the lease with the next run time,</li>
+ *     <li>a {@link PartitionedJob} is split by the lease holder into ranges of user IDs in the {@code job_partitions}
+ *     table, which every node with a free worker claims and processes. The lease holder completes the run once no
+ *     range is pending. A new lease holder resumes the ranges left by a crashed one.</li>
+ * </ul>
+ * Jobs and ranges run on {@code job.workers} threads per node, a node with no free worker leaves the work to others.
+ */
+@Component
+@Slf4j
+class ClusterJobRunner {
+
+    private final Map<String, ClusterJob> jobs = new LinkedHashMap<>();
+    private final Map<String, CronExpression> schedules = new LinkedHashMap<>();
+    private final JobLeaseRepository leaseRepository;
+    private final JobPartitionRepository partitionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JobProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    private final Set<String> coordinating = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(daemon("job-poller"));
+    private final ExecutorService workers;
+
+    ClusterJobRunner(List<ClusterJob> jobs,
+                     JobLeaseRepository leaseRepository,
+                     JobPartitionRepository partitionRepository,
+                     TransactionTemplate transactionTemplate,
+                     JobProperties properties) {
+        for (ClusterJob job : jobs) {
+            if (this.jobs.putIfAbsent(job.name(), job) != null) {
+                throw new IllegalStateException("Duplicate job name " + job.name());
+            }
+            schedules.put(job.name(), CronExpression.parse(job.cron()));
+        }
+        this.leaseRepository = leaseRepository;
+        this.partitionRepository = partitionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.workers = Executors.newFixedThreadPool(properties.getWorkers(), daemon("job-worker"));
+    }
+
+    /**
+     * Creates the missing leases and starts polling.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Instant now = Instant.now();
+        for (String name : jobs.keySet()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> leaseRepository.register(name, nextRunAt(name, now)));
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Lease of job {} was created by another node", name);
+            }
+        }
+        log.info("Node {} runs jobs {}", nodeId, jobs.keySet());
+        long pollInterval = properties.getPollInterval().toMillis();
+        poller.scheduleWithFixedDelay(this::poll, 0, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the node and drops its leases and claims, so other nodes resume the work without waiting for expiry.
+     */
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+            transactionTemplate.executeWithoutResult(status -> {
+                leaseRepository.releaseAll(nodeId);
+                partitionRepository.releaseAll(nodeId);
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Leases of node {} could not be released, they expire in {}", nodeId, properties.getLeaseDuration(), e);
+        }
+    }
+
+    private void poll() {
+        try {
+            Instant now = Instant.now();
+            Instant lockedUntil = now.plus(properties.getLeaseDuration());
+            transactionTemplate.executeWithoutResult(status -> {
+                leaseRepository.renew(nodeId, lockedUntil);
+                partitionRepository.renew(nodeId, lockedUntil);
+            });
+            for (ClusterJob job : jobs.values()) {
+                if (running.contains(job.name()) || coordinating.contains(job.name()) || busyWorkers.get() >= properties.getWorkers()) {
+                    continue;
+                }
+                Integer acquired = transactionTemplate.execute(status -> leaseRepository.acquire(job.name(), nodeId, now, lockedUntil));
+                if (acquired != null && acquired == 1) {
+                    start(job);
+                }
+            }
+            completeFinishedJobs();
+            claimPartitions(now, lockedUntil);
+        } catch (RuntimeException e) {
+            log.error("Polling jobs failed", e);
+        }
+    }
+
+    private void start(ClusterJob job) {
+        if (job instanceof SingleNodeJob singleNodeJob) {
+            running.add(job.name());
+            submit(() -> {
+                try {
+                    log.info("Running job {}", job.name());
+                    singleNodeJob.run();
+                } catch (RuntimeException e) {
+                    log.error("Job {} failed", job.name(), e);
+                } finally {
+                    release(job.name());
+                    running.remove(job.name());
+                }
+            });
+        } else if (job instanceof PartitionedJob partitionedJob) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> split(partitionedJob));
+                coordinating.add(job.name());
+            } catch (RuntimeException e) {
+                log.error("Splitting job {} failed", job.name(), e);
+                release(job.name());
+            }
+        }
+    }
+
+    private void split(PartitionedJob job) {
+        if (partitionRepository.existsByJobName(job.name())) {
+            log.info("Resuming partitions of job {}", job.name());
+            return;
+        }
+        List<JobPartition> partitions = new ArrayList<>();
+        long bound = job.userIdBound();
+        for (long from = 0; from < bound; from += job.partitionSize()) {
+            partitions.add(new JobPartition(job.name(), from, Math.min(from + job.partitionSize(), bound)));
+        }
+        partitionRepository.saveAll(partitions);
+        log.info("Running job {} in {} partitions", job.name(), partitions.size());
+    }
+
+    private void completeFinishedJobs() {
+        for (String name : coordinating) {
+            if (partitionRepository.countByJobNameAndStatus(name, JobPartition.Status.PENDING) > 0) {
+                continue;
+            }
+            long failed = partitionRepository.countByJobNameAndStatus(name, JobPartition.Status.FAILED);
+            try {
+                ((PartitionedJob) jobs.get(name)).completed(failed);
+            } catch (RuntimeException e) {
+                log.error("Completing job {} failed", name, e);
+            }
+            transactionTemplate.executeWithoutResult(status -> partitionRepository.deleteByJobName(name));
+            release(name);
+            coordinating.remove(name);
+            log.info("Completed job {} with {} failed partitions", name, failed);
+        }
+    }
+
+    private void claimPartitions(Instant now, Instant lockedUntil) {
+        int free = properties.getWorkers() - busyWorkers.get();
+        if (free <= 0) {
+            return;
+        }
+        for (JobPartition partition : partitionRepository.findClaimable(jobs.keySet(), now, PageRequest.of(0, free))) {
+            Integer claimed = transactionTemplate.execute(status -> partitionRepository.claim(partition.getId(), nodeId, now, lockedUntil));
+            if (claimed != null && claimed == 1) {
+                submit(() -> process(partition));
+            }
+        }
+    }
+
+    private void process(JobPartition partition) {
+        PartitionedJob job = (PartitionedJob) jobs.get(partition.getJobName());
+        JobPartition.Status status = JobPartition.Status.DONE;
+        try {
+            job.process(partition.getFromId(), partition.getToId());
+        } catch (RuntimeException e) {
+            boolean retried = partition.getAttempts() + 1 < properties.getMaxAttempts();
+            log.error("Partition [{}, {}) of job {} failed{}", partition.getFromId(), partition.getToId(), job.name(),
+                      retried ? ", retrying" : ", giving up", e);
+            status = retried ? JobPartition.Status.PENDING : JobPartition.Status.FAILED;
+        }
+        String finished = status.name();
+        transactionTemplate.executeWithoutResult(tx -> partitionRepository.finish(partition.getId(), nodeId, finished));
+    }
+
+    private void submit(Runnable task) {
+        busyWorkers.incrementAndGet();
+        workers.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Job task failed", e);
+            } finally {
+                busyWorkers.decrementAndGet();
+            }
+        });
+    }
+
+    private void release(String name) {
+        Instant nextRunAt = nextRunAt(name, Instant.now());
+        Integer released = transactionTemplate.execute(status -> leaseRepository.release(name, nodeId, nextRunAt));
+        if (released == null || released == 0) {
+            log.warn("Lease of job {} expired before the run completed", name);
+        }
+    }
+
+    private Instant nextRunAt(String name, Instant after) {
+        ZonedDateTime next = schedules.get(name).next(after.atZone(ZoneId.systemDefault()));
+        if (next == null) {
+            throw new IllegalStateException("Job " + name + " has no next run");
+        }
+        return next.toInstant();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.capgemini.wsb.fitnesstracker.job.internal;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Lease of a {@link com.capgemini.wsb.fitnesstracker.job.api.ClusterJob}, held by the node running the job
+ * until {@code lockedUntil}. The lease is taken with a conditional update once {@code nextRunAt} has passed.
+ */
+@Entity
+@Table(name = "job_leases")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class JobLease {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Nullable
+    @Column(name = "owner", length = 36)
+    private String owner;
+
+    @Nullable
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "next_run_at", nullable = false)
+    private Instant nextRunAt;
+
+}
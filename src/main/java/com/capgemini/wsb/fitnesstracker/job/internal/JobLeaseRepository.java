@@ -0,0 +1,81 @@
+package com.capgemini.wsb.fitnesstracker.job.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+/**
+ * Repository interface for managing {@link JobLease} entities.
+ */
+interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Creates the lease of a job, unless another node has already created it.
+     *
+     * @param name      the name of the job
+     * @param nextRunAt the time of the first run
+     * @return number of written rows
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO job_leases (name, next_run_at)
+            SELECT CAST(:name AS VARCHAR), CAST(:nextRunAt AS TIMESTAMP WITH TIME ZONE)
+            WHERE NOT EXISTS (SELECT 1 FROM job_leases WHERE name = :name)
+            """, nativeQuery = true)
+    int register(String name, Instant nextRunAt);
+
+    /**
+     * Takes the lease of a job if its run is due and no other node holds the lease.
+     *
+     * @param name        the name of the job
+     * @param owner       the ID of the node
+     * @param now         the current time
+     * @param lockedUntil the expiry of the lease
+     * @return 1 if the lease was taken, otherwise 0
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE job_leases SET owner = :owner, locked_until = :lockedUntil
+            WHERE name = :name AND next_run_at <= :now AND (locked_until IS NULL OR locked_until < :now)
+            """, nativeQuery = true)
+    int acquire(String name, String owner, Instant now, Instant lockedUntil);
+
+    /**
+     * Extends all leases held by a node.
+     *
+     * @param owner       the ID of the node
+     * @param lockedUntil the new expiry of the leases
+     * @return number of extended leases
+     */
+    @Modifying
+    @Query(value = "UPDATE job_leases SET locked_until = :lockedUntil WHERE owner = :owner", nativeQuery = true)
+    int renew(String owner, Instant lockedUntil);
+
+    /**
+     * Releases the lease of a job held by a node and schedules the next run.
+     *
+     * @param name      the name of the job
+     * @param owner     the ID of the node
+     * @param nextRunAt the time of the next run
+     * @return 1 if the node still held the lease, otherwise 0
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE job_leases SET owner = NULL, locked_until = NULL, next_run_at = :nextRunAt
+            WHERE name = :name AND owner = :owner
+            """, nativeQuery = true)
+    int release(String name, String owner, Instant nextRunAt);
+
+    /**
+     * Releases all leases held by a node without changing the time of their runs, so another node resumes them.
+     *
+     * @param owner the ID of the node
+     * @return number of released leases
+     */
+    @Modifying
+    @Query(value = "UPDATE job_leases SET owner = NULL, locked_until = NULL WHERE owner = :owner", nativeQuery = true)
+    int releaseAll(String owner);
+
+}
@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.job.internal;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Range of user IDs of a running {@link com.capgemini.wsb.fitnesstracker.job.api.PartitionedJob}, claimed by
+ * the node processing it until {@code lockedUntil}.
+ */
+@Entity
+@Table(name = "job_partitions", indexes = @Index(name = "idx_job_partitions_job_name", columnList = "job_name"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class JobPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "from_id", nullable = false)
+    private long fromId;
+
+    @Column(name = "to_id", nullable = false)
+    private long toId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 10)
+    private Status status;
+
+    @Nullable
+    @Column(name = "owner", length = 36)
+    private String owner;
+
+    @Nullable
+    @Column(name = "locked_until")
+    private Instant lockedUntil;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    JobPartition(String jobName, long fromId, long toId) {
+        this.jobName = jobName;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.status = Status.PENDING;
+    }
+
+    enum Status {
+        PENDING, DONE, FAILED
+    }
+}
@@ -0,0 +1,98 @@
+package com.capgemini.wsb.fitnesstracker.job.internal;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link JobPartition} entities.
+ */
+interface JobPartitionRepository extends JpaRepository<JobPartition, Long> {
+
+    /**
+     * Finds pending partitions of the given jobs which are not claimed by any node, or whose claim expired.
+     *
+     * @param jobNames the names of the jobs known to the node
+     * @param now      the current time
+     * @param pageable the maximal number of partitions
+     * @return the claimable partitions, oldest first
+     */
+    @Query("""
+            SELECT p FROM JobPartition p
+            WHERE p.jobName IN :jobNames AND p.status = 'PENDING' AND (p.lockedUntil IS NULL OR p.lockedUntil < :now)
+            ORDER BY p.id
+            """)
+    List<JobPartition> findClaimable(Collection<String> jobNames, Instant now, Pageable pageable);
+
+    /**
+     * Claims a partition for a node, unless another node claimed it in the meantime.
+     *
+     * @param id          the ID of the partition
+     * @param owner       the ID of the node
+     * @param now         the current time
+     * @param lockedUntil the expiry of the claim
+     * @return 1 if the partition was claimed, otherwise 0
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE job_partitions SET owner = :owner, locked_until = :lockedUntil, attempts = attempts + 1
+            WHERE id = :id AND status = 'PENDING' AND (locked_until IS NULL OR locked_until < :now)
+            """, nativeQuery = true)
+    int claim(long id, String owner, Instant now, Instant lockedUntil);
+
+    /**
+     * Extends all claims of a node.
+     *
+     * @param owner       the ID of the node
+     * @param lockedUntil the new expiry of the claims
+     * @return number of extended claims
+     */
+    @Modifying
+    @Query(value = "UPDATE job_partitions SET locked_until = :lockedUntil WHERE owner = :owner AND status = 'PENDING'", nativeQuery = true)
+    int renew(String owner, Instant lockedUntil);
+
+    /**
+     * Sets the status of a partition claimed by a node and drops the claim, a pending partition can be claimed again.
+     *
+     * @param id     the ID of the partition
+     * @param owner  the ID of the node
+     * @param status the new status
+     * @return 1 if the node still held the claim, otherwise 0
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE job_partitions SET status = :status, owner = NULL, locked_until = NULL
+            WHERE id = :id AND owner = :owner
+            """, nativeQuery = true)
+    int finish(long id, String owner, String status);
+
+    /**
+     * Drops all claims of a node, so other nodes can claim the partitions.
+     *
+     * @param owner the ID of the node
+     * @return number of dropped claims
+     */
+    @Modifying
+    @Query(value = "UPDATE job_partitions SET owner = NULL, locked_until = NULL WHERE owner = :owner", nativeQuery = true)
+    int releaseAll(String owner);
+
+    boolean existsByJobName(String jobName);
+
+    long countByJobNameAndStatus(String jobName, JobPartition.Status status);
+
+    /**
+     * Deletes all partitions of a job.
+     *
+     * @param jobName the name of the job
+     * @return number of deleted partitions
+     */
+    @Modifying
+    @Query("DELETE FROM JobPartition p WHERE p.jobName = :jobName")
+    int deleteByJobName(String jobName);
+
+}
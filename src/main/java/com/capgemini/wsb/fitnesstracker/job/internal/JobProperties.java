@@ -0,0 +1,46 @@
+package com.capgemini.wsb.fitnesstracker.job.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the cluster-safe job runner.
+ */
+@ConfigurationProperties(prefix = "job")
+@Getter
+class JobProperties {
+
+    /**
+     * Interval in which a node takes due jobs, claims partitions and extends its leases.
+     */
+    private final Duration pollInterval;
+
+    /**
+     * Time after which the lease or claim of a node which stopped extending it (e.g. crashed) expires.
+     */
+    private final Duration leaseDuration;
+
+    /**
+     * Number of jobs and partitions a node runs in parallel.
+     */
+    private final int workers;
+
+    /**
+     * Number of attempts after which a failing partition is given up.
+     */
+    private final int maxAttempts;
+
+    JobProperties(@DefaultValue("5s") Duration pollInterval,
+                  @DefaultValue("1m") Duration leaseDuration,
+                  @DefaultValue("2") int workers,
+                  @DefaultValue("3") int maxAttempts) {
+        this.pollInterval = pollInterval;
+        this.leaseDuration = leaseDuration;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.journal.api;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * A committed change of a training, as recorded by the {@link TrainingJournal}. Published once it has been appended.
+ *
+ * @param sequence   the position of the change in the journal, shared by all nodes, following the order of the commits without gaps
+ * @param recordedAt when the change was recorded in its transaction (millisecond precision)
+ * @param previous   the state of the training before the change, {@code null} when the training was created
+ * @param current    the state of the training after the change, {@code null} when the training was deleted
+ */
+public record JournalEntry(long sequence, Instant recordedAt, @Nullable TrainingSnapshot previous, @Nullable TrainingSnapshot current) {
+
+    /**
+     * Retrieves the change as the event it was recorded from.
+     *
+     * @return the {@link TrainingChangedEvent} describing the change
+     */
+    public TrainingChangedEvent toEvent() {
+        return new TrainingChangedEvent(previous, current);
+    }
+}
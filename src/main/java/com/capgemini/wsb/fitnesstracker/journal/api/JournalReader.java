@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.journal.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Sequential reader of the {@link TrainingJournal}, reading the segment files through memory mappings.
+ * A reader is not thread-safe and has to be closed.
+ */
+public interface JournalReader extends AutoCloseable {
+
+    /**
+     * Reads the next entry.
+     *
+     * @return the next entry, or {@code null} once the entries recorded when the reader was opened have been read
+     * @throws IllegalStateException if the record of the entry is corrupted
+     */
+    @Nullable
+    JournalEntry next();
+
+    @Override
+    void close();
+
+}
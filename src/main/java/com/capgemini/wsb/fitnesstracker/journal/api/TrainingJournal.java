@@ -0,0 +1,64 @@
+package com.capgemini.wsb.fitnesstracker.journal.api;
+
+import java.util.function.Consumer;
+
+/**
+ * Interface (API) for replaying the append-only journal of the committed changes of trainings, e.g. to rebuild
+ * derived data without scanning the {@code trainings} table. The changes are recorded in the database by the
+ * transactions changing the trainings, so their sequences are shared by all nodes and follow the order of the
+ * commits. Every node appends them to a journal kept in local files, right after the commit of its own changes and
+ * periodically for the changes of the other nodes, and publishes every appended change as a {@link JournalEntry}
+ * event, in the order of the sequences.
+ * <p>
+ * Only the changes of single trainings are recorded: purging the data of a user deletes their trainings without
+ * journal entries, so the followers of the journal drop the data of the user themselves.
+ */
+public interface TrainingJournal {
+
+    /**
+     * Retrieves the sequence of the last recorded change.
+     *
+     * @return the sequence of the last entry, {@code 0} if the journal is empty
+     */
+    long getLastSequence();
+
+    /**
+     * Retrieves the sequence of the last change committed to the database, which the journal of the node may not
+     * have appended yet. Read in the transaction scanning the trainings, with an isolation level giving it a
+     * consistent snapshot, the scan sees exactly the changes up to this sequence.
+     *
+     * @return the sequence of the last committed change, {@code 0} if there has been none
+     */
+    long getCommittedSequence();
+
+    /**
+     * Retrieves the sequence of the first change held by the journal, which starts after the last recorded change
+     * when the changes it misses are no longer held by the database.
+     *
+     * @return the sequence of the first entry, {@link #getLastSequence()} {@code + 1} if the journal is empty
+     */
+    long getFirstSequence();
+
+    /**
+     * Opens a reader of the entries recorded so far.
+     *
+     * @param fromSequence the sequence of the first entry to be read
+     * @return a reader returning the entries in the order of their sequence
+     * @throws IllegalArgumentException if the sequence is not positive
+     * @throws IllegalStateException    if the sequence precedes the {@link #getFirstSequence() first entry}
+     */
+    JournalReader read(long fromSequence);
+
+    /**
+     * Reads the entries recorded so far while holding back the appends, so that a listener of the {@link JournalEntry}
+     * events catching up with the journal sees every later change exactly once.
+     *
+     * @param fromSequence the sequence of the first entry to be read
+     * @param consumer     the consumer of the entries, called in the order of their sequence
+     * @return the sequence of the last entry of the journal, {@code 0} if the journal is empty
+     * @throws IllegalArgumentException if the sequence is not positive
+     * @throws IllegalStateException    if the sequence precedes the {@link #getFirstSequence() first entry}
+     */
+    long replay(long fromSequence, Consumer<JournalEntry> consumer);
+
+}
@@ -0,0 +1,37 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Change of a training recorded by the {@link JournalOutbox} in the transaction which changes the training, with
+ * the next sequence of the {@link JournalHead}. The journal of every node appends the changes in the order of their
+ * sequence; they are removed after {@code journal.retention}.
+ */
+@Entity
+@Table(name = "training_journal_changes",
+        indexes = @Index(name = "idx_training_journal_changes_recorded_at", columnList = "recorded_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class JournalChange {
+
+    @Id
+    @Column(name = "sequence")
+    private Long sequence;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    /**
+     * The previous and the current state of the training (see {@link JournalRecord#encodeChange}).
+     */
+    @Column(name = "change_record", nullable = false, length = JournalRecord.CHANGE_SIZE)
+    private byte[] changeRecord;
+
+}
@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+
+/**
+ * Keeps the journal of the training changes (see {@link MappedTrainingJournal}), which the derived state restored
+ * from snapshots follows.
+ */
+@Configuration
+@EnableConfigurationProperties(JournalProperties.class)
+class JournalConfig {
+
+    @Bean
+    MappedTrainingJournal trainingJournal(JournalProperties properties, ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate) throws IOException {
+        int segmentCapacity = (int) Math.min(Integer.MAX_VALUE / JournalRecord.SIZE, properties.getSegmentSize().toBytes() / JournalRecord.SIZE);
+        return new MappedTrainingJournal(properties.getDirectory(), segmentCapacity, properties.getSyncInterval(), eventPublisher,
+                                         () -> JournalOutbox.readHead(jdbcTemplate));
+    }
+}
@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * The single row holding the sequence of the last {@link JournalChange}. Incrementing it locks the row until the
+ * transaction of the change commits, so the sequences follow the order of the commits, without gaps.
+ */
+@Entity
+@Table(name = "training_journal_head")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class JournalHead {
+
+    static final long ID = 1;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+}
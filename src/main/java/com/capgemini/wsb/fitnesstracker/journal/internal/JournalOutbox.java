@@ -0,0 +1,191 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the changes of the trainings as {@link JournalChange}s in the transactions changing them, and appends the
+ * committed ones to the {@link MappedTrainingJournal} of the node, so a change is journaled by every node even if the
+ * node committing it crashes right after the commit.
+ * <p>
+ * A change takes the next sequence of the {@link JournalHead} right before its transaction commits, once the
+ * changed rows have been flushed and locked, and holds the lock of the head until the commit. The sequences thereby
+ * follow the order of the commits without gaps, at the cost of serializing the commits of the training changes.
+ * <p>
+ * The journal appends the changes following its last sequence after every commit of the node, every
+ * {@code journal.poll-interval} for the changes of the other nodes, and on startup for the changes committed while
+ * the node was stopped. It is {@link MappedTrainingJournal#restart restarted} when the changes it misses have been
+ * removed after {@code journal.retention}, or when it is ahead of the database, which has been created anew.
+ */
+@Component
+@Slf4j
+class JournalOutbox implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INCREMENT_HEAD = "UPDATE training_journal_head SET last_sequence = last_sequence + 1 WHERE id = ?";
+    private static final String INSERT_HEAD = "INSERT INTO training_journal_head (id, last_sequence) VALUES (?, ?)";
+    private static final String SELECT_HEAD = "SELECT last_sequence FROM training_journal_head WHERE id = ?";
+    private static final String INSERT_CHANGE = "INSERT INTO training_journal_changes (sequence, recorded_at, change_record) VALUES (?, ?, ?)";
+    private static final String SELECT_CHANGES = """
+            SELECT sequence, recorded_at, change_record FROM training_journal_changes
+            WHERE sequence > ? ORDER BY sequence LIMIT ?
+            """;
+    private static final String DELETE_EXPIRED = "DELETE FROM training_journal_changes WHERE recorded_at < ?";
+
+    private static final RowMapper<JournalEntry> CHANGE_MAPPER = (resultSet, rowNum) ->
+            JournalRecord.decodeChange(resultSet.getLong("sequence"),
+                                       resultSet.getTimestamp("recorded_at").toInstant(),
+                                       resultSet.getBytes("change_record"));
+
+    private final MappedTrainingJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readTemplate;
+    private final JournalProperties properties;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    JournalOutbox(MappedTrainingJournal journal,
+                  JdbcTemplate jdbcTemplate,
+                  PlatformTransactionManager transactionManager,
+                  JournalProperties properties) {
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        // reads follow the commit of the change, still bound to its (completed) transaction
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    /**
+     * Creates the head of the sequences, appends the changes committed while the node was stopped and starts
+     * polling, once the schema exists and before the application accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            jdbcTemplate.update(INSERT_HEAD, JournalHead.ID, 0L);
+        } catch (DuplicateKeyException e) {
+            // created by an earlier start or by another node
+        }
+        follow();
+        long intervalMillis = properties.getPollInterval().toMillis();
+        poller.scheduleWithFixedDelay(this::poll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Records the change of a training with the next sequence, right before its transaction commits.
+     *
+     * @param event the event describing the change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // the changed rows are locked before the head, so a transaction holding the head never waits for them
+            entityManager.flush();
+            if (jdbcTemplate.update(INCREMENT_HEAD, JournalHead.ID) == 0) {
+                jdbcTemplate.update(INSERT_HEAD, JournalHead.ID, 1L);
+            }
+            Long sequence = jdbcTemplate.queryForObject(SELECT_HEAD, Long.class, JournalHead.ID);
+            jdbcTemplate.update(INSERT_CHANGE, sequence, Timestamp.from(Instant.ofEpochMilli(System.currentTimeMillis())),
+                                JournalRecord.encodeChange(event.previous(), event.current()));
+        });
+    }
+
+    /**
+     * Appends the committed change of a training, with the changes committed before it by other nodes.
+     *
+     * @param event the event describing the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingChangeCommitted(TrainingChangedEvent event) {
+        try {
+            follow();
+        } catch (DataAccessException e) {
+            log.warn("Committed changes of trainings were not journaled, they will be with the next poll", e);
+        }
+    }
+
+    /**
+     * Appends the changes recorded after the last sequence of the journal.
+     */
+    synchronized void follow() {
+        List<JournalEntry> changes;
+        do {
+            long lastSequence = journal.getLastSequence();
+            changes = readTemplate.execute(status -> jdbcTemplate.query(SELECT_CHANGES, CHANGE_MAPPER, lastSequence, BATCH_SIZE));
+            if (changes.isEmpty()) {
+                Long head = readTemplate.execute(status -> readHead(jdbcTemplate));
+                if (head < lastSequence) {
+                    log.warn("Journal ends at sequence {} after the last recorded change {}, the database has been created anew", lastSequence, head);
+                    journal.restart(head);
+                }
+            } else if (changes.get(0).sequence() != lastSequence + 1) {
+                log.error("Changes {} to {} are no longer recorded, the journal misses them", lastSequence + 1, changes.get(0).sequence() - 1);
+                journal.restart(changes.get(0).sequence() - 1);
+            }
+            changes.forEach(journal::append);
+        } while (changes.size() == BATCH_SIZE);
+    }
+
+    /**
+     * Reads the sequence of the last committed change, as seen by the current transaction.
+     *
+     * @param jdbcTemplate the template of the database
+     * @return the sequence of the last recorded change, {@code 0} if there has been none
+     */
+    static long readHead(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList(SELECT_HEAD, Long.class, JournalHead.ID).stream().findFirst().orElse(0L);
+    }
+
+    /**
+     * Appends the changes committed by other nodes and removes the expired ones.
+     */
+    private void poll() {
+        try {
+            follow();
+            int expired = jdbcTemplate.update(DELETE_EXPIRED, Timestamp.from(Instant.now().minus(properties.getRetention())));
+            if (expired > 0) {
+                log.debug("Removed {} recorded changes of trainings older than {}", expired, properties.getRetention());
+            }
+        } catch (RuntimeException e) {
+            log.error("Recorded changes of trainings could not be journaled", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the training journal.
+ */
+@ConfigurationProperties(prefix = "journal")
+@Getter
+class JournalProperties {
+
+    /**
+     * Directory of the segment files, which only one application can use at a time.
+     */
+    private final Path directory;
+
+    /**
+     * Size of a new segment file, rounded down to whole records.
+     */
+    private final DataSize segmentSize;
+
+    /**
+     * Interval at which the appended records are forced to the storage device.
+     */
+    private final Duration syncInterval;
+
+    /**
+     * Interval at which the changes committed by the other nodes are appended.
+     */
+    private final Duration pollInterval;
+
+    /**
+     * How long the recorded changes are kept in the database, for the nodes which are stopped or lagging behind to
+     * append them.
+     */
+    private final Duration retention;
+
+    JournalProperties(@DefaultValue("journal") Path directory,
+                      @DefaultValue("8MB") DataSize segmentSize,
+                      @DefaultValue("1s") Duration syncInterval,
+                      @DefaultValue("1s") Duration pollInterval,
+                      @DefaultValue("1d") Duration retention) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncInterval = syncInterval;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of the journal records. Records have a fixed size, so the position of a record in its segment
+ * follows from its sequence. The values are little-endian (the buffers have to be ordered accordingly):
+ * <pre>
+ *   0  int      CRC32C of bytes 4 to 135
+ *   4  byte     kind: 0 no record, 1 created, 2 updated, 3 deleted
+ *   8  long     sequence
+ *  16  long     recording time (epoch milliseconds)
+ *  24  56 bytes previous state of the training, zeros when created
+ *  80  56 bytes current state of the training, zeros when deleted
+ * </pre>
+ * A state holds the ID of the training and of its user, its start and end time (epoch milliseconds), its distance
+ * and average speed (8 bytes each), its burned calories (4 bytes) and the ordinal of its activity type (1 byte).
+ * <p>
+ * The changes held by the {@link JournalChange outbox} are encoded as the kind (1 byte) followed by the previous
+ * and the current state, in the same layout.
+ */
+final class JournalRecord {
+
+    static final int SIZE = 136;
+
+    private static final int KIND = 4;
+    private static final int SEQUENCE = 8;
+    private static final int RECORDED_AT = 16;
+    private static final int PREVIOUS = 24;
+    private static final int CURRENT = 80;
+    private static final int STATE_SIZE = 56;
+
+    static final int CHANGE_SIZE = 1 + 2 * STATE_SIZE;
+
+    private static final byte CREATED = 1;
+    private static final byte UPDATED = 2;
+    private static final byte DELETED = 3;
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+
+    private JournalRecord() {
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param buffer     the buffer of the segment
+     * @param position   the position of the record in the buffer
+     * @param sequence   the sequence of the record
+     * @param recordedAt the recording time
+     * @param previous   the state of the training before the change, {@code null} when the training was created
+     * @param current    the state of the training after the change, {@code null} when the training was deleted
+     */
+    static void write(ByteBuffer buffer, int position, long sequence, Instant recordedAt,
+                      @Nullable TrainingSnapshot previous, @Nullable TrainingSnapshot current) {
+        if (previous == null && current == null) {
+            throw new IllegalArgumentException("A change needs a previous or a current state");
+        }
+        buffer.put(position + KIND, previous == null ? CREATED : current == null ? DELETED : UPDATED);
+        buffer.put(position + KIND + 1, new byte[SEQUENCE - KIND - 1]);
+        buffer.putLong(position + SEQUENCE, sequence);
+        buffer.putLong(position + RECORDED_AT, recordedAt.toEpochMilli());
+        writeState(buffer, position + PREVIOUS, previous);
+        writeState(buffer, position + CURRENT, current);
+        buffer.putInt(position, checksum(buffer, position));
+    }
+
+    /**
+     * Tells whether any byte of a record has been written at the given position, e.g. before a crash.
+     *
+     * @param buffer   the buffer of the segment
+     * @param position the position of the record in the buffer
+     * @return {@code false} if the space of the record is still empty
+     */
+    static boolean isPresent(ByteBuffer buffer, int position) {
+        for (int offset = 0; offset < SIZE; offset += Long.BYTES) {
+            if (buffer.getLong(position + offset) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether the record at the given position has been completely written with the expected sequence.
+     *
+     * @param buffer   the buffer of the segment
+     * @param position the position of the record in the buffer
+     * @param sequence the expected sequence
+     * @return {@code true} if the kind, the sequence and the checksum of the record are valid
+     */
+    static boolean isValid(ByteBuffer buffer, int position, long sequence) {
+        byte kind = buffer.get(position + KIND);
+        return kind >= CREATED && kind <= DELETED
+                && buffer.getLong(position + SEQUENCE) == sequence
+                && buffer.getInt(position) == checksum(buffer, position);
+    }
+
+    /**
+     * Reads a {@link #isValid valid} record.
+     *
+     * @param buffer   the buffer of the segment
+     * @param position the position of the record in the buffer
+     * @return the entry held by the record
+     */
+    static JournalEntry read(ByteBuffer buffer, int position) {
+        byte kind = buffer.get(position + KIND);
+        return new JournalEntry(buffer.getLong(position + SEQUENCE),
+                                Instant.ofEpochMilli(buffer.getLong(position + RECORDED_AT)),
+                                kind == CREATED ? null : readState(buffer, position + PREVIOUS),
+                                kind == DELETED ? null : readState(buffer, position + CURRENT));
+    }
+
+    /**
+     * Clears a record which has not been completely written.
+     *
+     * @param buffer   the buffer of the segment
+     * @param position the position of the record in the buffer
+     */
+    static void clear(ByteBuffer buffer, int position) {
+        buffer.put(position, new byte[SIZE]);
+    }
+
+    private static void writeState(ByteBuffer buffer, int position, @Nullable TrainingSnapshot state) {
+        if (state == null) {
+            buffer.put(position, new byte[STATE_SIZE]);
+            return;
+        }
+        buffer.putLong(position, state.id());
+        buffer.putLong(position + 8, state.userId());
+        buffer.putLong(position + 16, state.startTime().toEpochMilli());
+        buffer.putLong(position + 24, state.endTime().toEpochMilli());
+        buffer.putDouble(position + 32, state.distance());
+        buffer.putDouble(position + 40, state.averageSpeed());
+        buffer.putInt(position + 48, state.caloriesBurned());
+        buffer.put(position + 52, (byte) state.activityType().ordinal());
+        buffer.put(position + 53, new byte[3]);
+    }
+
+    private static TrainingSnapshot readState(ByteBuffer buffer, int position) {
+        return new TrainingSnapshot(buffer.getLong(position),
+                                    buffer.getLong(position + 8),
+                                    Instant.ofEpochMilli(buffer.getLong(position + 16)),
+                                    Instant.ofEpochMilli(buffer.getLong(position + 24)),
+                                    ACTIVITY_TYPES[buffer.get(position + 52)],
+                                    buffer.getDouble(position + 32),
+                                    buffer.getDouble(position + 40),
+                                    buffer.getInt(position + 48));
+    }
+
+    /**
+     * Encodes a change for the {@link JournalChange outbox}.
+     *
+     * @param previous the state of the training before the change, {@code null} when the training was created
+     * @param current  the state of the training after the change, {@code null} when the training was deleted
+     * @return the {@link #CHANGE_SIZE} bytes of the change
+     */
+    static byte[] encodeChange(@Nullable TrainingSnapshot previous, @Nullable TrainingSnapshot current) {
+        if (previous == null && current == null) {
+            throw new IllegalArgumentException("A change needs a previous or a current state");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(CHANGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(0, previous == null ? CREATED : current == null ? DELETED : UPDATED);
+        writeState(buffer, 1, previous);
+        writeState(buffer, 1 + STATE_SIZE, current);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a change {@link #encodeChange encoded} for the {@link JournalChange outbox}.
+     *
+     * @param sequence   the sequence of the change
+     * @param recordedAt the recording time
+     * @param change     the encoded change
+     * @return the entry of the change
+     */
+    static JournalEntry decodeChange(long sequence, Instant recordedAt, byte[] change) {
+        if (change.length != CHANGE_SIZE) {
+            throw new IllegalArgumentException("A change has %d bytes, not %d".formatted(CHANGE_SIZE, change.length));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(change).order(ByteOrder.LITTLE_ENDIAN);
+        byte kind = buffer.get(0);
+        return new JournalEntry(sequence,
+                                recordedAt,
+                                kind == CREATED ? null : readState(buffer, 1),
+                                kind == DELETED ? null : readState(buffer, 1 + STATE_SIZE));
+    }
+
+    private static int checksum(ByteBuffer buffer, int position) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position + KIND, SIZE - KIND));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,131 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A segment file of the journal mapped into memory, holding the records from {@code firstSequence} on.
+ * The file is named after its first sequence, so the segments sort by name.
+ */
+final class JournalSegment {
+
+    static final String SUFFIX = ".journal";
+
+    private final Path file;
+    private final long firstSequence;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+
+    private JournalSegment(Path file, long firstSequence, int capacity, MappedByteBuffer buffer) {
+        this.file = file;
+        this.firstSequence = firstSequence;
+        this.capacity = capacity;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Maps a segment to be written, creating its file with room for the given number of records if needed.
+     *
+     * @param directory     the directory of the journal
+     * @param firstSequence the sequence of the first record of the segment
+     * @param capacity      the number of records of a new segment
+     * @return the mapped segment
+     * @throws IOException if the file cannot be created or mapped
+     */
+    static JournalSegment openForWriting(Path directory, long firstSequence, int capacity) throws IOException {
+        Path file = directory.resolve(fileName(firstSequence));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int records = channel.size() > 0 ? (int) (channel.size() / JournalRecord.SIZE) : capacity;
+            return new JournalSegment(file, firstSequence, records,
+                                      channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * JournalRecord.SIZE));
+        }
+    }
+
+    /**
+     * Maps an existing segment to be read.
+     *
+     * @param file the file of the segment
+     * @return the mapped segment
+     * @throws IOException if the file cannot be mapped
+     */
+    static JournalSegment openForReading(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int records = (int) (channel.size() / JournalRecord.SIZE);
+            return new JournalSegment(file, firstSequence(file), records,
+                                      channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) records * JournalRecord.SIZE));
+        }
+    }
+
+    /**
+     * Tells whether a file is a segment.
+     *
+     * @param file the file
+     * @return {@code true} if the file is named like a segment
+     */
+    static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.length() == 20 + SUFFIX.length() && name.endsWith(SUFFIX) && name.chars().limit(20).allMatch(Character::isDigit);
+    }
+
+    /**
+     * Retrieves the first sequence of a segment from the name of its file.
+     *
+     * @param file the file of the segment
+     * @return the sequence of the first record of the segment
+     */
+    static long firstSequence(Path file) {
+        return Long.parseLong(file.getFileName().toString().substring(0, 20));
+    }
+
+    private static String fileName(long firstSequence) {
+        return "%020d%s".formatted(firstSequence, SUFFIX);
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Tells whether the record of a sequence belongs to this segment.
+     *
+     * @param sequence the sequence of the record
+     * @return {@code true} if the segment has room for the record
+     */
+    boolean contains(long sequence) {
+        return sequence >= firstSequence && sequence - firstSequence < capacity;
+    }
+
+    /**
+     * Retrieves the position of the record of a sequence belonging to this segment.
+     *
+     * @param sequence the sequence of the record
+     * @return the position of the record in the buffer
+     */
+    int position(long sequence) {
+        return (int) (sequence - firstSequence) * JournalRecord.SIZE;
+    }
+
+    /**
+     * Writes the modified records to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+}
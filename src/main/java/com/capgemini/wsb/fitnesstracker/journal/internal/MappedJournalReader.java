@@ -0,0 +1,71 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalReader;
+import jakarta.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * {@link JournalReader} mapping the segments read-only one after another, so the records are decoded straight from
+ * the page cache. It reads up to the last record appended when it was opened; records are only published once
+ * completely written, so they can be read while the journal is appended to.
+ */
+class MappedJournalReader implements JournalReader {
+
+    private final NavigableMap<Long, Path> segments;
+    private final long lastSequence;
+    private long nextSequence;
+
+    @Nullable
+    private JournalSegment segment;
+
+    MappedJournalReader(NavigableMap<Long, Path> segments, long fromSequence, long lastSequence) {
+        this.segments = segments;
+        this.lastSequence = lastSequence;
+        this.nextSequence = fromSequence;
+    }
+
+    @Override
+    @Nullable
+    public JournalEntry next() {
+        if (nextSequence > lastSequence) {
+            return null;
+        }
+        if (segment == null || !segment.contains(nextSequence)) {
+            segment = open(nextSequence);
+        }
+        int position = segment.position(nextSequence);
+        if (!JournalRecord.isValid(segment.buffer(), position, nextSequence)) {
+            throw new IllegalStateException("Corrupted record %d in journal segment %s".formatted(nextSequence, segment.file()));
+        }
+        nextSequence++;
+        return JournalRecord.read(segment.buffer(), position);
+    }
+
+    @Override
+    public void close() {
+        segment = null;
+        nextSequence = lastSequence + 1;
+    }
+
+    private JournalSegment open(long sequence) {
+        Map.Entry<Long, Path> entry = segments.floorEntry(sequence);
+        if (entry == null) {
+            throw new IllegalStateException("No journal segment holds record " + sequence);
+        }
+        try {
+            JournalSegment opened = JournalSegment.openForReading(entry.getValue());
+            if (!opened.contains(sequence)) {
+                throw new IllegalStateException("Journal segment %s ends before record %d".formatted(entry.getValue(), sequence));
+            }
+            return opened;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read journal segment " + entry.getValue(), e);
+        }
+    }
+}
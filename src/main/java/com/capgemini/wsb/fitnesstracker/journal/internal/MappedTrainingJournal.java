@@ -0,0 +1,255 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalReader;
+import com.capgemini.wsb.fitnesstracker.journal.api.TrainingJournal;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link TrainingJournal} appending the changes followed by the {@link JournalOutbox} as fixed-size
+ * {@link JournalRecord}s to memory-mapped {@link JournalSegment segment files}. A new segment is started once the
+ * current one is full. Appending copies the record into the mapping; the records are forced to the storage device
+ * every {@code journal.sync-interval}, when a segment is full and when the application stops.
+ * <p>
+ * The directory is locked by the running application. When it is opened again, the records of the last segment are
+ * checked in order and the journal continues after the last complete one, clearing a record torn by a crash; the
+ * outbox appends the changes committed meanwhile again. The journal is {@link #restart restarted} when it cannot
+ * follow the outbox any more.
+ * <p>
+ * Every appended change is published as a {@link JournalEntry} event before the next one is appended, so the
+ * listeners see the changes in the order of their sequence.
+ */
+@Slf4j
+class MappedTrainingJournal implements TrainingJournal {
+
+    private static final String LOCK_FILE = "journal.lock";
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LongSupplier committedSequence;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Nullable
+    private JournalSegment currentSegment;
+    private volatile long lastSequence;
+
+    /**
+     * Opens the journal held by a directory, creating it if needed.
+     *
+     * @param directory         the directory of the segment files
+     * @param segmentCapacity   the number of records of a new segment
+     * @param syncInterval      the interval at which the records are forced to the storage device
+     * @param eventPublisher    the publisher of the appended entries
+     * @param committedSequence the reader of the sequence of the last change committed to the database
+     * @throws IOException           if the directory cannot be read or written
+     * @throws IllegalStateException if another application holds the directory
+     */
+    MappedTrainingJournal(Path directory, int segmentCapacity, Duration syncInterval, ApplicationEventPublisher eventPublisher,
+                          LongSupplier committedSequence) throws IOException {
+        if (segmentCapacity < 1) {
+            throw new IllegalArgumentException("A segment must hold at least one record");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentCapacity = segmentCapacity;
+        this.eventPublisher = eventPublisher;
+        this.committedSequence = committedSequence;
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal " + directory + " is used by another application");
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(JournalSegment::isSegment).forEach(file -> segments.put(JournalSegment.firstSequence(file), file));
+        }
+        if (!segments.isEmpty()) {
+            recover(segments.lastKey());
+        }
+        long intervalMillis = syncInterval.toMillis();
+        syncer.scheduleWithFixedDelay(this::sync, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public long getCommittedSequence() {
+        return committedSequence.getAsLong();
+    }
+
+    @Override
+    public long getFirstSequence() {
+        return segments.isEmpty() ? lastSequence + 1 : segments.firstKey();
+    }
+
+    @Override
+    public JournalReader read(long fromSequence) {
+        if (fromSequence < 1) {
+            throw new IllegalArgumentException("Sequences start at 1");
+        }
+        if (fromSequence < getFirstSequence()) {
+            throw new IllegalStateException("The journal starts at sequence " + getFirstSequence());
+        }
+        return new MappedJournalReader(new TreeMap<>(segments), fromSequence, lastSequence);
+    }
+
+    @Override
+    public synchronized long replay(long fromSequence, Consumer<JournalEntry> consumer) {
+        try (JournalReader reader = read(fromSequence)) {
+            for (JournalEntry entry = reader.next(); entry != null; entry = reader.next()) {
+                consumer.accept(entry);
+            }
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Appends a change of a training with the next sequence and publishes it.
+     *
+     * @param previous the state of the training before the change, {@code null} when the training was created
+     * @param current  the state of the training after the change, {@code null} when the training was deleted
+     * @return the sequence of the recorded change
+     */
+    synchronized long append(@Nullable TrainingSnapshot previous, @Nullable TrainingSnapshot current) {
+        long sequence = lastSequence + 1;
+        append(new JournalEntry(sequence, Instant.ofEpochMilli(System.currentTimeMillis()), previous, current));
+        return sequence;
+    }
+
+    /**
+     * Appends a change recorded by the {@link JournalOutbox} and publishes it.
+     *
+     * @param entry the change, whose sequence follows the last one of the journal
+     * @throws IllegalStateException if the sequence does not follow the last one of the journal
+     */
+    synchronized void append(JournalEntry entry) {
+        long sequence = entry.sequence();
+        if (sequence != lastSequence + 1) {
+            throw new IllegalStateException("Entry %d does not follow the last entry %d of the journal".formatted(sequence, lastSequence));
+        }
+        if (currentSegment == null || !currentSegment.contains(sequence)) {
+            roll(sequence);
+        }
+        JournalSegment segment = currentSegment;
+        JournalRecord.write(segment.buffer(), segment.position(sequence), sequence, entry.recordedAt(), entry.previous(), entry.current());
+        lastSequence = sequence;
+        eventPublisher.publishEvent(entry);
+    }
+
+    /**
+     * Deletes all records, so that the journal continues after the given sequence, e.g. once the changes it misses
+     * are no longer held by the {@link JournalOutbox}. The states restored from snapshots older than the new start
+     * of the journal are rebuilt on the next start.
+     *
+     * @param lastSequence the sequence of the change preceding the next appended one
+     */
+    synchronized void restart(long lastSequence) {
+        currentSegment = null;
+        for (Path file : segments.values()) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete journal segment " + file, e);
+            }
+        }
+        segments.clear();
+        this.lastSequence = lastSequence;
+        log.warn("Restarted journal {} after sequence {}", directory, lastSequence);
+    }
+
+    /**
+     * Forces the records of the current segment to the storage device.
+     */
+    void sync() {
+        JournalSegment segment;
+        synchronized (this) {
+            segment = currentSegment;
+        }
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        syncer.shutdownNow();
+        synchronized (this) {
+            if (currentSegment != null) {
+                currentSegment.force();
+            }
+            currentSegment = null;
+        }
+        lock.release();
+        lockChannel.close();
+    }
+
+    @Nullable
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            return null;
+        }
+    }
+
+    private void recover(long firstSequence) throws IOException {
+        JournalSegment segment = JournalSegment.openForWriting(directory, firstSequence, segmentCapacity);
+        long sequence = firstSequence;
+        while (segment.contains(sequence) && JournalRecord.isValid(segment.buffer(), segment.position(sequence), sequence)) {
+            sequence++;
+        }
+        if (segment.contains(sequence) && JournalRecord.isPresent(segment.buffer(), segment.position(sequence))) {
+            log.warn("Clearing incomplete record {} of journal segment {}", sequence, segment.file());
+            JournalRecord.clear(segment.buffer(), segment.position(sequence));
+        }
+        currentSegment = segment;
+        lastSequence = sequence - 1;
+        log.info("Opened journal {} at sequence {}", directory, lastSequence);
+    }
+
+    private void roll(long firstSequence) {
+        if (currentSegment != null) {
+            currentSegment.force();
+        }
+        try {
+            currentSegment = JournalSegment.openForWriting(directory, firstSequence, segmentCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment in " + directory, e);
+        }
+        segments.put(firstSequence, currentSegment.file());
+    }
+}
@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+/**
+ * A single position of a weekly leaderboard.
+ *
+ * @param rank          the 1-based position of the user on the leaderboard
+ * @param userId        the unique identifier of the ranked user
+ * @param totalDistance the distance covered by the user in the given week and activity type
+ * @param trainings     the number of trainings contributing to the total distance
+ */
+public record LeaderboardEntry(int rank, Long userId, double totalDistance, int trainings) {
+
+}
@@ -0,0 +1,36 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface (API) for reading weekly "distance covered" leaderboards maintained per {@link ActivityType}.
+ * A week is identified by any date within it; weeks start on Monday (UTC).
+ */
+public interface LeaderboardProvider {
+
+    /**
+     * Retrieves the best users of the given week ordered by total distance (descending).
+     *
+     * @param activityType the activity type of the leaderboard
+     * @param week         any day of the week to be retrieved
+     * @param limit        maximal number of entries to be returned
+     * @return the top entries of the leaderboard, empty if nobody trained in that week
+     */
+    List<LeaderboardEntry> getTop(ActivityType activityType, LocalDate week, int limit);
+
+    /**
+     * Retrieves the position of the given user on the leaderboard of the given week.
+     * If the user has no trainings of the activity type in that week, then {@link Optional#empty()} will be returned.
+     *
+     * @param activityType the activity type of the leaderboard
+     * @param week         any day of the week to be searched
+     * @param userId       id of the user to be searched
+     * @return An {@link Optional} containing the leaderboard entry of the user, or {@link Optional#empty()} if not ranked
+     */
+    Optional<LeaderboardEntry> getRank(ActivityType activityType, LocalDate week, Long userId);
+
+}
@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(LeaderboardProperties.class)
+class LeaderboardConfig {
+
+    /**
+     * @return the clock the retained weeks are computed with, unless another one is provided
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    Clock clock() {
+        return Clock.systemUTC();
+    }
+}
@@ -0,0 +1,72 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardProvider;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * REST Controller exposing the weekly leaderboards.
+ * The week is selected by any date within it (format: yyyy-MM-dd), the current week is used by default.
+ */
+@RestController
+@RequestMapping("/v1/leaderboards")
+@RequiredArgsConstructor
+class LeaderboardController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final LeaderboardProvider leaderboardProvider;
+
+    /**
+     * Retrieves the best users of a week for the given activity type.
+     *
+     * @param activityType the activity type of the leaderboard
+     * @param week         any day of the requested week, the current week if not provided
+     * @param limit        maximal number of entries to be returned (1-1000)
+     * @return a list of leaderboard entries ordered by rank
+     * @throws ResponseStatusException if the limit is out of range
+     */
+    @GetMapping("/{activityType}")
+    public List<LeaderboardEntry> getTop(@PathVariable ActivityType activityType,
+                                         @RequestParam(required = false) @Nullable @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate week,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return leaderboardProvider.getTop(activityType, weekOrCurrent(week), limit);
+    }
+
+    /**
+     * Retrieves the position of a user on the leaderboard of a week for the given activity type.
+     *
+     * @param activityType the activity type of the leaderboard
+     * @param userId       the ID of the user
+     * @param week         any day of the requested week, the current week if not provided
+     * @return the leaderboard entry of the user
+     * @throws NotFoundException if the user has no trainings of the activity type in that week
+     */
+    @GetMapping("/{activityType}/users/{userId}")
+    public LeaderboardEntry getRank(@PathVariable ActivityType activityType,
+                                    @PathVariable Long userId,
+                                    @RequestParam(required = false) @Nullable @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate week) {
+        LocalDate requestedWeek = weekOrCurrent(week);
+        return leaderboardProvider.getRank(activityType, requestedWeek, userId)
+                .orElseThrow(() -> new NotFoundException("User with ID=%s is not ranked in %s leaderboard of week %s"
+                        .formatted(userId, activityType, LeaderboardKey.startOfWeek(requestedWeek))));
+    }
+
+    private static LocalDate weekOrCurrent(@Nullable LocalDate week) {
+        return week != null ? week : LocalDate.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Identifies a single weekly leaderboard.
+ *
+ * @param activityType the activity type ranked on the leaderboard
+ * @param weekStart    the Monday (UTC) starting the ranked week
+ */
+record LeaderboardKey(ActivityType activityType, LocalDate weekStart) {
+
+    static LeaderboardKey of(ActivityType activityType, LocalDate day) {
+        return new LeaderboardKey(activityType, startOfWeek(day));
+    }
+
+    static LeaderboardKey of(ActivityType activityType, Instant time) {
+        return of(activityType, LocalDate.ofInstant(time, ZoneOffset.UTC));
+    }
+
+    static LocalDate startOfWeek(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+}
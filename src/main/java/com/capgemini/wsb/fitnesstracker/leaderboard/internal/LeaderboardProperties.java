@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the weekly leaderboards.
+ */
+@ConfigurationProperties(prefix = "leaderboard")
+@Getter
+class LeaderboardProperties {
+
+    /**
+     * Number of weeks (including the current one) kept in memory. Trainings of older weeks are not ranked.
+     */
+    private final int retainedWeeks;
+
+    LeaderboardProperties(@DefaultValue("8") int retainedWeeks) {
+        this.retainedWeeks = retainedWeeks;
+    }
+
+}
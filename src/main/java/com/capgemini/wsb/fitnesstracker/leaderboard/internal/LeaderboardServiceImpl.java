@@ -0,0 +1,116 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of the {@link LeaderboardProvider} interface.
+ * Keeps one {@link WeeklyLeaderboard} per activity type and week in memory and updates it incrementally
+ * from {@link TrainingChangedEvent}s, so reading the top entries or the rank of a user never scans the trainings.
+ * <p>
+ * The leaderboards of the retained weeks are rebuilt from the database on application startup, once the schema
+ * exists and before the web server and the background writers start. No training can change while the trainings
+ * are read, so every committed change is either read by the rebuild or applied by a listener afterwards, never both.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class LeaderboardServiceImpl implements LeaderboardProvider, SmartInitializingSingleton {
+
+    private final TrainingService trainingService;
+    private final LeaderboardProperties properties;
+    private final Clock clock;
+
+    private final Map<LeaderboardKey, WeeklyLeaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the leaderboards of the retained weeks from the trainings stored in the database.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDate oldestWeek = oldestRetainedWeek();
+        Date since = Date.from(oldestWeek.atStartOfDay(ZoneOffset.UTC).toInstant());
+        List<Training> trainings = trainingService.getTrainingsStartedSince(since);
+        trainings.forEach(training -> apply(TrainingSnapshot.of(training), 1, oldestWeek));
+        log.info("Rebuilt {} leaderboards from {} trainings started since {}", leaderboards.size(), trainings.size(), oldestWeek);
+    }
+
+    /**
+     * Moves the contribution of the changed training from its previous leaderboard to the current one,
+     * once the change has been committed, so a rolled back change never reaches the leaderboards.
+     *
+     * @param event the event describing the training change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        LocalDate oldestWeek = oldestRetainedWeek();
+        if (event.previous() != null) {
+            apply(event.previous(), -1, oldestWeek);
+        }
+        if (event.current() != null) {
+            apply(event.current(), 1, oldestWeek);
+        }
+    }
+
+    /**
+     * Drops a deleted user from all the leaderboards, its trainings are purged without change events.
+     *
+     * @param event the event announcing the deleted user
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        leaderboards.values().forEach(leaderboard -> leaderboard.remove(event.userId()));
+    }
+
+    @Override
+    public List<LeaderboardEntry> getTop(ActivityType activityType, LocalDate week, int limit) {
+        WeeklyLeaderboard leaderboard = leaderboards.get(LeaderboardKey.of(activityType, week));
+        return leaderboard == null ? List.of() : leaderboard.top(limit);
+    }
+
+    @Override
+    public Optional<LeaderboardEntry> getRank(ActivityType activityType, LocalDate week, Long userId) {
+        WeeklyLeaderboard leaderboard = leaderboards.get(LeaderboardKey.of(activityType, week));
+        return leaderboard == null ? Optional.empty() : leaderboard.rank(userId);
+    }
+
+    private void apply(TrainingSnapshot training, int sign, LocalDate oldestWeek) {
+        LeaderboardKey key = LeaderboardKey.of(training.activityType(), training.startTime());
+        if (key.weekStart().isBefore(oldestWeek)) {
+            return;
+        }
+        if (!leaderboards.containsKey(key)) {
+            evictExpired(oldestWeek);
+        }
+        leaderboards.computeIfAbsent(key, ignored -> new WeeklyLeaderboard())
+                .add(training.userId(), sign * training.distance(), sign);
+    }
+
+    private void evictExpired(LocalDate oldestWeek) {
+        leaderboards.keySet().removeIf(key -> key.weekStart().isBefore(oldestWeek));
+    }
+
+    private LocalDate oldestRetainedWeek() {
+        return LeaderboardKey.startOfWeek(LocalDate.now(clock)).minusWeeks(properties.getRetainedWeeks() - 1L);
+    }
+}
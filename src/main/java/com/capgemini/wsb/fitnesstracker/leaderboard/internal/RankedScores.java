@@ -0,0 +1,199 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic tree (a treap augmented with subtree sizes) keeping users sorted by score.
+ * Users are ordered by score descending, ties are resolved by ascending user ID, so the ranking is stable.
+ * Insertion, removal and rank lookup take O(log n) expected time, reading the first {@code k} entries takes O(log n + k).
+ * The class is not thread-safe.
+ */
+class RankedScores {
+
+    private Node root;
+
+    /**
+     * A ranked user together with its score.
+     *
+     * @param userId the unique identifier of the user
+     * @param score  the score of the user
+     */
+    record Scored(long userId, double score) {
+
+    }
+
+    /**
+     * Adds the user with the given score. The (user, score) pair must not be present yet.
+     *
+     * @param userId the unique identifier of the user
+     * @param score  the score of the user
+     */
+    void insert(long userId, double score) {
+        root = insert(root, new Node(userId, score));
+    }
+
+    /**
+     * Removes the user with the given score. Does nothing if the pair is not present.
+     *
+     * @param userId the unique identifier of the user
+     * @param score  the score the user was inserted with
+     */
+    void remove(long userId, double score) {
+        root = remove(root, userId, score);
+    }
+
+    /**
+     * Retrieves the 1-based rank of the user inserted with the given score.
+     *
+     * @param userId the unique identifier of the user
+     * @param score  the score the user was inserted with
+     * @return the rank of the user, or {@code -1} if the pair is not present
+     */
+    int rank(long userId, double score) {
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(userId, score, node);
+            if (cmp == 0) {
+                return before + size(node.left) + 1;
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the first {@code limit} users in ranking order.
+     *
+     * @param limit maximal number of users to be returned
+     * @return the best users, ordered from the highest score
+     */
+    List<Scored> top(int limit) {
+        List<Scored> result = new ArrayList<>(Math.min(limit, size()));
+        collect(root, limit, result);
+        return result;
+    }
+
+    /**
+     * @return the number of ranked users
+     */
+    int size() {
+        return size(root);
+    }
+
+    private static void collect(Node node, int limit, List<Scored> result) {
+        if (node == null || result.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, result);
+        if (result.size() < limit) {
+            result.add(new Scored(node.userId, node.score));
+            collect(node.right, limit, result);
+        }
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.userId, inserted.score, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node remove(Node node, long userId, double score) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(userId, score, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, userId, score);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, userId, score);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static int compare(long userId, double score, Node node) {
+        int byScore = Double.compare(node.score, score);
+        return byScore != 0 ? byScore : Long.compare(userId, node.userId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+
+        private final long userId;
+        private final double score;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long userId, double score) {
+            this.userId = userId;
+            this.score = score;
+        }
+
+        private void update() {
+            size = 1 + RankedScores.size(left) + RankedScores.size(right);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard.internal;
+
+import com.capgemini.wsb.fitnesstracker.leaderboard.api.LeaderboardEntry;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Ranking of the users of a single week and activity type by the total distance covered.
+ * Totals are updated incrementally with the contribution of each created, updated or removed training.
+ */
+class WeeklyLeaderboard {
+
+    private final Map<Long, Total> totals = new HashMap<>();
+    private final RankedScores ranking = new RankedScores();
+
+    /**
+     * Adds (or subtracts, for negative values) the contribution of trainings to the total of the user.
+     * The user is removed from the ranking once none of its trainings contributes to the leaderboard.
+     *
+     * @param userId    the unique identifier of the user
+     * @param distance  the distance to be added to the total of the user
+     * @param trainings the number of trainings to be added to the total of the user
+     */
+    synchronized void add(long userId, double distance, int trainings) {
+        Total total = totals.getOrDefault(userId, Total.EMPTY);
+        if (total != Total.EMPTY) {
+            ranking.remove(userId, total.distance());
+        }
+        Total updated = new Total(Math.max(0, total.distance() + distance), total.trainings() + trainings);
+        if (updated.trainings() <= 0) {
+            totals.remove(userId);
+            return;
+        }
+        totals.put(userId, updated);
+        ranking.insert(userId, updated.distance());
+    }
+
+    /**
+     * Removes the user from the ranking together with its total.
+     *
+     * @param userId the unique identifier of the user
+     */
+    synchronized void remove(long userId) {
+        Total total = totals.remove(userId);
+        if (total != null) {
+            ranking.remove(userId, total.distance());
+        }
+    }
+
+    synchronized List<LeaderboardEntry> top(int limit) {
+        List<RankedScores.Scored> best = ranking.top(limit);
+        return IntStream.range(0, best.size())
+                .mapToObj(index -> toEntry(index + 1, best.get(index).userId()))
+                .toList();
+    }
+
+    synchronized Optional<LeaderboardEntry> rank(long userId) {
+        Total total = totals.get(userId);
+        if (total == null) {
+            return Optional.empty();
+        }
+        return Optional.of(toEntry(ranking.rank(userId, total.distance()), userId));
+    }
+
+    synchronized boolean isEmpty() {
+        return totals.isEmpty();
+    }
+
+    private LeaderboardEntry toEntry(int rank, long userId) {
+        Total total = totals.get(userId);
+        return new LeaderboardEntry(rank, userId, total.distance(), total.trainings());
+    }
+
+    private record Total(double distance, int trainings) {
+
+        private static final Total EMPTY = new Total(0, 0);
+    }
+}
@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.mail.api;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * API interface for component rendering emails from templates.
+ */
+public interface EmailTemplateRenderer {
+
+    /**
+     * Renders the email from the template with the given name in the given locale, falling back to less specific
+     * locales and finally to the template without a locale. Each {@code {{variable}}} of the template is replaced
+     * with the value of the model under the same key.
+     *
+     * @param templateName the name of the template
+     * @param locale       the preferred locale of the template
+     * @param toAddress    the email address of the recipient
+     * @param model        the values of the template variables
+     * @return the rendered email
+     * @throws IllegalArgumentException if the template does not exist or the model misses one of its variables
+     */
+    EmailDto render(String templateName, Locale locale, String toAddress, Map<String, ?> model);
+
+}
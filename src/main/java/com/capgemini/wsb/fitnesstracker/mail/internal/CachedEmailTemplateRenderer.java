@@ -0,0 +1,89 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailTemplateRenderer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link EmailTemplateRenderer} loading templates from {@code mail/templates/<name>[_<locale>].txt} on the classpath.
+ * <p>
+ * A template is compiled once on first use and cached by name and locale, including the result of the locale
+ * fallback. Rendering appends to a per thread buffer, so the only allocations of a rendered email are its subject
+ * and content strings.
+ */
+@Component
+class CachedEmailTemplateRenderer implements EmailTemplateRenderer {
+
+    private static final String LOCATION = "mail/templates/";
+    private static final String EXTENSION = ".txt";
+    private static final int INITIAL_BUFFER_CAPACITY = 1024;
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 64 * 1024;
+
+    private final Map<TemplateKey, EmailTemplate> templates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    @Override
+    public EmailDto render(String templateName, Locale locale, String toAddress, Map<String, ?> model) {
+        EmailTemplate template = templates.computeIfAbsent(new TemplateKey(templateName, locale), CachedEmailTemplateRenderer::load);
+        StringBuilder buffer = buffers.get();
+        try {
+            buffer.setLength(0);
+            template.renderSubject(buffer, model);
+            String subject = buffer.toString();
+            buffer.setLength(0);
+            template.renderContent(buffer, model);
+            return new EmailDto(toAddress, subject, buffer.toString());
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+                buffers.remove();
+            }
+        }
+    }
+
+    private static EmailTemplate load(TemplateKey key) {
+        for (String candidate : candidates(key)) {
+            ClassPathResource resource = new ClassPathResource(LOCATION + candidate + EXTENSION);
+            if (resource.exists()) {
+                try (InputStream inputStream = resource.getInputStream()) {
+                    return EmailTemplate.compile(candidate, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Reading template %s failed".formatted(candidate), e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Template %s not found".formatted(key.name()));
+    }
+
+    /**
+     * Returns the names of the template files from the most to the least specific locale, e.g.
+     * {@code weekly-summary_pl_PL}, {@code weekly-summary_pl} and {@code weekly-summary}.
+     */
+    private static List<String> candidates(TemplateKey key) {
+        List<String> candidates = new ArrayList<>(3);
+        String language = key.locale().getLanguage();
+        String country = key.locale().getCountry();
+        if (!language.isEmpty() && !country.isEmpty()) {
+            candidates.add(key.name() + "_" + language + "_" + country);
+        }
+        if (!language.isEmpty()) {
+            candidates.add(key.name() + "_" + language);
+        }
+        candidates.add(key.name());
+        return candidates;
+    }
+
+    private record TemplateKey(String name, Locale locale) {
+
+    }
+}
@@ -0,0 +1,120 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email template compiled into alternating literals and variables, so rendering only appends them to a buffer
+ * instead of parsing the template again.
+ * <p>
+ * The source of a template starts with a {@code Subject:} line followed by an empty line and the content. Both
+ * the subject and the content can reference {@code {{variable}}} values of the model.
+ */
+final class EmailTemplate {
+
+    private static final String SUBJECT_PREFIX = "Subject:";
+    private static final String VARIABLE_START = "{{";
+    private static final String VARIABLE_END = "}}";
+
+    private final String name;
+    private final Text subject;
+    private final Text content;
+
+    private EmailTemplate(String name, Text subject, Text content) {
+        this.name = name;
+        this.subject = subject;
+        this.content = content;
+    }
+
+    /**
+     * Compiles the source of the template.
+     *
+     * @param name   the name of the template, used in error messages
+     * @param source the source of the template
+     * @return the compiled template
+     * @throws IllegalArgumentException if the source is not a valid template
+     */
+    static EmailTemplate compile(String name, String source) {
+        String normalized = source.replace("\r\n", "\n");
+        int subjectEnd = normalized.indexOf('\n');
+        if (!normalized.startsWith(SUBJECT_PREFIX) || subjectEnd < 0) {
+            throw new IllegalArgumentException("Template %s must start with a '%s' line".formatted(name, SUBJECT_PREFIX));
+        }
+        String subject = normalized.substring(SUBJECT_PREFIX.length(), subjectEnd).strip();
+        String content = normalized.substring(subjectEnd + 1);
+        if (content.startsWith("\n")) {
+            content = content.substring(1);
+        }
+        return new EmailTemplate(name, Text.compile(name, subject), Text.compile(name, content));
+    }
+
+    /**
+     * Renders the subject of the template into the buffer.
+     *
+     * @param buffer the buffer to append to
+     * @param model  the values of the template variables
+     */
+    void renderSubject(StringBuilder buffer, Map<String, ?> model) {
+        subject.render(name, buffer, model);
+    }
+
+    /**
+     * Renders the content of the template into the buffer.
+     *
+     * @param buffer the buffer to append to
+     * @param model  the values of the template variables
+     */
+    void renderContent(StringBuilder buffer, Map<String, ?> model) {
+        content.render(name, buffer, model);
+    }
+
+    /**
+     * Text split into {@code literals.length == variables.length + 1} parts, each variable sitting between two
+     * (possibly empty) literals.
+     */
+    private record Text(String[] literals, String[] variables) {
+
+        static Text compile(String name, String source) {
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            int position = 0;
+            int start;
+            while ((start = source.indexOf(VARIABLE_START, position)) >= 0) {
+                int end = source.indexOf(VARIABLE_END, start + VARIABLE_START.length());
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unclosed variable at %d in template %s".formatted(start, name));
+                }
+                String variable = source.substring(start + VARIABLE_START.length(), end).strip();
+                if (variable.isEmpty()) {
+                    throw new IllegalArgumentException("Empty variable at %d in template %s".formatted(start, name));
+                }
+                literals.add(source.substring(position, start));
+                variables.add(variable);
+                position = end + VARIABLE_END.length();
+            }
+            literals.add(source.substring(position));
+            return new Text(literals.toArray(String[]::new), variables.toArray(String[]::new));
+        }
+
+        void render(String name, StringBuilder buffer, Map<String, ?> model) {
+            buffer.append(literals[0]);
+            for (int i = 0; i < variables.length; i++) {
+                Object value = model.get(variables[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value of {{%s}} in template %s".formatted(variables[i], name));
+                }
+                if (value instanceof CharSequence text) {
+                    buffer.append(text);
+                } else if (value instanceof Integer number) {
+                    buffer.append(number.intValue());
+                } else if (value instanceof Long number) {
+                    buffer.append(number.longValue());
+                } else {
+                    buffer.append(value);
+                }
+                buffer.append(literals[i + 1]);
+            }
+        }
+    }
+}
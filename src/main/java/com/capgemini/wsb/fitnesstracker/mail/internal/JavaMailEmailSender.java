@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * {@link EmailSender} sending plain text emails through the {@link JavaMailSender}.
+ */
+@RequiredArgsConstructor
+class JavaMailEmailSender implements EmailSender {
+
+    private final JavaMailSender mailSender;
+    private final MailProperties properties;
+
+    @Override
+    public void send(EmailDto email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(properties.getFrom());
+        message.setTo(email.toAddress());
+        message.setSubject(email.subject());
+        message.setText(email.content());
+        mailSender.send(message);
+    }
+}
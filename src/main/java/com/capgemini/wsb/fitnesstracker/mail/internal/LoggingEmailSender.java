@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link EmailSender} used when no mail server is configured, only logging the emails.
+ */
+@Slf4j
+class LoggingEmailSender implements EmailSender {
+
+    @Override
+    public void send(EmailDto email) {
+        log.info("No mail server configured, email '{}' to {} not sent", email.subject(), email.toAddress());
+    }
+}
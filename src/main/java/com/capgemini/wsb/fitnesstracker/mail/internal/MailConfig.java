@@ -1,10 +1,24 @@
 package com.capgemini.wsb.fitnesstracker.mail.internal;
 
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
 
 @Configuration
 @EnableConfigurationProperties(MailProperties.class)
 class MailConfig {
 
+    /**
+     * Sends emails through the auto-configured {@link JavaMailSender} ({@code spring.mail.host} set),
+     * otherwise only logs them.
+     */
+    @Bean
+    EmailSender emailSender(ObjectProvider<JavaMailSender> mailSender, MailProperties properties) {
+        JavaMailSender javaMailSender = mailSender.getIfAvailable();
+        return javaMailSender != null ? new JavaMailEmailSender(javaMailSender, properties) : new LoggingEmailSender();
+    }
+
 }
@@ -0,0 +1,113 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Hashed timing wheel holding one deadline per key.
+ * <p>
+ * Time is divided into ticks, and the deadline of a key is appended to the bucket of its tick modulo the size
+ * of the wheel, so (re)scheduling and cancelling take O(1) regardless of the number of keys. Deadlines farther than
+ * one revolution simply stay in their bucket until the wheel reaches their tick. Replaced and cancelled deadlines
+ * are only flagged and dropped when their bucket is visited. Not thread-safe.
+ *
+ * @param <K> type of the keys
+ */
+class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final long originMillis;
+    private final Queue<Timeout<K>>[] buckets;
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    HashedTimingWheel(long tickMillis, int size, long originMillis) {
+        this.tickMillis = tickMillis;
+        this.originMillis = originMillis;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Schedules the deadline of the key, replacing its previous deadline.
+     * Deadlines already passed expire with the next tick.
+     *
+     * @param key            the key
+     * @param deadlineMillis the deadline in epoch milliseconds
+     */
+    void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(-Math.floorDiv(originMillis - deadlineMillis, tickMillis), currentTick);
+        Timeout<K> timeout = new Timeout<>(key, tick);
+        buckets[bucketOf(tick)].add(timeout);
+        timeouts.put(key, timeout);
+    }
+
+    /**
+     * Cancels the deadline of the key, if any.
+     *
+     * @param key the key
+     */
+    void cancel(K key) {
+        Timeout<K> previous = timeouts.remove(key);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+    }
+
+    /**
+     * Moves the wheel up to the given time.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the keys whose deadlines expired, they are no longer scheduled
+     */
+    List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>();
+        long nowTick = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        for (; currentTick <= nowTick; currentTick++) {
+            Iterator<Timeout<K>> bucket = buckets[bucketOf(currentTick)].iterator();
+            while (bucket.hasNext()) {
+                Timeout<K> timeout = bucket.next();
+                if (timeout.cancelled) {
+                    bucket.remove();
+                } else if (timeout.tick <= currentTick) {
+                    bucket.remove();
+                    timeouts.remove(timeout.key);
+                    expired.add(timeout.key);
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * @return number of scheduled keys
+     */
+    int size() {
+        return timeouts.size();
+    }
+
+    private int bucketOf(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.length);
+    }
+
+    private static final class Timeout<K> {
+
+        private final K key;
+        private final long tick;
+        private boolean cancelled;
+
+        private Timeout(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
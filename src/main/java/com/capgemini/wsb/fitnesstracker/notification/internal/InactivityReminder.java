@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Pending inactivity reminder of a user, due when the user has not trained until then.
+ * The row is the durable copy of the deadline held in memory by the {@link InactivityReminderScheduler}.
+ */
+@Entity
+@Table(name = "inactivity_reminders", indexes = @Index(name = "idx_inactivity_reminders_due_at", columnList = "due_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class InactivityReminder {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "due_at", nullable = false)
+    private Instant dueAt;
+
+}
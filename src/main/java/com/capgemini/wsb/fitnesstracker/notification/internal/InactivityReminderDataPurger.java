@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDataPurger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the pending inactivity reminder of deleted users.
+ */
+@Component
+@Order(50)
+@RequiredArgsConstructor
+class InactivityReminderDataPurger implements UserDataPurger {
+
+    private final InactivityReminderRepository inactivityReminderRepository;
+
+    @Override
+    public String name() {
+        return "inactivity-reminders";
+    }
+
+    @Override
+    public int purge(long userId, int batchSize) {
+        return inactivityReminderRepository.deleteByUserId(userId);
+    }
+}
@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the reminders sent to users who have not trained for a while.
+ */
+@ConfigurationProperties(prefix = "notification.inactivity")
+@Getter
+class InactivityReminderProperties {
+
+    /**
+     * Time without any new training after which a user is reminded.
+     */
+    private final Duration period;
+
+    /**
+     * Resolution of the timing wheel, reminders are sent at most one tick late.
+     */
+    private final Duration tick;
+
+    /**
+     * Number of buckets of the timing wheel.
+     */
+    private final int wheelSize;
+
+    /**
+     * Maximal number of reminders sent together.
+     */
+    private final int batchSize;
+
+    /**
+     * Time after which a reminder that could not be sent is retried.
+     */
+    private final Duration retryDelay;
+
+    /**
+     * Interval of the sweeps picking up the reminders overdue by more than this interval, e.g. those armed by an
+     * instance which has stopped since.
+     */
+    private final Duration sweepInterval;
+
+    InactivityReminderProperties(@DefaultValue("7d") Duration period,
+                                 @DefaultValue("1m") Duration tick,
+                                 @DefaultValue("1440") int wheelSize,
+                                 @DefaultValue("500") int batchSize,
+                                 @DefaultValue("1h") Duration retryDelay,
+                                 @DefaultValue("15m") Duration sweepInterval) {
+        this.period = period;
+        this.tick = tick;
+        this.wheelSize = wheelSize;
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.sweepInterval = sweepInterval;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link InactivityReminder} entities.
+ */
+interface InactivityReminderRepository extends JpaRepository<InactivityReminder, Long> {
+
+    /**
+     * Sets the deadline of the reminder of a user with a single upsert, creating the reminder if needed.
+     *
+     * @param userId the ID of the user
+     * @param dueAt  the new deadline
+     * @return number of written rows
+     */
+    @Modifying
+    @Query(value = """
+            MERGE INTO inactivity_reminders r
+            USING (SELECT CAST(:userId AS BIGINT) AS user_id, CAST(:dueAt AS TIMESTAMP WITH TIME ZONE) AS due_at) d
+            ON r.user_id = d.user_id
+            WHEN MATCHED THEN UPDATE SET due_at = d.due_at
+            WHEN NOT MATCHED THEN INSERT (user_id, due_at) VALUES (d.user_id, d.due_at)
+            """, nativeQuery = true)
+    int arm(long userId, Instant dueAt);
+
+    /**
+     * Finds the reminders overdue since the given time, which no running instance has sent.
+     *
+     * @param overdueSince the time the reminders have been due since
+     * @return the IDs of the users whose reminders are overdue
+     */
+    @Query("SELECT r.userId FROM InactivityReminder r WHERE r.dueAt <= :overdueSince")
+    List<Long> findOverdue(Instant overdueSince);
+
+    /**
+     * Finds the recipients of the given reminders which are still claimed, the deadline may have moved in the meantime.
+     *
+     * @param userIds   the IDs of the users whose reminders have been claimed
+     * @param claimedAt the deadline the reminders have been claimed with
+     * @return the recipients of the claimed reminders
+     */
+    @Query("""
+            SELECT new com.capgemini.wsb.fitnesstracker.notification.internal.ReminderRecipient(u.id, u.email, u.firstName)
+            FROM InactivityReminder r JOIN User u ON u.id = r.userId
+            WHERE r.userId IN :userIds AND r.dueAt = :claimedAt
+            """)
+    List<ReminderRecipient> findClaimedRecipients(Collection<Long> userIds, Instant claimedAt);
+
+    /**
+     * Deletes the given reminders, unless their deadline has moved since they were claimed.
+     *
+     * @param userIds   the IDs of the reminded users
+     * @param claimedAt the deadline the reminders have been claimed with
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM InactivityReminder r WHERE r.userId IN :userIds AND r.dueAt = :claimedAt")
+    int deleteClaimed(Collection<Long> userIds, Instant claimedAt);
+
+    /**
+     * Deletes the reminder of the given user.
+     *
+     * @param userId the ID of the user
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM inactivity_reminders WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(long userId);
+
+}
@@ -0,0 +1,242 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailTemplateRenderer;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reminds users by email when they have not trained for the configured period.
+ * <p>
+ * The deadline of every user is held in a {@link HashedTimingWheel}, so re-arming it on each created training costs
+ * O(1) instead of a daily query over all users. The deadline is also upserted to the {@code inactivity_reminders}
+ * table, which is loaded back into the wheel on startup. A single thread advances the wheel every tick and sends
+ * the expired reminders in batches. Sent reminders are deleted: a user is reminded once per inactivity period, and
+ * the reminder is re-armed by the next training.
+ * <p>
+ * Every instance holds the reminders it loaded or armed, so a reminder is claimed in the table before it is sent:
+ * a conditional update moves its deadline {@code retry-delay} ahead, and only the instance whose update matched the
+ * still due row sends it. A reminder re-armed by another instance or a rolled back write is therefore never sent
+ * early, nor sent twice. A reminder whose instance failed to send it, or stopped before sending it, is due again
+ * once the claim expires. Every {@code sweep-interval} the reminders overdue by more than that interval, which no
+ * running instance holds, are added to the wheel.
+ * <p>
+ * Progress is published as metrics: {@code notification.inactivity.scheduled} and {@code notification.inactivity.sent}.
+ */
+@Component
+@Slf4j
+class InactivityReminderScheduler {
+
+    private static final String SELECT_REMINDERS = "SELECT user_id, due_at FROM inactivity_reminders";
+    private static final String CLAIM_REMINDER = "UPDATE inactivity_reminders SET due_at = ? WHERE user_id = ? AND due_at <= ?";
+    private static final String TEMPLATE = "inactivity-reminder";
+
+    private final InactivityReminderRepository reminderRepository;
+    private final EmailSender emailSender;
+    private final EmailTemplateRenderer templateRenderer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InactivityReminderProperties properties;
+    private final HashedTimingWheel<Long> wheel;
+    private final Counter sent;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inactivity-reminders");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    InactivityReminderScheduler(InactivityReminderRepository reminderRepository,
+                                EmailSender emailSender,
+                                EmailTemplateRenderer templateRenderer,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                InactivityReminderProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.reminderRepository = reminderRepository;
+        this.emailSender = emailSender;
+        this.templateRenderer = templateRenderer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.wheel = new HashedTimingWheel<>(properties.getTick().toMillis(), properties.getWheelSize(), System.currentTimeMillis());
+        this.sent = Counter.builder("notification.inactivity.sent")
+                .description("Number of sent inactivity reminders")
+                .register(meterRegistry);
+        Gauge.builder("notification.inactivity.scheduled", this, scheduler -> scheduler.scheduled())
+                .description("Number of users with a pending inactivity reminder")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the pending reminders into the wheel and starts advancing it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int[] loaded = {0};
+        jdbcTemplate.query(SELECT_REMINDERS, resultSet -> {
+            long dueAt = resultSet.getObject("due_at", OffsetDateTime.class).toInstant().toEpochMilli();
+            schedule(resultSet.getLong("user_id"), dueAt);
+            loaded[0]++;
+        });
+        log.info("Loaded {} pending inactivity reminders", loaded[0]);
+        long tick = properties.getTick().toMillis();
+        executor.scheduleWithFixedDelay(this::sendDue, tick, tick, TimeUnit.MILLISECONDS);
+        long sweepInterval = properties.getSweepInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::sweepOverdue, sweepInterval, sweepInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Re-arms the reminder of the user once the creation of a training has been committed.
+     *
+     * @param event the event describing the training change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        if (event.previous() != null || event.current() == null) {
+            return;
+        }
+        Long userId = event.current().userId();
+        Instant dueAt = Instant.now().plus(properties.getPeriod());
+        reminderRepository.arm(userId, dueAt);
+        schedule(userId, dueAt.toEpochMilli());
+    }
+
+    /**
+     * Drops the reminder of a deleted user from the wheel, the row is purged with the other data of the user.
+     *
+     * @param event the event announcing the deleted user
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        synchronized (wheel) {
+            wheel.cancel(event.userId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule(Long userId, long dueAtMillis) {
+        synchronized (wheel) {
+            wheel.schedule(userId, dueAtMillis);
+        }
+    }
+
+    private int scheduled() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private void sendDue() {
+        try {
+            List<Long> due;
+            synchronized (wheel) {
+                due = wheel.advance(System.currentTimeMillis());
+            }
+            int batchSize = properties.getBatchSize();
+            for (int from = 0; from < due.size(); from += batchSize) {
+                send(due.subList(from, Math.min(from + batchSize, due.size())));
+            }
+        } catch (RuntimeException e) {
+            log.error("Sending inactivity reminders failed", e);
+        }
+    }
+
+    private void sweepOverdue() {
+        try {
+            List<Long> overdue = reminderRepository.findOverdue(Instant.now().minus(properties.getSweepInterval()));
+            if (!overdue.isEmpty()) {
+                log.info("Picked up {} overdue inactivity reminders", overdue.size());
+                long now = System.currentTimeMillis();
+                overdue.forEach(userId -> schedule(userId, now));
+            }
+        } catch (RuntimeException e) {
+            log.error("Looking for overdue inactivity reminders failed", e);
+        }
+    }
+
+    /**
+     * Claims the given reminders which are still due and sends them.
+     *
+     * @param userIds the IDs of the users whose reminders expired in memory
+     */
+    void send(List<Long> userIds) {
+        Instant now = Instant.now();
+        Instant claimedAt = now.plus(properties.getRetryDelay()).truncatedTo(ChronoUnit.MILLIS);
+        List<Long> claimed = claim(userIds, now, claimedAt);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        List<ReminderRecipient> recipients = reminderRepository.findClaimedRecipients(claimed, claimedAt);
+        List<Long> reminded = new ArrayList<>(recipients.size());
+        for (ReminderRecipient recipient : recipients) {
+            try {
+                emailSender.send(reminderOf(recipient));
+                reminded.add(recipient.userId());
+            } catch (RuntimeException e) {
+                log.warn("Inactivity reminder of user {} could not be sent, retrying in {}", recipient.userId(), properties.getRetryDelay(), e);
+                schedule(recipient.userId(), claimedAt.toEpochMilli());
+            }
+        }
+        if (!reminded.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> reminderRepository.deleteClaimed(reminded, claimedAt));
+            sent.increment(reminded.size());
+        }
+    }
+
+    /**
+     * Moves the deadline of the due reminders to the given time, with one conditional update per reminder.
+     *
+     * @return the IDs of the users whose reminders were due and are now claimed by this instance
+     */
+    private List<Long> claim(List<Long> userIds, Instant now, Instant claimedAt) {
+        int[] updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(CLAIM_REMINDER, userIds, userIds.size(), (statement, userId) -> {
+            statement.setObject(1, claimedAt.atOffset(ZoneOffset.UTC));
+            statement.setLong(2, userId);
+            statement.setObject(3, now.atOffset(ZoneOffset.UTC));
+        })[0]);
+        List<Long> claimed = new ArrayList<>(updated.length);
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                claimed.add(userIds.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    private EmailDto reminderOf(ReminderRecipient recipient) {
+        return templateRenderer.render(TEMPLATE, Locale.ENGLISH, recipient.email(),
+                                       Map.of("firstName", recipient.firstName(), "days", properties.getPeriod().toDays()));
+    }
+}
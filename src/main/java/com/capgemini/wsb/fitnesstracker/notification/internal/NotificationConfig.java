@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+        InactivityReminderProperties.class,
+        WeeklyReportProperties.class
+})
+class NotificationConfig {
+
+}
@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+/**
+ * Projection of a user to be reminded of training.
+ *
+ * @param userId    the unique identifier of the user
+ * @param email     the email address of the user
+ * @param firstName the first name of the user
+ */
+public record ReminderRecipient(Long userId, String email, String firstName) {
+
+}
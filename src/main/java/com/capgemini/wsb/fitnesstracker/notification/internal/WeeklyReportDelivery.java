@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Weekly summary of a user, recorded by the {@link WeeklyReportJob} right before it is sent, so a retried range of
+ * users does not send it again.
+ */
+@Entity
+@Table(name = "weekly_report_deliveries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_weekly_report_deliveries_user_week", columnNames = {"user_id", "week"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class WeeklyReportDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * ISO week of the summary, e.g. {@code 2024-W07}.
+     */
+    @Column(name = "week", nullable = false, length = 8)
+    private String week;
+
+    @Column(name = "sent_at", nullable = false)
+    private Instant sentAt;
+
+}
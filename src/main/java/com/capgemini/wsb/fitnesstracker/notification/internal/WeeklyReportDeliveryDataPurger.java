@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDataPurger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the records of the weekly summaries sent to deleted users.
+ */
+@Component
+@Order(51)
+@RequiredArgsConstructor
+class WeeklyReportDeliveryDataPurger implements UserDataPurger {
+
+    private final WeeklyReportDeliveryRepository weeklyReportDeliveryRepository;
+
+    @Override
+    public String name() {
+        return "weekly-report-deliveries";
+    }
+
+    @Override
+    public int purge(long userId, int batchSize) {
+        return weeklyReportDeliveryRepository.deleteByUserId(userId);
+    }
+}
@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Repository interface for managing {@link WeeklyReportDelivery} entities.
+ */
+interface WeeklyReportDeliveryRepository extends JpaRepository<WeeklyReportDelivery, Long> {
+
+    /**
+     * Deletes the weekly summaries sent to the given user.
+     *
+     * @param userId the ID of the user
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM weekly_report_deliveries WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(long userId);
+
+}
@@ -0,0 +1,154 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.job.api.PartitionedJob;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailTemplateRenderer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sends every user a summary of the trainings of the past week, processing the users in ranges of IDs spread over
+ * the nodes of the cluster.
+ * <p>
+ * A {@link WeeklyReportDelivery} of the user and the week is recorded right before a summary is sent, and removed
+ * again if sending fails, so a retried range only sends the summaries which have not been sent yet. A crash between
+ * recording and sending loses the summary rather than sending it twice. The records of past weeks are deleted once
+ * a run completes.
+ * <p>
+ * Progress is published as the metric {@code notification.weekly-report.sent}.
+ */
+@Component
+@Slf4j
+class WeeklyReportJob implements PartitionedJob {
+
+    private static final String TEMPLATE = "weekly-summary";
+
+    private static final String SELECT_USER_ID_BOUND = "SELECT COALESCE(MAX(id), 0) + 1 FROM users";
+
+    private static final String SELECT_SUMMARIES = """
+            SELECT u.id, u.email, u.first_name, COUNT(t.id) AS trainings,
+                   COALESCE(SUM(t.distance), 0) AS distance, COALESCE(SUM(t.calories_burned), 0) AS calories
+            FROM users u
+            LEFT JOIN trainings t ON t.user_id = u.id AND t.start_time >= ? AND t.start_time < ?
+            WHERE u.id >= ? AND u.id < ? AND u.deleted = FALSE
+            GROUP BY u.id, u.email, u.first_name
+            """;
+
+    /**
+     * Records the summary of a user unless already recorded, a concurrent record fails on the unique constraint.
+     */
+    private static final String RECORD_DELIVERY = """
+            MERGE INTO weekly_report_deliveries d
+            USING (SELECT CAST(? AS BIGINT) AS user_id, CAST(? AS VARCHAR(8)) AS week) s
+            ON d.user_id = s.user_id AND d.week = s.week
+            WHEN NOT MATCHED THEN INSERT (user_id, week, sent_at) VALUES (s.user_id, s.week, CURRENT_TIMESTAMP)
+            """;
+
+    private static final String DELETE_DELIVERY = "DELETE FROM weekly_report_deliveries WHERE user_id = ? AND week = ?";
+
+    private static final String DELETE_DELIVERIES_BEFORE = "DELETE FROM weekly_report_deliveries WHERE week < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailSender emailSender;
+    private final EmailTemplateRenderer templateRenderer;
+    private final WeeklyReportProperties properties;
+    private final Counter sent;
+
+    WeeklyReportJob(JdbcTemplate jdbcTemplate,
+                    EmailSender emailSender,
+                    EmailTemplateRenderer templateRenderer,
+                    WeeklyReportProperties properties,
+                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailSender = emailSender;
+        this.templateRenderer = templateRenderer;
+        this.properties = properties;
+        this.sent = Counter.builder("notification.weekly-report.sent")
+                .description("Number of sent weekly training summaries")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String name() {
+        return "weekly-report";
+    }
+
+    @Override
+    public String cron() {
+        return properties.getCron();
+    }
+
+    @Override
+    public long userIdBound() {
+        Long bound = jdbcTemplate.queryForObject(SELECT_USER_ID_BOUND, Long.class);
+        return bound != null ? bound : 0;
+    }
+
+    @Override
+    public int partitionSize() {
+        return properties.getPartitionSize();
+    }
+
+    @Override
+    public void process(long fromUserId, long toUserId) {
+        LocalDate weekStart = reportedWeekStart();
+        String week = week(weekStart);
+        jdbcTemplate.query(SELECT_SUMMARIES, resultSet -> {
+            long userId = resultSet.getLong("id");
+            if (!recordDelivery(userId, week)) {
+                return;
+            }
+            Map<String, Object> model = Map.of("firstName", resultSet.getString("first_name"),
+                                               "week", week,
+                                               "trainings", resultSet.getLong("trainings"),
+                                               "distance", String.format(Locale.ROOT, "%.1f", resultSet.getDouble("distance")),
+                                               "calories", resultSet.getLong("calories"));
+            try {
+                emailSender.send(templateRenderer.render(TEMPLATE, Locale.ENGLISH, resultSet.getString("email"), model));
+                sent.increment();
+            } catch (RuntimeException e) {
+                jdbcTemplate.update(DELETE_DELIVERY, userId, week);
+                log.warn("Weekly summary of user {} could not be sent", userId, e);
+            }
+        }, Timestamp.valueOf(weekStart.atStartOfDay()), Timestamp.valueOf(weekStart.plusWeeks(1).atStartOfDay()), fromUserId, toUserId);
+    }
+
+    @Override
+    public void completed(long failedPartitions) {
+        int deleted = jdbcTemplate.update(DELETE_DELIVERIES_BEFORE, week(reportedWeekStart()));
+        log.info("Deleted {} records of weekly summaries of past weeks", deleted);
+    }
+
+    /**
+     * Records the summary of a user for the week, before it is sent.
+     *
+     * @return {@code false} if the summary has already been sent, or is being sent by another node
+     */
+    private boolean recordDelivery(long userId, String week) {
+        try {
+            return jdbcTemplate.update(RECORD_DELIVERY, userId, week) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private static LocalDate reportedWeekStart() {
+        return LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+    }
+
+    private static String week(LocalDate weekStart) {
+        return "%d-W%02d".formatted(weekStart.get(IsoFields.WEEK_BASED_YEAR), weekStart.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+}
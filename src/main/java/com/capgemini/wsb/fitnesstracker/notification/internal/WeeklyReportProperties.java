@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the weekly training summaries sent to users.
+ */
+@ConfigurationProperties(prefix = "notification.weekly-report")
+@Getter
+class WeeklyReportProperties {
+
+    /**
+     * Cron expression of the report, by default every Monday morning for the past week.
+     */
+    private final String cron;
+
+    /**
+     * Number of user IDs processed together by one node.
+     */
+    private final int partitionSize;
+
+    WeeklyReportProperties(@DefaultValue("0 0 6 * * MON") String cron,
+                           @DefaultValue("1000") int partitionSize) {
+        this.cron = cron;
+        this.partitionSize = partitionSize;
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Times the calls of the entity/DTO mappers of the application (beans named {@code *Mapper}) in the
+ * {@link RequestProfile} of the current request.
+ */
+@Aspect
+class MappingProfilingAspect {
+
+    @Around("bean(*Mapper) && within(com.capgemini.wsb.fitnesstracker..*)")
+    Object profileMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            return joinPoint.proceed();
+        }
+        profile.startMapping();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            profile.stopMapping();
+        }
+    }
+}
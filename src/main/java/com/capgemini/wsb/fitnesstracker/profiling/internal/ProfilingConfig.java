@@ -0,0 +1,51 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Profiles the requests (see {@link RequestProfile}) unless {@code profiling.enabled} is {@code false}.
+ * The profile is collected by wrapping the {@code dataSource} bean, by an aspect around the mappers and by
+ * a response body advice, and reported by the {@link ServerTimingFilter}, which runs first.
+ */
+@Configuration
+@ConditionalOnProperty(value = "profiling.enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ProfilingProperties.class)
+class ProfilingConfig {
+
+    @Bean
+    static BeanPostProcessor profilingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return "dataSource".equals(beanName) && bean instanceof DataSource dataSource ? new ProfilingDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(ProfilingProperties properties) {
+        FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(properties.getSlowRequestThreshold(),
+                                                             Math.toIntExact(properties.getMaxBufferedBody().toBytes())));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    MappingProfilingAspect mappingProfilingAspect() {
+        return new MappingProfilingAspect();
+    }
+
+    @Bean
+    SerializationProfilingAdvice serializationProfilingAdvice() {
+        return new SerializationProfilingAdvice();
+    }
+}
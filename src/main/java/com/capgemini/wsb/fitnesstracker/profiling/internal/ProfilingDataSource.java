@@ -0,0 +1,86 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Records the JDBC statements executed by profiled requests in their {@link RequestProfile}.
+ * <p>
+ * Connections are only wrapped when they are obtained by a profiled request, so background work uses the plain
+ * connections of the target datasource. The statements of a wrapped connection time their {@code execute*}
+ * methods; fetching the rows of a result set is not included. Proxies are equal to themselves only.
+ */
+class ProfilingDataSource extends DelegatingDataSource {
+
+    ProfilingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return profiled(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return profiled(super.getConnection(username, password));
+    }
+
+    private static Connection profiled(Connection connection) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, proxy, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, timed(profile, result));
+                case "prepareStatement" -> proxy(PreparedStatement.class, timed(profile, result));
+                case "prepareCall" -> proxy(CallableStatement.class, timed(profile, result));
+                default -> result;
+            };
+        });
+    }
+
+    private static InvocationHandler timed(RequestProfile profile, Object statement) {
+        return (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, proxy, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, proxy, method, args);
+            } finally {
+                profile.recordStatement(System.nanoTime() - start);
+            }
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
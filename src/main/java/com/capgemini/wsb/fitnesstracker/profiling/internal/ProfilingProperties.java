@@ -0,0 +1,34 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the request profiling, which is enabled unless {@code profiling.enabled} is {@code false}.
+ */
+@ConfigurationProperties(prefix = "profiling")
+@Getter
+class ProfilingProperties {
+
+    /**
+     * Duration from which the profile of a request is logged.
+     */
+    private final Duration slowRequestThreshold;
+
+    /**
+     * Size up to which a serialized response body is held back, so that its serialization time can be reported in
+     * the {@code Server-Timing} header.
+     */
+    private final DataSize maxBufferedBody;
+
+    ProfilingProperties(@DefaultValue("500ms") Duration slowRequestThreshold,
+                        @DefaultValue("64KB") DataSize maxBufferedBody) {
+        this.slowRequestThreshold = slowRequestThreshold;
+        this.maxBufferedBody = maxBufferedBody;
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import jakarta.annotation.Nullable;
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Time spent by a request in JDBC statements, in mapping entities to DTOs and in serializing the response body.
+ * The profile of the request being processed by the current thread is available through {@link #current()}.
+ * <p>
+ * The mapping time excludes the statements run while mapping (e.g. to load lazy associations), so the three
+ * phases do not overlap. Only the request thread is profiled, and a profile is not thread-safe.
+ */
+final class RequestProfile {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+
+    @Getter
+    private int statements;
+    @Getter
+    private long statementNanos;
+
+    private int mappingDepth;
+    private long mappingStartNanos;
+    private long mappingStartStatementNanos;
+    @Getter
+    private long mappingNanos;
+
+    private long serializationStartNanos;
+    private boolean serializing;
+    @Getter
+    private long serializationNanos;
+
+    private RequestProfile() {
+    }
+
+    /**
+     * Starts profiling the request processed by the current thread.
+     *
+     * @return the new profile of the request
+     */
+    static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    /**
+     * Stops profiling the request processed by the current thread.
+     */
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Retrieves the profile of the request processed by the current thread.
+     *
+     * @return the profile, {@code null} outside of a profiled request
+     */
+    @Nullable
+    static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Records the execution of a JDBC statement.
+     *
+     * @param nanos the execution time of the statement
+     */
+    void recordStatement(long nanos) {
+        statements++;
+        statementNanos += nanos;
+    }
+
+    /**
+     * Starts timing a mapping. Nested mappings are accounted to the outermost one.
+     */
+    void startMapping() {
+        if (mappingDepth++ == 0) {
+            mappingStartNanos = System.nanoTime();
+            mappingStartStatementNanos = statementNanos;
+        }
+    }
+
+    /**
+     * Stops timing a mapping started by {@link #startMapping()}.
+     */
+    void stopMapping() {
+        if (--mappingDepth == 0) {
+            mappingNanos += System.nanoTime() - mappingStartNanos - (statementNanos - mappingStartStatementNanos);
+        }
+    }
+
+    /**
+     * Starts timing the serialization of the response body.
+     */
+    void startSerialization() {
+        serializationStartNanos = System.nanoTime();
+        serializing = true;
+    }
+
+    /**
+     * Stops timing the serialization of the response body, if started.
+     */
+    void stopSerialization() {
+        if (serializing) {
+            serializationNanos += System.nanoTime() - serializationStartNanos;
+            serializing = false;
+        }
+    }
+
+    /**
+     * Tells whether the response body is being serialized.
+     *
+     * @return {@code true} between {@link #startSerialization()} and {@link #stopSerialization()}
+     */
+    boolean isSerializing() {
+        return serializing;
+    }
+
+    /**
+     * Retrieves the time elapsed since the start of the request.
+     *
+     * @return elapsed time in nanoseconds
+     */
+    long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Formats the profile as the value of a {@code Server-Timing} header, durations are in milliseconds.
+     *
+     * @return e.g. {@code db;dur=12.3;desc="4 statements", mapping;dur=0.4, serialization;dur=0.8, app;dur=15.2}
+     */
+    String toServerTiming() {
+        return "db;dur=%s;desc=\"%d statements\", mapping;dur=%s, serialization;dur=%s, app;dur=%s".formatted(
+                millis(statementNanos), statements, millis(mappingNanos), millis(serializationNanos), millis(getElapsedNanos()));
+    }
+
+    /**
+     * Formats nanoseconds as milliseconds with one decimal.
+     *
+     * @param nanos the duration to be formatted
+     * @return the milliseconds, e.g. {@code 12.3}
+     */
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
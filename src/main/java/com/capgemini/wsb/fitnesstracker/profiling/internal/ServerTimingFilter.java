@@ -0,0 +1,50 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static com.capgemini.wsb.fitnesstracker.profiling.internal.RequestProfile.millis;
+
+/**
+ * Profiles every request (see {@link RequestProfile}), reports the profile in the {@code Server-Timing} response
+ * header and logs the profile of requests slower than {@code profiling.slow-request-threshold} as one line of
+ * {@code key=value} pairs. The log always has the complete serialization time, which the header may lack.
+ */
+@Slf4j
+class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final long slowRequestNanos;
+    private final int maxBufferedBytes;
+
+    ServerTimingFilter(Duration slowRequestThreshold, int maxBufferedBytes) {
+        this.slowRequestNanos = slowRequestThreshold.toNanos();
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.start();
+        ServerTimingResponse profiledResponse = new ServerTimingResponse(response, profile, maxBufferedBytes);
+        try {
+            filterChain.doFilter(request, profiledResponse);
+            profiledResponse.finish();
+        } finally {
+            RequestProfile.stop();
+            long elapsedNanos = profile.getElapsedNanos();
+            if (elapsedNanos >= slowRequestNanos) {
+                log.warn("Slow request method={} uri={} status={} durationMs={} sqlStatements={} sqlMs={} mappingMs={} serializationMs={}",
+                         request.getMethod(), request.getRequestURI(), response.getStatus(), millis(elapsedNanos),
+                         profile.getStatements(), millis(profile.getStatementNanos()), millis(profile.getMappingNanos()),
+                         millis(profile.getSerializationNanos()));
+            }
+        }
+    }
+}
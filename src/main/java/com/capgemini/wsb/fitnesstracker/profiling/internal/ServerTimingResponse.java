@@ -0,0 +1,169 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Adds the {@code Server-Timing} header of a {@link RequestProfile} right before the response is committed.
+ * <p>
+ * A header has to be sent before the body, while the serialization time is only known once the body has been
+ * written. The bytes written while the body is serialized are therefore held in memory until the message
+ * converter flushes them, then the header is added and the bytes are passed on. A body growing beyond
+ * {@code maxBufferedBytes} is not held back any longer: the header is added with the serialization time so far and
+ * the body is streamed. All other writes (e.g. streaming bodies) go straight to the response, preceded by the header
+ * with the profile as of their first byte.
+ */
+class ServerTimingResponse extends HttpServletResponseWrapper {
+
+    static final String HEADER = "Server-Timing";
+
+    private final RequestProfile profile;
+    private final int maxBufferedBytes;
+    private boolean headerWritten;
+    private ServletOutputStream outputStream;
+
+    ServerTimingResponse(HttpServletResponse response, RequestProfile profile, int maxBufferedBytes) {
+        super(response);
+        this.profile = profile;
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    /**
+     * Adds the {@code Server-Timing} header, unless it has already been added or the response is committed.
+     */
+    void writeServerTiming() {
+        if (!headerWritten && !isCommitted()) {
+            headerWritten = true;
+            setHeader(HEADER, profile.toServerTiming());
+        }
+    }
+
+    /**
+     * Completes the profile once the request has been handled: adds the header if no body has been written,
+     * and passes on a body whose serialization has not been flushed (e.g. because it failed).
+     *
+     * @throws IOException if the body cannot be written
+     */
+    void finish() throws IOException {
+        if (profile.isSerializing() && outputStream != null) {
+            outputStream.flush();
+        }
+        profile.stopSerialization();
+        writeServerTiming();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new ProfiledOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        writeServerTiming();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (outputStream != null) {
+            outputStream.flush();
+        }
+        writeServerTiming();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeServerTiming();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeServerTiming();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeServerTiming();
+        super.sendRedirect(location);
+    }
+
+    private class ProfiledOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        ProfiledOutputStream(ServletOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (holdsBack(1)) {
+                body.write(b);
+            } else {
+                passOn();
+                target.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (holdsBack(len)) {
+                body.write(b, off, len);
+            } else {
+                passOn();
+                target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            profile.stopSerialization();
+            passOn();
+            target.flush();
+        }
+
+        private boolean holdsBack(int length) {
+            return profile.isSerializing() && !headerWritten && body.size() + length <= maxBufferedBytes;
+        }
+
+        /**
+         * Adds the header and writes the bytes held back so far.
+         */
+        private void passOn() throws IOException {
+            writeServerTiming();
+            if (body.size() > 0) {
+                body.writeTo(target);
+                body.reset();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            target.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            target.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+@NonNullByDefault
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.querystats.internal;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Turns on the Hibernate statistics, exposed with the recent slow statements by the {@link QueryStatisticsEndpoint},
+ * and wraps the {@code dataSource} bean to catch the slow statements. The metrics of every session, which
+ * Hibernate logs along with the statistics by default, are not logged unless {@code hibernate.session.events.log}
+ * is set.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryStatisticsProperties.class)
+class QueryStatisticsConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer statisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.putIfAbsent(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    @Bean
+    SlowQueryLog slowQueryLog(QueryStatisticsProperties properties) {
+        return new SlowQueryLog(properties.getSlowQueryThreshold(), properties.getSlowQueryLogSize());
+    }
+
+    @Bean
+    static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return "dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        ? new SlowQueryDataSource(dataSource, slowQueryLog.getObject()) : bean;
+            }
+        };
+    }
+
+    @Bean
+    QueryStatisticsEndpoint queryStatisticsEndpoint(EntityManagerFactory entityManagerFactory, SlowQueryLog slowQueryLog) {
+        return new QueryStatisticsEndpoint(entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), slowQueryLog);
+    }
+}
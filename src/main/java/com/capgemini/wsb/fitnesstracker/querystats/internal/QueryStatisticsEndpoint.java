@@ -0,0 +1,70 @@
+package com.capgemini.wsb.fitnesstracker.querystats.internal;
+
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Actuator endpoint ({@code /actuator/queries}) reporting which queries are hot or slow: Hibernate statistics per
+ * query and per entity, and the recent slow statements with their bind parameters and plans.
+ * A {@code DELETE} resets the statistics and the slow-query log.
+ */
+@Endpoint(id = "queries")
+class QueryStatisticsEndpoint {
+
+    private final Statistics statistics;
+    private final SlowQueryLog slowQueryLog;
+
+    QueryStatisticsEndpoint(Statistics statistics, SlowQueryLog slowQueryLog) {
+        this.statistics = statistics;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public QueryStatisticsReport report() {
+        List<QueryStatisticsReport.QueryEntry> queries = Arrays.stream(statistics.getQueries())
+                .map(this::toQueryEntry)
+                .sorted(Comparator.comparingDouble((QueryStatisticsReport.QueryEntry entry) -> entry.executions() * entry.meanMillis())
+                                .reversed())
+                .toList();
+        List<QueryStatisticsReport.EntityEntry> entities = Arrays.stream(statistics.getEntityNames())
+                .map(this::toEntityEntry)
+                .sorted(Comparator.comparingLong(QueryStatisticsReport.EntityEntry::loads).reversed())
+                .toList();
+        return new QueryStatisticsReport(queries, entities, statistics.getSecondLevelCacheHitCount(),
+                                         statistics.getSecondLevelCacheMissCount(), slowQueryLog.getRecent());
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+        slowQueryLog.clear();
+    }
+
+    private QueryStatisticsReport.QueryEntry toQueryEntry(String query) {
+        QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+        return new QueryStatisticsReport.QueryEntry(query,
+                                                    queryStatistics.getExecutionCount(),
+                                                    queryStatistics.getExecutionAvgTimeAsDouble(),
+                                                    queryStatistics.getExecutionMaxTime(),
+                                                    queryStatistics.getExecutionRowCount(),
+                                                    queryStatistics.getCacheHitCount(),
+                                                    queryStatistics.getCacheMissCount());
+    }
+
+    private QueryStatisticsReport.EntityEntry toEntityEntry(String entity) {
+        EntityStatistics entityStatistics = statistics.getEntityStatistics(entity);
+        return new QueryStatisticsReport.EntityEntry(entity,
+                                                     entityStatistics.getLoadCount(),
+                                                     entityStatistics.getFetchCount(),
+                                                     entityStatistics.getCacheHitCount(),
+                                                     entityStatistics.getCacheMissCount());
+    }
+}
@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.querystats.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the query statistics and of the slow-query log.
+ */
+@ConfigurationProperties(prefix = "query-statistics")
+@Getter
+class QueryStatisticsProperties {
+
+    /**
+     * Execution time from which a JDBC statement is logged together with its bind parameters and plan.
+     */
+    private final Duration slowQueryThreshold;
+
+    /**
+     * Number of the most recent slow queries kept for the {@code queries} Actuator endpoint.
+     */
+    private final int slowQueryLogSize;
+
+    QueryStatisticsProperties(@DefaultValue("200ms") Duration slowQueryThreshold,
+                              @DefaultValue("50") int slowQueryLogSize) {
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.slowQueryLogSize = slowQueryLogSize;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.capgemini.wsb.fitnesstracker.querystats.internal;
+
+import java.util.List;
+
+/**
+ * Hibernate statistics exposed by the {@code queries} Actuator endpoint, together with the recent slow queries.
+ * Hibernate keeps the statistics per query string: JPQL queries are listed by their JPQL, while the derived queries
+ * of repositories, built with the criteria API, are listed by their SQL prefixed with {@code [CRITERIA]}.
+ *
+ * @param queries                the statistics of each query, the longest total execution time first
+ * @param entities               the statistics of each entity, the most loaded first
+ * @param secondLevelCacheHits   the number of entities and collections found in the second-level cache
+ * @param secondLevelCacheMisses the number of entities and collections missing in the second-level cache
+ * @param slowQueries            the most recent slow statements, the most recent first
+ */
+record QueryStatisticsReport(List<QueryEntry> queries,
+                             List<EntityEntry> entities,
+                             long secondLevelCacheHits,
+                             long secondLevelCacheMisses,
+                             List<SlowQueryLog.SlowQuery> slowQueries) {
+
+    /**
+     * Statistics of a query.
+     *
+     * @param query       the JPQL of the query, or the SQL of a criteria query
+     * @param executions  the number of executions
+     * @param meanMillis  the mean execution time
+     * @param maxMillis   the longest execution time
+     * @param rows        the number of rows returned by all executions
+     * @param cacheHits   the number of executions answered by the query cache
+     * @param cacheMisses the number of executions missing in the query cache
+     */
+    record QueryEntry(String query, long executions, double meanMillis, long maxMillis, long rows, long cacheHits, long cacheMisses) {
+
+    }
+
+    /**
+     * Statistics of an entity.
+     *
+     * @param entity      the name of the entity
+     * @param loads       the number of entities loaded from the database
+     * @param fetches     the number of entities fetched lazily
+     * @param cacheHits   the number of entities found in the second-level cache
+     * @param cacheMisses the number of entities missing in the second-level cache
+     */
+    record EntityEntry(String entity, long loads, long fetches, long cacheHits, long cacheMisses) {
+
+    }
+}
@@ -0,0 +1,112 @@
+package com.capgemini.wsb.fitnesstracker.querystats.internal;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the statements executed on the connections of the target datasource and hands the slow ones to the
+ * {@link SlowQueryLog}. Prepared statements remember the values bound by their {@code set*} methods, so the slow
+ * statement can be logged and explained with its parameters. Proxies are equal to themselves only.
+ */
+class SlowQueryDataSource extends DelegatingDataSource {
+
+    private final SlowQueryLog slowQueryLog;
+
+    SlowQueryDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog) {
+        super(targetDataSource);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, proxy, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> proxy(Statement.class, timedStatement(result));
+                case "prepareStatement" -> proxy(PreparedStatement.class, timedPreparedStatement(result, (String) args[0]));
+                default -> result;
+            };
+        });
+    }
+
+    private InvocationHandler timedStatement(Object statement) {
+        return (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute") || args == null || !(args[0] instanceof String sql)) {
+                return invoke(statement, proxy, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, proxy, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (slowQueryLog.isSlow(nanos)) {
+                    slowQueryLog.record(obtainTargetDataSource(), sql, List.of(), nanos);
+                }
+            }
+        };
+    }
+
+    private InvocationHandler timedPreparedStatement(Object statement, String sql) {
+        List<Object> parameters = new ArrayList<>();
+        return (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                while (parameters.size() < index) {
+                    parameters.add(null);
+                }
+                parameters.set(index - 1, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return invoke(statement, proxy, method, args);
+                } finally {
+                    long nanos = System.nanoTime() - start;
+                    if (slowQueryLog.isSlow(nanos)) {
+                        slowQueryLog.record(obtainTargetDataSource(), sql, parameters, nanos);
+                    }
+                }
+            }
+            return invoke(statement, proxy, method, args);
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
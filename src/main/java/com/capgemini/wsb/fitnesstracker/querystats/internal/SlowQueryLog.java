@@ -0,0 +1,159 @@
+package com.capgemini.wsb.fitnesstracker.querystats.internal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the most recent statements whose execution exceeded {@code query-statistics.slow-query-threshold},
+ * with their bind parameters and their H2 {@code EXPLAIN} plan, and logs them.
+ * <p>
+ * The plan is explained in the background on a connection of its own, so the slow statement is not delayed
+ * further and its transaction is not affected. When statements are slow faster than they can be explained,
+ * the excess is dropped.
+ */
+@Slf4j
+class SlowQueryLog {
+
+    private static final Set<String> EXPLAINABLE = Set.of("SELECT", "WITH", "INSERT", "UPDATE", "DELETE", "MERGE");
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final long thresholdNanos;
+    private final int size;
+    private final Deque<SlowQuery> recent = new ArrayDeque<>();
+    private final ThreadPoolExecutor explainer;
+
+    SlowQueryLog(Duration threshold, int size) {
+        this.thresholdNanos = threshold.toNanos();
+        this.size = size;
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, size)), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explainer");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Tells whether a statement is slow.
+     *
+     * @param nanos the execution time of the statement
+     * @return {@code true} if the statement has to be recorded
+     */
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * Explains, logs and keeps a slow statement.
+     *
+     * @param dataSource the datasource to explain the statement with
+     * @param sql        the SQL of the statement
+     * @param parameters the bind parameters of the statement, in the order of their placeholders
+     * @param nanos      the execution time of the statement
+     */
+    void record(DataSource dataSource, String sql, List<Object> parameters, long nanos) {
+        Instant executedAt = Instant.now();
+        List<Object> values = new ArrayList<>(parameters);
+        List<Object> boundParameters = values.stream().map(SlowQueryLog::displayable).toList();
+        explainer.execute(() -> {
+            String plan = explain(dataSource, sql, values);
+            SlowQuery query = new SlowQuery(executedAt, Math.round(nanos / 100_000.0) / 10.0, sql, boundParameters, plan);
+            log.warn("Slow query durationMs={} sql={} parameters={} plan={}", query.durationMillis(), sql, boundParameters, plan);
+            synchronized (recent) {
+                if (recent.size() == size) {
+                    recent.removeFirst();
+                }
+                recent.addLast(query);
+            }
+        });
+    }
+
+    /**
+     * Retrieves the most recent slow queries.
+     *
+     * @return the slow queries, the most recent first
+     */
+    List<SlowQuery> getRecent() {
+        synchronized (recent) {
+            List<SlowQuery> queries = new ArrayList<>(recent);
+            Collections.reverse(queries);
+            return queries;
+        }
+    }
+
+    /**
+     * Forgets the recorded slow queries.
+     */
+    void clear() {
+        synchronized (recent) {
+            recent.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    private static String explain(DataSource dataSource, String sql, List<Object> parameters) {
+        String keyword = sql.stripLeading().split("\\s", 2)[0].toUpperCase(Locale.ROOT);
+        if (!EXPLAINABLE.contains(keyword)) {
+            return "";
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1));
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            return "Cannot be explained: " + e.getMessage();
+        }
+    }
+
+    private static Object displayable(Object parameter) {
+        if (parameter instanceof byte[] bytes) {
+            return bytes.length + " bytes";
+        }
+        if (parameter instanceof String string && string.length() > MAX_PARAMETER_LENGTH) {
+            return string.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        }
+        return parameter;
+    }
+
+    /**
+     * A statement whose execution exceeded the threshold.
+     *
+     * @param executedAt     when the statement completed
+     * @param durationMillis the execution time of the statement
+     * @param sql            the SQL of the statement
+     * @param parameters     the bind parameters of the statement (long values are shortened)
+     * @param plan           the plan of the statement, empty if it cannot be explained
+     */
+    record SlowQuery(Instant executedAt, double durationMillis, String sql, List<Object> parameters, String plan) {
+
+    }
+}
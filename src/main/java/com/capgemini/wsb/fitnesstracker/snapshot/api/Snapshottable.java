@@ -0,0 +1,60 @@
+package com.capgemini.wsb.fitnesstracker.snapshot.api;
+
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.journal.api.TrainingJournal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Interface (API) for in-memory state derived from the database, which is periodically written to a snapshot file
+ * and restored from it on startup instead of being rebuilt from a full scan of the tables.
+ * <p>
+ * The state follows the {@link JournalEntry} events of the {@link TrainingJournal} and remembers the sequence of the
+ * last entry it reflects, the high-water mark of its snapshots. An entry is applied only if it is the one following
+ * that sequence, so the entries recorded while the state is being restored are skipped and then replayed once.
+ */
+public interface Snapshottable {
+
+    /**
+     * Retrieves the name of the snapshot file, which has to change with the format of the snapshot.
+     *
+     * @return the name of the snapshot
+     */
+    String getSnapshotName();
+
+    /**
+     * Writes the current state.
+     *
+     * @param output the output of the snapshot
+     * @return the sequence of the last journal entry reflected by the written state
+     * @throws IOException if the snapshot cannot be written
+     */
+    long writeSnapshot(DataOutput output) throws IOException;
+
+    /**
+     * Replaces the state with a snapshot written by {@link #writeSnapshot}. The state must stay unchanged if the
+     * snapshot cannot be read.
+     *
+     * @param input    the input of the snapshot
+     * @param sequence the sequence of the last journal entry reflected by the snapshot
+     * @throws IOException if the snapshot cannot be read
+     */
+    void readSnapshot(DataInput input, long sequence) throws IOException;
+
+    /**
+     * Replaces the state with the one built from the database.
+     *
+     * @return the sequence of the last journal entry reflected by the built state
+     */
+    long rebuild();
+
+    /**
+     * Applies a change of a training if its entry follows the last one reflected by the state.
+     *
+     * @param entry the journal entry of the change
+     */
+    void apply(JournalEntry entry);
+
+}
@@ -0,0 +1,4 @@
+@NonNullByDefault
+package com.capgemini.wsb.fitnesstracker.snapshot.api;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
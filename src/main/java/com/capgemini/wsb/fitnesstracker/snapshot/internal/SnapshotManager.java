@@ -0,0 +1,186 @@
+package com.capgemini.wsb.fitnesstracker.snapshot.internal;
+
+import com.capgemini.wsb.fitnesstracker.journal.api.TrainingJournal;
+import com.capgemini.wsb.fitnesstracker.snapshot.api.Snapshottable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes the state of every {@link Snapshottable} bean to a snapshot file every {@code snapshot.interval} and when
+ * the application stops, and restores it from there when the application is ready.
+ * <p>
+ * A snapshot file holds a magic number, the state in the binary format of the bean, the sequence of the last
+ * {@link TrainingJournal} entry reflected by the state and a CRC32C checksum of the preceding bytes. It is written
+ * to a temporary file first, which then replaces the previous snapshot. On startup the state is read from the
+ * snapshot and the newer journal entries are replayed. The state is rebuilt from the database, and a snapshot is
+ * written right away, when the snapshot is missing or corrupted, or when the journal does not reach its sequence or
+ * starts after it.
+ * Unless {@code snapshot.enabled} is {@code false}, in which case the state is always rebuilt and never written.
+ * <p>
+ * The restore runs in a listener of the {@link ApplicationReadyEvent}, and the application only switches its
+ * readiness state to {@code ACCEPTING_TRAFFIC} once those listeners have returned.
+ */
+@Component
+@Slf4j
+class SnapshotManager {
+
+    private static final int MAGIC = 0x46545350;
+    private static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final List<Snapshottable> states;
+    private final TrainingJournal trainingJournal;
+    private final SnapshotProperties properties;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean restored;
+
+    SnapshotManager(List<Snapshottable> states, TrainingJournal trainingJournal, SnapshotProperties properties) {
+        this.states = states;
+        this.trainingJournal = trainingJournal;
+        this.properties = properties;
+    }
+
+    /**
+     * Restores the states and starts writing their snapshots.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (properties.isEnabled()) {
+            Files.createDirectories(properties.getDirectory());
+        }
+        restore();
+        if (properties.isEnabled()) {
+            long intervalMillis = properties.getInterval().toMillis();
+            writer.scheduleWithFixedDelay(this::writeSnapshots, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Restores every state from its snapshot and the newer journal entries, or rebuilds it from the database.
+     */
+    void restore() {
+        for (Snapshottable state : states) {
+            long start = System.nanoTime();
+            long sequence = properties.isEnabled() ? readSnapshot(state) : -1;
+            boolean rebuilt = sequence < 0;
+            if (rebuilt) {
+                sequence = state.rebuild();
+            }
+            long lastSequence = trainingJournal.replay(sequence + 1, state::apply);
+            log.info("{} {} at sequence {} and replayed {} newer changes in {} ms", rebuilt ? "Rebuilt" : "Restored",
+                     state.getSnapshotName(), sequence, lastSequence - sequence, (System.nanoTime() - start) / 1_000_000);
+            if (rebuilt && properties.isEnabled()) {
+                writeSnapshot(state);
+            }
+        }
+        restored = properties.isEnabled();
+    }
+
+    /**
+     * Writes the snapshots of all states, unless they have not been restored yet or snapshots are disabled.
+     */
+    synchronized void writeSnapshots() {
+        if (restored) {
+            states.forEach(this::writeSnapshot);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        writeSnapshots();
+    }
+
+    /**
+     * Retrieves the snapshot file of a state.
+     *
+     * @param state the state
+     * @return the path of the snapshot file
+     */
+    Path snapshotFile(Snapshottable state) {
+        return properties.getDirectory().resolve(state.getSnapshotName() + ".snapshot");
+    }
+
+    /**
+     * Reads the snapshot of a state if it can be replayed from the journal.
+     *
+     * @return the sequence of the snapshot, {@code -1} if the state has not been restored
+     */
+    private long readSnapshot(Snapshottable state) {
+        Path file = snapshotFile(state);
+        if (!Files.exists(file)) {
+            log.info("No snapshot {} to restore {} from", file, state.getSnapshotName());
+            return -1;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            int length = bytes.length - TRAILER_SIZE;
+            CRC32C checksum = new CRC32C();
+            checksum.update(bytes, 0, Math.max(0, bytes.length - Integer.BYTES));
+            if (length < Integer.BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(length + Long.BYTES) != (int) checksum.getValue()) {
+                log.warn("Ignoring corrupted snapshot {}", file);
+                return -1;
+            }
+            long sequence = buffer.getLong(length);
+            if (sequence > trainingJournal.getLastSequence()) {
+                log.warn("Ignoring snapshot {} at sequence {}, the journal ends at {}", file, sequence, trainingJournal.getLastSequence());
+                return -1;
+            }
+            if (sequence + 1 < trainingJournal.getFirstSequence()) {
+                log.warn("Ignoring snapshot {} at sequence {}, the journal starts at {}", file, sequence, trainingJournal.getFirstSequence());
+                return -1;
+            }
+            state.readSnapshot(new DataInputStream(new ByteArrayInputStream(bytes, Integer.BYTES, length - Integer.BYTES)), sequence);
+            return sequence;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot read snapshot {}", file, e);
+            return -1;
+        }
+    }
+
+    private void writeSnapshot(Snapshottable state) {
+        Path file = snapshotFile(state);
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileOutputStream fileOutput = new FileOutputStream(temporaryFile.toFile())) {
+                CheckedOutputStream checkedOutput = new CheckedOutputStream(fileOutput, new CRC32C());
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(checkedOutput, 1 << 16));
+                output.writeInt(MAGIC);
+                long sequence = state.writeSnapshot(output);
+                output.writeLong(sequence);
+                output.flush();
+                fileOutput.write(ByteBuffer.allocate(Integer.BYTES).putInt((int) checkedOutput.getChecksum().getValue()).array());
+                fileOutput.getChannel().force(true);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot write snapshot {}", file, e);
+        }
+    }
+}
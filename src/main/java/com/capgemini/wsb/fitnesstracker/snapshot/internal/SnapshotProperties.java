@@ -0,0 +1,41 @@
+package com.capgemini.wsb.fitnesstracker.snapshot.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the snapshots of the derived in-memory state.
+ */
+@ConfigurationProperties(prefix = "snapshot")
+@Getter
+class SnapshotProperties {
+
+    /**
+     * Whether the snapshots are written and restored, which requires a database outliving the application. Otherwise
+     * the state is rebuilt from the database on every start.
+     */
+    private final boolean enabled;
+
+    /**
+     * Directory of the snapshot files, next to the journal of the training changes they are replayed from.
+     */
+    private final Path directory;
+
+    /**
+     * Interval at which the snapshots are written, besides when the application stops.
+     */
+    private final Duration interval;
+
+    SnapshotProperties(@DefaultValue("true") boolean enabled,
+                       @DefaultValue("snapshots") Path directory,
+                       @DefaultValue("5m") Duration interval) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.interval = interval;
+    }
+
+}
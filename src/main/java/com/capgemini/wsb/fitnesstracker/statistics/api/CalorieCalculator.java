@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Duration;
+
+/**
+ * API interface for the component estimating calories burned during a training session.
+ */
+public interface CalorieCalculator {
+
+    /**
+     * Estimates the calories burned during a training session.
+     *
+     * @param activityType the type of activity performed
+     * @param duration     the duration of the training session, negative durations count as zero
+     * @param averageSpeed the average speed during the training session, in kilometers per hour
+     * @return the estimated number of burned kilocalories
+     */
+    int calculate(ActivityType activityType, Duration duration, double averageSpeed);
+
+}
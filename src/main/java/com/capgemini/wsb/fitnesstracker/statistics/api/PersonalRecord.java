@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+
+/**
+ * Entity holding the personal bests of a single user in a single activity type, together with the trainings holding them.
+ * There is at most one row per user and activity type; the records are maintained incrementally as trainings are stored.
+ * The records of a deleted user are hidden until they are purged, like the user.
+ */
+@Entity
+@Table(name = "personal_records",
+        uniqueConstraints = @UniqueConstraint(name = "uk_personal_records_user_activity", columnNames = {"user_id", "activity_type"}))
+@SQLRestriction("user_id IN (SELECT u.id FROM users u WHERE u.deleted = FALSE)")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class PersonalRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "activity_type", nullable = false)
+    private ActivityType activityType;
+
+    @Column(name = "longest_distance", nullable = false)
+    private double longestDistance;
+
+    @Column(name = "longest_distance_training_id", nullable = false)
+    private long longestDistanceTrainingId;
+
+    @Column(name = "fastest_average_speed", nullable = false)
+    private double fastestAverageSpeed;
+
+    @Column(name = "fastest_average_speed_training_id", nullable = false)
+    private long fastestAverageSpeedTrainingId;
+
+    @Column(name = "longest_duration_seconds", nullable = false)
+    private long longestDurationSeconds;
+
+    @Column(name = "longest_duration_training_id", nullable = false)
+    private long longestDurationTrainingId;
+
+}
@@ -0,0 +1,28 @@
+package com.capgemini.wsb.fitnesstracker.statistics.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PersonalRecordProvider {
+
+    /**
+     * Retrieves the personal records of the given user in all activity types the user has trained.
+     *
+     * @param userId id of the user whose records are to be searched
+     * @return the {@link PersonalRecord}s of the user, one per activity type
+     */
+    List<PersonalRecord> getPersonalRecords(Long userId);
+
+    /**
+     * Retrieves the personal records of the given user in a single activity type.
+     * If the user has no training of that type, then {@link Optional#empty()} will be returned.
+     *
+     * @param userId       id of the user whose records are to be searched
+     * @param activityType the activity type of the records
+     * @return An {@link Optional} containing the located PersonalRecord, or {@link Optional#empty()} if not found
+     */
+    Optional<PersonalRecord> getPersonalRecord(Long userId, ActivityType activityType);
+
+}
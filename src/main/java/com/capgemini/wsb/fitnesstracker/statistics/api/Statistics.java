@@ -3,9 +3,17 @@ package com.capgemini.wsb.fitnesstracker.statistics.api;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import jakarta.persistence.*;
 import lombok.*;
-
+import org.hibernate.annotations.SQLRestriction;
+
+/**
+ * Entity holding the aggregated training statistics of a single user.
+ * There is at most one row per user; the totals are computed again from the trainings of the users whose trainings
+ * changed, every few seconds.
+ * The statistics of a deleted user are hidden until they are purged, like the user.
+ */
 @Entity
-@Table(name = "statistics")
+@Table(name = "statistics", uniqueConstraints = @UniqueConstraint(columnNames = "user_id"))
+@SQLRestriction("user_id IN (SELECT u.id FROM users u WHERE u.deleted = FALSE)")
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -29,4 +37,19 @@ public class Statistics {
     @Column(name = "total_calories_burned")
     private int totalCaloriesBurned;
 
+    /**
+     * Constructor for creating statistics of a user.
+     *
+     * @param user                the user the statistics belong to
+     * @param totalTrainings      the number of trainings of the user
+     * @param totalDistance       the total distance covered by the user
+     * @param totalCaloriesBurned the total calories burned by the user
+     */
+    public Statistics(final User user, final int totalTrainings, final double totalDistance, final int totalCaloriesBurned) {
+        this.user = user;
+        this.totalTrainings = totalTrainings;
+        this.totalDistance = totalDistance;
+        this.totalCaloriesBurned = totalCaloriesBurned;
+    }
+
 }
\ No newline at end of file
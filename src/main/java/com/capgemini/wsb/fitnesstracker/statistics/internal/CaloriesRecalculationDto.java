@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Data Transfer Object describing the result of the bulk calorie recalculation.
+ *
+ * @param trainings      the number of recalculated trainings
+ * @param users          the number of users whose statistics were rebuilt
+ * @param durationMillis the time taken by the recalculation, in milliseconds
+ */
+record CaloriesRecalculationDto(long trainings, int users, long durationMillis) {
+
+}
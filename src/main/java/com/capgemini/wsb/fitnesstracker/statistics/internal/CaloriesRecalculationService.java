@@ -0,0 +1,102 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recalculates burned calories of all trainings (e.g. after the formula has changed) and rebuilds the statistics.
+ * <p>
+ * Trainings are streamed in chunks ordered by ID (keyset pagination, so every chunk is an index range scan).
+ * Each chunk is read and locked into a {@link TrainingChunk}, computed with the bulk kernel of the
+ * {@link MetCalorieCalculator} and written back with a single JDBC batch, in its own short transaction. A
+ * {@link TrainingChangedEvent} is published for every training whose calories changed, so the derived state
+ * following the changes of trainings (the journal, the leaderboards, the personal records) is updated
+ * as for any other change. Only the statistics are rebuilt from the {@code trainings} table by the
+ * {@link StatisticsAccumulator} once all chunks are written, which also repairs totals drifted before.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class CaloriesRecalculationService {
+
+    private static final String SELECT_CHUNK = """
+            SELECT id, user_id, activity_type, start_time, end_time, distance, average_speed, calories_burned
+            FROM trainings WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE
+            """;
+
+    /**
+     * Only changed rows are written, bumping their version so that conditional requests see the change.
+     */
+    private static final String UPDATE_CALORIES = """
+            UPDATE trainings SET calories_burned = ?, version = version + 1, last_modified = CURRENT_TIMESTAMP
+            WHERE id = ? AND calories_burned <> ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MetCalorieCalculator calorieCalculator;
+    private final StatisticsAccumulator statisticsAccumulator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StatisticsProperties properties;
+
+    /**
+     * Recalculates burned calories of all trainings and rebuilds the statistics of all users.
+     *
+     * @return the summary of the recalculation
+     */
+    public CaloriesRecalculationDto recalculate() {
+        long start = System.nanoTime();
+        TrainingChunk chunk = new TrainingChunk(properties.getRecalculationChunkSize());
+        long lastId = 0;
+        long trainings = 0;
+        do {
+            chunk.clear();
+            long fromId = lastId;
+            transactionTemplate.executeWithoutResult(status -> recalculateChunk(chunk, fromId));
+            if (chunk.size > 0) {
+                trainings += chunk.size;
+                lastId = chunk.lastId();
+            }
+        } while (chunk.isFull());
+
+        int users = statisticsAccumulator.rebuild();
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Recalculated calories of {} trainings and statistics of {} users in {} ms", trainings, users, durationMillis);
+        return new CaloriesRecalculationDto(trainings, users, durationMillis);
+    }
+
+    private void recalculateChunk(TrainingChunk chunk, long fromId) {
+        jdbcTemplate.query(SELECT_CHUNK, chunk::add, fromId, chunk.ids.length);
+        calorieCalculator.calculate(chunk.activityTypes, chunk.hours, chunk.averageSpeeds, chunk.calories, chunk.size);
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_CALORIES, new BatchPreparedStatementSetter() {
+
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                statement.setInt(1, chunk.calories[index]);
+                statement.setLong(2, chunk.ids[index]);
+                statement.setInt(3, chunk.calories[index]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return chunk.size;
+            }
+        });
+        for (int index = 0; index < chunk.size; index++) {
+            if (updated[index] > 0) {
+                eventPublisher.publishEvent(TrainingChangedEvent.updated(chunk.snapshot(index, chunk.previousCalories[index]),
+                                                                         chunk.snapshot(index, chunk.calories[index])));
+            }
+        }
+    }
+}
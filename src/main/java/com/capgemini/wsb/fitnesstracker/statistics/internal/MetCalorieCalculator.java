@@ -0,0 +1,74 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.CalorieCalculator;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * MET (metabolic equivalent of task) based implementation of the {@link CalorieCalculator}.
+ * <p>
+ * The MET value of an activity is approximated from the Compendium of Physical Activities with a linear function of the
+ * average speed, clamped to the range of the activity: {@code met = clamp(base + perKmh * speed, min, max)}.
+ * Burned calories are then {@code met * bodyMassKg * hours}.
+ * <p>
+ * The coefficients are kept in primitive arrays indexed by {@link ActivityType#ordinal()}, so the bulk variant
+ * {@link #calculate(int[], double[], double[], int[], int)} is a branch-free loop over primitive arrays
+ * that the JIT compiler can unroll and keep in registers.
+ */
+@Component
+class MetCalorieCalculator implements CalorieCalculator {
+
+    private static final double[] BASE_MET = new double[ActivityType.values().length];
+    private static final double[] MET_PER_KMH = new double[ActivityType.values().length];
+    private static final double[] MIN_MET = new double[ActivityType.values().length];
+    private static final double[] MAX_MET = new double[ActivityType.values().length];
+
+    static {
+        coefficients(ActivityType.RUNNING, 0.0, 1.0, 6.0, 23.0);
+        coefficients(ActivityType.CYCLING, -2.0, 0.55, 3.5, 16.0);
+        coefficients(ActivityType.WALKING, 0.0, 0.7, 2.0, 8.0);
+        coefficients(ActivityType.SWIMMING, 2.0, 2.0, 5.8, 11.0);
+        coefficients(ActivityType.TENNIS, 7.3, 0.0, 7.3, 7.3);
+    }
+
+    private final double bodyMassKg;
+
+    MetCalorieCalculator(StatisticsProperties properties) {
+        this.bodyMassKg = properties.getBodyMassKg();
+    }
+
+    @Override
+    public int calculate(ActivityType activityType, Duration duration, double averageSpeed) {
+        double hours = duration.toMillis() / 3_600_000.0;
+        return calories(activityType.ordinal(), hours, averageSpeed);
+    }
+
+    /**
+     * Computes burned calories of many trainings at once.
+     *
+     * @param activityTypes the {@link ActivityType#ordinal()} of each training
+     * @param hours         the duration of each training, in hours
+     * @param averageSpeeds the average speed of each training, in kilometers per hour
+     * @param calories      the array receiving the burned calories of each training
+     * @param length        the number of trainings to be computed (starting from the index 0)
+     */
+    void calculate(int[] activityTypes, double[] hours, double[] averageSpeeds, int[] calories, int length) {
+        for (int i = 0; i < length; i++) {
+            calories[i] = calories(activityTypes[i], hours[i], averageSpeeds[i]);
+        }
+    }
+
+    private int calories(int activityType, double hours, double averageSpeed) {
+        double met = Math.min(MAX_MET[activityType], Math.max(MIN_MET[activityType], BASE_MET[activityType] + MET_PER_KMH[activityType] * averageSpeed));
+        return (int) Math.round(met * bodyMassKg * Math.max(0, hours));
+    }
+
+    private static void coefficients(ActivityType activityType, double base, double perKmh, double min, double max) {
+        BASE_MET[activityType.ordinal()] = base;
+        MET_PER_KMH[activityType.ordinal()] = perKmh;
+        MIN_MET[activityType.ordinal()] = min;
+        MAX_MET[activityType.ordinal()] = max;
+    }
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDataPurger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the personal records of deleted users, once their trainings are gone.
+ */
+@Component
+@Order(40)
+@RequiredArgsConstructor
+class PersonalRecordDataPurger implements UserDataPurger {
+
+    private final PersonalRecordRepository personalRecordRepository;
+
+    @Override
+    public String name() {
+        return "personal-records";
+    }
+
+    @Override
+    public int purge(long userId, int batchSize) {
+        return personalRecordRepository.deleteByUserId(userId);
+    }
+}
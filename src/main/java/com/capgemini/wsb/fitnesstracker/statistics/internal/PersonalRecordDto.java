@@ -0,0 +1,26 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Data Transfer Object representing the personal records of a user in an activity type.
+ *
+ * @param userId                        the unique identifier of the user
+ * @param activityType                  the activity type of the records
+ * @param longestDistance               the longest distance covered in a single training
+ * @param longestDistanceTrainingId     the unique identifier of the training holding the longest distance
+ * @param fastestAverageSpeed           the fastest average speed of a single training
+ * @param fastestAverageSpeedTrainingId the unique identifier of the training holding the fastest average speed
+ * @param longestDurationSeconds        the duration of the longest training, in seconds
+ * @param longestDurationTrainingId     the unique identifier of the longest training
+ */
+record PersonalRecordDto(Long userId,
+                         ActivityType activityType,
+                         double longestDistance,
+                         long longestDistanceTrainingId,
+                         double fastestAverageSpeed,
+                         long fastestAverageSpeedTrainingId,
+                         long longestDurationSeconds,
+                         long longestDurationTrainingId) {
+
+}
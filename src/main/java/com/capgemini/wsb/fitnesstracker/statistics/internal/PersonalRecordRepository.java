@@ -0,0 +1,58 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.PersonalRecord;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link PersonalRecord} entities.
+ */
+interface PersonalRecordRepository extends JpaRepository<PersonalRecord, Long> {
+
+    /**
+     * Finds the personal records of the given user, using the unique index on the user and the activity type.
+     *
+     * @param userId the ID of the user
+     * @return the records of the user, one per activity type
+     */
+    List<PersonalRecord> findByUserIdOrderByActivityType(Long userId);
+
+    /**
+     * Finds the personal records of the given user in the given activity type.
+     *
+     * @param userId       the ID of the user
+     * @param activityType the activity type
+     * @return {@link Optional} containing found records or {@link Optional#empty()} if the user has none
+     */
+    Optional<PersonalRecord> findByUserIdAndActivityType(Long userId, ActivityType activityType);
+
+    /**
+     * Loads the record relevant values of the trainings of a user in an activity type.
+     * Used only to recompute records whose holding training was edited or deleted.
+     *
+     * @param userId       the ID of the user
+     * @param activityType the activity type
+     * @return the {@link RecordCandidate}s of the matching trainings
+     */
+    @Query("""
+            SELECT new com.capgemini.wsb.fitnesstracker.statistics.internal.RecordCandidate(t.id, t.distance, t.averageSpeed, t.startTime, t.endTime)
+            FROM Training t WHERE t.user.id = :userId AND t.activityType = :activityType
+            """)
+    List<RecordCandidate> findCandidates(Long userId, ActivityType activityType);
+
+    /**
+     * Deletes the personal records of the given user.
+     *
+     * @param userId the ID of the user
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM personal_records WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(long userId);
+
+}
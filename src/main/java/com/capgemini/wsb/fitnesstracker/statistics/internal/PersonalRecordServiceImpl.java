@@ -0,0 +1,102 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.PersonalRecord;
+import com.capgemini.wsb.fitnesstracker.statistics.api.PersonalRecordProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link PersonalRecordProvider} interface.
+ * Keeps the {@link PersonalRecord}s of users up to date from every changed training: a new or improved training
+ * raises the records with a single upsert, while a training holding a record that got worse, moved to another
+ * activity type or was deleted makes the records of its user and activity type be recomputed from their trainings.
+ */
+@Service
+@RequiredArgsConstructor
+class PersonalRecordServiceImpl implements PersonalRecordProvider {
+
+    private final PersonalRecordRepository personalRecordRepository;
+    private final PersonalRecordWriter personalRecordWriter;
+
+    @Override
+    public List<PersonalRecord> getPersonalRecords(Long userId) {
+        return personalRecordRepository.findByUserIdOrderByActivityType(userId);
+    }
+
+    @Override
+    public Optional<PersonalRecord> getPersonalRecord(Long userId, ActivityType activityType) {
+        return personalRecordRepository.findByUserIdAndActivityType(userId, activityType);
+    }
+
+    /**
+     * Applies the change of the training to the personal records of its user.
+     *
+     * @param event the event describing the training change
+     */
+    @EventListener
+    @Transactional
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        TrainingSnapshot previous = event.previous();
+        TrainingSnapshot current = event.current();
+        if (previous != null && !dominates(current, previous)) {
+            personalRecordWriter.findHolders(previous.userId(), previous.activityType())
+                    .filter(holders -> holders.contains(previous.id()))
+                    .ifPresent(holders -> recompute(previous.userId(), previous.activityType()));
+        }
+        if (current != null) {
+            personalRecordWriter.improve(new PersonalRecordWriter.Records(
+                    current.userId(), current.activityType(),
+                    current.distance(), current.id(),
+                    current.averageSpeed(), current.id(),
+                    current.duration().toSeconds(), current.id()));
+        }
+    }
+
+    /**
+     * @return whether the current state of the training is at least as good as the previous one in every record,
+     * so any record held by the training remains held by it
+     */
+    private static boolean dominates(@Nullable TrainingSnapshot current, TrainingSnapshot previous) {
+        return current != null
+                && current.userId().equals(previous.userId())
+                && current.activityType() == previous.activityType()
+                && current.distance() >= previous.distance()
+                && current.averageSpeed() >= previous.averageSpeed()
+                && current.duration().toSeconds() >= previous.duration().toSeconds();
+    }
+
+    private void recompute(Long userId, ActivityType activityType) {
+        List<RecordCandidate> candidates = personalRecordRepository.findCandidates(userId, activityType);
+        if (candidates.isEmpty()) {
+            personalRecordWriter.delete(userId, activityType);
+            return;
+        }
+        RecordCandidate distance = best(candidates, Comparator.comparingDouble(RecordCandidate::distance));
+        RecordCandidate speed = best(candidates, Comparator.comparingDouble(RecordCandidate::averageSpeed));
+        RecordCandidate duration = best(candidates, Comparator.comparingLong(RecordCandidate::durationSeconds));
+        personalRecordWriter.replace(new PersonalRecordWriter.Records(
+                userId, activityType,
+                distance.distance(), distance.id(),
+                speed.averageSpeed(), speed.id(),
+                duration.durationSeconds(), duration.id()));
+    }
+
+    /**
+     * @return the best candidate, the oldest training winning ties
+     */
+    private static RecordCandidate best(List<RecordCandidate> candidates, Comparator<RecordCandidate> comparator) {
+        return candidates.stream()
+                .max(comparator.thenComparing(RecordCandidate::id, Comparator.reverseOrder()))
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,123 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Writes the {@code personal_records} table with single-statement upserts ({@code MERGE}), so a record row is created
+ * or improved without reading it first, and concurrent improvements cannot overwrite each other.
+ */
+@Component
+@RequiredArgsConstructor
+class PersonalRecordWriter {
+
+    /**
+     * Each holder is compared before its value is raised, so the statement is correct whichever row values
+     * (old or already assigned) the later assignments see. Ties keep the earlier holder.
+     */
+    private static final String IMPROVE = """
+            MERGE INTO personal_records r
+            USING (SELECT CAST(? AS BIGINT) AS user_id, CAST(? AS INT) AS activity_type,
+                          CAST(? AS DOUBLE PRECISION) AS distance, CAST(? AS BIGINT) AS distance_training_id,
+                          CAST(? AS DOUBLE PRECISION) AS speed, CAST(? AS BIGINT) AS speed_training_id,
+                          CAST(? AS BIGINT) AS duration, CAST(? AS BIGINT) AS duration_training_id) d
+            ON r.user_id = d.user_id AND r.activity_type = d.activity_type
+            WHEN MATCHED THEN UPDATE SET
+                longest_distance_training_id = CASE WHEN d.distance > r.longest_distance THEN d.distance_training_id ELSE r.longest_distance_training_id END,
+                longest_distance = GREATEST(r.longest_distance, d.distance),
+                fastest_average_speed_training_id = CASE WHEN d.speed > r.fastest_average_speed THEN d.speed_training_id ELSE r.fastest_average_speed_training_id END,
+                fastest_average_speed = GREATEST(r.fastest_average_speed, d.speed),
+                longest_duration_training_id = CASE WHEN d.duration > r.longest_duration_seconds THEN d.duration_training_id ELSE r.longest_duration_training_id END,
+                longest_duration_seconds = GREATEST(r.longest_duration_seconds, d.duration)
+            WHEN NOT MATCHED THEN INSERT (user_id, activity_type, longest_distance, longest_distance_training_id,
+                                          fastest_average_speed, fastest_average_speed_training_id,
+                                          longest_duration_seconds, longest_duration_training_id)
+                                  VALUES (d.user_id, d.activity_type, d.distance, d.distance_training_id,
+                                          d.speed, d.speed_training_id, d.duration, d.duration_training_id)
+            """;
+
+    private static final String REPLACE = """
+            MERGE INTO personal_records r
+            USING (SELECT CAST(? AS BIGINT) AS user_id, CAST(? AS INT) AS activity_type,
+                          CAST(? AS DOUBLE PRECISION) AS distance, CAST(? AS BIGINT) AS distance_training_id,
+                          CAST(? AS DOUBLE PRECISION) AS speed, CAST(? AS BIGINT) AS speed_training_id,
+                          CAST(? AS BIGINT) AS duration, CAST(? AS BIGINT) AS duration_training_id) d
+            ON r.user_id = d.user_id AND r.activity_type = d.activity_type
+            WHEN MATCHED THEN UPDATE SET
+                longest_distance = d.distance, longest_distance_training_id = d.distance_training_id,
+                fastest_average_speed = d.speed, fastest_average_speed_training_id = d.speed_training_id,
+                longest_duration_seconds = d.duration, longest_duration_training_id = d.duration_training_id
+            WHEN NOT MATCHED THEN INSERT (user_id, activity_type, longest_distance, longest_distance_training_id,
+                                          fastest_average_speed, fastest_average_speed_training_id,
+                                          longest_duration_seconds, longest_duration_training_id)
+                                  VALUES (d.user_id, d.activity_type, d.distance, d.distance_training_id,
+                                          d.speed, d.speed_training_id, d.duration, d.duration_training_id)
+            """;
+
+    private static final String DELETE = "DELETE FROM personal_records WHERE user_id = ? AND activity_type = ?";
+
+    private static final String SELECT_HOLDERS = """
+            SELECT longest_distance_training_id, fastest_average_speed_training_id, longest_duration_training_id
+            FROM personal_records WHERE user_id = ? AND activity_type = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Record values of a user in an activity type, each with the training holding it.
+     */
+    record Records(long userId, ActivityType activityType,
+                   double distance, long distanceTrainingId,
+                   double speed, long speedTrainingId,
+                   long durationSeconds, long durationTrainingId) {
+
+        private Object[] toArguments() {
+            return new Object[]{userId, activityType.ordinal(), distance, distanceTrainingId,
+                    speed, speedTrainingId, durationSeconds, durationTrainingId};
+        }
+    }
+
+    /**
+     * IDs of the trainings holding the records of a user in an activity type.
+     */
+    record Holders(long distanceTrainingId, long speedTrainingId, long durationTrainingId) {
+
+        boolean contains(long trainingId) {
+            return distanceTrainingId == trainingId || speedTrainingId == trainingId || durationTrainingId == trainingId;
+        }
+    }
+
+    /**
+     * Raises the records to the given values where they are better, creating the record row if needed.
+     *
+     * @param records the candidate values
+     */
+    void improve(Records records) {
+        jdbcTemplate.update(IMPROVE, records.toArguments());
+    }
+
+    /**
+     * Overwrites the records with the given values.
+     *
+     * @param records the new values
+     */
+    void replace(Records records) {
+        jdbcTemplate.update(REPLACE, records.toArguments());
+    }
+
+    void delete(long userId, ActivityType activityType) {
+        jdbcTemplate.update(DELETE, userId, activityType.ordinal());
+    }
+
+    Optional<Holders> findHolders(long userId, ActivityType activityType) {
+        return jdbcTemplate.query(SELECT_HOLDERS,
+                                  (resultSet, row) -> new Holders(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3)),
+                                  userId, activityType.ordinal())
+                .stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,19 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.util.Date;
+
+/**
+ * Projection of a training on the values personal records are kept for.
+ *
+ * @param id           the unique identifier of the training
+ * @param distance     the distance covered during the training
+ * @param averageSpeed the average speed during the training
+ * @param startTime    the start time of the training
+ * @param endTime      the end time of the training
+ */
+public record RecordCandidate(Long id, double distance, double averageSpeed, Date startTime, Date endTime) {
+
+    long durationSeconds() {
+        return (endTime.getTime() - startTime.getTime()) / 1000;
+    }
+}
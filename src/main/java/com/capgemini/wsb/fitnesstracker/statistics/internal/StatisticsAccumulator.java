@@ -0,0 +1,161 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind tracking of the users whose statistics have changed, so that storing a training does not update the
+ * statistics row of its user, which would serialize the concurrent trainings of an active user on the lock of that row.
+ * <p>
+ * Every change increments the version of its user in a {@link ConcurrentHashMap}. Every
+ * {@code statistics.flush-interval} the totals of the changed users are computed again from their trainings with
+ * batched upserts in a single transaction, and a user is forgotten once flushed only if their version is unchanged, so a
+ * change racing with a flush is written by this flush or by the next one. As the totals are computed from the
+ * trainings, a flush is idempotent: writing a user again, or on another node, cannot count a change twice.
+ * <p>
+ * Every flush refreshes the {@link StatisticsCheckpoint} of the node, which is removed once the node has stopped and
+ * flushed for the last time. Every flush, including the one on startup, first looks for checkpoints of other nodes
+ * older than {@code statistics.crashed-node-timeout}. Such a node crashed before flushing, so its checkpoint is
+ * removed and the statistics of all users are rebuilt from the {@code trainings} table, by whichever node finds it
+ * first, however soon the crashed node has been restarted.
+ */
+@Component
+@Slf4j
+class StatisticsAccumulator implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "statistics-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final StatisticsWriter statisticsWriter;
+    private final StatisticsCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StatisticsProperties properties;
+
+    StatisticsAccumulator(StatisticsWriter statisticsWriter,
+                          StatisticsCheckpointRepository checkpointRepository,
+                          TransactionTemplate transactionTemplate,
+                          StatisticsProperties properties) {
+        this.statisticsWriter = statisticsWriter;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Recovers the changes lost by crashed nodes, registers the checkpoint of this node and starts flushing, once the
+     * schema exists and before the application accepts requests.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        flush();
+        long intervalMillis = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Rebuilds the statistics of all users from their trainings, for the changes pending on every node.
+     *
+     * @return the number of users having trainings
+     */
+    int rebuild() {
+        return transactionTemplate.execute(status -> statisticsWriter.rebuildFromTrainings(BATCH_SIZE));
+    }
+
+    /**
+     * Computes the totals of the user again with the next flush.
+     *
+     * @param userId the ID of the user whose trainings have changed
+     */
+    void markChanged(long userId) {
+        pending.merge(userId, 1L, Long::sum);
+    }
+
+    /**
+     * @param userId the ID of the user
+     * @return whether the user has changes which have not been flushed yet, so their statistics row is outdated
+     */
+    boolean isPending(long userId) {
+        return pending.containsKey(userId);
+    }
+
+    /**
+     * Recovers the changes lost by crashed nodes, writes the statistics of the changed users and refreshes the
+     * checkpoint of this node.
+     */
+    synchronized void flush() {
+        try {
+            recoverCrashedNodes();
+        } catch (RuntimeException e) {
+            log.warn("Cannot look for crashed nodes, retrying with the next flush", e);
+        }
+        Map<Long, Long> versions = new HashMap<>(pending);
+        List<Long> userIds = List.copyOf(versions.keySet());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < userIds.size(); from += BATCH_SIZE) {
+                    statisticsWriter.recompute(userIds.subList(from, Math.min(userIds.size(), from + BATCH_SIZE)));
+                }
+                checkpoint();
+            });
+        } catch (RuntimeException e) {
+            log.warn("Cannot flush statistics of {} users, retrying with the next flush", userIds.size(), e);
+            return;
+        }
+        versions.forEach(pending::remove);
+    }
+
+    /**
+     * Forgets the changes of a user whose data is being purged.
+     *
+     * @param userId the ID of the user
+     */
+    void discard(long userId) {
+        pending.remove(userId);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.deleteById(nodeId));
+    }
+
+    /**
+     * Rebuilds the statistics if a node crashed with unflushed changes.
+     */
+    private void recoverCrashedNodes() {
+        Instant crashedBefore = Instant.now().minus(properties.getCrashedNodeTimeout());
+        transactionTemplate.executeWithoutResult(status -> {
+            int crashedNodes = checkpointRepository.deleteOthersFlushedBefore(nodeId, crashedBefore);
+            if (crashedNodes > 0) {
+                int users = statisticsWriter.rebuildFromTrainings(BATCH_SIZE);
+                log.warn("Rebuilt statistics of {} users from their trainings, {} nodes stopped without flushing them", users, crashedNodes);
+            }
+        });
+    }
+
+    private void checkpoint() {
+        checkpointRepository.save(new StatisticsCheckpoint(nodeId, Instant.now()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Time of the last flush of the {@link StatisticsAccumulator} of a running node. The row is removed when the node
+ * stops after its final flush, so a row which is no longer refreshed belongs to a node which crashed with unflushed
+ * changes of the statistics.
+ */
+@Entity
+@Table(name = "statistics_checkpoints")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class StatisticsCheckpoint {
+
+    @Id
+    @Column(name = "node_id", length = 36)
+    private String nodeId;
+
+    @Column(name = "flushed_at", nullable = false)
+    private Instant flushedAt;
+
+    StatisticsCheckpoint(String nodeId, Instant flushedAt) {
+        this.nodeId = nodeId;
+        this.flushedAt = flushedAt;
+    }
+
+}
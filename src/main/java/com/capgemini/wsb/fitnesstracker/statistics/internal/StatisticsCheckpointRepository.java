@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+/**
+ * Repository interface for managing {@link StatisticsCheckpoint} entities.
+ */
+interface StatisticsCheckpointRepository extends JpaRepository<StatisticsCheckpoint, String> {
+
+    /**
+     * Deletes the checkpoints of other nodes which have not been refreshed since the given time.
+     *
+     * @param nodeId the ID of the node whose checkpoint is kept
+     * @param before the time of the oldest flush of a running node
+     * @return number of deleted checkpoints
+     */
+    @Modifying
+    @Query("DELETE FROM StatisticsCheckpoint c WHERE c.nodeId <> :nodeId AND c.flushedAt < :before")
+    int deleteOthersFlushedBefore(String nodeId, Instant before);
+
+}
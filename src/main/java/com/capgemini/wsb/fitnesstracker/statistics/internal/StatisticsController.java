@@ -0,0 +1,97 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.capgemini.wsb.fitnesstracker.statistics.api.PersonalRecord;
+import com.capgemini.wsb.fitnesstracker.statistics.api.PersonalRecordProvider;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing the statistics and personal records of users and the bulk calorie recalculation.
+ */
+@RestController
+@RequestMapping("/v1/statistics")
+@RequiredArgsConstructor
+class StatisticsController {
+
+    private final StatisticsProvider statisticsProvider;
+    private final PersonalRecordProvider personalRecordProvider;
+    private final CaloriesRecalculationService caloriesRecalculationService;
+
+    /**
+     * Retrieves the statistics of a user.
+     *
+     * @param userId the ID of the user
+     * @return the statistics of the user
+     * @throws NotFoundException if the user has no statistics
+     */
+    @GetMapping("/users/{userId}")
+    public StatisticsDto getUserStatistics(@PathVariable Long userId) {
+        return statisticsProvider.getUserStatistics(userId)
+                .map(StatisticsController::toDto)
+                .orElseThrow(() -> new NotFoundException("Statistics of user with ID=%s were not found".formatted(userId)));
+    }
+
+    /**
+     * Retrieves the personal records of a user in every activity type the user has trained.
+     *
+     * @param userId the ID of the user
+     * @return the personal records of the user, one per activity type
+     */
+    @GetMapping("/users/{userId}/records")
+    public List<PersonalRecordDto> getPersonalRecords(@PathVariable Long userId) {
+        return personalRecordProvider.getPersonalRecords(userId)
+                .stream()
+                .map(StatisticsController::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves the personal records of a user in a single activity type.
+     *
+     * @param userId       the ID of the user
+     * @param activityType the activity type
+     * @return the personal records of the user in the activity type
+     * @throws NotFoundException if the user has no training of the activity type
+     */
+    @GetMapping("/users/{userId}/records/{activityType}")
+    public PersonalRecordDto getPersonalRecord(@PathVariable Long userId, @PathVariable ActivityType activityType) {
+        return personalRecordProvider.getPersonalRecord(userId, activityType)
+                .map(StatisticsController::toDto)
+                .orElseThrow(() -> new NotFoundException("Personal records of user with ID=%s in %s were not found".formatted(userId, activityType)));
+    }
+
+    /**
+     * Recalculates burned calories of all trainings and rebuilds the statistics of all users.
+     *
+     * @return the summary of the recalculation
+     */
+    @PostMapping("/calories/recalculation")
+    public CaloriesRecalculationDto recalculateCalories() {
+        return caloriesRecalculationService.recalculate();
+    }
+
+    private static StatisticsDto toDto(Statistics statistics) {
+        return new StatisticsDto(statistics.getId(),
+                                 statistics.getUser().getId(),
+                                 statistics.getTotalTrainings(),
+                                 statistics.getTotalDistance(),
+                                 statistics.getTotalCaloriesBurned());
+    }
+
+    private static PersonalRecordDto toDto(PersonalRecord personalRecord) {
+        return new PersonalRecordDto(personalRecord.getUser().getId(),
+                                     personalRecord.getActivityType(),
+                                     personalRecord.getLongestDistance(),
+                                     personalRecord.getLongestDistanceTrainingId(),
+                                     personalRecord.getFastestAverageSpeed(),
+                                     personalRecord.getFastestAverageSpeedTrainingId(),
+                                     personalRecord.getLongestDurationSeconds(),
+                                     personalRecord.getLongestDurationTrainingId());
+    }
+}
@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDataPurger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the statistics of deleted users, once their trainings are gone
+ * (so that a concurrent rebuild of the statistics cannot bring them back), along with their unflushed changes.
+ */
+@Component
+@Order(30)
+@RequiredArgsConstructor
+class StatisticsDataPurger implements UserDataPurger {
+
+    private final StatisticsRepository statisticsRepository;
+    private final StatisticsAccumulator statisticsAccumulator;
+
+    @Override
+    public String name() {
+        return "statistics";
+    }
+
+    @Override
+    public int purge(long userId, int batchSize) {
+        statisticsAccumulator.discard(userId);
+        return statisticsRepository.deleteByUserId(userId);
+    }
+}
@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Data Transfer Object representing the statistics of a user.
+ *
+ * @param id                  the unique identifier of the statistics
+ * @param userId              the unique identifier of the user
+ * @param totalTrainings      the number of trainings of the user
+ * @param totalDistance       the total distance covered by the user
+ * @param totalCaloriesBurned the total calories burned by the user
+ */
+record StatisticsDto(Long id, Long userId, int totalTrainings, double totalDistance, int totalCaloriesBurned) {
+
+}
@@ -0,0 +1,47 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the calorie computation and the statistics maintenance.
+ */
+@ConfigurationProperties(prefix = "statistics")
+@Getter
+class StatisticsProperties {
+
+    /**
+     * Body mass (in kilograms) used to convert MET values to burned calories, as users do not record their weight.
+     */
+    private final double bodyMassKg;
+
+    /**
+     * Number of trainings read, recalculated and written back in a single transaction by the bulk recalculation.
+     */
+    private final int recalculationChunkSize;
+
+    /**
+     * Interval at which the changes of the statistics accumulated in memory are written to the database.
+     */
+    private final Duration flushInterval;
+
+    /**
+     * Time after which a node which no longer flushes its changes is considered to have crashed with them,
+     * so the statistics are rebuilt from the trainings by the next node starting.
+     */
+    private final Duration crashedNodeTimeout;
+
+    StatisticsProperties(@DefaultValue("70") double bodyMassKg,
+                         @DefaultValue("10000") int recalculationChunkSize,
+                         @DefaultValue("2s") Duration flushInterval,
+                         @DefaultValue("1m") Duration crashedNodeTimeout) {
+        this.bodyMassKg = bodyMassKg;
+        this.recalculationChunkSize = recalculationChunkSize;
+        this.flushInterval = flushInterval;
+        this.crashedNodeTimeout = crashedNodeTimeout;
+    }
+
+}
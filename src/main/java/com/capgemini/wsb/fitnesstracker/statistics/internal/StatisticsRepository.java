@@ -0,0 +1,33 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link Statistics} entities.
+ */
+interface StatisticsRepository extends JpaRepository<Statistics, Long> {
+
+    /**
+     * Finds the statistics of the given user.
+     *
+     * @param userId the ID of the user
+     * @return {@link Optional} containing found statistics or {@link Optional#empty()} if the user has none
+     */
+    Optional<Statistics> findByUserId(Long userId);
+
+    /**
+     * Deletes the statistics of the given user.
+     *
+     * @param userId the ID of the user
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = "DELETE FROM statistics WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(long userId);
+
+}
@@ -0,0 +1,77 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link StatisticsProvider} interface.
+ * Keeps the {@link Statistics} of users up to date by marking the users of every committed training change in the
+ * {@link StatisticsAccumulator}, which writes their statistics behind. The statistics of a user with unflushed changes
+ * are read computed from their trainings instead of their row, so a user reads their own changes without writing them.
+ */
+@Service
+@RequiredArgsConstructor
+class StatisticsServiceImpl implements StatisticsProvider {
+
+    private final StatisticsRepository statisticsRepository;
+    private final StatisticsAccumulator statisticsAccumulator;
+    private final StatisticsWriter statisticsWriter;
+    private final UserProvider userProvider;
+
+    @Override
+    public Optional<Statistics> getStatistics(Long statisticsId) {
+        return statisticsRepository.findById(statisticsId).map(this::withPendingChanges);
+    }
+
+    @Override
+    public Optional<Statistics> getUserStatistics(Long userId) {
+        Optional<Statistics> statistics = statisticsRepository.findByUserId(userId);
+        if (statistics.isPresent() || !statisticsAccumulator.isPending(userId)) {
+            return statistics.map(this::withPendingChanges);
+        }
+        // the first trainings of the user, their statistics row is created by the next flush
+        return userProvider.getUser(userId).map(user -> computed(user, null));
+    }
+
+    /**
+     * Marks the users of the training for the flush of their statistics once the change has been committed.
+     *
+     * @param event the event describing the training change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        if (event.previous() != null) {
+            statisticsAccumulator.markChanged(event.previous().userId());
+        }
+        if (event.current() != null) {
+            statisticsAccumulator.markChanged(event.current().userId());
+        }
+    }
+
+    private Statistics withPendingChanges(Statistics statistics) {
+        if (!statisticsAccumulator.isPending(statistics.getUser().getId())) {
+            return statistics;
+        }
+        return computed(statistics.getUser(), statistics.getId());
+    }
+
+    /**
+     * Computes the statistics of a user from their trainings into a new instance, so the row read, which may be
+     * managed, is not changed.
+     */
+    private Statistics computed(User user, @Nullable Long statisticsId) {
+        StatisticsWriter.Totals totals = statisticsWriter.computeTotals(user.getId());
+        Statistics statistics = new Statistics(user, totals.trainings(), totals.distance(), totals.calories());
+        statistics.setId(statisticsId);
+        return statistics;
+    }
+}
@@ -0,0 +1,137 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the {@code statistics} table with single-statement upserts ({@code MERGE}), so a statistics row is created
+ * or updated without reading it first. The totals are always computed from the {@code trainings} table, so writing
+ * them again, or concurrently on several nodes, cannot count a training twice.
+ */
+@Component
+@RequiredArgsConstructor
+class StatisticsWriter {
+
+    private static final String REPLACE_TOTALS = """
+            MERGE INTO statistics s
+            USING (SELECT CAST(? AS BIGINT) AS user_id, CAST(? AS INT) AS trainings, CAST(? AS DOUBLE PRECISION) AS distance, CAST(? AS INT) AS calories) d
+            ON s.user_id = d.user_id
+            WHEN MATCHED THEN UPDATE SET total_trainings = d.trainings,
+                                         total_distance = d.distance,
+                                         total_calories_burned = d.calories
+            WHEN NOT MATCHED THEN INSERT (user_id, total_trainings, total_distance, total_calories_burned)
+                                  VALUES (d.user_id, d.trainings, d.distance, d.calories)
+            """;
+
+    /**
+     * Totals of a user computed from their trainings, users deleted in the meantime are skipped.
+     */
+    private static final String RECOMPUTE_TOTALS = """
+            MERGE INTO statistics s
+            USING (SELECT u.id AS user_id, COUNT(t.id) AS trainings, COALESCE(SUM(t.distance), 0) AS distance,
+                          COALESCE(SUM(t.calories_burned), 0) AS calories
+                   FROM users u LEFT JOIN trainings t ON t.user_id = u.id
+                   WHERE u.id = ? GROUP BY u.id) d
+            ON s.user_id = d.user_id
+            WHEN MATCHED THEN UPDATE SET total_trainings = d.trainings,
+                                         total_distance = d.distance,
+                                         total_calories_burned = d.calories
+            WHEN NOT MATCHED THEN INSERT (user_id, total_trainings, total_distance, total_calories_burned)
+                                  VALUES (d.user_id, d.trainings, d.distance, d.calories)
+            """;
+
+    private static final String CLEAR_TOTALS_WITHOUT_TRAININGS = """
+            UPDATE statistics s SET total_trainings = 0, total_distance = 0, total_calories_burned = 0
+            WHERE NOT EXISTS (SELECT 1 FROM trainings t WHERE t.user_id = s.user_id)
+            """;
+
+    private static final String TOTALS_OF_USER = """
+            SELECT COUNT(*) AS trainings, COALESCE(SUM(distance), 0) AS distance, COALESCE(SUM(calories_burned), 0) AS calories
+            FROM trainings WHERE user_id = ?
+            """;
+
+    private static final String TOTALS_FROM_TRAININGS = """
+            SELECT user_id, COUNT(*) AS trainings, SUM(distance) AS distance, SUM(calories_burned) AS calories
+            FROM trainings WHERE user_id IS NOT NULL GROUP BY user_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Totals of a single user to be written.
+     *
+     * @param userId    the ID of the user
+     * @param trainings the number of trainings
+     * @param distance  the covered distance
+     * @param calories  the burned calories
+     */
+    record Totals(long userId, int trainings, double distance, int calories) {
+
+        private Object[] toArguments() {
+            return new Object[]{userId, trainings, distance, calories};
+        }
+    }
+
+    /**
+     * Replaces the totals of many users in batched statements.
+     *
+     * @param totals the new totals of the users
+     */
+    void replace(List<Totals> totals) {
+        jdbcTemplate.batchUpdate(REPLACE_TOTALS, totals.stream().map(Totals::toArguments).toList());
+    }
+
+    /**
+     * Recomputes the totals of many users from their trainings in batched statements.
+     *
+     * @param userIds the IDs of the users
+     */
+    void recompute(List<Long> userIds) {
+        jdbcTemplate.batchUpdate(RECOMPUTE_TOTALS, userIds.stream().map(userId -> new Object[]{userId}).toList());
+    }
+
+    /**
+     * Computes the totals of a user from their trainings, as they are written by {@link #recompute}, without writing
+     * them.
+     *
+     * @param userId the ID of the user
+     * @return the totals of the user
+     */
+    Totals computeTotals(long userId) {
+        return jdbcTemplate.queryForObject(TOTALS_OF_USER, (resultSet, rowNum) -> new Totals(userId,
+                                                                                            resultSet.getInt("trainings"),
+                                                                                            resultSet.getDouble("distance"),
+                                                                                            resultSet.getInt("calories")), userId);
+    }
+
+    /**
+     * Rebuilds the statistics of all users from the {@code trainings} table, writing them in batches.
+     *
+     * @param batchSize the number of users written in a single batch
+     * @return the number of users having trainings
+     */
+    int rebuildFromTrainings(int batchSize) {
+        List<Totals> batch = new ArrayList<>(batchSize);
+        int[] users = {0};
+        jdbcTemplate.query(TOTALS_FROM_TRAININGS, resultSet -> {
+            batch.add(new Totals(resultSet.getLong("user_id"),
+                                 resultSet.getInt("trainings"),
+                                 resultSet.getDouble("distance"),
+                                 resultSet.getInt("calories")));
+            users[0]++;
+            if (batch.size() == batchSize) {
+                replace(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            replace(batch);
+        }
+        jdbcTemplate.update(CLEAR_TOTALS_WITHOUT_TRAININGS);
+        return users[0];
+    }
+}
@@ -0,0 +1,91 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+
+/**
+ * A chunk of trainings read by the bulk calorie recalculation, kept as parallel primitive arrays
+ * (one slot per training) instead of entity objects.
+ */
+final class TrainingChunk {
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+
+    final long[] ids;
+    final long[] userIds;
+    final int[] activityTypes;
+    final long[] startTimes;
+    final long[] endTimes;
+    final double[] hours;
+    final double[] distances;
+    final double[] averageSpeeds;
+    final int[] previousCalories;
+    final int[] calories;
+    int size;
+
+    TrainingChunk(int capacity) {
+        ids = new long[capacity];
+        userIds = new long[capacity];
+        activityTypes = new int[capacity];
+        startTimes = new long[capacity];
+        endTimes = new long[capacity];
+        hours = new double[capacity];
+        distances = new double[capacity];
+        averageSpeeds = new double[capacity];
+        previousCalories = new int[capacity];
+        calories = new int[capacity];
+    }
+
+    /**
+     * Appends the training from the current row of the result set.
+     *
+     * @param resultSet the result set positioned at a training row
+     * @throws SQLException if the row cannot be read
+     */
+    void add(ResultSet resultSet) throws SQLException {
+        ids[size] = resultSet.getLong("id");
+        userIds[size] = resultSet.getLong("user_id");
+        activityTypes[size] = resultSet.getInt("activity_type");
+        startTimes[size] = resultSet.getTimestamp("start_time").getTime();
+        endTimes[size] = resultSet.getTimestamp("end_time").getTime();
+        hours[size] = (endTimes[size] - startTimes[size]) / 3_600_000.0;
+        distances[size] = resultSet.getDouble("distance");
+        averageSpeeds[size] = resultSet.getDouble("average_speed");
+        previousCalories[size] = resultSet.getInt("calories_burned");
+        size++;
+    }
+
+    /**
+     * Retrieves the state of a training as read, with the given burned calories.
+     *
+     * @param index    the slot of the training
+     * @param calories the burned calories of the state
+     * @return the state of the training
+     */
+    TrainingSnapshot snapshot(int index, int calories) {
+        return new TrainingSnapshot(ids[index],
+                                    userIds[index],
+                                    Instant.ofEpochMilli(startTimes[index]),
+                                    Instant.ofEpochMilli(endTimes[index]),
+                                    ACTIVITY_TYPES[activityTypes[index]],
+                                    distances[index],
+                                    averageSpeeds[index],
+                                    calories);
+    }
+
+    boolean isFull() {
+        return size == ids.length;
+    }
+
+    long lastId() {
+        return ids[size - 1];
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+/**
+ * REST Controller for uploading and downloading GPS tracks of trainings.
+ * Both directions are streamed: uploaded points are encoded while being parsed and downloaded points are decoded
+ * while being written, so a track is never held as a list of point objects.
+ */
+@RestController
+@RequestMapping("/v1/trainings/{trainingId}/track")
+@RequiredArgsConstructor
+class TrackController {
+
+    private final TrackServiceImpl trackService;
+    private final TrackProperties trackProperties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Uploads (or replaces) the track of a training. See {@link TrackPointReader} for the expected format.
+     *
+     * @param trainingId the ID of the training
+     * @param request    the request carrying the track points
+     * @return the summary of the stored track
+     * @throws IOException if the request body cannot be read
+     */
+    @PutMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public TrackSummaryDto uploadTrack(@PathVariable Long trainingId, HttpServletRequest request) throws IOException {
+        TrackRecording recording = new TrackRecording(trackProperties.getMaxPoints());
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
+            TrackPointReader.read(parser, recording);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("Malformed track: " + e.getOriginalMessage());
+        }
+        return trackService.saveTrack(trainingId, recording);
+    }
+
+    /**
+     * Downloads the points of the track of a training, in the same format as they are uploaded.
+     *
+     * @param trainingId the ID of the training
+     * @return the streamed array of track points
+     * @throws NotFoundException if the training has no track
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getTrack(@PathVariable Long trainingId) {
+        TrainingTrack track = trackService.getTrack(trainingId)
+                .orElseThrow(() -> trackNotFound(trainingId));
+        JsonFactory jsonFactory = objectMapper.getFactory();
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+                TrackCursor cursor = track.cursor();
+                generator.writeStartArray();
+                while (cursor.next()) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("time", cursor.time());
+                    generator.writeNumberField("lat", cursor.latitude());
+                    generator.writeNumberField("lon", cursor.longitude());
+                    generator.writeNumberField("ele", cursor.elevation());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Retrieves the summary (distance, speed and kilometer splits) of the track of a training.
+     *
+     * @param trainingId the ID of the training
+     * @return the summary of the track
+     * @throws NotFoundException if the training has no track
+     */
+    @GetMapping("/summary")
+    public TrackSummaryDto getSummary(@PathVariable Long trainingId) {
+        return trackService.getSummary(trainingId)
+                .orElseThrow(() -> trackNotFound(trainingId));
+    }
+
+    private static NotFoundException trackNotFound(Long trainingId) {
+        return new NotFoundException("Track of training with ID=%s was not found".formatted(trainingId));
+    }
+}
@@ -0,0 +1,80 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+/**
+ * Forward-only cursor decoding the points of an encoded track (see {@link TrackEncoder}) on demand.
+ * No object is created per point, the values of the current point are read with the accessor methods.
+ */
+final class TrackCursor {
+
+    static final double COORDINATE_SCALE = 1e7;
+    static final double ELEVATION_SCALE = 10;
+
+    private final byte[] data;
+    private int position;
+    private boolean started;
+
+    private long time;
+    private long latitude;
+    private long longitude;
+    private long elevation;
+
+    TrackCursor(byte[] data) {
+        if (data.length == 0 || data[0] != TrackEncoder.FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported track format version");
+        }
+        this.data = data;
+        this.position = 1;
+    }
+
+    /**
+     * Moves the cursor to the next point.
+     *
+     * @return {@code true} if the cursor points at a decoded point, {@code false} if the track has no more points
+     */
+    boolean next() {
+        if (position >= data.length) {
+            return false;
+        }
+        if (started) {
+            time += readVarLong();
+            latitude += VarInts.unZigZag(readVarLong());
+            longitude += VarInts.unZigZag(readVarLong());
+            elevation += VarInts.unZigZag(readVarLong());
+        } else {
+            time = VarInts.unZigZag(readVarLong());
+            latitude = VarInts.unZigZag(readVarLong());
+            longitude = VarInts.unZigZag(readVarLong());
+            elevation = VarInts.unZigZag(readVarLong());
+            started = true;
+        }
+        return true;
+    }
+
+    long time() {
+        return time;
+    }
+
+    double latitude() {
+        return latitude / COORDINATE_SCALE;
+    }
+
+    double longitude() {
+        return longitude / COORDINATE_SCALE;
+    }
+
+    double elevation() {
+        return elevation / ELEVATION_SCALE;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = data[position++];
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+}
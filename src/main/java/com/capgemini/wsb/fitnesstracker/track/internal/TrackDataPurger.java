@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDataPurger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the tracks of the trainings of deleted users, before the trainings themselves are purged.
+ */
+@Component
+@Order(10)
+@RequiredArgsConstructor
+class TrackDataPurger implements UserDataPurger {
+
+    private final TrainingTrackRepository trackRepository;
+
+    @Override
+    public String name() {
+        return "tracks";
+    }
+
+    @Override
+    public int purge(long userId, int batchSize) {
+        return trackRepository.deleteBatchByUserId(userId, batchSize);
+    }
+}
@@ -0,0 +1,89 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+
+import java.util.Arrays;
+
+/**
+ * Encodes GPS track points into the compact binary track format.
+ * <p>
+ * The format starts with a single version byte followed by the points. The first point is stored as absolute values,
+ * every next one as the difference to its predecessor: time as an unsigned varint (the track must be ordered by time),
+ * latitude, longitude and elevation as ZigZag varints. Coordinates are stored in 1e-7 degree units (~1 cm),
+ * elevation in decimeters. A 1 Hz track of a run takes around 7 bytes per point.
+ */
+final class TrackEncoder {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int MAX_POINT_LENGTH = 4 * VarInts.MAX_LENGTH;
+
+    private byte[] buffer;
+    private int size;
+    private int points;
+
+    private long lastTime;
+    private long lastLatitude;
+    private long lastLongitude;
+    private long lastElevation;
+
+    TrackEncoder(int expectedPoints) {
+        buffer = new byte[1 + Math.max(16, expectedPoints) * 8];
+        buffer[size++] = FORMAT_VERSION;
+    }
+
+    /**
+     * Appends the point to the track. The coordinates must be already quantized with {@link #toFixed(double)}
+     * and {@link #toDecimeters(double)}.
+     *
+     * @param time      the time of the point in epoch milliseconds
+     * @param latitude  the latitude in 1e-7 degrees
+     * @param longitude the longitude in 1e-7 degrees
+     * @param elevation the elevation in decimeters
+     * @throws BusinessException if the point is older than the previous one
+     */
+    void add(long time, long latitude, long longitude, long elevation) {
+        ensureCapacity();
+        if (points == 0) {
+            size = VarInts.write(buffer, size, VarInts.zigZag(time));
+            size = VarInts.write(buffer, size, VarInts.zigZag(latitude));
+            size = VarInts.write(buffer, size, VarInts.zigZag(longitude));
+            size = VarInts.write(buffer, size, VarInts.zigZag(elevation));
+        } else {
+            if (time < lastTime) {
+                throw new BusinessException("Track points must be ordered by time, point %d is older than its predecessor".formatted(points));
+            }
+            size = VarInts.write(buffer, size, time - lastTime);
+            size = VarInts.write(buffer, size, VarInts.zigZag(latitude - lastLatitude));
+            size = VarInts.write(buffer, size, VarInts.zigZag(longitude - lastLongitude));
+            size = VarInts.write(buffer, size, VarInts.zigZag(elevation - lastElevation));
+        }
+        lastTime = time;
+        lastLatitude = latitude;
+        lastLongitude = longitude;
+        lastElevation = elevation;
+        points++;
+    }
+
+    int points() {
+        return points;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    static long toFixed(double degrees) {
+        return Math.round(degrees * TrackCursor.COORDINATE_SCALE);
+    }
+
+    static long toDecimeters(double meters) {
+        return Math.round(meters * TrackCursor.ELEVATION_SCALE);
+    }
+
+    private void ensureCapacity() {
+        if (buffer.length - size < MAX_POINT_LENGTH) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Streams GPS track points from JSON straight into a {@link TrackRecording}, without binding them to objects.
+ * The expected input is an array of points ordered by time:
+ * <pre>
+ * [{"time": 1713949200000, "lat": 52.2297, "lon": 21.0122, "ele": 110.5}, ...]
+ * </pre>
+ * where {@code time} is given in epoch milliseconds and {@code ele} (meters) is optional - a point without elevation
+ * repeats the elevation of its predecessor. Unknown fields are ignored.
+ */
+final class TrackPointReader {
+
+    private TrackPointReader() {
+    }
+
+    /**
+     * Reads all points from the parser into the recording.
+     *
+     * @param parser    the parser positioned before the array of points
+     * @param recording the recording accepting the points
+     * @throws IOException       if the input cannot be read or is not a valid JSON
+     * @throws BusinessException if the input does not describe a valid track
+     */
+    static void read(JsonParser parser, TrackRecording recording) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new BusinessException("Track must be a JSON array of points");
+        }
+        double elevation = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            long time = Long.MIN_VALUE;
+            double latitude = Double.NaN;
+            double longitude = Double.NaN;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "time" -> time = parser.getLongValue();
+                    case "lat" -> latitude = parser.getDoubleValue();
+                    case "lon" -> longitude = parser.getDoubleValue();
+                    case "ele" -> elevation = parser.getDoubleValue();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (time == Long.MIN_VALUE) {
+                throw new BusinessException("Track point %d has no time".formatted(recording.points()));
+            }
+            recording.add(time, latitude, longitude, elevation);
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new BusinessException("Track must be a JSON array of points");
+        }
+    }
+}
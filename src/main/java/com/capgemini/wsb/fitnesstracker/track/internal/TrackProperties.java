@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the GPS track ingestion.
+ */
+@ConfigurationProperties(prefix = "track")
+@Getter
+class TrackProperties {
+
+    /**
+     * Maximal number of points of a single track (the default allows a bit more than a day at 1 Hz).
+     */
+    private final int maxPoints;
+
+    TrackProperties(@DefaultValue("100000") int maxPoints) {
+        this.maxPoints = maxPoints;
+    }
+
+}
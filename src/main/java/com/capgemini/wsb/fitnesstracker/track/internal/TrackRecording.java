@@ -0,0 +1,54 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+
+/**
+ * A track being ingested. Each accepted point is quantized, appended to the encoded track and fed into
+ * the {@link TrackStatistics} at once, so the points are never kept as objects.
+ * The statistics are computed from the quantized values, so they match the ones recomputed from the stored track.
+ */
+final class TrackRecording {
+
+    private final int maxPoints;
+    private final TrackEncoder encoder;
+    private final TrackStatistics statistics = new TrackStatistics();
+
+    TrackRecording(int maxPoints) {
+        this.maxPoints = maxPoints;
+        this.encoder = new TrackEncoder(Math.min(maxPoints, 3600));
+    }
+
+    /**
+     * Accepts the next point of the track.
+     *
+     * @param time      the time of the point in epoch milliseconds
+     * @param latitude  the latitude in degrees
+     * @param longitude the longitude in degrees
+     * @param elevation the elevation in meters
+     * @throws BusinessException if the point is invalid or the track exceeds the allowed number of points
+     */
+    void add(long time, double latitude, double longitude, double elevation) {
+        if (encoder.points() >= maxPoints) {
+            throw new BusinessException("Track exceeds the limit of %d points".formatted(maxPoints));
+        }
+        if (Double.isNaN(latitude) || Math.abs(latitude) > 90 || Double.isNaN(longitude) || Math.abs(longitude) > 180) {
+            throw new BusinessException("Invalid coordinates of point %d".formatted(encoder.points()));
+        }
+        long fixedLatitude = TrackEncoder.toFixed(latitude);
+        long fixedLongitude = TrackEncoder.toFixed(longitude);
+        encoder.add(time, fixedLatitude, fixedLongitude, TrackEncoder.toDecimeters(elevation));
+        statistics.accept(time, fixedLatitude / TrackCursor.COORDINATE_SCALE, fixedLongitude / TrackCursor.COORDINATE_SCALE);
+    }
+
+    int points() {
+        return encoder.points();
+    }
+
+    byte[] encoded() {
+        return encoder.toByteArray();
+    }
+
+    TrackStatistics statistics() {
+        return statistics;
+    }
+}
@@ -0,0 +1,102 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingNotFoundException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Service storing GPS tracks of trainings.
+ * Storing a track replaces the distance and the average speed of the training with the values computed from the track.
+ * Deleting a training deletes its track in the same transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class TrackServiceImpl {
+
+    private final TrainingTrackRepository trackRepository;
+    private final TrainingProvider trainingProvider;
+    private final TrainingService trainingService;
+
+    /**
+     * Stores (or replaces) the track of the training and updates the training with the computed values.
+     *
+     * @param trainingId the ID of the training the track belongs to
+     * @param recording  the ingested track
+     * @return the summary of the stored track
+     * @throws TrainingNotFoundException if no training is found with the given ID
+     * @throws BusinessException         if the track has less than two points
+     */
+    @Transactional
+    public TrackSummaryDto saveTrack(Long trainingId, TrackRecording recording) {
+        Training training = trainingProvider.getTraining(trainingId)
+                .orElseThrow(() -> new TrainingNotFoundException(trainingId));
+        if (recording.points() < 2) {
+            throw new BusinessException("Track must contain at least 2 points");
+        }
+        TrainingTrack track = trackRepository.save(new TrainingTrack(trainingId, recording));
+        log.info("Stored track of training {} with {} points in {} bytes", trainingId, track.getPointCount(), track.getPoints().length);
+
+        TrackStatistics statistics = recording.statistics();
+        trainingService.updateTraining(trainingId, new Training(training.getUser(),
+                                                                training.getStartTime(),
+                                                                training.getEndTime(),
+                                                                training.getActivityType(),
+                                                                statistics.distance(),
+                                                                statistics.averageSpeed()),
+                                     training.getVersion());
+        return TrackSummaryDto.of(trainingId, statistics);
+    }
+
+    /**
+     * Deletes the track of a deleted training, within the transaction deleting the training.
+     *
+     * @param event the change of the training
+     */
+    @EventListener
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        if (event.current() == null) {
+            trackRepository.deleteByTrainingId(event.previous().id());
+        }
+    }
+
+    /**
+     * Retrieves the track of the training.
+     *
+     * @param trainingId the ID of the training
+     * @return an {@link Optional} containing the track, or empty if the training has no track
+     */
+    @Transactional(readOnly = true)
+    public Optional<TrainingTrack> getTrack(Long trainingId) {
+        return trackRepository.findById(trainingId);
+    }
+
+    /**
+     * Recomputes the summary of the track of the training in a single pass over the stored points.
+     *
+     * @param trainingId the ID of the training
+     * @return an {@link Optional} containing the summary, or empty if the training has no track
+     */
+    @Transactional(readOnly = true)
+    public Optional<TrackSummaryDto> getSummary(Long trainingId) {
+        return trackRepository.findById(trainingId)
+                .map(track -> {
+                    TrackStatistics statistics = new TrackStatistics();
+                    TrackCursor cursor = track.cursor();
+                    while (cursor.next()) {
+                        statistics.accept(cursor.time(), cursor.latitude(), cursor.longitude());
+                    }
+                    return TrackSummaryDto.of(trainingId, statistics);
+                });
+    }
+}
@@ -0,0 +1,96 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes distance, duration, average speed and kilometer splits of a track in a single streaming pass.
+ * Distances between consecutive points are computed with the haversine formula.
+ * A split is the time needed to cover each full kilometer; the moment of crossing the kilometer boundary
+ * is interpolated linearly between the surrounding points.
+ */
+final class TrackStatistics {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private int points;
+    private long firstTime;
+    private long lastTime;
+    private double lastLatitude;
+    private double lastLongitude;
+    private double distance;
+
+    private long splitStartTime;
+    private final List<Double> splits = new ArrayList<>();
+
+    /**
+     * Accepts the next point of the track.
+     *
+     * @param time      the time of the point in epoch milliseconds
+     * @param latitude  the latitude in degrees
+     * @param longitude the longitude in degrees
+     */
+    void accept(long time, double latitude, double longitude) {
+        if (points == 0) {
+            firstTime = time;
+            splitStartTime = time;
+        } else {
+            double segment = haversine(lastLatitude, lastLongitude, latitude, longitude);
+            double segmentEnd = distance + segment;
+            double nextBoundary = splits.size() + 1.0;
+            while (segment > 0 && segmentEnd >= nextBoundary) {
+                double fraction = (nextBoundary - distance) / segment;
+                long crossingTime = lastTime + Math.round((time - lastTime) * fraction);
+                splits.add((crossingTime - splitStartTime) / 1000.0);
+                splitStartTime = crossingTime;
+                nextBoundary++;
+            }
+            distance = segmentEnd;
+        }
+        lastTime = time;
+        lastLatitude = latitude;
+        lastLongitude = longitude;
+        points++;
+    }
+
+    int points() {
+        return points;
+    }
+
+    /**
+     * @return the distance covered, in kilometers
+     */
+    double distance() {
+        return distance;
+    }
+
+    /**
+     * @return the time elapsed between the first and the last point, in milliseconds
+     */
+    long durationMillis() {
+        return points == 0 ? 0 : lastTime - firstTime;
+    }
+
+    /**
+     * @return the average speed, in kilometers per hour
+     */
+    double averageSpeed() {
+        long duration = durationMillis();
+        return duration == 0 ? 0 : distance / (duration / 3_600_000.0);
+    }
+
+    /**
+     * @return the time (in seconds) needed to cover each full kilometer
+     */
+    List<Double> splits() {
+        return List.copyOf(splits);
+    }
+
+    private static double haversine(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        double longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.pow(Math.sin(latitudeDelta / 2), 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude)) * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object summarizing a GPS track of a training.
+ *
+ * @param trainingId      the unique identifier of the training the track belongs to
+ * @param points          the number of recorded points
+ * @param distance        the distance covered, in kilometers
+ * @param durationSeconds the time elapsed between the first and the last point, in seconds
+ * @param averageSpeed    the average speed, in kilometers per hour
+ * @param splits          the time (in seconds) needed to cover each full kilometer
+ */
+record TrackSummaryDto(Long trainingId, int points, double distance, double durationSeconds, double averageSpeed, List<Double> splits) {
+
+    static TrackSummaryDto of(Long trainingId, TrackStatistics statistics) {
+        return new TrackSummaryDto(trainingId,
+                                   statistics.points(),
+                                   statistics.distance(),
+                                   statistics.durationMillis() / 1000.0,
+                                   statistics.averageSpeed(),
+                                   statistics.splits());
+    }
+}
@@ -0,0 +1,47 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * GPS track recorded during a training session.
+ * The points are kept as a single delta/varint encoded blob (see {@link TrackEncoder}) instead of a row per point.
+ * The training is referenced by its ID only, so storing or reading a track never loads the training itself.
+ */
+@Entity
+@Table(name = "training_tracks")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+class TrainingTrack {
+
+    @Id
+    @Column(name = "training_id")
+    private Long trainingId;
+
+    @Column(name = "point_count", nullable = false)
+    private int pointCount;
+
+    @Column(name = "distance", nullable = false)
+    private double distance;
+
+    @Column(name = "duration_millis", nullable = false)
+    private long durationMillis;
+
+    @Lob
+    @Column(name = "points", nullable = false)
+    private byte[] points;
+
+    TrainingTrack(Long trainingId, TrackRecording recording) {
+        this.trainingId = trainingId;
+        this.pointCount = recording.points();
+        this.distance = recording.statistics().distance();
+        this.durationMillis = recording.statistics().durationMillis();
+        this.points = recording.encoded();
+    }
+
+    TrackCursor cursor() {
+        return new TrackCursor(points);
+    }
+}
@@ -0,0 +1,36 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Repository interface for managing {@link TrainingTrack} entities.
+ */
+interface TrainingTrackRepository extends JpaRepository<TrainingTrack, Long> {
+
+    /**
+     * Deletes a batch of the tracks of the trainings of a user.
+     *
+     * @param userId the ID of the user whose tracks are deleted
+     * @param limit  maximal number of tracks to delete
+     * @return number of deleted tracks
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM training_tracks WHERE training_id IN (
+                SELECT tt.training_id FROM training_tracks tt JOIN trainings t ON t.id = tt.training_id
+                WHERE t.user_id = :userId LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteBatchByUserId(long userId, int limit);
+
+    /**
+     * Deletes the track of a training, if it has one.
+     *
+     * @param trainingId the ID of the training
+     */
+    @Modifying
+    @Query("DELETE FROM TrainingTrack t WHERE t.trainingId = :trainingId")
+    void deleteByTrainingId(Long trainingId);
+
+}
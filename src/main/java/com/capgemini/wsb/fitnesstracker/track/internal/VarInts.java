@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.track.internal;
+
+/**
+ * Helpers for the LEB128 variable-length encoding of integers used by the track format.
+ * Small values take a single byte, signed values are ZigZag-encoded first, so small negative deltas stay small as well.
+ */
+final class VarInts {
+
+    /**
+     * Number of bytes of the longest encoding, the one of a 64-bit value.
+     */
+    static final int MAX_LENGTH = 10;
+
+    private VarInts() {
+    }
+
+    /**
+     * Maps a signed value to an unsigned one, so that values close to zero have small encodings.
+     *
+     * @param value the signed value
+     * @return the ZigZag-encoded value
+     */
+    static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Reverts the {@link #zigZag(long)} mapping.
+     *
+     * @param value the ZigZag-encoded value
+     * @return the original signed value
+     */
+    static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Writes the unsigned value into the buffer.
+     *
+     * @param buffer   the target buffer, must have at least {@link #MAX_LENGTH} bytes left
+     * @param position the position of the first byte to be written
+     * @param value    the unsigned value
+     * @return the position just after the written value
+     */
+    static int write(byte[] buffer, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+}
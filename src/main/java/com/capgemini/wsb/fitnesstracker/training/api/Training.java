@@ -4,16 +4,29 @@ import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.Date;
 
 /**
  * Entity class representing a training session in the FitnessTracker application.
  * This class is mapped to the `trainings` table in the database.
- * It includes details about the user, start and end times, activity type, distance, and average speed.
+ * It includes details about the user, start and end times, activity type, distance, average speed and burned calories.
+ * The version and last modification time are maintained by Hibernate and serve optimistic locking and conditional requests.
+ * Updates are dynamic, i.e. only the modified columns are written.
+ * Trainings uploaded with an idempotency key keep it in a unique column, so a retried upload is never stored twice.
+ * Like their user, the trainings of a deleted user are hidden from all queries until they are purged, so the user of
+ * a loaded training is never {@code null}.
  */
 @Entity
-@Table(name = "trainings")
+@Table(name = "trainings",
+        indexes = @Index(name = "idx_trainings_user_id", columnList = "user_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_trainings_idempotency_key", columnNames = "idempotency_key"))
+@DynamicUpdate
+@SQLRestriction("user_id IN (SELECT u.id FROM users u WHERE u.deleted = FALSE)")
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
@@ -48,6 +61,22 @@ public class Training {
     @Column(name = "average_speed")
     private double averageSpeed;
 
+    @Setter
+    @Column(name = "calories_burned")
+    private int caloriesBurned;
+
+    @Setter
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    @Column(name = "last_modified")
+    private Instant lastModified;
+
     /**
      * Constructor for creating a new training session.
      *
@@ -0,0 +1,45 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Application event published after a {@link Training} has been created, updated or deleted.
+ * Listeners maintaining derived data (e.g. leaderboards) can undo the {@code previous} state
+ * and apply the {@code current} one to stay consistent without rescanning the trainings.
+ *
+ * @param previous the state of the training before the change, {@code null} when the training was created
+ * @param current  the state of the training after the change, {@code null} when the training was deleted
+ */
+public record TrainingChangedEvent(@Nullable TrainingSnapshot previous, @Nullable TrainingSnapshot current) {
+
+    /**
+     * Creates an event describing a newly created training.
+     *
+     * @param created the state of the created training
+     * @return the {@link TrainingChangedEvent} for the creation
+     */
+    public static TrainingChangedEvent created(TrainingSnapshot created) {
+        return new TrainingChangedEvent(null, created);
+    }
+
+    /**
+     * Creates an event describing an update of an existing training.
+     *
+     * @param previous the state of the training before the update
+     * @param current  the state of the training after the update
+     * @return the {@link TrainingChangedEvent} for the update
+     */
+    public static TrainingChangedEvent updated(TrainingSnapshot previous, TrainingSnapshot current) {
+        return new TrainingChangedEvent(previous, current);
+    }
+
+    /**
+     * Creates an event describing a deleted training.
+     *
+     * @param deleted the last state of the deleted training
+     * @return the {@link TrainingChangedEvent} for the deletion
+     */
+    public static TrainingChangedEvent deleted(TrainingSnapshot deleted) {
+        return new TrainingChangedEvent(deleted, null);
+    }
+}
@@ -0,0 +1,27 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.util.Date;
+
+/**
+ * Partial modification of a {@link Training}, only the non-null values are applied.
+ *
+ * @param startTime    the new start time of the training session
+ * @param endTime      the new end time of the training session
+ * @param activityType the new type of activity performed
+ * @param distance     the new distance covered during the training session
+ * @param averageSpeed the new average speed during the training session
+ * @param version      the version of the training the modification is based on,
+ *                     the modification is rejected if the training has been modified since
+ */
+public record TrainingPatch(
+        @Nullable Date startTime,
+        @Nullable Date endTime,
+        @Nullable ActivityType activityType,
+        @Nullable Double distance,
+        @Nullable Double averageSpeed,
+        long version
+) {
+}
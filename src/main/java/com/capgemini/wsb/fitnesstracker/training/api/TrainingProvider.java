@@ -1,18 +1,52 @@
 package com.capgemini.wsb.fitnesstracker.training.api;
 
-import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 public interface TrainingProvider {
 
     /**
      * Retrieves a training based on their ID.
-     * If the user with given ID is not found, then {@link Optional#empty()} will be returned.
+     * If the training with given ID is not found, then {@link Optional#empty()} will be returned.
      *
      * @param trainingId id of the training to be searched
      * @return An {@link Optional} containing the located Training, or {@link Optional#empty()} if not found
      */
-    Optional<User> getTraining(Long trainingId);
+    Optional<Training> getTraining(Long trainingId);
+
+    /**
+     * Retrieves the training uploaded with the given idempotency key.
+     *
+     * @param idempotencyKey the key sent with the upload of the training
+     * @return An {@link Optional} containing the located Training, or {@link Optional#empty()} if not found
+     */
+    Optional<Training> getTrainingByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * Retrieves the trainings of a user which are in progress at the given time.
+     *
+     * @param userId id of the user whose trainings are searched
+     * @param time   the point in time
+     * @return the trainings of the user which started at or before and ended after the given time
+     */
+    List<Training> getTrainingsActiveAt(Long userId, Date time);
+
+    /**
+     * Retrieves the validator of the collection of all trainings, without loading the trainings.
+     *
+     * @return the {@link ResourceVersion} of all trainings
+     */
+    ResourceVersion getTrainingsVersion();
+
+    /**
+     * Retrieves the validator of the trainings of a user, without loading the trainings.
+     *
+     * @param userId id of the user whose trainings are checked
+     * @return the {@link ResourceVersion} of the trainings of the user
+     */
+    ResourceVersion getTrainingsVersionByUserId(Long userId);
 
 }
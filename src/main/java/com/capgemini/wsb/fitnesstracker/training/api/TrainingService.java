@@ -1,5 +1,6 @@
 package com.capgemini.wsb.fitnesstracker.training.api;
 
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 
 import java.util.Date;
@@ -51,11 +52,41 @@ public interface TrainingService {
     List<Training> getTrainingsByActivityType(ActivityType activityType);
 
     /**
-     * Updates an existing training session with new details.
+     * Retrieves all training sessions that started on or after a specified date.
+     *
+     * @param date The lower bound (inclusive) of the training start time.
+     * @return A list of {@link Training} sessions that started on or after the specified date.
+     */
+    List<Training> getTrainingsStartedSince(Date date);
+
+    /**
+     * Updates an existing training session with new details, provided it has not been modified since the version
+     * the update is based on.
      *
      * @param trainingId      The ID of the training session to update.
      * @param updatedTraining The {@link Training} object containing the updated details.
+     * @param version         The expected version of the training session.
      * @return The updated {@link Training} object.
      */
-    Training updateTraining(Long trainingId, Training updatedTraining);
+    Training updateTraining(Long trainingId, Training updatedTraining, long version);
+
+    /**
+     * Applies a partial modification to an existing training session, provided it has not been modified since
+     * the version the modification is based on.
+     *
+     * @param trainingId The ID of the training session to modify.
+     * @param patch      The {@link TrainingPatch} with the modified values and the expected version.
+     * @return The {@link ResourceVersion} of the modified training.
+     * @throws TrainingNotFoundException if the training does not exist.
+     * @throws com.capgemini.wsb.fitnesstracker.exception.api.ConflictException if the training has been modified in the meantime.
+     */
+    ResourceVersion patchTraining(Long trainingId, TrainingPatch patch);
+
+    /**
+     * Deletes a training session.
+     *
+     * @param trainingId The ID of the training session to delete.
+     * @throws TrainingNotFoundException if the training does not exist.
+     */
+    void deleteTraining(Long trainingId);
 }
@@ -0,0 +1,58 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Immutable copy of the state of a {@link Training} at a given point in time.
+ * Used to describe the training in change events without exposing the mutable entity.
+ *
+ * @param id           the unique identifier of the training
+ * @param userId       the unique identifier of the user owning the training
+ * @param startTime    the start time of the training session
+ * @param endTime      the end time of the training session
+ * @param activityType the type of activity performed
+ * @param distance     the distance covered during the training session
+ * @param averageSpeed the average speed during the training session
+ * @param caloriesBurned the calories burned during the training session
+ */
+public record TrainingSnapshot(
+        Long id,
+        Long userId,
+        Instant startTime,
+        Instant endTime,
+        ActivityType activityType,
+        double distance,
+        double averageSpeed,
+        int caloriesBurned
+) {
+
+    /**
+     * Creates a snapshot of the current state of the given {@link Training}.
+     *
+     * @param training the training to copy, must be persisted
+     * @return a {@link TrainingSnapshot} holding the current values of the training
+     */
+    public static TrainingSnapshot of(Training training) {
+        return new TrainingSnapshot(
+                training.getId(),
+                training.getUser().getId(),
+                training.getStartTime().toInstant(),
+                training.getEndTime().toInstant(),
+                training.getActivityType(),
+                training.getDistance(),
+                training.getAverageSpeed(),
+                training.getCaloriesBurned());
+    }
+
+    /**
+     * Retrieves the duration of the training session.
+     *
+     * @return the time elapsed between the start and the end of the training
+     */
+    public Duration duration() {
+        return Duration.between(startTime, endTime);
+    }
+}
@@ -1,6 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 
@@ -13,6 +14,7 @@ import java.util.List;
 /**
  * Custom deserializer for {@link Date} objects, supporting multiple date formats.
  * Used for converting JSON date strings into {@link Date} objects during deserialization.
+ * Numeric values (sent by the binary encodings) are read as epoch milliseconds.
  */
 public class CustomDateDeserializer extends JsonDeserializer<Date> {
 
@@ -30,7 +32,7 @@ public class CustomDateDeserializer extends JsonDeserializer<Date> {
     );
 
     /**
-     * Deserializes a JSON string into a {@link Date} object.
+     * Deserializes a JSON string or epoch milliseconds into a {@link Date} object.
      *
      * @param parser  The {@link JsonParser} providing the JSON input.
      * @param context The {@link DeserializationContext} for the deserialization process.
@@ -40,6 +42,9 @@ public class CustomDateDeserializer extends JsonDeserializer<Date> {
      */
     @Override
     public Date deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+            return new Date(parser.getLongValue());
+        }
         String date = parser.getText();
         for (String format : DATE_FORMATS) {
             try {
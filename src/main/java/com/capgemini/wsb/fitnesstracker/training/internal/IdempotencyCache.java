@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the responses to requests carrying an idempotency key.
+ * <p>
+ * Entries are kept in insertion order, which is also the order of their expiry, so exceeding the size
+ * evicts the entry closest to expiring anyway.
+ *
+ * @param <V> type of the cached responses
+ */
+class IdempotencyCache<V> {
+
+    private final Map<String, Entry<V>> entries;
+    private final long timeToLive;
+
+    IdempotencyCache(int maxSize, Duration timeToLive) {
+        this.timeToLive = timeToLive.toNanos();
+        this.entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param key the idempotency key of the request
+     * @return the cached response, or {@code null} if there is none or it expired
+     */
+    synchronized V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt() >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    synchronized void put(String key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + timeToLive));
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded multi-producer queue which never blocks: producers reserve a slot with a CAS on the size counter
+ * and append to a lock-free {@link ConcurrentLinkedQueue}, a full queue rejects the element right away.
+ *
+ * @param <E> type of the elements
+ */
+class IngestQueue<E> {
+
+    private final Queue<E> elements = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    IngestQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Appends the element, unless the queue is full.
+     *
+     * @param element the element to append
+     * @return the size of the queue including the element, or {@code 0} if the queue is full
+     */
+    int offer(E element) {
+        int reserved;
+        do {
+            reserved = size.get();
+            if (reserved >= capacity) {
+                return 0;
+            }
+        } while (!size.compareAndSet(reserved, reserved + 1));
+        elements.add(element);
+        return reserved + 1;
+    }
+
+    /**
+     * Moves at most {@code limit} elements, the oldest first, to the target collection.
+     *
+     * @param target the collection receiving the elements
+     * @param limit  maximal number of elements to move
+     * @return number of moved elements
+     */
+    int drainTo(Collection<? super E> target, int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = elements.poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        size.addAndGet(-drained);
+        return drained;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    boolean isEmpty() {
+        return size.get() == 0;
+    }
+}
@@ -0,0 +1,178 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Interval tree of half-open {@code [start, end)} intervals identified by an id.
+ * <p>
+ * Implemented as a treap ordered by start (then id), whose nodes are augmented with the maximal end
+ * of their subtree, so updates take O(log n) and a query O(log n + k), k being the number of matching intervals.
+ * Not thread-safe.
+ */
+class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Adds the interval.
+     *
+     * @param id    identifier of the interval, unique within the tree
+     * @param start inclusive start of the interval
+     * @param end   exclusive end of the interval
+     */
+    void insert(long id, long start, long end) {
+        root = insert(root, new Node(id, start, end, ThreadLocalRandom.current().nextInt()));
+        size++;
+    }
+
+    /**
+     * Removes the interval, if present.
+     *
+     * @param id    identifier of the interval
+     * @param start start of the interval, as it was inserted
+     */
+    void remove(long id, long start) {
+        root = remove(root, id, start);
+    }
+
+    /**
+     * @return the ids of the intervals overlapping {@code [start, end)}
+     */
+    List<Long> overlapping(long start, long end) {
+        List<Long> ids = new ArrayList<>();
+        collect(root, start, end, ids);
+        return ids;
+    }
+
+    /**
+     * @return the ids of the intervals containing the given point
+     */
+    List<Long> containing(long point) {
+        return overlapping(point, point + 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, long id, long start) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, id, node);
+        if (comparison < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static void collect(Node node, long start, long end, List<Long> ids) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, ids);
+        if (node.start < end) {
+            if (node.end > start) {
+                ids.add(node.id);
+            }
+            collect(node.right, start, end, ids);
+        }
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Long.compare(id, node.id);
+    }
+
+    private static final class Node {
+
+        private final long id;
+        private final long start;
+        private final long end;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(long id, long start, long end, int priority) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+    }
+}
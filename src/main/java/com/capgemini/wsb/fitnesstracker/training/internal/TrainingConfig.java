@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({
+        TrainingIngestProperties.class,
+        TrainingIdempotencyProperties.class,
+        TrainingIntervalIndexProperties.class
+})
+class TrainingConfig {
+
+}
@@ -1,18 +1,34 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * REST Controller for managing {@link Training} entities.
  * Provides endpoints for creating, retrieving, and updating training records.
+ * Read endpoints answer conditional requests with 304 Not Modified based on a {@link ResourceVersion} lookup.
+ * Since every training embeds its user, the validators of the users are combined with those of the trainings.
+ * Clients preferring an asynchronous response ({@code Prefer: respond-async}) get their trainings group-committed
+ * by the {@link TrainingIngestService}.
  */
 @RestController
 @RequestMapping("/v1/trainings")
@@ -20,29 +36,91 @@ import java.util.List;
 public class TrainingController {
 
     private final TrainingService trainingService;
+    private final TrainingProvider trainingProvider;
+    private final UserProvider userProvider;
     private final TrainingMapper trainingMapper;
+    private final TrainingIngestService trainingIngestService;
+    private final TrainingIdempotencyService trainingIdempotencyService;
 
     /**
      * Creates a new training record.
+     * A retried request carrying the same {@code Idempotency-Key} returns the originally created training
+     * instead of creating a duplicate, flagged with the {@code Idempotent-Replayed} header.
      *
+     * @param idempotencyKey The optional key identifying the upload across retries.
      * @param trainingDto The {@link TrainingDto} containing the details of the training to be created.
      * @return The created training as a {@link TrainingDto}.
      */
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public TrainingDto addTraining(@RequestBody TrainingDto trainingDto) {
-        Training training = trainingMapper.toEntity(trainingDto);
-        Training savedTraining = trainingService.createTraining(training);
-        return trainingMapper.toDto(savedTraining);
+    public ResponseEntity<TrainingDto> addTraining(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                                   @RequestBody TrainingDto trainingDto) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            Training training = trainingMapper.toEntity(trainingDto);
+            Training savedTraining = trainingService.createTraining(training);
+            return ResponseEntity.status(HttpStatus.CREATED).body(trainingMapper.toDto(savedTraining));
+        }
+        TrainingIdempotencyService.Result result = trainingIdempotencyService.createTraining(idempotencyKey, trainingDto);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(result.training());
+    }
+
+    /**
+     * Queues a new training record to be stored asynchronously, together with other submitted trainings.
+     * A retried submission carrying the same {@code Idempotency-Key} gets the state of the original submission,
+     * or a completed state referring to the training it created, instead of being queued again.
+     *
+     * @param idempotencyKey The optional key identifying the upload across retries.
+     * @param trainingDto The {@link TrainingDto} containing the details of the training to be created.
+     * @return 202 Accepted with the state of the submission, which can be looked up at the returned location,
+     * or 503 Service Unavailable with Retry-After if too many trainings are waiting to be stored.
+     */
+    @PostMapping(headers = "Prefer=respond-async")
+    public ResponseEntity<TrainingIngestDto> addTrainingAsync(@RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                                              @RequestBody TrainingDto trainingDto) {
+        String key = idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey;
+        Optional<TrainingIngestDto> submitted = key == null
+                ? trainingIngestService.submit(trainingDto, null)
+                : trainingIdempotencyService.findCreated(key, trainingDto)
+                        .map(created -> Optional.of(trainingIngestService.replay(created.id())))
+                        .orElseGet(() -> trainingIngestService.submit(trainingDto, key));
+        return submitted
+                .map(status -> ResponseEntity.accepted()
+                        .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                                .path("/v1/trainings/ingest/{trackingId}")
+                                .buildAndExpand(status.trackingId())
+                                .toUri())
+                        .header("Preference-Applied", "respond-async")
+                        .body(status))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, trainingIngestService.getRetryAfter().toSeconds())))
+                        .build());
+    }
+
+    /**
+     * Retrieves the state of a training submitted asynchronously.
+     *
+     * @param trackingId The tracking ID returned when the training was submitted.
+     * @return The state of the submission as {@link TrainingIngestDto}.
+     * @throws NotFoundException if the submission is unknown or its state already expired.
+     */
+    @GetMapping("/ingest/{trackingId}")
+    public TrainingIngestDto getIngestStatus(@PathVariable UUID trackingId) {
+        return trainingIngestService.getStatus(trackingId)
+                .orElseThrow(() -> new NotFoundException("Training submission " + trackingId + " not found"));
     }
 
     /**
      * Retrieves all training records.
      *
+     * @param request The current request carrying the conditional headers.
      * @return A list of all training records as {@link TrainingDto}.
      */
     @GetMapping
-    public List<TrainingDto> getAllTrainings() {
+    public List<TrainingDto> getAllTrainings(WebRequest request) {
+        if (allTrainingsVersion().checkNotModified(request)) {
+            return null;
+        }
         return trainingService.getAllTrainings()
                 .stream()
                 .map(trainingMapper::toDto)
@@ -53,10 +131,15 @@ public class TrainingController {
      * Retrieves all trainings that ended after a specific date.
      *
      * @param afterTime The cutoff date (format: yyyy-MM-dd) for filtering trainings.
+     * @param request The current request carrying the conditional headers.
      * @return A list of trainings ending after the specified date as {@link TrainingDto}.
      */
     @GetMapping("/finished/{afterTime}")
-    public List<TrainingDto> getTrainingsFinishedAfter(@PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") Date afterTime) {
+    public List<TrainingDto> getTrainingsFinishedAfter(@PathVariable @DateTimeFormat(pattern = "yyyy-MM-dd") Date afterTime,
+                                                       WebRequest request) {
+        if (allTrainingsVersion().checkNotModified(request)) {
+            return null;
+        }
         return trainingService.getTrainingsEndedAfter(afterTime)
                 .stream()
                 .map(trainingMapper::toDto)
@@ -67,10 +150,14 @@ public class TrainingController {
      * Retrieves all trainings for a specific activity type.
      *
      * @param activityType The activity type to filter trainings.
+     * @param request The current request carrying the conditional headers.
      * @return A list of trainings for the specified activity type as {@link TrainingDto}.
      */
     @GetMapping("/activityType")
-    public List<TrainingDto> getTrainingsByActivityType(@RequestParam ActivityType activityType) {
+    public List<TrainingDto> getTrainingsByActivityType(@RequestParam ActivityType activityType, WebRequest request) {
+        if (allTrainingsVersion().checkNotModified(request)) {
+            return null;
+        }
         return trainingService.getTrainingsByActivityType(activityType)
                 .stream()
                 .map(trainingMapper::toDto)
@@ -81,27 +168,97 @@ public class TrainingController {
      * Retrieves all trainings associated with a specific user.
      *
      * @param userId The ID of the user whose trainings are to be retrieved.
+     * @param request The current request carrying the conditional headers.
      * @return A list of trainings for the specified user as {@link TrainingDto}.
      */
     @GetMapping("/{userId}")
-    public List<TrainingDto> getTrainingsByUserId(@PathVariable Long userId) {
+    public List<TrainingDto> getTrainingsByUserId(@PathVariable Long userId, WebRequest request) {
+        ResourceVersion trainings = trainingProvider.getTrainingsVersionByUserId(userId);
+        ResourceVersion version = userProvider.getUserVersion(userId)
+                .map(trainings::and)
+                .orElse(trainings);
+        if (version.checkNotModified(request)) {
+            return null;
+        }
         return trainingService.getTrainingsByUserId(userId)
                 .stream()
                 .map(trainingMapper::toDto)
                 .toList();
     }
 
+    /**
+     * Retrieves the trainings of a user which were in progress at a specific time.
+     *
+     * @param userId The ID of the user whose trainings are to be retrieved.
+     * @param at The point in time (format: yyyy-MM-dd'T'HH:mm:ss).
+     * @return A list of the trainings of the user active at the given time as {@link TrainingDto}.
+     */
+    @GetMapping("/{userId}/active")
+    public List<TrainingDto> getTrainingsActiveAt(@PathVariable Long userId,
+                                                  @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") Date at) {
+        return trainingProvider.getTrainingsActiveAt(userId, at)
+                .stream()
+                .map(trainingMapper::toDto)
+                .toList();
+    }
+
     /**
      * Updates an existing training record.
+     * The update is applied only if the training is still at the expected version, taken from the
+     * {@code If-Match} header or, without the header, from the request body.
      *
      * @param id The ID of the training to update.
+     * @param ifMatch The entity tag of the training the update is based on, if any.
      * @param trainingDto The {@link TrainingDto} containing the updated details.
      * @return The updated training record as a {@link TrainingDto}.
+     * @throws BusinessException if the request does not carry the expected version.
      */
     @PutMapping("/{id}")
-    public TrainingDto updateTraining(@PathVariable Long id, @RequestBody TrainingDto trainingDto) {
+    public TrainingDto updateTraining(@PathVariable Long id,
+                                      @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) @Nullable String ifMatch,
+                                      @RequestBody TrainingDto trainingDto) {
+        Long version = ifMatch != null ? ResourceVersion.versionOf(ifMatch).orElse(null) : trainingDto.version();
+        if (version == null) {
+            throw new BusinessException("The version of the training to update is required, as an If-Match entity tag or in the body");
+        }
         Training updatedTraining = trainingMapper.toEntity(trainingDto);
-        Training savedTraining = trainingService.updateTraining(id, updatedTraining);
+        Training savedTraining = trainingService.updateTraining(id, updatedTraining, version);
         return trainingMapper.toDto(savedTraining);
     }
+
+    /**
+     * Partially updates an existing training record.
+     * The modification is applied only if the training is still at the version given in the request.
+     *
+     * @param id The ID of the training to update.
+     * @param patchDto The {@link TrainingPatchDto} containing the modified fields and the expected version.
+     * @return 204 No Content carrying the new ETag of the training.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchTraining(@PathVariable Long id, @RequestBody TrainingPatchDto patchDto) {
+        ResourceVersion version = trainingService.patchTraining(id, trainingMapper.toPatch(patchDto));
+        return ResponseEntity.noContent()
+                .eTag(version.eTag())
+                .lastModified(version.lastModified())
+                .build();
+    }
+
+    /**
+     * Deletes a training record.
+     *
+     * @param id The ID of the training to delete.
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteTraining(@PathVariable Long id) {
+        trainingService.deleteTraining(id);
+    }
+
+    /**
+     * Filtered lists are validated conservatively with the version of all trainings and users,
+     * any modification invalidates them, but the check still costs just two aggregate queries.
+     */
+    private ResourceVersion allTrainingsVersion() {
+        return trainingProvider.getTrainingsVersion().and(userProvider.getUsersVersion());
+    }
 }
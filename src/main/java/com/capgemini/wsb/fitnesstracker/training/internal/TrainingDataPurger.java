@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDataPurger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges the trainings of deleted users.
+ * No {@link com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent} is published for purged trainings,
+ * listeners drop the data of the user on {@link com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent} instead.
+ */
+@Component
+@Order(20)
+@RequiredArgsConstructor
+class TrainingDataPurger implements UserDataPurger {
+
+    private final TrainingRepository trainingRepository;
+
+    @Override
+    public String name() {
+        return "trainings";
+    }
+
+    @Override
+    public int purge(long userId, int batchSize) {
+        return trainingRepository.deleteBatchByUserId(userId, batchSize);
+    }
+}
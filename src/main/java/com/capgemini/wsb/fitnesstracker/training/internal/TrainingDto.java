@@ -3,6 +3,7 @@ package com.capgemini.wsb.fitnesstracker.training.internal;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import jakarta.annotation.Nullable;
 
 import java.util.Date;
 
@@ -18,6 +19,8 @@ import java.util.Date;
  * @param activityType  The type of activity performed during the training session.
  * @param distance      The distance covered during the training session.
  * @param averageSpeed  The average speed during the training session.
+ * @param caloriesBurned The calories burned during the training session, computed by the server (used for output).
+ * @param version       The version of the training, required by updates and partial modifications.
  */
 public record TrainingDto(
         Long id,
@@ -31,6 +34,8 @@ public record TrainingDto(
         Date endTime,
         ActivityType activityType,
         double distance,
-        double averageSpeed
+        double averageSpeed,
+        int caloriesBurned,
+        @Nullable Long version
 ) {
 }
@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the deduplication of trainings uploaded with an {@code Idempotency-Key}.
+ */
+@ConfigurationProperties(prefix = "training.idempotency")
+@Getter
+class TrainingIdempotencyProperties {
+
+    /**
+     * Maximal number of responses kept in memory, older uploads are looked up in the database.
+     */
+    private final int cacheSize;
+
+    /**
+     * Time a response is kept in memory.
+     */
+    private final Duration cacheTtl;
+
+    TrainingIdempotencyProperties(@DefaultValue("10000") int cacheSize,
+                                  @DefaultValue("1h") Duration cacheTtl) {
+        this.cacheSize = cacheSize;
+        this.cacheTtl = cacheTtl;
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.exception.api.ConflictException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Creates trainings uploaded with an {@code Idempotency-Key} at most once.
+ * <p>
+ * The response to a retried upload is served from a bounded in-memory cache, falling back to the training stored
+ * with the key, so neither the user lookup of the {@link TrainingMapper} nor the insert are repeated.
+ * The unique key column settles retries racing each other: the loser of the insert, or of the overlap check once the
+ * winner has committed, returns the winner's training.
+ */
+@Service
+class TrainingIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final TrainingService trainingService;
+    private final TrainingProvider trainingProvider;
+    private final TrainingMapper trainingMapper;
+    private final IdempotencyCache<TrainingDto> responses;
+
+    TrainingIdempotencyService(TrainingService trainingService,
+                               TrainingProvider trainingProvider,
+                               TrainingMapper trainingMapper,
+                               TrainingIdempotencyProperties properties) {
+        this.trainingService = trainingService;
+        this.trainingProvider = trainingProvider;
+        this.trainingMapper = trainingMapper;
+        this.responses = new IdempotencyCache<>(properties.getCacheSize(), properties.getCacheTtl());
+    }
+
+    /**
+     * Creates the training, unless it has already been created with the same key.
+     *
+     * @param idempotencyKey the key identifying the upload
+     * @param trainingDto    the training to create
+     * @return the created training, or the one created by an earlier upload with the same key
+     * @throws BusinessException if the key is too long
+     * @throws ConflictException if the key has been used for a training of another user
+     */
+    Result createTraining(String idempotencyKey, TrainingDto trainingDto) {
+        Optional<TrainingDto> created = findCreated(idempotencyKey, trainingDto);
+        if (created.isPresent()) {
+            return new Result(created.get(), true);
+        }
+        Training training = trainingMapper.toEntity(trainingDto);
+        training.setIdempotencyKey(idempotencyKey);
+        Training savedTraining;
+        try {
+            savedTraining = trainingService.createTraining(training);
+        } catch (DataIntegrityViolationException | ConflictException e) {
+            // a retry which waited for the lock of the user overlaps the training of the upload it retries
+            Training winner = trainingProvider.getTrainingByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            return new Result(replayed(idempotencyKey, cache(idempotencyKey, winner), trainingDto), true);
+        }
+        return new Result(cache(idempotencyKey, savedTraining), false);
+    }
+
+    /**
+     * Looks the training created by an earlier upload with the same key up.
+     *
+     * @param idempotencyKey the key identifying the upload
+     * @param trainingDto    the training to create
+     * @return the training created with the key, or empty if there is none yet
+     * @throws BusinessException if the key is too long
+     * @throws ConflictException if the key has been used for a training of another user
+     */
+    Optional<TrainingDto> findCreated(String idempotencyKey, TrainingDto trainingDto) {
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessException("Idempotency key must not be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        TrainingDto cached = responses.get(idempotencyKey);
+        if (cached != null) {
+            return Optional.of(replayed(idempotencyKey, cached, trainingDto));
+        }
+        return trainingProvider.getTrainingByIdempotencyKey(idempotencyKey)
+                .map(stored -> replayed(idempotencyKey, cache(idempotencyKey, stored), trainingDto));
+    }
+
+    private TrainingDto cache(String idempotencyKey, Training training) {
+        TrainingDto response = trainingMapper.toDto(training);
+        responses.put(idempotencyKey, response);
+        return response;
+    }
+
+    private static TrainingDto replayed(String idempotencyKey, TrainingDto response, TrainingDto request) {
+        if (!Objects.equals(response.userId(), request.userId())) {
+            throw new ConflictException("Idempotency key " + idempotencyKey + " has already been used by another user");
+        }
+        return response;
+    }
+
+    /**
+     * @param training the created training
+     * @param replayed whether the training had been created by an earlier upload
+     */
+    record Result(TrainingDto training, boolean replayed) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import jakarta.annotation.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Data Transfer Object (DTO) representing the state of a training submitted for asynchronous ingestion.
+ *
+ * @param trackingId The identifier of the submission, used to look its state up.
+ * @param status     The state of the submission.
+ * @param trainingId The unique identifier of the stored training, once {@link Status#COMPLETED}.
+ * @param error      The reason of the failure, once {@link Status#FAILED}.
+ */
+public record TrainingIngestDto(
+        UUID trackingId,
+        Status status,
+        @Nullable Long trainingId,
+        @Nullable String error
+) {
+
+    public enum Status {
+        PENDING,
+        COMPLETED,
+        FAILED
+    }
+
+    static TrainingIngestDto pending(UUID trackingId) {
+        return new TrainingIngestDto(trackingId, Status.PENDING, null, null);
+    }
+
+    static TrainingIngestDto completed(UUID trackingId, Long trainingId) {
+        return new TrainingIngestDto(trackingId, Status.COMPLETED, trainingId, null);
+    }
+
+    static TrainingIngestDto failed(UUID trackingId, String error) {
+        return new TrainingIngestDto(trackingId, Status.FAILED, null, error);
+    }
+}
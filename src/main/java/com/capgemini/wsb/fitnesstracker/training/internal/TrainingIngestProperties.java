@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the asynchronous (group-commit) ingestion of trainings.
+ */
+@ConfigurationProperties(prefix = "training.ingest")
+@Getter
+class TrainingIngestProperties {
+
+    /**
+     * Maximal number of trainings waiting to be written, further submissions are rejected with 503.
+     */
+    private final int queueCapacity;
+
+    /**
+     * Maximal number of trainings written (and committed) by a single transaction.
+     */
+    private final int batchSize;
+
+    /**
+     * Maximal time a submitted training waits for the batch to fill up before it is written.
+     */
+    private final Duration maxDelay;
+
+    /**
+     * Value of the Retry-After header sent with rejected submissions.
+     */
+    private final Duration retryAfter;
+
+    /**
+     * Time the state of a completed or failed submission is kept for lookups.
+     */
+    private final Duration statusRetention;
+
+    TrainingIngestProperties(@DefaultValue("10000") int queueCapacity,
+                             @DefaultValue("200") int batchSize,
+                             @DefaultValue("20ms") Duration maxDelay,
+                             @DefaultValue("1s") Duration retryAfter,
+                             @DefaultValue("10m") Duration statusRetention) {
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.retryAfter = retryAfter;
+        this.statusRetention = statusRetention;
+    }
+
+}
@@ -0,0 +1,298 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.exception.api.ConflictException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import jakarta.annotation.Nullable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous write path of trainings, which group-commits the submitted trainings.
+ * <p>
+ * Submissions are appended to a bounded {@link IngestQueue} and answered right away with a tracking id.
+ * A single writer thread drains the queue and stores up to {@code batchSize} trainings in one transaction,
+ * as soon as the batch is full or its oldest training waited {@code maxDelay}, so a single commit (and log flush)
+ * is paid for the whole batch. When the queue is full the submission is rejected, leaving the retry to the client.
+ * <p>
+ * The submissions are validated before they are queued, and trainings rejected while written (unknown user,
+ * overlap) fail alone, so that a single invalid training does not fail the batch it is written with.
+ * A batch failing nevertheless (e.g. on a constraint violation of the database) is rolled back and its trainings
+ * are written again, each in its own transaction, so only the faulty trainings are marked as failed.
+ * <p>
+ * A submission carrying an {@code Idempotency-Key} gets the state of the submission still queued with the same key,
+ * if any, and the key is stored with the training. A training whose key has meanwhile been stored by another upload
+ * fails its batch on the unique key, and is then completed with the training stored by that upload.
+ * <p>
+ * The queue and the states of the submissions are held in memory only: trainings waiting in the queue are written
+ * on a graceful shutdown, but lost on a crash.
+ */
+@Service
+@Slf4j
+class TrainingIngestService implements SmartLifecycle {
+
+    private final TrainingService trainingService;
+    private final TrainingMapper trainingMapper;
+    private final TrainingIdempotencyService trainingIdempotencyService;
+    private final TransactionTemplate transactionTemplate;
+    private final TrainingIngestProperties properties;
+    private final IngestQueue<PendingTraining> queue;
+    private final Map<UUID, TrainingIngestDto> statuses = new ConcurrentHashMap<>();
+    private final Map<String, UUID> queuedKeys = new ConcurrentHashMap<>();
+    private final Queue<Expiry> expiries = new ConcurrentLinkedQueue<>();
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    TrainingIngestService(TrainingService trainingService,
+                          TrainingMapper trainingMapper,
+                          TrainingIdempotencyService trainingIdempotencyService,
+                          TransactionTemplate transactionTemplate,
+                          TrainingIngestProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.trainingService = trainingService;
+        this.trainingMapper = trainingMapper;
+        this.trainingIdempotencyService = trainingIdempotencyService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.queue = new IngestQueue<>(properties.getQueueCapacity());
+        this.rejected = Counter.builder("training.ingest.rejected")
+                .description("Number of trainings rejected because the ingestion queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("training.ingest.batch.size")
+                .description("Number of trainings committed by a single transaction")
+                .register(meterRegistry);
+        Gauge.builder("training.ingest.queue.size", queue, IngestQueue::size)
+                .description("Number of trainings waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the training to be written by the next batch, unless it is already queued with the same key.
+     *
+     * @param trainingDto    the training to store
+     * @param idempotencyKey the key identifying the upload across retries, if any
+     * @return the state of the submission, or {@link Optional#empty()} if the queue is full
+     * @throws BusinessException if the training is incomplete
+     */
+    Optional<TrainingIngestDto> submit(TrainingDto trainingDto, @Nullable String idempotencyKey) {
+        if (trainingDto.userId() == null || trainingDto.startTime() == null
+                || trainingDto.endTime() == null || trainingDto.activityType() == null) {
+            throw new BusinessException("User, start time, end time and activity type of the training are required");
+        }
+        if (!running) {
+            return Optional.empty();
+        }
+        TrainingIngestDto status = TrainingIngestDto.pending(UUID.randomUUID());
+        statuses.put(status.trackingId(), status);
+        if (idempotencyKey != null) {
+            UUID queued = queuedKeys.putIfAbsent(idempotencyKey, status.trackingId());
+            if (queued != null) {
+                TrainingIngestDto queuedStatus = statuses.get(queued);
+                if (queuedStatus != null) {
+                    statuses.remove(status.trackingId());
+                    return Optional.of(queuedStatus);
+                }
+                queuedKeys.put(idempotencyKey, status.trackingId());
+            }
+        }
+        int size = queue.offer(new PendingTraining(status.trackingId(), trainingDto, idempotencyKey));
+        if (size == 0) {
+            statuses.remove(status.trackingId());
+            if (idempotencyKey != null) {
+                queuedKeys.remove(idempotencyKey, status.trackingId());
+            }
+            rejected.increment();
+            return Optional.empty();
+        }
+        if (size == 1 || size >= properties.getBatchSize()) {
+            LockSupport.unpark(writer);
+        }
+        return Optional.of(status);
+    }
+
+    /**
+     * Records the state of a submission whose training has already been stored by an earlier upload.
+     *
+     * @param trainingId the ID of the stored training
+     * @return the completed state of the submission
+     */
+    TrainingIngestDto replay(Long trainingId) {
+        TrainingIngestDto status = TrainingIngestDto.completed(UUID.randomUUID(), trainingId);
+        statuses.put(status.trackingId(), status);
+        expiries.add(new Expiry(status.trackingId(), System.nanoTime() + properties.getStatusRetention().toNanos()));
+        return status;
+    }
+
+    /**
+     * Looks the state of a submission up.
+     *
+     * @param trackingId the identifier returned by {@link #submit(TrainingDto)}
+     * @return the state of the submission, or {@link Optional#empty()} if it is unknown or already expired
+     */
+    Optional<TrainingIngestDto> getStatus(UUID trackingId) {
+        return Optional.ofNullable(statuses.get(trackingId));
+    }
+
+    /**
+     * @return the time after which a rejected submission should be retried
+     */
+    Duration getRetryAfter() {
+        return properties.getRetryAfter();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "training-ingest");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        int batchSize = properties.getBatchSize();
+        long maxDelay = properties.getMaxDelay().toNanos();
+        List<PendingTraining> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            if (queue.isEmpty()) {
+                LockSupport.parkNanos(this, maxDelay);
+                expireStatuses();
+                continue;
+            }
+            long deadline = System.nanoTime() + maxDelay;
+            long remaining;
+            while (running && queue.size() < batchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+            queue.drainTo(batch, batchSize);
+            write(batch);
+            batch.clear();
+            expireStatuses();
+        }
+    }
+
+    private void write(List<PendingTraining> batch) {
+        List<TrainingIngestDto> results = new ArrayList<>(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(transaction -> {
+                for (PendingTraining pending : batch) {
+                    results.add(store(pending));
+                }
+            });
+            batchSizes.record(batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Writing a batch of {} trainings failed, writing them one by one", batch.size(), e);
+            results.clear();
+            batch.forEach(pending -> results.add(writeAlone(pending)));
+        }
+        long expiresAt = System.nanoTime() + properties.getStatusRetention().toNanos();
+        for (TrainingIngestDto result : results) {
+            statuses.put(result.trackingId(), result);
+            expiries.add(new Expiry(result.trackingId(), expiresAt));
+        }
+        for (PendingTraining pending : batch) {
+            if (pending.idempotencyKey() != null) {
+                queuedKeys.remove(pending.idempotencyKey(), pending.trackingId());
+            }
+        }
+    }
+
+    private TrainingIngestDto writeAlone(PendingTraining pending) {
+        try {
+            TrainingIngestDto result = transactionTemplate.execute(transaction -> store(pending));
+            batchSizes.record(1);
+            return result;
+        } catch (DataIntegrityViolationException e) {
+            if (pending.idempotencyKey() != null) {
+                return replayed(pending, e);
+            }
+            log.error("Writing training {} failed", pending.trackingId(), e);
+            return TrainingIngestDto.failed(pending.trackingId(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Writing training {} failed", pending.trackingId(), e);
+            return TrainingIngestDto.failed(pending.trackingId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Completes a submission whose key has been stored by another upload in the meantime.
+     */
+    private TrainingIngestDto replayed(PendingTraining pending, DataIntegrityViolationException e) {
+        try {
+            return trainingIdempotencyService.findCreated(pending.idempotencyKey(), pending.training())
+                    .map(created -> TrainingIngestDto.completed(pending.trackingId(), created.id()))
+                    .orElseThrow(() -> e);
+        } catch (RuntimeException failure) {
+            log.error("Writing training {} failed", pending.trackingId(), failure);
+            return TrainingIngestDto.failed(pending.trackingId(), failure.getMessage());
+        }
+    }
+
+    private TrainingIngestDto store(PendingTraining pending) {
+        try {
+            Training training = trainingMapper.toEntity(pending.training());
+            training.setIdempotencyKey(pending.idempotencyKey());
+            return TrainingIngestDto.completed(pending.trackingId(), trainingService.createTraining(training).getId());
+        } catch (ConflictException e) {
+            // a retry overlaps the training stored by the upload it retries, once that one has committed
+            return Optional.ofNullable(pending.idempotencyKey())
+                    .flatMap(idempotencyKey -> trainingIdempotencyService.findCreated(idempotencyKey, pending.training()))
+                    .map(created -> TrainingIngestDto.completed(pending.trackingId(), created.id()))
+                    .orElseGet(() -> TrainingIngestDto.failed(pending.trackingId(), e.getMessage()));
+        } catch (IllegalArgumentException | BusinessException e) {
+            return TrainingIngestDto.failed(pending.trackingId(), e.getMessage());
+        }
+    }
+
+    private void expireStatuses() {
+        long now = System.nanoTime();
+        Expiry expiry;
+        while ((expiry = expiries.peek()) != null && now - expiry.expiresAt() >= 0) {
+            expiries.poll();
+            statuses.remove(expiry.trackingId());
+        }
+    }
+
+    private record PendingTraining(UUID trackingId, TrainingDto training, @Nullable String idempotencyKey) {
+    }
+
+    private record Expiry(UUID trackingId, long expiresAt) {
+    }
+}
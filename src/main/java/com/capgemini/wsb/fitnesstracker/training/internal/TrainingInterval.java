@@ -0,0 +1,14 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.util.Date;
+
+/**
+ * Projection of a training on the time interval it occupies.
+ *
+ * @param id        The unique identifier of the training.
+ * @param startTime The start time of the training.
+ * @param endTime   The end time of the training.
+ */
+public record TrainingInterval(Long id, Date startTime, Date endTime) {
+
+}
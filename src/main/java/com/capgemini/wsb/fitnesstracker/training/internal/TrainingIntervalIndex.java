@@ -0,0 +1,235 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.ConflictException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import jakarta.annotation.Nullable;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user {@link IntervalTree} of the time intervals of the trainings, used to reject overlapping trainings
+ * and to find the trainings active at a given time without loading the history of the user.
+ * <p>
+ * The tree of a user is built lazily from a projection of its trainings and kept in a bounded LRU cache. Cached
+ * trees only hold committed trainings: a {@link TrainingChangedEvent} is applied once its transaction has committed.
+ * Meanwhile the change is pending for its users, whose trees are read from the database instead, and every change
+ * increments the generation of the users, so a tree loaded while a change was pending or completed is not cached.
+ * <p>
+ * The check locks the row of the user until the end of the transaction, so the checks and the writes of the
+ * trainings of a user are serialized. A check waiting for the lock sees the changes committed before it, either from
+ * the database while they are pending, or in the cached tree once they are applied.
+ */
+@Component
+class TrainingIntervalIndex {
+
+    private final TrainingRepository trainingRepository;
+    private final Map<Long, UserIntervals> users;
+
+    TrainingIntervalIndex(TrainingRepository trainingRepository, TrainingIntervalIndexProperties properties) {
+        this.trainingRepository = trainingRepository;
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserIntervals> eldest) {
+                // the users with pending changes are kept, so their completions find them
+                return size() > properties.getMaxUsers() && eldest.getValue().pending == 0;
+            }
+        };
+    }
+
+    /**
+     * Verifies that the given interval does not overlap any other training of the user, locking the user until the
+     * end of the current transaction.
+     *
+     * @param userId     the ID of the user owning the training
+     * @param trainingId the ID of the checked training when it is updated, {@code null} when it is created
+     * @param startTime  the start time of the training
+     * @param endTime    the end time of the training
+     * @throws ConflictException if the interval overlaps another training of the user
+     */
+    void checkNoOverlap(Long userId, @Nullable Long trainingId, Date startTime, Date endTime) {
+        trainingRepository.lockUser(userId);
+        IntervalTree tree = tree(userId);
+        List<Long> overlapping;
+        synchronized (tree) {
+            overlapping = tree.overlapping(startTime.getTime(), endTime.getTime());
+        }
+        overlapping.stream()
+                .filter(id -> !id.equals(trainingId))
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new ConflictException("Training overlaps the training with ID=%s of user %s".formatted(id, userId));
+                });
+    }
+
+    /**
+     * @param userId the ID of the user owning the trainings
+     * @param time   the point in time
+     * @return the IDs of the trainings of the user which started at or before and ended after the given time
+     */
+    List<Long> findActiveAt(Long userId, Date time) {
+        IntervalTree tree = tree(userId);
+        synchronized (tree) {
+            return tree.containing(time.getTime());
+        }
+    }
+
+    /**
+     * Marks the change of the training as pending for its users until its transaction completes.
+     *
+     * @param event the event describing the changed training
+     */
+    @EventListener
+    public void onTrainingChanged(TrainingChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // published without a transaction, the change is applied right away
+            return;
+        }
+        synchronized (users) {
+            if (event.previous() != null) {
+                users.computeIfAbsent(event.previous().userId(), userId -> new UserIntervals()).begin();
+            }
+            if (event.current() != null) {
+                users.computeIfAbsent(event.current().userId(), userId -> new UserIntervals()).begin();
+            }
+        }
+    }
+
+    /**
+     * Moves the training to its new interval in the cached tree of its user once the change has been committed, or
+     * right away when it has been published without a transaction.
+     *
+     * @param event the event describing the changed training
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingChangeCommitted(TrainingChangedEvent event) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            complete(event, true);
+        } else {
+            apply(event);
+        }
+    }
+
+    /**
+     * Ends the pending change of a rolled back transaction.
+     *
+     * @param event the event published by the rolled back transaction
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onTrainingChangeRolledBack(TrainingChangedEvent event) {
+        complete(event, false);
+    }
+
+    /**
+     * Drops the tree of a deleted user, its trainings are purged without change events.
+     *
+     * @param event the event announcing the deleted user
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        synchronized (users) {
+            UserIntervals intervals = users.get(event.userId());
+            if (intervals != null) {
+                intervals.tree = null;
+                intervals.generation++;
+            }
+        }
+    }
+
+    private void complete(TrainingChangedEvent event, boolean committed) {
+        TrainingSnapshot previous = event.previous();
+        TrainingSnapshot current = event.current();
+        synchronized (users) {
+            if (previous != null) {
+                users.get(previous.userId()).complete(previous, false, committed);
+            }
+            if (current != null) {
+                users.get(current.userId()).complete(current, true, committed);
+            }
+        }
+    }
+
+    private void apply(TrainingChangedEvent event) {
+        TrainingSnapshot previous = event.previous();
+        TrainingSnapshot current = event.current();
+        synchronized (users) {
+            if (previous != null) {
+                users.computeIfAbsent(previous.userId(), userId -> new UserIntervals()).apply(previous, false);
+            }
+            if (current != null) {
+                users.computeIfAbsent(current.userId(), userId -> new UserIntervals()).apply(current, true);
+            }
+        }
+    }
+
+    private IntervalTree tree(Long userId) {
+        UserIntervals intervals;
+        long generation;
+        synchronized (users) {
+            intervals = users.computeIfAbsent(userId, id -> new UserIntervals());
+            if (intervals.tree != null && intervals.pending == 0) {
+                return intervals.tree;
+            }
+            generation = intervals.generation;
+        }
+        IntervalTree loaded = new IntervalTree();
+        for (TrainingInterval interval : trainingRepository.findIntervalsByUserId(userId)) {
+            loaded.insert(interval.id(), interval.startTime().getTime(), interval.endTime().getTime());
+        }
+        synchronized (users) {
+            if (users.get(userId) == intervals && intervals.generation == generation && intervals.pending == 0) {
+                intervals.tree = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * The cached tree of a user with the number of their pending changes and the generation of their trees, guarded
+     * by the cache.
+     */
+    private static final class UserIntervals {
+
+        @Nullable
+        private IntervalTree tree;
+        private int pending;
+        private long generation;
+
+        void begin() {
+            pending++;
+            generation++;
+        }
+
+        void complete(TrainingSnapshot training, boolean added, boolean committed) {
+            pending--;
+            if (committed) {
+                apply(training, added);
+            } else {
+                generation++;
+            }
+        }
+
+        void apply(TrainingSnapshot training, boolean added) {
+            generation++;
+            if (tree == null) {
+                return;
+            }
+            synchronized (tree) {
+                if (added) {
+                    tree.insert(training.id(), training.startTime().toEpochMilli(), training.endTime().toEpochMilli());
+                } else {
+                    tree.remove(training.id(), training.startTime().toEpochMilli());
+                }
+            }
+        }
+    }
+}
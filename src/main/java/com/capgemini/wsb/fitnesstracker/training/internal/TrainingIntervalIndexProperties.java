@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the per-user index of the time intervals of the trainings.
+ */
+@ConfigurationProperties(prefix = "training.interval-index")
+@Getter
+class TrainingIntervalIndexProperties {
+
+    /**
+     * Maximal number of users whose intervals are kept in memory, the least recently used are rebuilt on demand.
+     */
+    private final int maxUsers;
+
+    TrainingIntervalIndexProperties(@DefaultValue("10000") int maxUsers) {
+        this.maxUsers = maxUsers;
+    }
+
+}
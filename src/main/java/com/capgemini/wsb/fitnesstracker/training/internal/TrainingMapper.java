@@ -1,6 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingPatch;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import lombok.RequiredArgsConstructor;
@@ -31,7 +32,9 @@ class TrainingMapper {
                 training.getEndTime(),
                 training.getActivityType(),
                 training.getDistance(),
-                training.getAverageSpeed()
+                training.getAverageSpeed(),
+                training.getCaloriesBurned(),
+                training.getVersion()
         );
     }
 
@@ -55,4 +58,21 @@ class TrainingMapper {
                 trainingDto.averageSpeed()
         );
     }
+
+    /**
+     * Converts a {@link TrainingPatchDto} to a {@link TrainingPatch}.
+     *
+     * @param patchDto the {@link TrainingPatchDto} to be converted
+     * @return a {@link TrainingPatch} carrying the modified values of the given {@link TrainingPatchDto}
+     */
+    TrainingPatch toPatch(TrainingPatchDto patchDto) {
+        return new TrainingPatch(
+                patchDto.startTime(),
+                patchDto.endTime(),
+                patchDto.activityType(),
+                patchDto.distance(),
+                patchDto.averageSpeed(),
+                patchDto.version()
+        );
+    }
 }
@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import jakarta.annotation.Nullable;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object (DTO) representing a partial modification of a training, omitted fields are left unchanged.
+ *
+ * @param startTime    The new start time of the training session.
+ * @param endTime      The new end time of the training session.
+ * @param activityType The new type of activity performed during the training session.
+ * @param distance     The new distance covered during the training session.
+ * @param averageSpeed The new average speed during the training session.
+ * @param version      The version of the training the modification is based on.
+ */
+public record TrainingPatchDto(
+        @Nullable
+        @JsonDeserialize(using = CustomDateDeserializer.class)
+        Date startTime,
+        @Nullable
+        @JsonDeserialize(using = CustomDateDeserializer.class)
+        Date endTime,
+        @Nullable ActivityType activityType,
+        @Nullable Double distance,
+        @Nullable Double averageSpeed,
+        long version
+) {
+}
@@ -1,10 +1,16 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link Training} entities.
@@ -20,6 +26,14 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
      */
     List<Training> findByUserId(Long userId);
 
+    /**
+     * Finds the training uploaded with the given idempotency key.
+     *
+     * @param idempotencyKey the key sent with the upload of the training
+     * @return an {@link Optional} containing the found training, or empty if not found
+     */
+    Optional<Training> findByIdempotencyKey(String idempotencyKey);
+
     /**
      * Finds all trainings that ended after the specified date.
      *
@@ -35,4 +49,112 @@ public interface TrainingRepository extends JpaRepository<Training, Long> {
      * @return a list of trainings with the given activity type
      */
     List<Training> findByActivityType(ActivityType activityType);
+
+    /**
+     * Finds all trainings that started on or after the specified date.
+     *
+     * @param date the lower bound (inclusive) of the training start time
+     * @return a list of trainings started on or after the given date
+     */
+    List<Training> findByStartTimeGreaterThanEqual(Date date);
+
+    /**
+     * Computes the validator of the collection of all trainings with a single aggregate query.
+     *
+     * @return the {@link ResourceVersion} of all trainings
+     */
+    @Query("""
+            SELECT new com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion(count(t), coalesce(sum(t.version), 0L), max(t.lastModified))
+            FROM Training t
+            """)
+    ResourceVersion findVersionOfAll();
+
+    /**
+     * Computes the validator of the trainings of a user with a single aggregate query (an index range scan on {@code user_id}).
+     *
+     * @param userId the ID of the user whose trainings are checked
+     * @return the {@link ResourceVersion} of the trainings of the user
+     */
+    @Query("""
+            SELECT new com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion(count(t), coalesce(sum(t.version), 0L), max(t.lastModified))
+            FROM Training t WHERE t.user.id = :userId
+            """)
+    ResourceVersion findVersionByUserId(Long userId);
+
+    /**
+     * Loads the time intervals of all trainings of a user, without loading the trainings.
+     *
+     * @param userId the ID of the user whose trainings are loaded
+     * @return the {@link TrainingInterval}s of the trainings of the user
+     */
+    @Query("""
+            SELECT new com.capgemini.wsb.fitnesstracker.training.internal.TrainingInterval(t.id, t.startTime, t.endTime)
+            FROM Training t WHERE t.user.id = :userId
+            """)
+    List<TrainingInterval> findIntervalsByUserId(Long userId);
+
+    /**
+     * Locks the row of a user until the end of the transaction, serializing the changes of their trainings.
+     *
+     * @param userId the ID of the user
+     * @return the ID of the user, or empty if the user does not exist
+     */
+    @Query(value = "SELECT id FROM users WHERE id = :userId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockUser(Long userId);
+
+    /**
+     * Deletes a training with a single statement, executed immediately.
+     *
+     * @param trainingId the ID of the training to delete
+     * @return number of deleted rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Training t WHERE t.id = :trainingId")
+    int deleteTrainingById(Long trainingId);
+
+    /**
+     * Writes the modified values of a training with a single guarded statement.
+     * The statement matches only if the training still has the expected version, which it then increments.
+     *
+     * @param trainingId     the ID of the training to modify
+     * @param version        the expected version of the training
+     * @param startTime      the start time of the training
+     * @param endTime        the end time of the training
+     * @param activityType   the activity type of the training
+     * @param distance       the distance of the training
+     * @param averageSpeed   the average speed of the training
+     * @param caloriesBurned the calories burned during the training
+     * @param lastModified   the time of the modification
+     * @return number of modified trainings, {@code 0} if the training does not exist or has a different version
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Training t SET
+                t.startTime = :startTime,
+                t.endTime = :endTime,
+                t.activityType = :activityType,
+                t.distance = :distance,
+                t.averageSpeed = :averageSpeed,
+                t.caloriesBurned = :caloriesBurned,
+                t.version = t.version + 1,
+                t.lastModified = :lastModified
+            WHERE t.id = :trainingId AND t.version = :version
+            """)
+    int update(Long trainingId, long version, Date startTime, Date endTime, ActivityType activityType,
+               double distance, double averageSpeed, int caloriesBurned, Instant lastModified);
+
+    /**
+     * Deletes a batch of the trainings of a user, in the order of their IDs.
+     *
+     * @param userId the ID of the user whose trainings are deleted
+     * @param limit  maximal number of trainings to delete
+     * @return number of deleted trainings
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM trainings WHERE id IN (
+                SELECT id FROM trainings WHERE user_id = :userId ORDER BY id LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteBatchByUserId(long userId, int limit);
 }
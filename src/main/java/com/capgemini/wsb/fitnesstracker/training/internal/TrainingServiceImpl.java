@@ -1,33 +1,122 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.coalescing.api.Coalesced;
+import com.capgemini.wsb.fitnesstracker.exception.api.ConflictException;
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
+import com.capgemini.wsb.fitnesstracker.statistics.api.CalorieCalculator;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingChangedEvent;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingNotFoundException;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingPatch;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 /**
- * Implementation of the {@link TrainingService} interface.
+ * Implementation of the {@link TrainingService} and {@link TrainingProvider} interfaces.
  * Provides methods for managing {@link Training} entities in the system.
+ * Burned calories are (re)computed with the {@link CalorieCalculator} whenever a training is stored,
+ * and every successful modification is announced with a {@link TrainingChangedEvent}.
+ * Concurrent identical list queries are {@link Coalesced} into a single database execution.
+ * Trainings overlapping another training of the same user are rejected, using the {@link TrainingIntervalIndex}.
+ * Queries of training lists and their validators run in read-only transactions, which are routed to the read replica
+ * if one is configured. Single trainings are read from the primary, because they back modifications.
  */
 @Service
 @RequiredArgsConstructor
-public class TrainingServiceImpl implements TrainingService {
+public class TrainingServiceImpl implements TrainingService, TrainingProvider {
 
     private final TrainingRepository trainingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CalorieCalculator calorieCalculator;
+    private final TrainingIntervalIndex intervalIndex;
 
     /**
      * Creates a new training entity and saves it in the database.
+     * The training is saved in one transaction with the rows its change event writes, like the journaled change,
+     * and with the lock of its user taken by the overlap check.
+     * An overlap is detected before anything is written, so it does not fail a transaction the creation takes part in.
      *
      * @param training the training entity to create
      * @return the saved training entity
+     * @throws ConflictException if the training overlaps another training of the user
      */
     @Override
+    @Transactional(noRollbackFor = ConflictException.class)
     public Training createTraining(Training training) {
-        return trainingRepository.save(training);
+        intervalIndex.checkNoOverlap(training.getUser().getId(), null, training.getStartTime(), training.getEndTime());
+        training.setCaloriesBurned(calculateCalories(training));
+        Training savedTraining = trainingRepository.save(training);
+        eventPublisher.publishEvent(TrainingChangedEvent.created(TrainingSnapshot.of(savedTraining)));
+        return savedTraining;
+    }
+
+    /**
+     * Retrieves a training entity by its ID.
+     *
+     * @param trainingId the ID of the training to retrieve
+     * @return an {@link Optional} containing the found training, or empty if not found
+     */
+    @Override
+    public Optional<Training> getTraining(Long trainingId) {
+        return trainingRepository.findById(trainingId);
+    }
+
+    /**
+     * Retrieves the training entities of a user which are active at the given time, using the {@link TrainingIntervalIndex}.
+     *
+     * @param userId the ID of the user whose trainings are retrieved
+     * @param time   the point in time
+     * @return a list of trainings of the user which started at or before and ended after the given time
+     */
+    @Override
+    public List<Training> getTrainingsActiveAt(Long userId, Date time) {
+        return trainingRepository.findAllById(intervalIndex.findActiveAt(userId, time));
+    }
+
+    /**
+     * Retrieves a training entity by the idempotency key of its upload.
+     *
+     * @param idempotencyKey the key sent with the upload of the training
+     * @return an {@link Optional} containing the found training, or empty if not found
+     */
+    @Override
+    public Optional<Training> getTrainingByIdempotencyKey(String idempotencyKey) {
+        return trainingRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    /**
+     * Retrieves the validator of all trainings with a single aggregate query.
+     *
+     * @return the {@link ResourceVersion} of all trainings
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getTrainingsVersion() {
+        return trainingRepository.findVersionOfAll();
+    }
+
+    /**
+     * Retrieves the validator of the trainings of a user with a single aggregate query.
+     *
+     * @param userId the ID of the user whose trainings are checked
+     * @return the {@link ResourceVersion} of the trainings of the user
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getTrainingsVersionByUserId(Long userId) {
+        return trainingRepository.findVersionByUserId(userId);
     }
 
     /**
@@ -36,6 +125,8 @@ public class TrainingServiceImpl implements TrainingService {
      * @return a list of all training entities
      */
     @Override
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<Training> getAllTrainings() {
         return trainingRepository.findAll();
     }
@@ -47,6 +138,8 @@ public class TrainingServiceImpl implements TrainingService {
      * @return a list of trainings associated with the given user ID
      */
     @Override
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<Training> getTrainingsByUserId(Long userId) {
         return trainingRepository.findByUserId(userId);
     }
@@ -58,6 +151,8 @@ public class TrainingServiceImpl implements TrainingService {
      * @return a list of trainings that ended after the given date
      */
     @Override
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<Training> getTrainingsEndedAfter(Date date) {
         return trainingRepository.findByEndTimeAfter(date);
     }
@@ -69,29 +164,135 @@ public class TrainingServiceImpl implements TrainingService {
      * @return a list of trainings with the given activity type
      */
     @Override
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<Training> getTrainingsByActivityType(ActivityType activityType) {
         return trainingRepository.findByActivityType(activityType);
     }
 
+    /**
+     * Retrieves all training entities that started on or after a specific date.
+     * Read from the primary, because it seeds in-memory state which is then kept up to date by change events,
+     * and a lagging replica would leave a gap.
+     *
+     * @param date the lower bound (inclusive) of the training start time
+     * @return a list of trainings that started on or after the given date
+     */
+    @Override
+    public List<Training> getTrainingsStartedSince(Date date) {
+        return trainingRepository.findByStartTimeGreaterThanEqual(date);
+    }
+
     /**
      * Updates an existing training entity with new data.
+     * The version of the loaded training is compared with the expected one, and the save is guarded by the same version,
+     * so an update based on a stale version is reported as a conflict instead of overwriting the newer state.
      *
      * @param trainingId      the ID of the training to update
      * @param updatedTraining the training data to update with
+     * @param version         the expected version of the training
      * @return the updated training entity
      * @throws TrainingNotFoundException if no training is found with the given ID
+     * @throws ConflictException if the training is no longer at the expected version, has been modified concurrently
+     *                           or overlaps another training of the user
      */
     @Override
-    public Training updateTraining(Long trainingId, Training updatedTraining) {
+    @Transactional
+    public Training updateTraining(Long trainingId, Training updatedTraining, long version) {
         return trainingRepository.findById(trainingId)
                 .map(existingTraining -> {
+                    if (existingTraining.getVersion() != version) {
+                        throw new ConflictException("Training with ID=%s is no longer at version %s".formatted(trainingId, version));
+                    }
+                    intervalIndex.checkNoOverlap(existingTraining.getUser().getId(), trainingId,
+                                                 updatedTraining.getStartTime(), updatedTraining.getEndTime());
+                    TrainingSnapshot previous = TrainingSnapshot.of(existingTraining);
                     existingTraining.setStartTime(updatedTraining.getStartTime());
                     existingTraining.setEndTime(updatedTraining.getEndTime());
                     existingTraining.setActivityType(updatedTraining.getActivityType());
                     existingTraining.setDistance(updatedTraining.getDistance());
                     existingTraining.setAverageSpeed(updatedTraining.getAverageSpeed());
-                    return trainingRepository.save(existingTraining);
+                    existingTraining.setCaloriesBurned(calculateCalories(existingTraining));
+                    Training savedTraining;
+                    try {
+                        savedTraining = trainingRepository.saveAndFlush(existingTraining);
+                    } catch (OptimisticLockingFailureException e) {
+                        throw new ConflictException("Training with ID=%s has been modified concurrently".formatted(trainingId));
+                    }
+                    eventPublisher.publishEvent(TrainingChangedEvent.updated(previous, TrainingSnapshot.of(savedTraining)));
+                    return savedTraining;
                 })
                 .orElseThrow(() -> new TrainingNotFoundException(trainingId));
     }
+
+    /**
+     * Applies a partial modification to a training.
+     * <p>
+     * The current state is read once, because the calories have to be recomputed and the change event needs
+     * the previous state. The new state is then written with a single {@code UPDATE} guarded by the expected version,
+     * so a concurrent modification is reported as a conflict instead of being silently overwritten.
+     *
+     * @param trainingId the ID of the training to modify
+     * @param patch      the modified values and the expected version of the training
+     * @return the {@link ResourceVersion} of the modified training
+     * @throws TrainingNotFoundException if no training is found with the given ID
+     * @throws ConflictException if the training does not have the expected version or overlaps another training of the user
+     */
+    @Override
+    @Transactional
+    public ResourceVersion patchTraining(Long trainingId, TrainingPatch patch) {
+        Training existingTraining = trainingRepository.findById(trainingId)
+                .orElseThrow(() -> new TrainingNotFoundException(trainingId));
+        if (existingTraining.getVersion() != patch.version()) {
+            throw versionConflict(trainingId, patch.version());
+        }
+        TrainingSnapshot previous = TrainingSnapshot.of(existingTraining);
+        Date startTime = patch.startTime() != null ? patch.startTime() : existingTraining.getStartTime();
+        Date endTime = patch.endTime() != null ? patch.endTime() : existingTraining.getEndTime();
+        intervalIndex.checkNoOverlap(previous.userId(), trainingId, startTime, endTime);
+        ActivityType activityType = patch.activityType() != null ? patch.activityType() : existingTraining.getActivityType();
+        double distance = patch.distance() != null ? patch.distance() : existingTraining.getDistance();
+        double averageSpeed = patch.averageSpeed() != null ? patch.averageSpeed() : existingTraining.getAverageSpeed();
+        int caloriesBurned = calorieCalculator.calculate(activityType,
+                                                         Duration.between(startTime.toInstant(), endTime.toInstant()),
+                                                         averageSpeed);
+        Instant now = Instant.now();
+        int updated = trainingRepository.update(trainingId, patch.version(), startTime, endTime, activityType,
+                                                distance, averageSpeed, caloriesBurned, now);
+        if (updated == 0) {
+            throw versionConflict(trainingId, patch.version());
+        }
+        TrainingSnapshot current = new TrainingSnapshot(trainingId, previous.userId(), startTime.toInstant(), endTime.toInstant(),
+                                                        activityType, distance, averageSpeed, caloriesBurned);
+        eventPublisher.publishEvent(TrainingChangedEvent.updated(previous, current));
+        return new ResourceVersion(patch.version() + 1, now);
+    }
+
+    /**
+     * Deletes a training entity.
+     * The statement is executed immediately, so listeners of the {@link TrainingChangedEvent} querying the trainings
+     * already see the training deleted.
+     *
+     * @param trainingId the ID of the training to delete
+     * @throws TrainingNotFoundException if no training is found with the given ID
+     */
+    @Override
+    @Transactional
+    public void deleteTraining(Long trainingId) {
+        Training existingTraining = trainingRepository.findById(trainingId)
+                .orElseThrow(() -> new TrainingNotFoundException(trainingId));
+        TrainingSnapshot deleted = TrainingSnapshot.of(existingTraining);
+        trainingRepository.deleteTrainingById(trainingId);
+        eventPublisher.publishEvent(TrainingChangedEvent.deleted(deleted));
+    }
+
+    private static ConflictException versionConflict(Long trainingId, long version) {
+        return new ConflictException("Training with ID=%s is no longer at version %s".formatted(trainingId, version));
+    }
+
+    private int calculateCalories(Training training) {
+        return calorieCalculator.calculate(training.getActivityType(),
+                                           Duration.between(training.getStartTime().toInstant(), training.getEndTime().toInstant()),
+                                           training.getAverageSpeed());
+    }
 }
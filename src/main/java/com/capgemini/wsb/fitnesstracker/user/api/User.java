@@ -1,13 +1,20 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
+@SQLRestriction("deleted = false")
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -17,6 +24,7 @@ import java.time.LocalDate;
  * Represents a User entity in the system.
  * This class contains all the necessary fields to define a user.
  * The User entity is mapped to the database and holds personal information.
+ * Deleted users are only flagged and hidden from all queries until their data is purged in the background.
  */
 public class User {
 
@@ -57,6 +65,34 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    /**
+     * Version of the user, incremented by every modification.
+     * Used for optimistic locking and as the validator of conditional requests.
+     */
+    @Version
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Time of the last modification of the user.
+     * Maintained by Hibernate, used as the {@code Last-Modified} of the user resources.
+     */
+    @UpdateTimestamp
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "last_modified")
+    private Instant lastModified;
+
+    /**
+     * Flag of a deleted user, whose data waits to be purged.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
     /**
      * Constructor to create a new User instance.
      *
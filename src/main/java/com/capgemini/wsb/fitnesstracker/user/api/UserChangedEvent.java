@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+/**
+ * Event published when a {@link User} has been created or modified.
+ * Listeners keeping derived state in memory should reload the user once the change has been committed.
+ *
+ * @param userId the unique identifier of the user
+ */
+public record UserChangedEvent(Long userId) {
+}
@@ -0,0 +1,28 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+/**
+ * Deletes the data which a module keeps about a deleted {@link User}.
+ * Every module storing rows which reference users provides an implementation. After a user is deleted,
+ * the purgers are invoked in their {@link org.springframework.core.annotation.Order}, repeatedly and
+ * one batch per transaction, until a batch deletes fewer rows than requested. So rows referencing the data
+ * of another purger have to be purged first (i.e. a lower order).
+ */
+public interface UserDataPurger {
+
+    /**
+     * Retrieves the name of the purged data, used in logs and metrics.
+     *
+     * @return name of the purged data
+     */
+    String name();
+
+    /**
+     * Deletes a single batch of the data of the user.
+     * Must be idempotent, as a batch may be repeated after a crash.
+     *
+     * @param userId    the ID of the deleted user
+     * @param batchSize maximal number of rows to be deleted
+     * @return number of deleted rows, fewer than {@code batchSize} when no data of the user remains
+     */
+    int purge(long userId, int batchSize);
+}
@@ -0,0 +1,11 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+/**
+ * Event published when a {@link User} has been deleted.
+ * The user is only marked as deleted at this point, its data is purged in the background afterwards
+ * (see {@link UserDataPurger}). Listeners keeping derived state in memory should drop the user right away.
+ *
+ * @param userId the unique identifier of the deleted user
+ */
+public record UserDeletedEvent(Long userId) {
+}
@@ -0,0 +1,24 @@
+package com.capgemini.wsb.fitnesstracker.user.api;
+
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+
+/**
+ * Partial modification of a {@link User}, only the non-null values are applied.
+ *
+ * @param firstName the new first name of the user
+ * @param lastName  the new last name of the user
+ * @param birthdate the new birthdate of the user
+ * @param email     the new email address of the user
+ * @param version   the version of the user the modification is based on,
+ *                  the modification is rejected if the user has been modified since
+ */
+public record UserPatch(
+        @Nullable String firstName,
+        @Nullable String lastName,
+        @Nullable LocalDate birthdate,
+        @Nullable String email,
+        long version
+) {
+}
@@ -1,5 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
+
 import java.util.List;
 import java.util.Optional;
 
@@ -30,4 +32,19 @@ public interface UserProvider {
      */
     List<User> findAllUsers();
 
+    /**
+     * Retrieves the validator of a user, without loading the user itself.
+     *
+     * @param userId id of the user
+     * @return An {@link Optional} containing the {@link ResourceVersion} of the user, or {@link Optional#empty()} if not found
+     */
+    Optional<ResourceVersion> getUserVersion(Long userId);
+
+    /**
+     * Retrieves the validator of the collection of all users, without loading the users.
+     *
+     * @return the {@link ResourceVersion} of all users
+     */
+    ResourceVersion getUsersVersion();
+
 }
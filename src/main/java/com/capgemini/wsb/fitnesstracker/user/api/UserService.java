@@ -1,4 +1,6 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
+
 import java.time.LocalDate;
 import java.util.List;
 
@@ -22,13 +24,26 @@ public interface UserService {
      */
     void deleteUser(Long userId);
     /**
-     * Updates an existing {@link User} entity with new values.
+     * Updates an existing {@link User} entity with new values, provided it has not been modified since the version
+     * the update is based on.
      *
-     * @param userId the unique identifier of the {@link User} to be updated
-     * @param user   the {@link User} object containing updated values
+     * @param userId  the unique identifier of the {@link User} to be updated
+     * @param user    the {@link User} object containing updated values
+     * @param version the expected version of the {@link User}
      * @return the updated {@link User} entity
      */
-    User updateUser(Long userId, User user);
+    User updateUser(Long userId, User user, long version);
+    /**
+     * Applies a partial modification to an existing {@link User} entity, provided it has not been modified since
+     * the version the modification is based on.
+     *
+     * @param userId the unique identifier of the {@link User} to be modified
+     * @param patch  the {@link UserPatch} with the modified values and the expected version
+     * @return the {@link ResourceVersion} of the modified user
+     * @throws UserNotFoundException if the user does not exist
+     * @throws com.capgemini.wsb.fitnesstracker.exception.api.ConflictException if the user has been modified in the meantime
+     */
+    ResourceVersion patchUser(Long userId, UserPatch patch);
     /**
      * Finds and retrieves all {@link User} entities that match the given email.
      *
@@ -0,0 +1,505 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index of documents, identified by a {@code long} ID, by the words (tokens) they contain.
+ * Supports prefix and typo-tolerant (fuzzy prefix) matching of query terms.
+ * <p>
+ * The tokens are kept in a sorted map with the documents containing them, a prefix is matched by a range of the map.
+ * For the fuzzy matching, the sorted tokens are walked as a trie, computing the edit distance (with transpositions)
+ * between the term and the prefixes of the tokens one character after another. A branch is skipped as soon as no
+ * prefix in it can be within the allowed distance, and taken as a whole once its prefix is within it. Only tokens
+ * with the first letter of the term are considered, as typos in the first letter are rare and allowing them would
+ * walk the whole map. Terms shorter than 3 characters are not matched fuzzily, longer terms allow 1 edit and terms
+ * of 6 characters or more 2 edits.
+ * <p>
+ * Every query term has to match a token of the document. A term contributes 0 to the score of the document when
+ * it equals a token, 1 when it is a prefix of a token and {@code 1 + edits} when it matches fuzzily. Documents are
+ * found through the tokens matching the most selective term (the one starting the fewest tokens, up to
+ * {@value #ESTIMATE_LIMIT} documents): the token equal to the term first, then the tokens starting with it in their
+ * order and finally the tokens within 1 and then 2 edits, each searched only if the page is not full yet.
+ * They are ranked by their score, then in the order they were found. The walk stops once no document left can
+ * outrank the requested page, or after {@value #MAX_SCANNED} documents. The other terms are matched fuzzily only
+ * when the page could not be filled otherwise.
+ * <p>
+ * The index is not thread-safe.
+ */
+class TokenIndex {
+
+    /**
+     * Maximal offset plus limit of a search.
+     */
+    static final int MAX_RESULTS = 10_000;
+
+    /**
+     * Maximal number of documents examined by a search.
+     */
+    static final int MAX_SCANNED = 20_000;
+
+    /**
+     * Number of documents up to which the terms of a query are compared by their selectivity.
+     */
+    private static final int ESTIMATE_LIMIT = 2_000;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private long[] ids = new long[16];
+    private String[][] tokensBySlot = new String[16][];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+    /**
+     * Splits a text into lower case tokens without diacritics, at any character which is not a letter or a digit.
+     *
+     * @param text the text to split
+     * @return the distinct tokens of the text, in their order
+     */
+    static List<String> tokenize(String text) {
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * Indexes a document, replacing its previous tokens.
+     *
+     * @param id     the ID of the document
+     * @param tokens the tokens of the document, as produced by {@link #tokenize(String)}
+     */
+    void put(long id, List<String> tokens) {
+        remove(id);
+        int slot = allocate();
+        String[] distinct = tokens.stream().distinct().toArray(String[]::new);
+        ids[slot] = id;
+        tokensBySlot[slot] = distinct;
+        slotsById.put(id, slot);
+        for (String token : distinct) {
+            postings.computeIfAbsent(token, key -> new Postings()).add(slot);
+        }
+    }
+
+    /**
+     * Removes a document from the index.
+     *
+     * @param id the ID of the document
+     */
+    void remove(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (String token : tokensBySlot[slot]) {
+            Postings slots = postings.get(token);
+            slots.remove(slot);
+            if (slots.size == 0) {
+                postings.remove(token);
+            }
+        }
+        tokensBySlot[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Retrieves the number of indexed documents.
+     *
+     * @return number of documents
+     */
+    int size() {
+        return slotsById.size();
+    }
+
+    /**
+     * Finds the documents matching all query terms, in the order of their rank.
+     *
+     * @param terms  the query terms, as produced by {@link #tokenize(String)}
+     * @param offset number of best ranked documents to skip
+     * @param limit  maximal number of documents to return
+     * @return the IDs of the matching documents
+     */
+    List<Long> search(List<String> terms, int offset, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int wanted = Math.min(offset + limit, MAX_RESULTS);
+        String primary = terms.stream()
+                .min(Comparator.comparingInt(this::estimateDocuments).thenComparing(Comparator.comparingInt(String::length).reversed()))
+                .orElseThrow();
+        List<String> others = new ArrayList<>(terms);
+        others.remove(primary);
+
+        Search search = new Search(primary, others, wanted, false);
+        if (search.best.size() < wanted && !others.isEmpty() && search.scanned < MAX_SCANNED) {
+            search = new Search(primary, others, wanted, true);
+        }
+
+        Hit[] hits = search.best.toArray(Hit[]::new);
+        Arrays.sort(hits, Hit.RANK);
+        List<Long> found = new ArrayList<>(Math.max(0, hits.length - offset));
+        for (int i = offset; i < hits.length; i++) {
+            found.add(ids[hits[i].slot()]);
+        }
+        return found;
+    }
+
+    /**
+     * Counts the documents containing tokens starting with the term, up to {@value #ESTIMATE_LIMIT}.
+     * A document is counted for each of its tokens.
+     */
+    private int estimateDocuments(String term) {
+        int documents = 0;
+        for (Map.Entry<String, Postings> entry : postings.tailMap(term, true).entrySet()) {
+            if (!entry.getKey().startsWith(term) || documents > ESTIMATE_LIMIT) {
+                break;
+            }
+            documents += entry.getValue().size;
+        }
+        return Math.min(documents, ESTIMATE_LIMIT + 1);
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            ids = Arrays.copyOf(ids, slotCount * 2);
+            tokensBySlot = Arrays.copyOf(tokensBySlot, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * A single walk over the tokens matching the longest term, keeping the best {@code wanted} documents.
+     */
+    private final class Search {
+
+        private final String primary;
+        private final List<String> others;
+        private final int wanted;
+        private final boolean fuzzyOthers;
+        private final int othersBound;
+        private final PriorityQueue<Hit> best = new PriorityQueue<>(Hit.RANK.reversed());
+        private int scanned;
+        private int order;
+
+        Search(String primary, List<String> others, int wanted, boolean fuzzyOthers) {
+            this.primary = primary;
+            this.others = others;
+            this.wanted = wanted;
+            this.fuzzyOthers = fuzzyOthers;
+            this.othersBound = (int) others.stream().filter(term -> !postings.containsKey(term)).count();
+            walkPrefixMatches();
+            if (best.size() < wanted && scanned < MAX_SCANNED && maxEdits(primary) > 0) {
+                walkFuzzyMatches();
+            }
+        }
+
+        private void walkPrefixMatches() {
+            for (Map.Entry<String, Postings> entry : postings.tailMap(primary, true).entrySet()) {
+                String token = entry.getKey();
+                if (!token.startsWith(primary)) {
+                    return;
+                }
+                int score = token.length() == primary.length() ? 0 : 1;
+                Postings slots = entry.getValue();
+                for (int i = 0; i < slots.size; i++) {
+                    if (isComplete(score) || scanned >= MAX_SCANNED) {
+                        return;
+                    }
+                    int slot = slots.slots[i];
+                    if (!hasPrefixMatchBefore(slot, token)) {
+                        offer(slot, score);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Walks the tokens within 1 edit of the walked term, then the ones within 2 edits if the page is not full yet.
+         */
+        private void walkFuzzyMatches() {
+            Set<Integer> seen = new HashSet<>();
+            for (int edits = 1; edits <= maxEdits(primary); edits++) {
+                for (Map.Entry<String, Integer> match : fuzzyMatches(primary, edits)) {
+                    int score = 1 + match.getValue();
+                    Postings slots = postings.get(match.getKey());
+                    for (int i = 0; i < slots.size; i++) {
+                        if (isComplete(score) || scanned >= MAX_SCANNED) {
+                            return;
+                        }
+                        int slot = slots.slots[i];
+                        if (!hasPrefixMatchBefore(slot, null) && seen.add(slot)) {
+                            offer(slot, score);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Checks whether the document has been found through a token preceding the given one, or through any token
+         * starting with the longest term if the given token is {@code null}.
+         */
+        private boolean hasPrefixMatchBefore(int slot, String token) {
+            for (String other : tokensBySlot[slot]) {
+                if (other.startsWith(primary) && (token == null || other.compareTo(token) < 0)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Checks whether the best documents can no longer be outranked by the documents found with the given score
+         * of the walked term, which later documents cannot go below. The other terms add at least 1 each when they
+         * are not a token themselves.
+         */
+        private boolean isComplete(int primaryScore) {
+            return best.size() >= wanted && best.peek().score() <= primaryScore + othersBound;
+        }
+
+        private void offer(int slot, int primaryScore) {
+            scanned++;
+            int score = scoreOthers(tokensBySlot[slot]);
+            if (score < 0) {
+                return;
+            }
+            Hit hit = new Hit(slot, primaryScore + score, order++);
+            if (best.size() < wanted) {
+                best.add(hit);
+            } else if (Hit.RANK.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+
+        private int scoreOthers(String[] tokens) {
+            int score = 0;
+            for (String term : others) {
+                int termScore = Integer.MAX_VALUE;
+                for (String token : tokens) {
+                    if (token.startsWith(term)) {
+                        termScore = Math.min(termScore, token.length() == term.length() ? 0 : 1);
+                    }
+                }
+                if (termScore == Integer.MAX_VALUE && fuzzyOthers && maxEdits(term) > 0) {
+                    for (String token : tokens) {
+                        int edits = prefixEdits(term, token, maxEdits(term));
+                        if (edits <= maxEdits(term)) {
+                            termScore = Math.min(termScore, 1 + edits);
+                        }
+                    }
+                }
+                if (termScore == Integer.MAX_VALUE) {
+                    return -1;
+                }
+                score += termScore;
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Finds the tokens having a prefix within the allowed edit distance of the term, but not starting with the term,
+     * with the distance of their shortest such prefix, ordered by the distance. The walk stops once the found tokens are contained in
+     * {@value #MAX_SCANNED} documents.
+     */
+    private List<Map.Entry<String, Integer>> fuzzyMatches(String term, int maxEdits) {
+        int m = term.length();
+        int maxDepth = m + maxEdits;
+        int[][] rows = new int[maxDepth + 1][m + 1];
+        for (int i = 0; i <= m; i++) {
+            rows[0][i] = i;
+        }
+        Map<String, Integer> matches = new HashMap<>();
+        int documents = 0;
+        String previous = "";
+        int validDepth = 0;
+        String first = term.substring(0, 1);
+        String token = postings.ceilingKey(first);
+        while (token != null && token.startsWith(first) && documents < MAX_SCANNED) {
+            int depth = Math.min(commonPrefixLength(previous, token), validDepth);
+            String next = null;
+            boolean skipped = false;
+            while (depth < Math.min(token.length(), maxDepth)) {
+                depth++;
+                computeRow(term, token, rows, depth);
+                if (rows[depth][m] <= maxEdits) {
+                    String prefix = token.substring(0, depth);
+                    for (Map.Entry<String, Postings> entry : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+                        if (!entry.getKey().startsWith(term)) {
+                            matches.put(entry.getKey(), rows[depth][m]);
+                            documents += entry.getValue().size;
+                        }
+                    }
+                    next = postings.higherKey(prefix + Character.MAX_VALUE);
+                    skipped = true;
+                    break;
+                }
+                if (min(rows[depth]) > maxEdits) {
+                    next = postings.higherKey(token.substring(0, depth) + Character.MAX_VALUE);
+                    skipped = true;
+                    break;
+                }
+            }
+            if (!skipped) {
+                next = depth == maxDepth ? postings.higherKey(token.substring(0, depth) + Character.MAX_VALUE) : postings.higherKey(token);
+            }
+            previous = token;
+            validDepth = depth;
+            token = next;
+        }
+        List<Map.Entry<String, Integer>> sorted = new ArrayList<>(matches.entrySet());
+        sorted.sort(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        return sorted;
+    }
+
+    /**
+     * Computes the edit distances between the prefixes of the term and the prefix of the token of the given length,
+     * from the distances of the shorter prefixes of the token.
+     */
+    private static void computeRow(String term, String token, int[][] rows, int depth) {
+        int[] row = rows[depth];
+        int[] above = rows[depth - 1];
+        char c = token.charAt(depth - 1);
+        row[0] = depth;
+        for (int i = 1; i < row.length; i++) {
+            int cost = term.charAt(i - 1) == c ? 0 : 1;
+            int distance = Math.min(Math.min(above[i] + 1, row[i - 1] + 1), above[i - 1] + cost);
+            if (depth > 1 && i > 1 && term.charAt(i - 1) == token.charAt(depth - 2) && term.charAt(i - 2) == c) {
+                distance = Math.min(distance, rows[depth - 2][i - 2] + 1);
+            }
+            row[i] = distance;
+        }
+    }
+
+    private static int min(int[] values) {
+        int min = Integer.MAX_VALUE;
+        for (int value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        for (int i = 0; i < length; i++) {
+            if (first.charAt(i) != second.charAt(i)) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static int maxEdits(String term) {
+        if (term.length() < 3) {
+            return 0;
+        }
+        return term.length() < 6 ? 1 : 2;
+    }
+
+    /**
+     * Computes the smallest edit distance (insertions, deletions, substitutions and transpositions of adjacent
+     * characters) between the term and any prefix of the token.
+     *
+     * @return the distance, or {@code maxEdits + 1} if it is larger than {@code maxEdits}
+     */
+    static int prefixEdits(String term, String token, int maxEdits) {
+        int m = term.length();
+        int n = Math.min(token.length(), m + maxEdits);
+        int[] beforePrevious = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= n; j++) {
+                int cost = term.charAt(i - 1) == token.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && term.charAt(i - 1) == token.charAt(j - 2) && term.charAt(i - 2) == token.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        int best = maxEdits + 1;
+        for (int j = 0; j <= n; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    /**
+     * Slots of the documents containing a token, in a growable sorted array.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[1];
+        private int size;
+
+        void add(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(slots, index, slots, index + 1, size - index);
+            slots[index] = slot;
+            size++;
+        }
+
+        void remove(int slot) {
+            int index = Arrays.binarySearch(slots, 0, size, slot);
+            if (index >= 0) {
+                System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * A found document, with its score and the position it was found at.
+     */
+    private record Hit(int slot, int score, int order) {
+
+        static final Comparator<Hit> RANK = Comparator.comparingInt(Hit::score).thenComparingInt(Hit::order);
+    }
+}
@@ -1,9 +1,15 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
@@ -15,17 +21,26 @@ import java.util.Optional;
 @RequiredArgsConstructor
 class UserController {
 
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final UserServiceImpl userService;
 
+    private final UserSearchIndex userSearchIndex;
+
     private final UserMapper userMapper;
 
     /**
      * Retrieves a list of all users.
+     * Answers with 304 Not Modified when the client already holds the current list.
      *
+     * @param request the current request carrying the conditional headers
      * @return a list of UserDto objects representing all users
      */
     @GetMapping
-    public List<UserDto> getAllUsers() {
+    public List<UserDto> getAllUsers(WebRequest request) {
+        if (userService.getUsersVersion().checkNotModified(request)) {
+            return null;
+        }
         return userService.findAllUsers()
                           .stream()
                           .map(userMapper::toDto)
@@ -33,11 +48,16 @@ class UserController {
     }
     /**
      * Retrieves basic information about all users.
+     * Answers with 304 Not Modified when the client already holds the current list.
      *
+     * @param request the current request carrying the conditional headers
      * @return a list of UserSimpleDto objects with basic user information
      */
     @GetMapping("/simple")
-    public List<UserSimpleDto> getAllBasicInformationAboutUsers() {
+    public List<UserSimpleDto> getAllBasicInformationAboutUsers(WebRequest request) {
+        if (userService.getUsersVersion().checkNotModified(request)) {
+            return null;
+        }
         return userService.findAllUsers()
                 .stream()
                 .map(userMapper::toSimpleDto)
@@ -45,13 +65,19 @@ class UserController {
     }
     /**
      * Retrieves a user by their ID.
+     * Answers with 304 Not Modified when the client already holds the current version of the user.
      *
      * @param id the ID of the user
+     * @param request the current request carrying the conditional headers
      * @return the UserDto representing the user
      * @throws IllegalArgumentException if no user is found with the given ID
      */
     @GetMapping("/{id}")
-    public UserDto getUserById(@PathVariable Long id) {
+    public UserDto getUserById(@PathVariable Long id, WebRequest request) {
+        Optional<ResourceVersion> version = userService.getUserVersion(id);
+        if (version.isPresent() && version.get().checkNotModified(request)) {
+            return null;
+        }
         return userService.getUser(id)
                 .map(userMapper::toDto)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + id));
@@ -81,17 +107,43 @@ class UserController {
     }
     /**
      * Updates an existing user by their ID.
+     * The update is applied only if the user is still at the expected version, taken from the {@code If-Match}
+     * header or, without the header, from the request body.
      *
      * @param id the ID of the user to update
+     * @param ifMatch the entity tag of the user the update is based on, if any
      * @param userDto the UserDto object containing updated user information
      * @return the updated UserDto
+     * @throws BusinessException if the request does not carry the expected version
      */
     @PutMapping("/{id}")
-    public UserDto updateUser(@PathVariable Long id, @RequestBody UserDto userDto) {
+    public UserDto updateUser(@PathVariable Long id,
+                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) @Nullable String ifMatch,
+                              @RequestBody UserDto userDto) {
+        Long version = ifMatch != null ? ResourceVersion.versionOf(ifMatch).orElse(null) : userDto.version();
+        if (version == null) {
+            throw new BusinessException("The version of the user to update is required, as an If-Match entity tag or in the body");
+        }
         User user = userMapper.toEntity(userDto);
-        User updatedUser = userService.updateUser(id, user);
+        User updatedUser = userService.updateUser(id, user, version);
         return userMapper.toDto(updatedUser);
     }
+    /**
+     * Partially updates an existing user by their ID, in a single statement.
+     * The modification is applied only if the user is still at the version given in the request.
+     *
+     * @param id the ID of the user to update
+     * @param patchDto the UserPatchDto object containing the modified fields and the expected version
+     * @return 204 No Content carrying the new ETag of the user
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchUser(@PathVariable Long id, @RequestBody UserPatchDto patchDto) {
+        ResourceVersion version = userService.patchUser(id, userMapper.toPatch(patchDto));
+        return ResponseEntity.noContent()
+                .eTag(version.eTag())
+                .lastModified(version.lastModified())
+                .build();
+    }
     /**
      * Searches for users by email.
      *
@@ -111,6 +163,29 @@ class UserController {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid parameters");
         }
     }
+    /**
+     * Searches users by prefixes of their first name, last name or email, tolerating typos.
+     * Users matching all words of the query are returned, exact matches first, then prefix and then fuzzy matches.
+     *
+     * @param query  the searched words
+     * @param offset number of best matching users to skip
+     * @param limit  maximal number of users to return (1-100)
+     * @return a list of UserDto objects ordered by rank
+     * @throws ResponseStatusException if the query has no word or the page is out of range
+     */
+    @GetMapping("/search")
+    public List<UserDto> searchUsersByText(@RequestParam("q") String query,
+                                           @RequestParam(defaultValue = "0") int offset,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        if (TokenIndex.tokenize(query).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must contain a word");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT || offset < 0 || offset + limit > TokenIndex.MAX_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and %s, offset plus limit at most %s"
+                    .formatted(MAX_SEARCH_LIMIT, TokenIndex.MAX_RESULTS));
+        }
+        return userSearchIndex.search(query, offset, limit);
+    }
     /**
      * Searches for users older than a specified cutoff date.
      *
@@ -13,9 +13,11 @@ import java.time.LocalDate;
  * @param lastName  the last name of the user, must not be null
  * @param birthdate the birthdate of the user in "yyyy-MM-dd" format
  * @param email     the email address of the user, must not be null
+ * @param version   the version of the user, required by updates and partial modifications
  */
 record UserDto(@Nullable Long id, String firstName, String lastName,
                @JsonFormat(pattern = "yyyy-MM-dd") LocalDate birthdate,
-               String email) {
+               String email,
+               @Nullable Long version) {
 
 }
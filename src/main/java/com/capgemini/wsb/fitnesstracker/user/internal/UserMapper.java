@@ -1,6 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserPatch;
 import org.springframework.stereotype.Component;
 /**
  * Mapper class for converting between User entities and their corresponding DTO representations.
@@ -19,7 +20,8 @@ class UserMapper {
                            user.getFirstName(),
                            user.getLastName(),
                            user.getBirthdate(),
-                           user.getEmail());
+                           user.getEmail(),
+                           user.getVersion());
     }
     /**
      * Converts a User entity to a UserSimpleDto containing only basic information.
@@ -46,4 +48,19 @@ class UserMapper {
                         userDto.email());
     }
 
+    /**
+     * Converts a UserPatchDto to a UserPatch.
+     *
+     * @param patchDto the UserPatchDto to be converted, must not be null
+     * @return a UserPatch carrying the modified values of the given UserPatchDto
+     */
+    UserPatch toPatch(UserPatchDto patchDto) {
+        return new UserPatch(
+                patchDto.firstName(),
+                patchDto.lastName(),
+                patchDto.birthdate(),
+                patchDto.email(),
+                patchDto.version());
+    }
+
 }
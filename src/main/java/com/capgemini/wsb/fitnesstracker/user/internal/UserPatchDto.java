@@ -0,0 +1,22 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+
+/**
+ * A Data Transfer Object representing a partial modification of a User, omitted fields are left unchanged.
+ *
+ * @param firstName the new first name of the user
+ * @param lastName  the new last name of the user
+ * @param birthdate the new birthdate of the user in "yyyy-MM-dd" format
+ * @param email     the new email address of the user
+ * @param version   the version of the user the modification is based on (the {@code ETag} of the user)
+ */
+record UserPatchDto(@Nullable String firstName, @Nullable String lastName,
+                    @Nullable @JsonFormat(pattern = "yyyy-MM-dd") LocalDate birthdate,
+                    @Nullable String email,
+                    long version) {
+
+}
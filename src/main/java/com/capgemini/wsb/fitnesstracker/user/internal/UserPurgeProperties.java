@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration of the background purge of the data of deleted users.
+ */
+@ConfigurationProperties(prefix = "user.purge")
+@Getter
+class UserPurgeProperties {
+
+    /**
+     * Maximal number of rows deleted by a single statement (and transaction), bounding the time locks are held.
+     */
+    private final int batchSize;
+
+    UserPurgeProperties(@DefaultValue("500") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Pending purge of the data of a deleted user.
+ * The row is inserted in the same transaction which marks the user deleted and removed together with the user,
+ * so it survives a crash of the application and the purge is resumed on the next startup.
+ */
+@Entity
+@Table(name = "user_purge_tasks")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+class UserPurgeTask {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "requested_at", nullable = false)
+    private Instant requestedAt;
+
+    /**
+     * Number of rows purged so far, across all the data of the user.
+     */
+    @Column(name = "purged_rows", nullable = false)
+    private long purgedRows;
+
+    UserPurgeTask(Long userId, Instant requestedAt) {
+        this.userId = userId;
+        this.requestedAt = requestedAt;
+    }
+}
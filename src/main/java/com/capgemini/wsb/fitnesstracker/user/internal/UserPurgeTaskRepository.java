@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link UserPurgeTask} entities.
+ */
+interface UserPurgeTaskRepository extends JpaRepository<UserPurgeTask, Long> {
+
+    /**
+     * Finds all pending purges, the oldest first.
+     *
+     * @return list of the pending {@link UserPurgeTask}s
+     */
+    List<UserPurgeTask> findAllByOrderByRequestedAtAsc();
+
+    /**
+     * Records the progress of a purge.
+     *
+     * @param userId the ID of the purged user
+     * @param rows   number of rows purged by the last batch
+     */
+    @Modifying
+    @Query("UPDATE UserPurgeTask t SET t.purgedRows = t.purgedRows + :rows WHERE t.userId = :userId")
+    void addPurgedRows(Long userId, long rows);
+}
@@ -0,0 +1,139 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserDataPurger;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Purges the data of deleted users on a single background thread.
+ * <p>
+ * Every {@link UserDataPurger} is invoked batch by batch, each batch being a single short transaction which also
+ * records the progress in the {@link UserPurgeTask}. The user row and the task are removed at the very end,
+ * so the purge is resumed from wherever it stopped, after a failure or a crash, on the next startup.
+ * <p>
+ * Progress is published as metrics: {@code user.purge.pending} (users waiting to be purged),
+ * {@code user.purge.rows} (purged rows, tagged with the purged data) and {@code user.purge.duration}.
+ */
+@Component
+@Slf4j
+class UserPurgeWorker {
+
+    private final UserPurgeTaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final List<UserDataPurger> purgers;
+    private final TransactionTemplate transactionTemplate;
+    private final UserPurgeProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Timer purgeTimer;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    UserPurgeWorker(UserPurgeTaskRepository taskRepository,
+                    UserRepository userRepository,
+                    List<UserDataPurger> purgers,
+                    TransactionTemplate transactionTemplate,
+                    UserPurgeProperties properties,
+                    MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.purgers = purgers;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.purgeTimer = Timer.builder("user.purge.duration")
+                .description("Time needed to purge all the data of a deleted user")
+                .register(meterRegistry);
+        Gauge.builder("user.purge.pending", pending, AtomicInteger::get)
+                .description("Number of deleted users whose data waits to be purged")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Resumes the purges interrupted by a shutdown or a crash.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        schedule();
+    }
+
+    /**
+     * Starts purging once the deletion of the user has been committed.
+     *
+     * @param event the event announcing the deleted user
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        schedule();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(this::purgePending);
+        }
+    }
+
+    private void purgePending() {
+        scheduled.set(false);
+        List<UserPurgeTask> tasks = taskRepository.findAllByOrderByRequestedAtAsc();
+        pending.set(tasks.size());
+        for (UserPurgeTask task : tasks) {
+            try {
+                purgeTimer.record(() -> purge(task.getUserId()));
+            } catch (RuntimeException e) {
+                log.error("Purge of user {} failed, it will be resumed on the next startup", task.getUserId(), e);
+            }
+            pending.decrementAndGet();
+        }
+    }
+
+    private void purge(Long userId) {
+        int batchSize = properties.getBatchSize();
+        for (UserDataPurger purger : purgers) {
+            Counter purgedRows = Counter.builder("user.purge.rows")
+                    .description("Number of purged rows of deleted users")
+                    .tag("data", purger.name())
+                    .register(meterRegistry);
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> {
+                    int rows = purger.purge(userId, batchSize);
+                    taskRepository.addPurgedRows(userId, rows);
+                    return rows;
+                });
+                purgedRows.increment(deleted);
+            } while (deleted >= batchSize);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.deleteMarkedAsDeleted(userId);
+            taskRepository.deleteById(userId);
+        });
+        log.info("Purged all data of deleted user {}", userId);
+    }
+}
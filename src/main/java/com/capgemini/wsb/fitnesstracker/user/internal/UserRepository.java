@@ -1,12 +1,17 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.annotation.Nullable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Objects;
 import java.util.Optional;
 import java.util.List;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -43,4 +48,76 @@ interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.birthdate <= :cutoffDate")
     List<User> findUsersOlderThan(LocalDate cutoffDate);
 
+    /**
+     * Looks up the validator of a single user without loading the entity.
+     *
+     * @param userId the ID of the user
+     * @return the {@link ResourceVersion} of the user, or {@link Optional#empty()} if the user does not exist
+     */
+    @Query("SELECT new com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion(u.version, u.lastModified) FROM User u WHERE u.id = :userId")
+    Optional<ResourceVersion> findVersionById(Long userId);
+
+    /**
+     * Computes the validator of the collection of all users with a single aggregate query.
+     *
+     * @return the {@link ResourceVersion} of all users
+     */
+    @Query("""
+            SELECT new com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion(count(u), coalesce(sum(u.version), 0L), max(u.lastModified))
+            FROM User u
+            """)
+    ResourceVersion findVersionOfAll();
+
+    /**
+     * Applies a partial modification of a user with a single guarded statement.
+     * Null values leave the columns unchanged. The statement matches only if the user still has the expected version,
+     * which it then increments.
+     *
+     * @param userId       the ID of the user to modify
+     * @param version      the expected version of the user
+     * @param firstName    the new first name, or {@code null} to keep the current one
+     * @param lastName     the new last name, or {@code null} to keep the current one
+     * @param birthdate    the new birthdate, or {@code null} to keep the current one
+     * @param email        the new email address, or {@code null} to keep the current one
+     * @param lastModified the time of the modification
+     * @return number of modified users, {@code 0} if the user does not exist or has a different version
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE User u SET
+                u.firstName = COALESCE(:firstName, u.firstName),
+                u.lastName = COALESCE(:lastName, u.lastName),
+                u.birthdate = COALESCE(:birthdate, u.birthdate),
+                u.email = COALESCE(:email, u.email),
+                u.version = u.version + 1,
+                u.lastModified = :lastModified
+            WHERE u.id = :userId AND u.version = :version AND u.deleted = false
+            """)
+    int patch(Long userId, long version, @Nullable String firstName, @Nullable String lastName,
+              @Nullable LocalDate birthdate, @Nullable String email, Instant lastModified);
+
+    /**
+     * Marks a user deleted, which hides it from all queries until its data is purged.
+     *
+     * @param userId       the ID of the user to delete
+     * @param lastModified the time of the deletion
+     * @return number of deleted users, {@code 0} if the user does not exist or has already been deleted
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE User u SET u.deleted = true, u.version = u.version + 1, u.lastModified = :lastModified
+            WHERE u.id = :userId AND u.deleted = false
+            """)
+    int markDeleted(Long userId, Instant lastModified);
+
+    /**
+     * Removes the row of a user marked as deleted, once all of its data has been purged.
+     *
+     * @param userId the ID of the purged user
+     */
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id = :userId AND deleted = true", nativeQuery = true)
+    void deleteMarkedAsDeleted(Long userId);
+
 }
@@ -0,0 +1,157 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.UserChangedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Searches users by their first name, last name and email, with prefix and typo-tolerant matching.
+ * The users are indexed in memory by a {@link TokenIndex}, built when the application is ready and updated once
+ * the creation, modification or deletion of a user has been committed. The index holds the {@link UserDto} of every
+ * user, so a search does not touch the database.
+ * <p>
+ * The load and the listeners may read a user concurrently, in any order. A user read at a version older than the
+ * indexed one is therefore ignored, and so is a user read after their removal, as the IDs are never reused.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class UserSearchIndex {
+
+    private static final String SELECT_USERS = "SELECT id, first_name, last_name, birthdate, email, version FROM users WHERE deleted = FALSE";
+
+    private final TokenIndex index = new TokenIndex();
+    private final Map<Long, UserDto> users = new HashMap<>();
+    private final Set<Long> removed = new HashSet<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    /**
+     * Indexes all users.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        jdbcTemplate.query(SELECT_USERS, resultSet -> {
+            put(new UserDto(resultSet.getLong("id"),
+                            resultSet.getString("first_name"),
+                            resultSet.getString("last_name"),
+                            resultSet.getObject("birthdate", LocalDate.class),
+                            resultSet.getString("email"),
+                            resultSet.getLong("version")));
+        });
+        log.info("Indexed {} users for search in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Searches users matching all words of the query, best matches first.
+     *
+     * @param query  the searched words, prefixes of the names or the email of the user, possibly with typos
+     * @param offset number of best matching users to skip
+     * @param limit  maximal number of users to return
+     * @return the matching users, in the order of their rank
+     */
+    List<UserDto> search(String query, int offset, int limit) {
+        List<String> terms = TokenIndex.tokenize(query);
+        lock.readLock().lock();
+        try {
+            List<Long> ids = index.search(terms, offset, limit);
+            List<UserDto> found = new ArrayList<>(ids.size());
+            ids.forEach(id -> found.add(users.get(id)));
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the number of indexed users.
+     *
+     * @return number of users
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes a user once their creation or modification has been committed.
+     *
+     * @param event the event announcing the changed user
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userRepository.findById(event.userId())
+                .map(userMapper::toDto)
+                .ifPresentOrElse(this::put, () -> remove(event.userId()));
+    }
+
+    /**
+     * Removes a user from the index once their deletion has been committed.
+     *
+     * @param event the event announcing the deleted user
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        remove(event.userId());
+    }
+
+    /**
+     * Indexes a user, unless a newer version of the user has been indexed or the user has been removed.
+     *
+     * @param user the user as read from the database
+     */
+    void put(UserDto user) {
+        List<String> tokens = TokenIndex.tokenize(user.firstName() + " " + user.lastName() + " " + user.email());
+        lock.writeLock().lock();
+        try {
+            UserDto indexed = users.get(user.id());
+            if (removed.contains(user.id()) || indexed != null && isOlder(user.version(), indexed.version())) {
+                return;
+            }
+            index.put(user.id(), tokens);
+            users.put(user.id(), user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isOlder(@Nullable Long version, @Nullable Long indexedVersion) {
+        return version != null && indexedVersion != null && version < indexedVersion;
+    }
+
+    private void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(userId);
+            users.remove(userId);
+            removed.add(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
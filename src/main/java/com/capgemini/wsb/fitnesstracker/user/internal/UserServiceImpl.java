@@ -1,12 +1,23 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.coalescing.api.Coalesced;
+import com.capgemini.wsb.fitnesstracker.exception.api.ConflictException;
+import com.capgemini.wsb.fitnesstracker.http.api.ResourceVersion;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserChangedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserDeletedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserPatch;
 import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.time.LocalDate;
@@ -18,10 +29,17 @@ import java.time.LocalDate;
  * Implementation of the {@link UserService} interface.
  * This class provides the business logic for managing {@link User} entities, including creation, retrieval,
  * updating, and deletion. It interacts with the {@link UserRepository} for database operations.
+ * Concurrent identical read queries are {@link Coalesced} into a single database execution.
+ * Queries of user lists and their validator run in read-only transactions, which are routed to the read replica
+ * if one is configured. Single users are read from the primary, because they back modifications.
+ * Every committed modification is announced with a {@link UserChangedEvent}, which keeps in-memory indexes
+ * such as the {@link UserSearchIndex} current.
  */
 class UserServiceImpl implements UserService, UserProvider {
 
     private final UserRepository userRepository;
+    private final UserPurgeTaskRepository purgeTaskRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Creates a new user in the database.
@@ -36,7 +54,9 @@ class UserServiceImpl implements UserService, UserProvider {
         if (user.getId() != null) {
             throw new IllegalArgumentException("User has already DB ID, update is not permitted!");
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId()));
+        return savedUser;
     }
 
     /**
@@ -46,6 +66,7 @@ class UserServiceImpl implements UserService, UserProvider {
      * @return an {@link Optional} containing the found {@link User}, or empty if not found
      */
     @Override
+    @Coalesced
     public Optional<User> getUser(final Long userId) {
         return userRepository.findById(userId);
     }
@@ -57,6 +78,7 @@ class UserServiceImpl implements UserService, UserProvider {
      * @return an {@link Optional} containing the found {@link User}, or empty if not found
      */
     @Override
+    @Coalesced
     public Optional<User> getUserByEmail(final String email) {
         return userRepository.findByEmail(email);
     }
@@ -67,40 +89,111 @@ class UserServiceImpl implements UserService, UserProvider {
      * @return a list of all {@link User} entities
      */
     @Override
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<User> findAllUsers() {
         return userRepository.findAll();
     }
 
     /**
-     * Deletes a user from the database by their ID.
+     * Retrieves the validator of a user by their ID, without loading the user.
+     *
+     * @param userId the ID of the user
+     * @return an {@link Optional} containing the {@link ResourceVersion} of the user, or empty if not found
+     */
+    @Override
+    public Optional<ResourceVersion> getUserVersion(final Long userId) {
+        return userRepository.findVersionById(userId);
+    }
+
+    /**
+     * Retrieves the validator of all users, without loading them.
+     *
+     * @return the {@link ResourceVersion} of all users
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getUsersVersion() {
+        return userRepository.findVersionOfAll();
+    }
+
+    /**
+     * Deletes a user by their ID.
+     * The user is only marked as deleted, which is immediate regardless of the amount of its data.
+     * The data is then purged in small batches by the {@link UserPurgeWorker}, as recorded by a {@link UserPurgeTask}.
      *
      * @param userId the ID of the user to delete
      */
     @Override
+    @Transactional
     public void deleteUser(Long userId) {
-        userRepository.deleteById(userId);
+        Instant now = Instant.now();
+        if (userRepository.markDeleted(userId, now) == 0) {
+            return;
+        }
+        purgeTaskRepository.save(new UserPurgeTask(userId, now));
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
     }
 
     /**
      * Updates an existing user with new information.
      *
-     * @param userId the ID of the user to update
-     * @param user   the updated {@link User} entity
+     * The version of the loaded user is compared with the expected one, and the save is guarded by the same version,
+     * so an update based on a stale version is reported as a conflict instead of overwriting the newer state.
+     *
+     * @param userId  the ID of the user to update
+     * @param user    the updated {@link User} entity
+     * @param version the expected version of the user
      * @return the updated {@link User} entity
      * @throws IllegalArgumentException if the user with the specified ID is not found
+     * @throws ConflictException if the user is no longer at the expected version or has been modified concurrently
      */
     @Override
-    public User updateUser(Long userId, User user) {
+    public User updateUser(Long userId, User user, long version) {
         return userRepository.findById(userId)
                 .map(existingUser -> {
+                    if (existingUser.getVersion() != version) {
+                        throw new ConflictException("User with ID=%s is no longer at version %s".formatted(userId, version));
+                    }
                     existingUser.setFirstName(user.getFirstName());
                     existingUser.setLastName(user.getLastName());
                     existingUser.setBirthdate(user.getBirthdate());
                     existingUser.setEmail(user.getEmail());
-                    return userRepository.save(existingUser);
+                    try {
+                        User savedUser = userRepository.save(existingUser);
+                        eventPublisher.publishEvent(new UserChangedEvent(userId));
+                        return savedUser;
+                    } catch (OptimisticLockingFailureException e) {
+                        throw new ConflictException("User with ID=%s has been modified concurrently".formatted(userId));
+                    }
                 }).orElseThrow(() -> new IllegalArgumentException("User not found"));
     }
 
+    /**
+     * Applies a partial modification to a user with a single guarded {@code UPDATE} statement.
+     * Only when nothing has been updated, the existence of the user is checked to report the right error.
+     *
+     * @param userId the ID of the user to modify
+     * @param patch  the modified values and the expected version of the user
+     * @return the {@link ResourceVersion} of the modified user
+     * @throws UserNotFoundException if the user with the specified ID is not found
+     * @throws ConflictException if the user does not have the expected version
+     */
+    @Override
+    public ResourceVersion patchUser(Long userId, UserPatch patch) {
+        Instant now = Instant.now();
+        int updated = userRepository.patch(userId, patch.version(), patch.firstName(), patch.lastName(),
+                                           patch.birthdate(), patch.email(), now);
+        if (updated == 0) {
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException(userId);
+            }
+            throw new ConflictException("User with ID=%s is no longer at version %s".formatted(userId, patch.version()));
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+        return new ResourceVersion(patch.version() + 1, now);
+    }
+
     /**
      * Finds users by their email address.
      *
@@ -108,6 +201,8 @@ class UserServiceImpl implements UserService, UserProvider {
      * @return a list of {@link User} entities matching the specified email
      */
     @Override
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<User> findUsersByEmail(String email) {
         return userRepository.findUserByEmail(email);
     }
@@ -119,6 +214,8 @@ class UserServiceImpl implements UserService, UserProvider {
      * @return a list of {@link User} entities whose birthdates are on or before the specified cutoff date
      */
     @Override
+    @Coalesced
+    @Transactional(readOnly = true)
     public List<User> findUsersOlderThan(LocalDate cutoffDate) {
         return userRepository.findUsersOlderThan(cutoffDate);
     }
@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker;
+
+import org.junit.jupiter.api.Tag;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks benchmarks, which are excluded from the regular build and run with {@code mvn test -Pbenchmark}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Tag("Benchmark")
+public @interface Benchmark {
+
+}
@@ -9,8 +9,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static java.time.format.DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 public abstract class IntegrationTestBase {
@@ -58,5 +61,24 @@ public abstract class IntegrationTestBase {
         return trainingRepository.findAll();
     }
 
+    /**
+     * Builds the JSON body of a request creating or replacing a training.
+     */
+    protected static String trainingRequest(long userId, String activityType, LocalDateTime startTime, LocalDateTime endTime,
+                                            double distance, double averageSpeed) {
+        return """
+                {
+                    "userId": "%s",
+                    "startTime": "%s",
+                    "endTime": "%s",
+                    "activityType": "%s",
+                    "distance": %s,
+                    "averageSpeed": %s,
+                    "version": 0
+                }
+                """.formatted(userId, startTime.format(ISO_LOCAL_DATE_TIME), endTime.format(ISO_LOCAL_DATE_TIME), activityType,
+                              distance, averageSpeed);
+    }
+
 
 }
@@ -0,0 +1,173 @@
+package com.capgemini.wsb.fitnesstracker.admission.internal;
+
+import com.capgemini.wsb.fitnesstracker.Benchmark;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of the reads of a user's trainings over HTTP, alone and under a flood of training submissions,
+ * with and without admission control. Without it, the writers hold the Tomcat threads and the database
+ * connections and the reads queue behind them; with it, the excess writes are rejected with {@code 503}
+ * and, as the writers wait for the {@code Retry-After} delay, the read latency stays close to the one of the
+ * idle server.
+ */
+@Benchmark
+class AdmissionControlBenchmark {
+
+    private static final int READERS = 4;
+    private static final int WRITERS = 64;
+    private static final int TRAININGS = 50;
+    private static final Duration PHASE = Duration.ofSeconds(5);
+    private static final LocalDateTime FIRST_START = LocalDateTime.of(2020, 1, 1, 0, 0);
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final AtomicLong trainings = new AtomicLong();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+    class WithAdmissionControl {
+
+        @Test
+        void measureReadLatencyUnderWriteFlood(@Autowired UserService userService, @LocalServerPort int port) throws Exception {
+            compare("admission control", userService, port);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "admission.enabled=false")
+    class WithoutAdmissionControl {
+
+        @Test
+        void measureReadLatencyUnderWriteFlood(@Autowired UserService userService, @LocalServerPort int port) throws Exception {
+            compare("no admission control", userService, port);
+        }
+    }
+
+    private void compare(String configuration, UserService userService, int port) throws Exception {
+        User user = userService.createUser(new User("First", "Last", LocalDate.of(1990, 1, 1), randomUUID().toString()));
+        try {
+            for (int i = 0; i < TRAININGS; i++) {
+                assertThat(send(postTraining(port, user)).statusCode()).isEqualTo(201);
+            }
+            Result idle = run("idle", 0, port, user);
+            Result flood = run("write flood", WRITERS, port, user);
+
+            System.out.println(configuration);
+            System.out.printf("%-12s %8s %10s %10s %10s %10s %10s%n", "phase", "reads", "read p50", "read p99", "writes", "rejected", "failed");
+            for (Result result : List.of(idle, flood)) {
+                System.out.printf("%-12s %8d %8.1fms %8.1fms %10d %10d %10d%n", result.phase, result.reads.size(),
+                                  result.readPercentile(0.50), result.readPercentile(0.99), result.writes, result.rejected, result.failed);
+            }
+            assertThat(flood.failed).as("reads never fail, whether writes are rejected or not").isZero();
+        } finally {
+            userService.deleteUser(user.getId());
+        }
+    }
+
+    private Result run(String phase, int writers, int port, User user) throws Exception {
+        List<Long> reads = new ArrayList<>();
+        AtomicLong writes = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long end = System.nanoTime() + PHASE.toNanos();
+        HttpRequest read = HttpRequest.newBuilder(uri(port, "/v1/trainings/" + user.getId())).GET().build();
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + writers);
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                clients.add(executor.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        HttpResponse<Void> response = send(postTraining(port, user));
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                            Thread.sleep(Duration.ofSeconds(response.headers().firstValueAsLong("Retry-After").orElse(1)).toMillis());
+                        } else {
+                            writes.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < READERS; i++) {
+                clients.add(executor.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        int status = send(read).statusCode();
+                        long nanos = System.nanoTime() - start;
+                        if (status != 200) {
+                            failed.incrementAndGet();
+                        }
+                        synchronized (reads) {
+                            reads.add(nanos);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+            return new Result(phase, reads, writes.get(), rejected.get(), failed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpRequest postTraining(int port, User user) {
+        LocalDateTime start = FIRST_START.plusMinutes(2 * trainings.getAndIncrement());
+        String body = """
+                {
+                    "userId": "%s",
+                    "startTime": "%s",
+                    "endTime": "%s",
+                    "activityType": "RUNNING",
+                    "distance": 10.52,
+                    "averageSpeed": 8.2
+                }
+                """.formatted(user.getId(), DATE_TIME.format(start), DATE_TIME.format(start.plusMinutes(1)));
+        return HttpRequest.newBuilder(uri(port, "/v1/trainings"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpResponse<Void> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static URI uri(int port, String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Result(String phase, List<Long> reads, long writes, long rejected, long failed) {
+
+        double readPercentile(double percentile) {
+            long[] sorted = reads.stream().mapToLong(Long::longValue).sorted().toArray();
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))] / 1_000_000.0;
+        }
+    }
+}
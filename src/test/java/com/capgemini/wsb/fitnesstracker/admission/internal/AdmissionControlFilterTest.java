@@ -0,0 +1,104 @@
+package com.capgemini.wsb.fitnesstracker.admission.internal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private static final FilterChain NOOP = (request, response) -> {
+    };
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(
+            new AdmissionProperties(new AdmissionProperties.Limits(1, 1, 1), new AdmissionProperties.Limits(1, 1, 1),
+                                    0.9, 2.0, Duration.ofMillis(5), 500, Duration.ofSeconds(3)),
+            meterRegistry);
+
+    @Test
+    void shouldRejectWrite_whenWriteLimitIsReached() throws Exception {
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+        FilterChain chain = (request, response) -> {
+            if (nested.isEmpty()) {
+                nested.add(perform("PUT", "/v1/trainings/1", NOOP));
+                nested.add(perform("GET", "/v1/trainings", NOOP));
+            }
+        };
+
+        MockHttpServletResponse outer = perform("POST", "/v1/trainings", chain);
+
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested.get(0).getStatus()).isEqualTo(503);
+        assertThat(nested.get(0).getHeader("Retry-After")).isEqualTo("3");
+        assertThat(nested.get(1).getStatus()).as("reads are limited separately").isEqualTo(200);
+        assertThat(meterRegistry.get("admission.rejected").tag("group", "write").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("admission.in.flight").tag("group", "write").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldNotLimitRequests_whenOutsideOfApi() throws Exception {
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+        FilterChain chain = (request, response) -> {
+            if (nested.isEmpty()) {
+                nested.add(perform("POST", "/actuator/queries", NOOP));
+            }
+        };
+
+        perform("POST", "/v1/trainings", chain);
+
+        assertThat(nested.get(0).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldKeepWriteLimit_whenReadsOfDifferentRoutesHaveDifferentLatencies() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                new AdmissionProperties(new AdmissionProperties.Limits(4, 1, 4), new AdmissionProperties.Limits(10, 2, 20),
+                                        0.5, 2.0, Duration.ofMillis(20), 500, Duration.ofSeconds(1)),
+                meterRegistry);
+        FilterChain fastRoute = routedTo("/v1/users/{userId}", 0);
+        FilterChain slowRoute = routedTo("/v1/statistics/users/{userId}/report", 60);
+
+        for (int i = 0; i < 10; i++) {
+            perform(filter, "GET", "/v1/users/1", fastRoute);
+            perform(filter, "GET", "/v1/statistics/users/1/report", slowRoute);
+        }
+
+        assertThat(meterRegistry.get("admission.limit").tag("group", "write").gauge().value()).isEqualTo(10);
+    }
+
+    private static FilterChain routedTo(String pattern, long latencyMillis) {
+        return (request, response) -> {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, FilterChain chain) {
+        return perform(filter, method, uri, chain);
+    }
+
+    private static MockHttpServletResponse perform(AdmissionControlFilter filter, String method, String uri, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,110 @@
+package com.capgemini.wsb.fitnesstracker.admission.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AimdLimiterTest {
+
+    private static final long FAST = 1_000_000;
+    private static final long SLOW = 50_000_000;
+    private static final String ROUTE = "GET /v1/trainings";
+
+    private final AimdLimiter limiter = new AimdLimiter(4, 2, 6, 0.5, 2.0, 0, 100);
+
+    @Test
+    void shouldRejectRequests_whenLimitIsReached() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getInFlight()).isEqualTo(4);
+
+        limiter.release(ROUTE, System.nanoTime(), FAST);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void shouldIncreaseLimitUpToMax_whenLatencyStaysLow() {
+        for (int i = 0; i < 10; i++) {
+            fillAndRelease(FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldNotIncreaseLimit_whenLimitIsMostlyUnused() {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(ROUTE, System.nanoTime(), FAST);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldDecreaseLimitOncePerRound_whenLatencyShowsQueueing() {
+        limiter.tryAcquire();
+        assertThat(limiter.release(ROUTE, System.nanoTime(), FAST)).isFalse();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.release(ROUTE, start, SLOW)).isTrue();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        limiter.tryAcquire();
+        limiter.release(ROUTE, System.nanoTime(), SLOW);
+
+        assertThat(limiter.getLimit()).as("never below the minimal limit").isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotDecreaseLimit_whenRouteIsSlowerThanOthersByNature() {
+        limiter.tryAcquire();
+        limiter.release(ROUTE, System.nanoTime(), FAST);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+            assertThat(limiter.release("GET /v1/statistics/users/{userId}/report", System.nanoTime(), SLOW)).isFalse();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldIgnoreCongestion_whenRequestWasAdmittedBeforeLastDecrease() {
+        limiter.tryAcquire();
+        limiter.release(ROUTE, System.nanoTime(), FAST);
+        long earlier = System.nanoTime();
+        limiter.backOff(System.nanoTime());
+
+        limiter.backOff(earlier);
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectInconsistentLimits() {
+        assertThatThrownBy(() -> new AimdLimiter(1, 2, 6, 0.5, 2.0, 0, 100)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void fillAndRelease(long latencyNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(ROUTE, start, latencyNanos);
+        }
+    }
+}
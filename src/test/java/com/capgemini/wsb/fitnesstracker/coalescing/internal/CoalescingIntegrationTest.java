@@ -0,0 +1,58 @@
+package com.capgemini.wsb.fitnesstracker.coalescing.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class CoalescingIntegrationTest extends IntegrationTestBase {
+
+    private static final String KEY = "TrainingServiceImpl.getTrainingsByActivityType";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldCountCoalescedCalls_whenGettingTrainingsByActivityType() throws Exception {
+        double before = calls("executed") + calls("shared");
+
+        mockMvc.perform(get("/v1/trainings/activityType").param("activityType", "RUNNING"))
+                .andExpect(status().isOk());
+
+        assertThat(calls("executed") + calls("shared") - before).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCoalesce_whenCalledWithinTransaction() {
+        double before = calls("executed") + calls("shared");
+
+        transactionTemplate.executeWithoutResult(status -> trainingService.getTrainingsByActivityType(ActivityType.RUNNING));
+
+        assertThat(calls("executed") + calls("shared")).isEqualTo(before);
+    }
+
+    private double calls(String result) {
+        return meterRegistry.counter("coalescing.calls", "key", KEY, "result", result).count();
+    }
+}
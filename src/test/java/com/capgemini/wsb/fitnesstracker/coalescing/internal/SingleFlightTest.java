@@ -0,0 +1,82 @@
+package com.capgemini.wsb.fitnesstracker.coalescing.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void shouldShareResultOfCallInFlight_whenIdenticalCallsAreConcurrent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            Future<SingleFlight.Outcome> first = submit(executor, () -> {
+                executions.incrementAndGet();
+                release.await();
+                return "result";
+            });
+            await().until(() -> singleFlight.inFlight() == 1);
+            List<Future<SingleFlight.Outcome>> others = new ArrayList<>();
+            for (int i = 1; i < CALLERS; i++) {
+                others.add(submit(executor, () -> {
+                    executions.incrementAndGet();
+                    return "other";
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Outcome("result", false));
+            for (Future<SingleFlight.Outcome> other : others) {
+                assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Outcome("result", true));
+            }
+            assertThat(executions).hasValue(1);
+            assertThat(singleFlight.inFlight()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldExecuteAgain_whenPreviousCallCompleted() throws Throwable {
+        assertThat(singleFlight.execute("key", () -> "first").value()).isEqualTo("first");
+        assertThat(singleFlight.execute("key", () -> "second")).isEqualTo(new SingleFlight.Outcome("second", false));
+    }
+
+    @Test
+    void shouldPropagateException_whenCallFailed() {
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.inFlight()).isZero();
+    }
+
+    private Future<SingleFlight.Outcome> submit(ExecutorService executor, SingleFlight.Call call) {
+        return executor.submit(() -> {
+            try {
+                return singleFlight.execute("key", call);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,154 @@
+package com.capgemini.wsb.fitnesstracker.cohort;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional, as the cohort bitmaps are updated once the modifications of users and trainings are committed.
+ * Every test selects users older than 100 years, born in its own range of years, which no other test creates.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class CohortApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldSelectUsersMatchingAllConditions_whenQueryCombinesAgeAndActivities() throws Exception {
+        int runner = createUser(today.minusYears(111).minusDays(10));
+        int cyclist = createUser(today.minusYears(111).minusDays(20));
+        int tooOld = createUser(today.minusYears(113));
+        int oldestInRange = createUser(today.minusYears(113).plusDays(1));
+        int tooYoung = createUser(today.minusYears(110).plusDays(1));
+        for (int user : new int[]{runner, cyclist, tooOld, oldestInRange, tooYoung}) {
+            createTraining(user, today.atTime(12, 0), "RUNNING");
+        }
+        createTraining(cyclist, today.minusYears(1).atTime(12, 0), "CYCLING");
+
+        String query = """
+                {"type": "and", "queries": [
+                    {"type": "age", "min": 110, "max": 112},
+                    {"type": "activity", "activityType": "RUNNING", "from": "%1$s", "to": "%1$s"},
+                    {"type": "not", "query": {"type": "activity", "activityType": "CYCLING"}}]}
+                """.formatted(YearMonth.from(today));
+        mockMvc.perform(post("/v1/cohorts").contentType(MediaType.APPLICATION_JSON).content(query))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.userIds", contains(runner, oldestInRange)));
+        mockMvc.perform(post("/v1/cohorts").param("limit", "0").contentType(MediaType.APPLICATION_JSON).content(query))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andExpect(jsonPath("$.userIds").isEmpty());
+    }
+
+    @Test
+    void shouldFollowModificationsOfTrainingsAndUsers_whenTheyAreCommitted() throws Exception {
+        int user = createUser(today.minusYears(121));
+        int other = createUser(today.minusYears(121));
+        String trainingId = createTraining(user, today.atTime(12, 0), "RUNNING");
+        String ageQuery = "{\"type\": \"age\", \"min\": 120, \"max\": 121}";
+        String inactiveQuery = "{\"type\": \"and\", \"queries\": [%s, {\"type\": \"not\", \"query\": {\"type\": \"active\"}}]}"
+                .formatted(ageQuery);
+
+        mockMvc.perform(post("/v1/cohorts").contentType(MediaType.APPLICATION_JSON).content(inactiveQuery))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userIds", contains(other)));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(trainingRequest(user, today.atTime(12, 0), "CYCLING")))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/v1/cohorts").contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"type\": \"and\", \"queries\": [%s, {\"type\": \"activity\", \"activityType\": \"CYCLING\"}]}"
+                                                 .formatted(ageQuery)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userIds", contains(user)));
+
+        mockMvc.perform(delete("/v1/trainings/{trainingId}", trainingId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/v1/cohorts").contentType(MediaType.APPLICATION_JSON).content(inactiveQuery))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userIds", contains(user, other)));
+
+        mockMvc.perform(delete("/v1/users/{id}", other))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/v1/cohorts").contentType(MediaType.APPLICATION_JSON).content(ageQuery))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.userIds", contains(user)));
+    }
+
+    @Test
+    void shouldRejectQuery_whenQueryOrLimitIsInvalid() throws Exception {
+        mockMvc.perform(post("/v1/cohorts").contentType(MediaType.APPLICATION_JSON).content("{\"type\": \"age\", \"min\": 40, \"max\": 30}"))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/v1/cohorts").contentType(MediaType.APPLICATION_JSON).content("{\"type\": \"or\", \"queries\": []}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/v1/cohorts").param("limit", "-1").contentType(MediaType.APPLICATION_JSON).content("{\"type\": \"active\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private int createUser(LocalDate birthdate) throws Exception {
+        String response = mockMvc.perform(post("/v1/users").contentType(MediaType.APPLICATION_JSON).content("""
+                        {
+                            "firstName": "%s",
+                            "lastName": "%s",
+                            "birthdate": "%s",
+                            "email": "%s@domain.com"
+                        }
+                        """.formatted(randomUUID(), randomUUID(), birthdate, randomUUID())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(response.replaceAll(".*?\"id\":(\\d+),.*", "$1"));
+    }
+
+    private String createTraining(int user, LocalDateTime startTime, String activityType) throws Exception {
+        String response = mockMvc.perform(post("/v1/trainings")
+                                                  .contentType(MediaType.APPLICATION_JSON)
+                                                  .content(trainingRequest(user, startTime, activityType)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return response.replaceAll(".*?\"id\":(\\d+),.*", "$1");
+    }
+
+    private static String trainingRequest(int user, LocalDateTime startTime, String activityType) {
+        return trainingRequest(user, activityType, startTime, startTime.plusHours(1), 10.0, 8.2);
+    }
+}
@@ -0,0 +1,84 @@
+package com.capgemini.wsb.fitnesstracker.cohort.internal;
+
+import com.capgemini.wsb.fitnesstracker.Benchmark;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares indexing 50k users with 1M trainings from the database with restoring the {@link CohortIndex} from its
+ * snapshot, which still reads the users but not the trainings.
+ */
+@Benchmark
+@SpringBootTest
+class CohortSnapshotBenchmark {
+
+    private static final int USERS = 50_000;
+    private static final int TRAININGS_PER_USER = 20;
+    private static final long FIRST_USER_ID = 100_000_000L;
+    private static final int RUNS = 3;
+
+    @Autowired
+    private CohortIndex cohortIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertTrainings() {
+        jdbcTemplate.update("""
+                INSERT INTO users (id, first_name, last_name, birthdate, email, version, deleted)
+                SELECT ? + x, 'First', 'Last', DATEADD(DAY, -MOD(x, 20000), DATE '2000-01-01'), CONCAT('user', x, '@benchmark.com'), 0, FALSE
+                FROM SYSTEM_RANGE(0, ? - 1)
+                """, FIRST_USER_ID, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO trainings (user_id, start_time, end_time, activity_type, distance, average_speed, calories_burned, version)
+                SELECT ? + MOD(x, ?), DATEADD(HOUR, x / ? * 50, TIMESTAMP WITH TIME ZONE '2020-01-01 00:00:00Z'),
+                       DATEADD(HOUR, x / ? * 50 + 1, TIMESTAMP WITH TIME ZONE '2020-01-01 00:00:00Z'), MOD(x, 5), 10.0, 10.0, 500, 0
+                FROM SYSTEM_RANGE(0, ? - 1)
+                """, FIRST_USER_ID, USERS, USERS, USERS, USERS * TRAININGS_PER_USER);
+    }
+
+    @AfterEach
+    void deleteTrainings() {
+        jdbcTemplate.update("DELETE FROM trainings WHERE user_id >= ?", FIRST_USER_ID);
+        jdbcTemplate.update("DELETE FROM users WHERE id >= ?", FIRST_USER_ID);
+        cohortIndex.rebuild();
+    }
+
+    @Test
+    void compareRebuildWithRestore() throws IOException {
+        double rebuildMillis = Double.MAX_VALUE;
+        double restoreMillis = Double.MAX_VALUE;
+        int snapshotBytes = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            cohortIndex.rebuild();
+            rebuildMillis = Math.min(rebuildMillis, (System.nanoTime() - start) / 1_000_000.0);
+
+            ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+            long sequence = cohortIndex.writeSnapshot(new DataOutputStream(snapshot));
+            snapshotBytes = snapshot.size();
+            start = System.nanoTime();
+            cohortIndex.readSnapshot(new DataInputStream(new ByteArrayInputStream(snapshot.toByteArray())), sequence);
+            restoreMillis = Math.min(restoreMillis, (System.nanoTime() - start) / 1_000_000.0);
+        }
+
+        System.out.printf("%-8s %12s%n", "cohorts", "best [ms]");
+        System.out.printf("%-8s %12.1f%n", "rebuild", rebuildMillis);
+        System.out.printf("%-8s %12.1f   (%d KB snapshot)%n", "restore", restoreMillis, snapshotBytes / 1024);
+        assertThat(cohortIndex.size()).isGreaterThanOrEqualTo(USERS);
+        assertThat(restoreMillis).isLessThan(rebuildMillis);
+    }
+}
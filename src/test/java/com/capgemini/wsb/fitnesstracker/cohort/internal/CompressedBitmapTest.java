@@ -0,0 +1,99 @@
+package com.capgemini.wsb.fitnesstracker.cohort.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.BinaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompressedBitmapTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    void shouldAddAndRemoveValues_whenContainersChangeRepresentation() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int value = 0; value < 10_000; value++) {
+            bitmap.add(value * 3);
+        }
+        bitmap.add(1 << 20);
+
+        assertThat(bitmap.cardinality()).isEqualTo(10_001);
+        assertThat(bitmap.contains(29_997)).isTrue();
+        assertThat(bitmap.contains(29_998)).isFalse();
+        assertThat(bitmap.toArray(3)).containsExactly(0, 3, 6);
+
+        for (int value = 0; value < 10_000; value++) {
+            bitmap.remove(value * 3);
+        }
+        bitmap.remove(7);
+
+        assertThat(bitmap.cardinality()).isEqualTo(1);
+        assertThat(bitmap.toArray(10)).containsExactly(1 << 20);
+        bitmap.remove(1 << 20);
+        assertThat(bitmap.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldMatchSetOperations_whenBitmapsAreSparseOrDense() {
+        for (int density : new int[]{100, 5_000, 60_000}) {
+            TreeSet<Integer> left = randomValues(density);
+            TreeSet<Integer> right = randomValues(density);
+
+            assertOperation(left, right, CompressedBitmap::and, (a, b) -> {
+                a.retainAll(b);
+                return a;
+            });
+            assertOperation(left, right, CompressedBitmap::or, (a, b) -> {
+                a.addAll(b);
+                return a;
+            });
+            assertOperation(left, right, CompressedBitmap::andNot, (a, b) -> {
+                a.removeAll(b);
+                return a;
+            });
+        }
+    }
+
+    @Test
+    void shouldRejectNegativeValues() {
+        assertThatThrownBy(() -> new CompressedBitmap().add(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertOperation(TreeSet<Integer> left, TreeSet<Integer> right,
+                                 BinaryOperator<CompressedBitmap> operation, BinaryOperator<TreeSet<Integer>> expected) {
+        CompressedBitmap leftBitmap = toBitmap(left);
+        CompressedBitmap rightBitmap = toBitmap(right);
+
+        CompressedBitmap result = operation.apply(leftBitmap, rightBitmap);
+
+        List<Integer> values = new ArrayList<>();
+        result.forEach(values::add);
+        assertThat(values).containsExactlyElementsOf(expected.apply(new TreeSet<>(left), new TreeSet<>(right)));
+        assertThat(result.cardinality()).isEqualTo(values.size());
+        assertThat(leftBitmap.cardinality()).isEqualTo(left.size());
+        assertThat(rightBitmap.cardinality()).isEqualTo(right.size());
+    }
+
+    private TreeSet<Integer> randomValues(int perContainer) {
+        TreeSet<Integer> values = new TreeSet<>();
+        for (int container = 0; container < 4; container++) {
+            int high = random.nextInt(6) << 16;
+            for (int i = 0; i < perContainer; i++) {
+                values.add(high | random.nextInt(1 << 16));
+            }
+        }
+        return values;
+    }
+
+    private static CompressedBitmap toBitmap(TreeSet<Integer> values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        values.forEach(bitmap::add);
+        return bitmap;
+    }
+}
@@ -0,0 +1,122 @@
+package com.capgemini.wsb.fitnesstracker.datasource.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against two local H2 databases, the primary and a replica which never receives the writes,
+ * so the database a read was routed to is visible in the response.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = {
+        "datasource.replica.url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        // beaten by the tests, once the replica has its schema
+        "datasource.replica.heartbeat-interval=1h"
+})
+class ReplicaRoutingIntegrationTest extends IntegrationTestBase {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private static final long REPLICA_USER_ID = 1_000_000;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReplicationLagMonitor replicationLagMonitor;
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        replica.execute("DROP ALL OBJECTS");
+        List<String> script = jdbcTemplate.queryForList("SCRIPT NODATA", String.class);
+        script.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(replica::execute);
+        replicationLagMonitor.beat();
+    }
+
+    @AfterEach
+    void cleanUpDerivedData() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldReadListsFromReplica_whenClientHasNotWritten() throws Exception {
+        User primaryUser = existingUser(generateUser());
+        replica.update("""
+                               INSERT INTO users (id, first_name, last_name, birthdate, email, version, deleted)
+                               VALUES (?, 'Replica', 'User', DATE '1990-01-01', 'replica@domain.com', 0, FALSE)
+                               """, REPLICA_USER_ID);
+
+        mockMvc.perform(get("/v1/users"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].email").value(hasItem("replica@domain.com")))
+                .andExpect(jsonPath("$[*].email").value(not(hasItem(primaryUser.getEmail()))));
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimary_untilReplicaHasReplayedThem() throws Exception {
+        User user = existingUser(generateUser());
+
+        Cookie writtenBeat = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(trainingRequest(
+                        user.getId(), "RUNNING", LocalDateTime.parse("2024-04-01T10:00:00"), LocalDateTime.parse("2024-04-01T11:00:00"), 10.0, 10.0)))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadYourWritesTracker.COOKIE))
+                .andReturn().getResponse().getCookie(ReadYourWritesTracker.COOKIE);
+        assertThat(Long.parseLong(writtenBeat.getValue())).isGreaterThan(replicationLagMonitor.readPrimaryBeat());
+
+        replicationLagMonitor.beat();
+        mockMvc.perform(get("/v1/trainings").cookie(writtenBeat))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].userId").value(user.getId()));
+        mockMvc.perform(get("/v1/trainings"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        replica.update("INSERT INTO replication_heartbeat (id, beat) VALUES (?, ?)", ReplicationHeartbeat.ID, Long.parseLong(writtenBeat.getValue()));
+        replicationLagMonitor.beat();
+        mockMvc.perform(get("/v1/trainings").cookie(writtenBeat))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private static User generateUser() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID() + "@domain.com");
+    }
+}
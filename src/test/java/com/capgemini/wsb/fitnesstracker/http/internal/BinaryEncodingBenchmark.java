@@ -0,0 +1,97 @@
+package com.capgemini.wsb.fitnesstracker.http.internal;
+
+import com.capgemini.wsb.fitnesstracker.Benchmark;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingDto;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares payload size and (de)serialization cost of a device sync sized list of trainings
+ * encoded as JSON (the current default), CBOR and Smile.
+ */
+@Benchmark
+class BinaryEncodingBenchmark {
+
+    private static final int TRAININGS = 5_000;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 100;
+
+    @Test
+    void compareJsonWithBinaryEncodings() throws Exception {
+        List<TrainingDto> trainings = generateTrainings();
+        ObjectMapper json = new Jackson2ObjectMapperBuilder().build();
+        ObjectMapper cbor = BinaryEncodingConfig.binaryObjectMapper(new Jackson2ObjectMapperBuilder(), new CBORFactory());
+        ObjectMapper smile = BinaryEncodingConfig.binaryObjectMapper(new Jackson2ObjectMapperBuilder(), new SmileFactory());
+
+        Result jsonResult = measure("JSON", json, trainings);
+        Result cborResult = measure("CBOR", cbor, trainings);
+        Result smileResult = measure("Smile", smile, trainings);
+
+        System.out.printf("%-6s %12s %14s %14s%n", "format", "bytes", "write [us]", "read [us]");
+        for (Result result : List.of(jsonResult, cborResult, smileResult)) {
+            System.out.printf("%-6s %12d %14.1f %14.1f%n", result.format, result.bytes, result.writeMicros, result.readMicros);
+        }
+        assertThat(cborResult.bytes).isLessThan(jsonResult.bytes);
+        assertThat(smileResult.bytes).isLessThan(jsonResult.bytes);
+    }
+
+    private static Result measure(String format, ObjectMapper mapper, List<TrainingDto> trainings) throws Exception {
+        TypeReference<List<TrainingDto>> type = new TypeReference<>() {
+        };
+        byte[] payload = mapper.writeValueAsBytes(trainings);
+        assertThat(mapper.readValue(payload, type)).hasSize(trainings.size());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(trainings), type);
+        }
+        long writeNanos = 0;
+        long readNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            payload = mapper.writeValueAsBytes(trainings);
+            long written = System.nanoTime();
+            mapper.readValue(payload, type);
+            readNanos += System.nanoTime() - written;
+            writeNanos += written - start;
+        }
+        return new Result(format, payload.length, writeNanos / 1_000.0 / MEASURED_ROUNDS, readNanos / 1_000.0 / MEASURED_ROUNDS);
+    }
+
+    private static List<TrainingDto> generateTrainings() {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            User user = new User("First" + id, "Last" + id, LocalDate.of(1970, 1, 1).plusDays(random.nextInt(15_000)), "user" + id + "@domain.com");
+            ReflectionTestUtils.setField(user, "id", id);
+            users.add(user);
+        }
+        List<TrainingDto> trainings = new ArrayList<>(TRAININGS);
+        long start = 1_704_067_200_000L;
+        for (long id = 1; id <= TRAININGS; id++) {
+            User user = users.get(random.nextInt(users.size()));
+            start += random.nextInt(3_600_000);
+            trainings.add(new TrainingDto(id, user.getId(), user, new Date(start), new Date(start + random.nextInt(7_200_000)),
+                                          ActivityType.values()[random.nextInt(ActivityType.values().length)],
+                                          random.nextDouble() * 40, random.nextDouble() * 30, random.nextInt(1_500), 0L));
+        }
+        return trainings;
+    }
+
+    private record Result(String format, int bytes, double writeMicros, double readMicros) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.capgemini.wsb.fitnesstracker.http.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@Transactional
+@AutoConfigureMockMvc(addFilters = false)
+class BinaryEncodingIntegrationTest extends IntegrationTestBase {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldEncodeTrainingsAsCbor_whenCborAccepted() throws Exception {
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+
+        byte[] body = mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).accept(MediaType.APPLICATION_CBOR))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode training = new CBORMapper().readTree(body).get(0);
+        assertThat(training.get("startTime").isIntegralNumber()).isTrue();
+        assertThat(training.get("startTime").asLong()).isEqualTo(training1.getStartTime().getTime());
+        assertThat(training.get("activityType").asInt()).isEqualTo(ActivityType.CYCLING.ordinal());
+        assertThat(training.get("user").get("birthdate").asLong()).isEqualTo(user1.getBirthdate().toEpochDay());
+    }
+
+    @Test
+    void shouldEncodeUsersAsSmile_whenSmileAccepted() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        byte[] body = mockMvc.perform(get("/v1/users/{id}", user1.getId()).accept(SMILE))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode user = new SmileMapper().readTree(body);
+        assertThat(user.get("email").asText()).isEqualTo(user1.getEmail());
+        assertThat(user.get("birthdate").asLong()).isEqualTo(user1.getBirthdate().toEpochDay());
+    }
+
+    @Test
+    void shouldPersistTraining_whenCreatingTrainingFromCbor() throws Exception {
+        User user1 = existingUser(generateClient());
+        ObjectMapper cbor = new CBORMapper();
+        byte[] request = cbor.writeValueAsBytes(Map.of(
+                "userId", user1.getId(),
+                "startTime", 1_713_261_600_000L,
+                "endTime", 1_713_265_200_000L,
+                "activityType", ActivityType.RUNNING.ordinal(),
+                "distance", 10.0,
+                "averageSpeed", 10.0));
+
+        byte[] body = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR).content(request))
+                .andDo(log())
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode training = cbor.readTree(body);
+        assertThat(training.get("startTime").asLong()).isEqualTo(1_713_261_600_000L);
+        assertThat(training.get("endTime").asLong()).isEqualTo(1_713_265_200_000L);
+        assertThat(training.get("activityType").asInt()).isEqualTo(ActivityType.RUNNING.ordinal());
+        assertThat(training.get("caloriesBurned").asInt()).isPositive();
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.of(1990, 5, 17), randomUUID().toString());
+    }
+
+    private static Training generateTraining(User user) throws ParseException {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        return new Training(
+                user,
+                sdf.parse("2024-01-19 08:00:00"),
+                sdf.parse("2024-01-19 09:30:00"),
+                ActivityType.CYCLING,
+                10.5,
+                8.2);
+    }
+}
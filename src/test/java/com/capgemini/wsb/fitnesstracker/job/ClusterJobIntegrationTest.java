@@ -0,0 +1,175 @@
+package com.capgemini.wsb.fitnesstracker.job;
+
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.job.api.PartitionedJob;
+import com.capgemini.wsb.fitnesstracker.job.api.SingleNodeJob;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the jobs on several application contexts sharing one H2 file database, as nodes of a cluster would.
+ */
+@IntegrationTest
+class ClusterJobIntegrationTest {
+
+    private static final int NODES = 3;
+    private static final int USERS = 1_000;
+
+    @TempDir
+    static Path database;
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() {
+        for (int node = 0; node < NODES; node++) {
+            nodes.add(new SpringApplicationBuilder(FitnessTracker.class, TestJobs.class)
+                              .web(WebApplicationType.NONE)
+                              .properties("spring.datasource.url=jdbc:h2:file:" + database.resolve("cluster").toAbsolutePath(),
+                                          "spring.jpa.hibernate.ddl-auto=update",
+                                          "job.poll-interval=100ms",
+                                          "job.workers=2")
+                              .run());
+        }
+        TestJobs.activatedAt = System.nanoTime();
+        TestJobs.active.set(true);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void shouldRunEachScheduledRunOnOneNodeOnly_whenAllNodesScheduleTheJob() {
+        await().atMost(Duration.ofSeconds(30)).until(() -> TestJobs.singleNodeRuns.get() >= 3);
+        long runs = TestJobs.singleNodeRuns.get();
+        long elapsedSeconds = Duration.ofNanos(System.nanoTime() - TestJobs.activatedAt).toSeconds();
+
+        assertThat(TestJobs.concurrentSingleNodeRuns.get()).isEqualTo(1);
+        assertThat(runs).isLessThanOrEqualTo(elapsedSeconds + 2);
+    }
+
+    @Test
+    void shouldProcessEveryRangeOnceInParallel_whenJobIsPartitioned() {
+        await().atMost(Duration.ofSeconds(30)).until(() -> TestJobs.firstCompletedRun.get() != null);
+
+        Map<Long, Integer> processed = TestJobs.firstCompletedRun.get();
+        assertThat(processed).hasSize(USERS);
+        assertThat(processed.values()).containsOnly(1);
+        assertThat(TestJobs.processingNodes).hasSizeGreaterThan(1);
+    }
+
+    /**
+     * Jobs run every second, counting their executions across all nodes.
+     */
+    static class TestJobs {
+
+        static final AtomicBoolean active = new AtomicBoolean();
+        static volatile long activatedAt;
+        static final AtomicInteger singleNodeRuns = new AtomicInteger();
+        static final AtomicInteger activeSingleNodeRuns = new AtomicInteger();
+        static final AtomicInteger concurrentSingleNodeRuns = new AtomicInteger();
+        static final Map<Long, Integer> processedUsers = new ConcurrentHashMap<>();
+        static final Set<Object> processingNodes = ConcurrentHashMap.newKeySet();
+        static final AtomicReference<Map<Long, Integer>> firstCompletedRun = new AtomicReference<>();
+
+        @Bean
+        SingleNodeJob countingJob() {
+            return new SingleNodeJob() {
+
+                @Override
+                public String name() {
+                    return "counting";
+                }
+
+                @Override
+                public String cron() {
+                    return "* * * * * *";
+                }
+
+                @Override
+                public void run() {
+                    if (!active.get()) {
+                        return;
+                    }
+                    concurrentSingleNodeRuns.accumulateAndGet(activeSingleNodeRuns.incrementAndGet(), Math::max);
+                    singleNodeRuns.incrementAndGet();
+                    sleep(200);
+                    activeSingleNodeRuns.decrementAndGet();
+                }
+            };
+        }
+
+        @Bean
+        PartitionedJob partitionedJob() {
+            return new PartitionedJob() {
+
+                @Override
+                public String name() {
+                    return "partitioned";
+                }
+
+                @Override
+                public String cron() {
+                    return "* * * * * *";
+                }
+
+                @Override
+                public long userIdBound() {
+                    return active.get() && firstCompletedRun.get() == null ? USERS : 0;
+                }
+
+                @Override
+                public int partitionSize() {
+                    return 25;
+                }
+
+                @Override
+                public void process(long fromUserId, long toUserId) {
+                    processingNodes.add(this);
+                    for (long userId = fromUserId; userId < toUserId; userId++) {
+                        processedUsers.merge(userId, 1, Integer::sum);
+                    }
+                    sleep(50);
+                }
+
+                @Override
+                public void completed(long failedPartitions) {
+                    if (!processedUsers.isEmpty()) {
+                        firstCompletedRun.compareAndSet(null, Map.copyOf(processedUsers));
+                    }
+                }
+            };
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
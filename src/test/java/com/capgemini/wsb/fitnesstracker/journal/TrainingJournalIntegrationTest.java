@@ -0,0 +1,84 @@
+package com.capgemini.wsb.fitnesstracker.journal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalReader;
+import com.capgemini.wsb.fitnesstracker.journal.api.TrainingJournal;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Not transactional, as the journal records the committed changes.
+ */
+@IntegrationTest
+class TrainingJournalIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private TrainingJournal trainingJournal;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldRecordCommittedChanges_whenTrainingIsCreatedUpdatedAndDeleted() {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString()));
+        long before = trainingJournal.getLastSequence();
+
+        Training created = trainingService.createTraining(
+                new Training(user, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 10.0, 10.0));
+        trainingService.updateTraining(created.getId(),
+                                       new Training(user, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 12.0, 12.0),
+                                       created.getVersion());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                trainingService.deleteTraining(created.getId());
+                status.setRollbackOnly();
+            });
+        } finally {
+            trainingService.deleteTraining(created.getId());
+        }
+
+        List<JournalEntry> entries = new ArrayList<>();
+        try (JournalReader reader = trainingJournal.read(before + 1)) {
+            for (JournalEntry entry = reader.next(); entry != null; entry = reader.next()) {
+                entries.add(entry);
+            }
+        }
+        assertThat(entries).extracting(JournalEntry::sequence).containsExactly(before + 1, before + 2, before + 3);
+        assertThat(entries.get(0).previous()).isNull();
+        assertThat(entries.get(0).current().distance()).isEqualTo(10.0);
+        assertThat(entries.get(1).previous().distance()).isEqualTo(10.0);
+        assertThat(entries.get(1).current().distance()).isEqualTo(12.0);
+        assertThat(entries.get(2).previous().id()).isEqualTo(created.getId());
+        assertThat(entries.get(2).current()).isNull();
+    }
+}
@@ -0,0 +1,176 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalReader;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedTrainingJournalTest {
+
+    private static final int SEGMENT_CAPACITY = 4;
+
+    private final List<JournalEntry> published = new ArrayList<>();
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldReadChangesInOrder_whenTheySpanSeveralSegments() throws IOException {
+        MappedTrainingJournal journal = open();
+        TrainingSnapshot created = snapshot(1, 10.0);
+        TrainingSnapshot updated = snapshot(1, 12.5);
+        journal.append(null, created);
+        journal.append(created, updated);
+        for (int i = 2; i <= 9; i++) {
+            journal.append(null, snapshot(i, i));
+        }
+        journal.append(updated, null);
+
+        assertThat(journal.getLastSequence()).isEqualTo(11);
+        assertThat(segmentFiles()).hasSize(3);
+        List<JournalEntry> entries = readAll(journal, 1);
+        assertThat(entries).extracting(JournalEntry::sequence).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+        assertThat(entries.get(0).previous()).isNull();
+        assertThat(entries.get(0).current()).isEqualTo(created);
+        assertThat(entries.get(1).previous()).isEqualTo(created);
+        assertThat(entries.get(1).current()).isEqualTo(updated);
+        assertThat(entries.get(10).previous()).isEqualTo(updated);
+        assertThat(entries.get(10).current()).isNull();
+        assertThat(readAll(journal, 6)).extracting(JournalEntry::sequence).containsExactly(6L, 7L, 8L, 9L, 10L, 11L);
+        journal.close();
+    }
+
+    @Test
+    void shouldContinueAfterLastCompleteRecord_whenReopenedAfterCrash() throws IOException {
+        MappedTrainingJournal journal = open();
+        for (int i = 1; i <= 6; i++) {
+            journal.append(null, snapshot(i, i));
+        }
+        journal.close();
+        Path lastSegment = segmentFiles().get(1);
+        tearRecord(lastSegment, 1);
+
+        MappedTrainingJournal reopened = open();
+
+        assertThat(reopened.getLastSequence()).isEqualTo(5);
+        assertThat(reopened.append(null, snapshot(7, 7.0))).isEqualTo(6);
+        assertThat(readAll(reopened, 1)).extracting(entry -> entry.current().id()).containsExactly(1L, 2L, 3L, 4L, 5L, 7L);
+        reopened.close();
+    }
+
+    @Test
+    void shouldRejectCorruptedRecord_whenReading() throws IOException {
+        MappedTrainingJournal journal = open();
+        for (int i = 1; i <= 3; i++) {
+            journal.append(null, snapshot(i, i));
+        }
+        tearRecord(segmentFiles().get(0), 1);
+
+        try (JournalReader reader = journal.read(1)) {
+            assertThat(reader.next()).isNotNull();
+            assertThatThrownBy(reader::next).isInstanceOf(IllegalStateException.class).hasMessageContaining("Corrupted record 2");
+        }
+        journal.close();
+    }
+
+    @Test
+    void shouldPublishAppendedEntries_andReplayThemFromSequence() throws IOException {
+        MappedTrainingJournal journal = open();
+        for (int i = 1; i <= 6; i++) {
+            journal.append(null, snapshot(i, i));
+        }
+
+        List<JournalEntry> replayed = new ArrayList<>();
+        long lastSequence = journal.replay(3, replayed::add);
+
+        assertThat(published).extracting(JournalEntry::sequence).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(replayed).containsExactlyElementsOf(published.subList(2, 6));
+        assertThat(lastSequence).isEqualTo(6);
+        assertThat(journal.replay(7, replayed::add)).isEqualTo(6);
+        assertThat(replayed).hasSize(4);
+        journal.close();
+    }
+
+    @Test
+    void shouldContinueAfterGivenSequence_whenRestarted() throws IOException {
+        MappedTrainingJournal journal = open();
+        for (int i = 1; i <= 6; i++) {
+            journal.append(null, snapshot(i, i));
+        }
+
+        journal.restart(20);
+        TrainingSnapshot created = snapshot(21, 21.0);
+        journal.append(JournalRecord.decodeChange(21, Instant.EPOCH, JournalRecord.encodeChange(null, created)));
+
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(journal.getFirstSequence()).isEqualTo(21);
+        assertThat(readAll(journal, 21)).extracting(JournalEntry::current).containsExactly(created);
+        assertThatThrownBy(() -> journal.read(20)).isInstanceOf(IllegalStateException.class).hasMessageContaining("starts at sequence 21");
+        assertThatThrownBy(() -> journal.append(JournalRecord.decodeChange(23, Instant.EPOCH, JournalRecord.encodeChange(created, null))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("does not follow the last entry 21");
+        journal.close();
+
+        MappedTrainingJournal reopened = open();
+
+        assertThat(reopened.getFirstSequence()).isEqualTo(21);
+        assertThat(reopened.getLastSequence()).isEqualTo(21);
+        reopened.close();
+    }
+
+    @Test
+    void shouldRefuseDirectory_whenAnotherJournalUsesIt() throws IOException {
+        MappedTrainingJournal journal = open();
+
+        assertThatThrownBy(this::open).isInstanceOf(IllegalStateException.class).hasMessageContaining("used by another application");
+        journal.close();
+    }
+
+    private MappedTrainingJournal open() throws IOException {
+        return new MappedTrainingJournal(directory, SEGMENT_CAPACITY, Duration.ofSeconds(1), event -> published.add((JournalEntry) event), () -> 0);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalSegment::isSegment).sorted().toList();
+        }
+    }
+
+    private static void tearRecord(Path segment, int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), (long) index * JournalRecord.SIZE + 100);
+        }
+    }
+
+    private static List<JournalEntry> readAll(MappedTrainingJournal journal, long fromSequence) {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (JournalReader reader = journal.read(fromSequence)) {
+            for (JournalEntry entry = reader.next(); entry != null; entry = reader.next()) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static TrainingSnapshot snapshot(long id, double distance) {
+        Instant start = Instant.parse("2024-04-01T10:00:00Z");
+        return new TrainingSnapshot(id, 100 + id, start, start.plusSeconds(3600), ActivityType.CYCLING, distance, 20.0, 550);
+    }
+}
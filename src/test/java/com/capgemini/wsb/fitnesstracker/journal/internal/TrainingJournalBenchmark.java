@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.journal.internal;
+
+import com.capgemini.wsb.fitnesstracker.Benchmark;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalReader;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingSnapshot;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures appending 1M changes to the journal, rolling over the segments of the default size, and replaying them
+ * with the sequential reader.
+ */
+@Benchmark
+class TrainingJournalBenchmark {
+
+    private static final int CHANGES = 1_000_000;
+    private static final int SEGMENT_CAPACITY = 8 * 1024 * 1024 / JournalRecord.SIZE;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void measureAppendAndReplay() throws IOException {
+        MappedTrainingJournal journal = new MappedTrainingJournal(directory, SEGMENT_CAPACITY, Duration.ofSeconds(1), event -> {
+        }, () -> 0);
+        try {
+            long start = System.nanoTime();
+            for (int id = 1; id <= CHANGES; id++) {
+                journal.append(null, snapshot(id));
+            }
+            double appendMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            start = System.nanoTime();
+            long entries = 0;
+            double distance = 0;
+            try (JournalReader reader = journal.read(1)) {
+                for (JournalEntry entry = reader.next(); entry != null; entry = reader.next()) {
+                    distance += entry.current().distance();
+                    entries++;
+                }
+            }
+            double replayMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            System.out.printf("%-8s %14s %18s%n", "journal", "total [ms]", "changes per second");
+            System.out.printf("%-8s %14.1f %18.0f%n", "append", appendMillis, CHANGES * 1000 / appendMillis);
+            System.out.printf("%-8s %14.1f %18.0f%n", "replay", replayMillis, CHANGES * 1000 / replayMillis);
+            assertThat(entries).isEqualTo(CHANGES);
+            assertThat(distance).isEqualTo(CHANGES * 5.0);
+        } finally {
+            journal.close();
+        }
+    }
+
+    private static TrainingSnapshot snapshot(long id) {
+        Instant startTime = Instant.ofEpochSecond(id * 7_200);
+        return new TrainingSnapshot(id, id % 1_000, startTime, startTime.plusSeconds(3_600), ActivityType.RUNNING, 5.0, 5.0, 300);
+    }
+}
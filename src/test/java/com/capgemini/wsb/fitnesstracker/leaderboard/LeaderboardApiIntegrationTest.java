@@ -0,0 +1,146 @@
+package com.capgemini.wsb.fitnesstracker.leaderboard;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class LeaderboardApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldRankUsersByWeeklyDistance_whenTrainingsAreCreated() throws Exception {
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        LocalDate today = now();
+
+        createTraining(user1, today, "SWIMMING", 20.0);
+        createTraining(user2, today, "SWIMMING", 10.0);
+        createTraining(user2, today.atTime(14, 0), "SWIMMING", 15.0);
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}", "SWIMMING").param("week", today.toString()).param("limit", "2"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rank").value(1))
+                .andExpect(jsonPath("$[0].userId").value(user2.getId()))
+                .andExpect(jsonPath("$[0].totalDistance").value(25.0))
+                .andExpect(jsonPath("$[0].trainings").value(2))
+                .andExpect(jsonPath("$[1].rank").value(2))
+                .andExpect(jsonPath("$[1].userId").value(user1.getId()))
+                .andExpect(jsonPath("$[2]").doesNotExist());
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}/users/{userId}", "SWIMMING", user1.getId()).param("week", today.toString()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rank").value(2))
+                .andExpect(jsonPath("$.totalDistance").value(20.0));
+    }
+
+    @Test
+    void shouldMoveDistanceBetweenLeaderboards_whenTrainingIsUpdated() throws Exception {
+        User user1 = existingUser(generateClient());
+        LocalDate today = now();
+
+        String trainingId = createTraining(user1, today, "WALKING", 7.5);
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(trainingRequest(user1, today, "CYCLING", 30.0)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}/users/{userId}", "WALKING", user1.getId()).param("week", today.toString()))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/v1/leaderboards/{activityType}/users/{userId}", "CYCLING", user1.getId()).param("week", today.toString()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalDistance").value(30.0))
+                .andExpect(jsonPath("$.trainings").value(1));
+    }
+
+    @Test
+    void shouldIgnoreTraining_whenItsCreationIsRolledBack() throws Exception {
+        User user1 = existingUser(generateClient());
+        LocalDate today = now();
+        Date startTime = Date.from(today.atTime(12, 0).toInstant(ZoneOffset.UTC));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            trainingService.createTraining(new Training(user1, startTime, new Date(startTime.getTime() + 3_600_000),
+                                                        ActivityType.TENNIS, 5.0, 5.0));
+            status.setRollbackOnly();
+        });
+
+        mockMvc.perform(get("/v1/leaderboards/{activityType}/users/{userId}", "TENNIS", user1.getId()).param("week", today.toString()))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+    }
+
+    private String createTraining(User user, LocalDate day, String activityType, double distance) throws Exception {
+        return createTraining(user, day.atTime(12, 0), activityType, distance);
+    }
+
+    private String createTraining(User user, LocalDateTime startTime, String activityType, double distance) throws Exception {
+        String response = mockMvc.perform(post("/v1/trainings")
+                                                  .contentType(MediaType.APPLICATION_JSON)
+                                                  .content(trainingRequest(user, startTime, activityType, distance)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return response.replaceAll(".*?\"id\":(\\d+),.*", "$1");
+    }
+
+    private static String trainingRequest(User user, LocalDate day, String activityType, double distance) {
+        return trainingRequest(user, day.atTime(12, 0), activityType, distance);
+    }
+
+    private static String trainingRequest(User user, LocalDateTime startTime, String activityType, double distance) {
+        return trainingRequest(user.getId(), activityType, startTime, startTime.plusHours(1), distance, 8.2);
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+}
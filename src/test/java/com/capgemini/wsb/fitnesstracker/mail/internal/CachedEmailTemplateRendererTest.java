@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachedEmailTemplateRendererTest {
+
+    private static final Map<String, Object> MODEL = Map.of("firstName", "Anna", "week", "2024-W14", "trainings", 3,
+                                                            "distance", 21.5, "calories", 1450L);
+
+    private final CachedEmailTemplateRenderer renderer = new CachedEmailTemplateRenderer();
+
+    @Test
+    void shouldRenderSubjectAndContent_whenAllVariablesAreProvided() {
+        EmailDto email = renderer.render("weekly-summary", Locale.ENGLISH, "anna@domain.com", MODEL);
+
+        assertThat(email.toAddress()).isEqualTo("anna@domain.com");
+        assertThat(email.subject()).isEqualTo("Your FitnessTracker summary of the week 2024-W14");
+        assertThat(email.content()).startsWith("Hi Anna,\n\nin the week 2024-W14 you completed 3 trainings, covering 21.5 km and burning 1450 kcal.");
+    }
+
+    @Test
+    void shouldFallBackToLessSpecificLocale_whenTemplateOfLocaleDoesNotExist() {
+        assertThat(renderer.render("weekly-summary", new Locale("pl", "PL"), "anna@domain.com", MODEL).subject())
+                .isEqualTo("Podsumowanie FitnessTracker za tydzień 2024-W14");
+        assertThat(renderer.render("weekly-summary", Locale.GERMANY, "anna@domain.com", MODEL).subject())
+                .isEqualTo("Your FitnessTracker summary of the week 2024-W14");
+    }
+
+    @Test
+    void shouldFail_whenVariableIsMissingOrTemplateDoesNotExist() {
+        assertThatThrownBy(() -> renderer.render("weekly-summary", Locale.ENGLISH, "anna@domain.com", Map.of("firstName", "Anna")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{{week}}");
+        assertThatThrownBy(() -> renderer.render("unknown", Locale.ENGLISH, "anna@domain.com", MODEL))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectInvalidTemplate_whenCompiling() {
+        assertThatThrownBy(() -> EmailTemplate.compile("invalid", "Hello {{name}}"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> EmailTemplate.compile("invalid", "Subject: Hello\n\nHello {{name"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
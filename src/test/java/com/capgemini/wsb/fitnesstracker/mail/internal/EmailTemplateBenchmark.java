@@ -0,0 +1,75 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.Benchmark;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares rendering 1M weekly summaries with the cached, precompiled templates against compiling the template
+ * for every email.
+ */
+@Benchmark
+class EmailTemplateBenchmark {
+
+    private static final String TEMPLATE = "weekly-summary";
+    private static final int SUMMARIES = 1_000_000;
+    private static final int WARMUP_SUMMARIES = 100_000;
+
+    @Test
+    void compareCachedWithPerEmailCompiledTemplates() throws Exception {
+        String source = new ClassPathResource("mail/templates/" + TEMPLATE + ".txt").getContentAsString(StandardCharsets.UTF_8);
+        CachedEmailTemplateRenderer renderer = new CachedEmailTemplateRenderer();
+        Map<String, Object> model = new HashMap<>();
+
+        Renderer cached = id -> renderer.render(TEMPLATE, Locale.ENGLISH, "user" + id + "@domain.com", model);
+        Renderer compiled = id -> {
+            EmailTemplate template = EmailTemplate.compile(TEMPLATE, source);
+            StringBuilder buffer = new StringBuilder();
+            template.renderSubject(buffer, model);
+            String subject = buffer.toString();
+            buffer.setLength(0);
+            template.renderContent(buffer, model);
+            return new EmailDto("user" + id + "@domain.com", subject, buffer.toString());
+        };
+
+        run(cached, model, WARMUP_SUMMARIES);
+        run(compiled, model, WARMUP_SUMMARIES);
+        double cachedMillis = run(cached, model, SUMMARIES);
+        double compiledMillis = run(compiled, model, SUMMARIES);
+
+        System.out.printf("%-10s %14s %16s%n", "templates", "total [ms]", "per email [ns]");
+        System.out.printf("%-10s %14.1f %16.1f%n", "cached", cachedMillis, cachedMillis * 1_000_000 / SUMMARIES);
+        System.out.printf("%-10s %14.1f %16.1f%n", "compiled", compiledMillis, compiledMillis * 1_000_000 / SUMMARIES);
+        assertThat(cachedMillis).isLessThan(compiledMillis);
+    }
+
+    private static double run(Renderer renderer, Map<String, Object> model, int summaries) {
+        long length = 0;
+        long start = System.nanoTime();
+        for (int id = 0; id < summaries; id++) {
+            model.put("firstName", "First" + id);
+            model.put("week", "2024-W14");
+            model.put("trainings", id % 14);
+            model.put("distance", id % 100 * 1.5);
+            model.put("calories", id % 5_000L);
+            length += renderer.render(id).content().length();
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        assertThat(length).isPositive();
+        return millis;
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+
+        EmailDto render(int id);
+    }
+}
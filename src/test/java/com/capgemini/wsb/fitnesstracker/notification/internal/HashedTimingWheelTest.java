@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    private static final long ORIGIN = 1_000_000;
+
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, ORIGIN);
+
+    @Test
+    void shouldExpireKeys_whenTheirTickIsReached() {
+        wheel.schedule("a", ORIGIN + 25);
+        wheel.schedule("b", ORIGIN + 40);
+
+        assertThat(wheel.advance(ORIGIN + 29)).isEmpty();
+        assertThat(wheel.advance(ORIGIN + 30)).containsExactly("a");
+        assertThat(wheel.advance(ORIGIN + 45)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldKeepKeysForLaterRevolutions_whenDeadlineIsBeyondWheelSize() {
+        wheel.schedule("far", ORIGIN + 250);
+
+        assertThat(wheel.advance(ORIGIN + 80)).isEmpty();
+        assertThat(wheel.advance(ORIGIN + 240)).isEmpty();
+        assertThat(wheel.advance(ORIGIN + 250)).containsExactly("far");
+    }
+
+    @Test
+    void shouldOnlyExpireLatestDeadline_whenKeyIsRescheduled() {
+        wheel.schedule("a", ORIGIN + 20);
+        wheel.schedule("a", ORIGIN + 60);
+
+        assertThat(wheel.advance(ORIGIN + 30)).isEmpty();
+        assertThat(wheel.size()).isOne();
+        assertThat(wheel.advance(ORIGIN + 60)).containsExactly("a");
+    }
+
+    @Test
+    void shouldNotExpireKey_whenCancelled() {
+        wheel.schedule("a", ORIGIN + 20);
+
+        wheel.cancel("a");
+
+        assertThat(wheel.advance(ORIGIN + 100)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldExpireWithNextTick_whenDeadlineHasPassed() {
+        wheel.advance(ORIGIN + 100);
+
+        wheel.schedule("late", ORIGIN + 10);
+
+        assertThat(wheel.advance(ORIGIN + 110)).containsExactly("late");
+    }
+}
@@ -0,0 +1,108 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "mail.from=noreply@fitnesstracker.com",
+        "notification.inactivity.period=1s",
+        "notification.inactivity.tick=50ms",
+        "notification.inactivity.sweep-interval=200ms"
+})
+class InactivityReminderIntegrationTest extends IntegrationTestBase {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private InactivityReminderScheduler scheduler;
+
+    @AfterEach
+    void cleanUpDerivedData() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldRemindUserOnce_whenUserHasNotTrainedForPeriod() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID() + "@example.com"));
+
+        mockMvc.perform(post("/v1/trainings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(trainingRequest(user.getId(), "RUNNING", LocalDateTime.parse("2024-04-01T10:00:00"),
+                                                 LocalDateTime.parse("2024-04-01T11:00:00"), 10.0, 10.0)))
+                .andExpect(status().isCreated());
+        assertThat(count(user)).isOne();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(greenMail.getReceivedMessages()).hasSize(1));
+        MimeMessage reminder = greenMail.getReceivedMessages()[0];
+        assertThat(reminder.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
+        assertThat(reminder.getSubject()).isEqualTo("We miss you at FitnessTracker");
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(count(user)).isZero());
+    }
+
+    @Test
+    void shouldSendOverdueReminder_whenNoInstanceHoldsIt() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID() + "@example.com"));
+        jdbcTemplate.update("INSERT INTO inactivity_reminders (user_id, due_at) VALUES (?, ?)", user.getId(),
+                            OffsetDateTime.now().minusMinutes(1));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(greenMail.getReceivedMessages()).hasSize(1));
+        assertThat(greenMail.getReceivedMessages()[0].getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(count(user)).isZero());
+    }
+
+    @Test
+    void shouldSendReminderOnce_whenInstancesSendItConcurrently() {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID() + "@example.com"));
+        jdbcTemplate.update("INSERT INTO inactivity_reminders (user_id, due_at) VALUES (?, ?)", user.getId(), OffsetDateTime.now());
+
+        CompletableFuture.allOf(CompletableFuture.runAsync(() -> scheduler.send(List.of(user.getId()))),
+                                CompletableFuture.runAsync(() -> scheduler.send(List.of(user.getId()))))
+                .join();
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(count(user)).isZero();
+    }
+
+    private long count(User user) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inactivity_reminders WHERE user_id = ?", Long.class, user.getId());
+    }
+}
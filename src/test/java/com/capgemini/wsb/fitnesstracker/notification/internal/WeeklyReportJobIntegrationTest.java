@@ -0,0 +1,82 @@
+package com.capgemini.wsb.fitnesstracker.notification.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.mail.internet.MimeMessage;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+@TestPropertySource(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "mail.from=noreply@fitnesstracker.com"
+})
+class WeeklyReportJobIntegrationTest extends IntegrationTestBase {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private WeeklyReportJob weeklyReportJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpDeliveries() {
+        jdbcTemplate.update("DELETE FROM weekly_report_deliveries");
+    }
+
+    @Test
+    void shouldSendSummaryOnce_whenRangeIsProcessedAgain() throws Exception {
+        User first = existingUser(generateClient());
+        User second = existingUser(generateClient());
+        long from = Math.min(first.getId(), second.getId());
+        long to = Math.max(first.getId(), second.getId()) + 1;
+
+        weeklyReportJob.process(from, to);
+        weeklyReportJob.process(from, to);
+
+        assertThat(recipients()).containsExactlyInAnyOrder(first.getEmail(), second.getEmail());
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM weekly_report_deliveries", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDeleteRecordsOfPastWeeks_whenRunCompletes() {
+        User user = existingUser(generateClient());
+        jdbcTemplate.update("INSERT INTO weekly_report_deliveries (user_id, week, sent_at) VALUES (?, '2000-W01', CURRENT_TIMESTAMP)", user.getId());
+        weeklyReportJob.process(user.getId(), user.getId() + 1);
+
+        weeklyReportJob.completed(0);
+
+        assertThat(jdbcTemplate.queryForList("SELECT week FROM weekly_report_deliveries", String.class))
+                .hasSize(1)
+                .doesNotContain("2000-W01");
+    }
+
+    private static String[] recipients() throws Exception {
+        MimeMessage[] messages = greenMail.getReceivedMessages();
+        String[] recipients = new String[messages.length];
+        for (int i = 0; i < messages.length; i++) {
+            recipients[i] = messages[i].getAllRecipients()[0].toString();
+        }
+        return recipients;
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID() + "@example.com");
+    }
+}
@@ -0,0 +1,64 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional, as only the connections obtained by a profiled request are profiled.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class ServerTimingIntegrationTest extends IntegrationTestBase {
+
+    private static final String SERVER_TIMING = "db;dur=\\d+\\.\\d;desc=\"%s statements\", mapping;dur=\\d+\\.\\d, "
+                                                + "serialization;dur=\\d+\\.\\d, app;dur=\\d+\\.\\d";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldReportStatementsAndTimings_whenTrainingsAreRead() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString()));
+        for (int i = 0; i < 3; i++) {
+            persistTraining(new Training(user, new Date(), new Date(), ActivityType.RUNNING, 1.0, 1.0));
+        }
+
+        mockMvc.perform(get("/v1/trainings"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(header().string(ServerTimingResponse.HEADER, matchesPattern(SERVER_TIMING.formatted("[1-9]\\d*"))));
+    }
+
+    @Test
+    void shouldReportTimings_whenResponseHasNoBody() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString()));
+        String eTag = mockMvc.perform(get("/v1/trainings/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(ServerTimingResponse.HEADER, matchesPattern(SERVER_TIMING.formatted("\\d+"))));
+    }
+}
@@ -0,0 +1,55 @@
+package com.capgemini.wsb.fitnesstracker.profiling.internal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingResponseTest {
+
+    private final RequestProfile profile = RequestProfile.start();
+    private final MockHttpServletResponse target = new MockHttpServletResponse();
+    private final ServerTimingResponse response = new ServerTimingResponse(target, profile, 8);
+
+    @AfterEach
+    void stopProfiling() {
+        RequestProfile.stop();
+    }
+
+    @Test
+    void shouldHoldBackSerializedBody_untilItIsFlushed() throws Exception {
+        profile.startSerialization();
+        OutputStream output = response.getOutputStream();
+
+        output.write("{\"a\":1}".getBytes());
+
+        assertThat(target.getContentAsString()).isEmpty();
+        assertThat(target.getHeader(ServerTimingResponse.HEADER)).isNull();
+
+        output.flush();
+
+        assertThat(target.getContentAsString()).isEqualTo("{\"a\":1}");
+        assertThat(target.getHeader(ServerTimingResponse.HEADER)).contains("serialization;dur=");
+        assertThat(profile.isSerializing()).isFalse();
+    }
+
+    @Test
+    void shouldStreamSerializedBody_whenItExceedsTheBufferedSize() throws Exception {
+        profile.startSerialization();
+        OutputStream output = response.getOutputStream();
+
+        output.write("{\"a\":".getBytes());
+        output.write("[1,2,3]}".getBytes());
+
+        assertThat(target.getContentAsString()).isEqualTo("{\"a\":[1,2,3]}");
+        assertThat(target.getHeader(ServerTimingResponse.HEADER)).contains("serialization;dur=");
+        assertThat(profile.isSerializing()).as("the serialization is still timed for the slow request log").isTrue();
+
+        output.write("\n".getBytes());
+
+        assertThat(target.getContentAsString()).isEqualTo("{\"a\":[1,2,3]}\n");
+    }
+}
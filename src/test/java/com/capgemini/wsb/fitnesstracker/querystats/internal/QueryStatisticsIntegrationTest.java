@@ -0,0 +1,65 @@
+package com.capgemini.wsb.fitnesstracker.querystats.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = {
+        "management.endpoints.web.exposure.include=queries",
+        "query-statistics.slow-query-threshold=0ms",
+        "query-statistics.slow-query-log-size=1000"
+})
+class QueryStatisticsIntegrationTest extends IntegrationTestBase {
+
+    private static final String OLDER_USERS_QUERY = "$.queries[?(@.query == 'SELECT u FROM User u WHERE u.birthdate <= :cutoffDate')]";
+    private static final String OLDER_USERS_STATEMENT = "$.slowQueries[?(@.sql =~ /.*birthdate<=\\?.*/)]";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldReportQueryStatisticsAndSlowQueries_whenQueriesAreExecuted() throws Exception {
+        existingUser(new User(randomUUID().toString(), randomUUID().toString(), LocalDate.of(1950, 1, 1), randomUUID().toString()));
+        mockMvc.perform(delete("/actuator/queries"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/users/older/{time}", "1960-01-01"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/users/older/{time}", "1940-01-01"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/queries"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(OLDER_USERS_QUERY + ".executions", hasItem(2)))
+                .andExpect(jsonPath(OLDER_USERS_QUERY + ".rows", hasItem(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$.entities[*].entity", hasItem(User.class.getName())));
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> mockMvc.perform(get("/actuator/queries"))
+                .andExpect(jsonPath(OLDER_USERS_STATEMENT + ".parameters[0]", hasItem("1960-01-01")))
+                .andExpect(jsonPath(OLDER_USERS_STATEMENT + ".plan", everyItem(startsWith("SELECT"))))
+                .andExpect(jsonPath(OLDER_USERS_STATEMENT + ".plan", everyItem(not(startsWith("Cannot"))))));
+    }
+}
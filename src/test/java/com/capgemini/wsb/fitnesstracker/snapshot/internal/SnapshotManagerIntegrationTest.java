@@ -0,0 +1,108 @@
+package com.capgemini.wsb.fitnesstracker.snapshot.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.cohort.api.CohortProvider;
+import com.capgemini.wsb.fitnesstracker.cohort.api.CohortQuery;
+import com.capgemini.wsb.fitnesstracker.snapshot.api.Snapshottable;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Not transactional, as the cohort index follows the committed changes. Every test creates users born in its own
+ * range of years, which no other test creates.
+ */
+@IntegrationTest
+class SnapshotManagerIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private SnapshotManager snapshotManager;
+
+    @Autowired
+    private Snapshottable cohortIndex;
+
+    @Autowired
+    private CohortProvider cohortProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TrainingService trainingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldRestoreSnapshot_andReplayNewerChanges() {
+        User user = createUser(140);
+        Training running = createTraining(user, 0, ActivityType.RUNNING);
+        snapshotManager.writeSnapshots();
+        createTraining(user, 1, ActivityType.CYCLING);
+        jdbcTemplate.update("DELETE FROM trainings WHERE id = ?", running.getId());
+
+        snapshotManager.restore();
+
+        assertThat(cohort(140, ActivityType.RUNNING)).containsExactly(user.getId());
+        assertThat(cohort(140, ActivityType.CYCLING)).containsExactly(user.getId());
+    }
+
+    @Test
+    void shouldRebuildFromDatabase_whenSnapshotIsCorrupted() throws IOException {
+        User user = createUser(150);
+        Training running = createTraining(user, 0, ActivityType.RUNNING);
+        snapshotManager.writeSnapshots();
+        createTraining(user, 1, ActivityType.CYCLING);
+        jdbcTemplate.update("DELETE FROM trainings WHERE id = ?", running.getId());
+        Path snapshot = snapshotManager.snapshotFile(cohortIndex);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+
+        snapshotManager.restore();
+
+        assertThat(cohort(150, ActivityType.RUNNING)).isEmpty();
+        assertThat(cohort(150, ActivityType.CYCLING)).containsExactly(user.getId());
+    }
+
+    private User createUser(int age) {
+        LocalDate birthdate = LocalDate.now(ZoneOffset.UTC).minusYears(age).minusDays(100);
+        return userService.createUser(new User(randomUUID().toString(), randomUUID().toString(), birthdate, randomUUID() + "@domain.com"));
+    }
+
+    private Training createTraining(User user, int hour, ActivityType activityType) {
+        Date startTime = new Date(hour * 7_200_000L);
+        Date endTime = new Date(hour * 7_200_000L + 3_600_000L);
+        return trainingService.createTraining(new Training(user, startTime, endTime, activityType, 10.0, 10.0));
+    }
+
+    private List<Long> cohort(int age, ActivityType activityType) {
+        CohortQuery query = new CohortQuery.And(List.of(new CohortQuery.Age(age, age), new CohortQuery.Activity(activityType, null, null)));
+        return cohortProvider.getCohort(query, 10).userIds();
+    }
+}
@@ -0,0 +1,136 @@
+package com.capgemini.wsb.fitnesstracker.statistics;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional, as the statistics are accumulated once the changes of the trainings are committed.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class PersonalRecordApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldKeepBestValuesPerActivityType_whenCreatingTrainings() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        String longRun = createTraining(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T12:00:00", 20.0, 10.0);
+        String fastRun = createTraining(user1, "RUNNING", "2024-04-02T10:00:00", "2024-04-02T10:30:00", 7.0, 14.0);
+        createTraining(user1, "CYCLING", "2024-04-03T10:00:00", "2024-04-03T11:00:00", 30.0, 30.0);
+
+        mockMvc.perform(get("/v1/statistics/users/{userId}/records", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].longestDistance").value(20.0))
+                .andExpect(jsonPath("$[0].longestDistanceTrainingId").value(longRun))
+                .andExpect(jsonPath("$[0].fastestAverageSpeed").value(14.0))
+                .andExpect(jsonPath("$[0].fastestAverageSpeedTrainingId").value(fastRun))
+                .andExpect(jsonPath("$[0].longestDurationSeconds").value(7200))
+                .andExpect(jsonPath("$[0].longestDurationTrainingId").value(longRun))
+                .andExpect(jsonPath("$[1].activityType").value("CYCLING"))
+                .andExpect(jsonPath("$[1].longestDistance").value(30.0))
+                .andExpect(jsonPath("$[2]").doesNotExist());
+    }
+
+    @Test
+    void shouldRecomputeRecord_whenHoldingTrainingGetsWorse() throws Exception {
+        User user1 = existingUser(generateClient());
+        String longRun = createTraining(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T12:00:00", 20.0, 10.0);
+        String shortRun = createTraining(user1, "RUNNING", "2024-04-02T10:00:00", "2024-04-02T11:00:00", 10.0, 10.0);
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", longRun)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(trainingRequest(user1.getId(), "RUNNING", LocalDateTime.parse("2024-04-01T10:00:00"),
+                                                 LocalDateTime.parse("2024-04-01T10:30:00"), 5.0, 10.0)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/statistics/users/{userId}/records/{activityType}", user1.getId(), "RUNNING"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.longestDistance").value(10.0))
+                .andExpect(jsonPath("$.longestDistanceTrainingId").value(shortRun))
+                .andExpect(jsonPath("$.longestDurationSeconds").value(3600))
+                .andExpect(jsonPath("$.longestDurationTrainingId").value(shortRun));
+    }
+
+    @Test
+    void shouldRecomputeRecord_whenHoldingTrainingIsDeleted() throws Exception {
+        User user1 = existingUser(generateClient());
+        String longRun = createTraining(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T12:00:00", 20.0, 10.0);
+        String shortRun = createTraining(user1, "RUNNING", "2024-04-02T10:00:00", "2024-04-02T11:00:00", 10.0, 12.0);
+
+        mockMvc.perform(delete("/v1/trainings/{trainingId}", longRun))
+                .andDo(log())
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/statistics/users/{userId}/records/{activityType}", user1.getId(), "RUNNING"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.longestDistance").value(10.0))
+                .andExpect(jsonPath("$.longestDistanceTrainingId").value(shortRun))
+                .andExpect(jsonPath("$.fastestAverageSpeedTrainingId").value(shortRun));
+    }
+
+    @Test
+    void shouldRemoveRecords_whenLastTrainingOfActivityTypeIsDeleted() throws Exception {
+        User user1 = existingUser(generateClient());
+        String run = createTraining(user1, "RUNNING", "2024-04-01T10:00:00", "2024-04-01T12:00:00", 20.0, 10.0);
+
+        mockMvc.perform(delete("/v1/trainings/{trainingId}", run))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/statistics/users/{userId}/records/{activityType}", user1.getId(), "RUNNING"))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/v1/statistics/users/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(0));
+    }
+
+    private String createTraining(User user, String activityType, String startTime, String endTime,
+                                  double distance, double averageSpeed) throws Exception {
+        String response = mockMvc.perform(post("/v1/trainings")
+                                                  .contentType(MediaType.APPLICATION_JSON)
+                                                  .content(trainingRequest(user.getId(), activityType, LocalDateTime.parse(startTime), LocalDateTime.parse(endTime),
+                                                                           distance, averageSpeed)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return response.replaceAll(".*?\"id\":(\\d+),.*", "$1");
+    }
+
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+}
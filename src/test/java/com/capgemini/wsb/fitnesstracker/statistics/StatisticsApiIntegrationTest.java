@@ -0,0 +1,147 @@
+package com.capgemini.wsb.fitnesstracker.statistics;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalEntry;
+import com.capgemini.wsb.fitnesstracker.journal.api.JournalReader;
+import com.capgemini.wsb.fitnesstracker.journal.api.TrainingJournal;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional, as the statistics are accumulated once the changes of the trainings are committed.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class StatisticsApiIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TrainingJournal trainingJournal;
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldComputeCaloriesAndUpdateStatistics_whenCreatingTraining() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(trainingRequest(user1, "RUNNING", 10.0, 10.0)))
+                .andDo(log())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.caloriesBurned").value(700));
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(trainingRequest(user1.getId(), "TENNIS", LocalDateTime.parse("2024-04-01T11:00:00"), LocalDateTime.parse("2024-04-01T12:00:00"), 0.0, 0.0)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.caloriesBurned").value(511));
+
+        mockMvc.perform(get("/v1/statistics/users/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(user1.getId()))
+                .andExpect(jsonPath("$.totalTrainings").value(2))
+                .andExpect(jsonPath("$.totalDistance").value(10.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(1211));
+    }
+
+    @Test
+    void shouldApplyDifference_whenUpdatingTraining() throws Exception {
+        User user1 = existingUser(generateClient());
+
+        String response = mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(trainingRequest(user1, "RUNNING", 10.0, 10.0)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String trainingId = response.replaceAll(".*?\"id\":(\\d+),.*", "$1");
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", trainingId).contentType(MediaType.APPLICATION_JSON).content(trainingRequest(user1, "WALKING", 5.0, 5.0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.caloriesBurned").value(245));
+
+        mockMvc.perform(get("/v1/statistics/users/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(1))
+                .andExpect(jsonPath("$.totalDistance").value(5.0))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(245));
+    }
+
+    @Test
+    void shouldRecalculateCaloriesAndRebuildStatistics_whenRunningRecalculation() throws Exception {
+        User user1 = existingUser(generateClient());
+        persistTraining(generateTraining(user1, ActivityType.CYCLING, 20.0));
+        persistTraining(generateTraining(user1, ActivityType.WALKING, 4.0));
+        long before = trainingJournal.getLastSequence();
+
+        mockMvc.perform(post("/v1/statistics/calories/recalculation"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.trainings").value(2))
+                .andExpect(jsonPath("$.users").value(1));
+
+        List<JournalEntry> entries = new ArrayList<>();
+        try (JournalReader reader = trainingJournal.read(before + 1)) {
+            for (JournalEntry entry = reader.next(); entry != null; entry = reader.next()) {
+                entries.add(entry);
+            }
+        }
+        assertThat(entries).extracting(entry -> entry.previous().caloriesBurned()).containsExactly(0, 0);
+        assertThat(entries).extracting(entry -> entry.current().caloriesBurned()).doesNotContain(0);
+
+        mockMvc.perform(get("/v1/statistics/users/{userId}", user1.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTrainings").value(2))
+                .andExpect(jsonPath("$.totalCaloriesBurned").value(1239));
+    }
+
+    private static String trainingRequest(User user, String activityType, double distance, double averageSpeed) {
+        return trainingRequest(user.getId(), activityType, LocalDateTime.parse("2024-04-01T10:00:00"),
+                               LocalDateTime.parse("2024-04-01T11:00:00"), distance, averageSpeed);
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+    private static Training generateTraining(User user, ActivityType activityType, double averageSpeed) throws ParseException {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        return new Training(
+                user,
+                sdf.parse("2024-01-19 08:00:00"),
+                sdf.parse("2024-01-19 09:30:00"),
+                activityType,
+                averageSpeed * 1.5,
+                averageSpeed);
+    }
+}
@@ -0,0 +1,188 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Not transactional, as the accumulator flushes in transactions of its own.
+ */
+@IntegrationTest
+class StatisticsAccumulatorIntegrationTest extends IntegrationTestBase {
+
+    private static final String SELECT_TOTALS =
+            "SELECT total_trainings, total_distance, total_calories_burned FROM statistics WHERE user_id = ?";
+
+    @Autowired
+    private StatisticsAccumulator statisticsAccumulator;
+
+    @Autowired
+    private StatisticsWriter statisticsWriter;
+
+    @Autowired
+    private StatisticsProvider statisticsProvider;
+
+    @Autowired
+    private StatisticsCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StatisticsProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM statistics_checkpoints WHERE flushed_at < ?", Timestamp.from(Instant.now().minus(Duration.ofMinutes(10))));
+    }
+
+    @Test
+    void shouldWriteEveryTraining_whenStoringConcurrentlyWithFlushes() throws Exception {
+        User user = existingUser(generateClient());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int writer = 0; writer < 8; writer++) {
+                long offset = writer * 100L;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        long start = (offset + i) * 3_600_000;
+                        persistTraining(new Training(user, new Date(start), new Date(start + 1_800_000), ActivityType.RUNNING, 0.5, 1.0));
+                        statisticsAccumulator.markChanged(user.getId());
+                        if (i % 5 == 0) {
+                            statisticsAccumulator.flush();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        statisticsAccumulator.flush();
+
+        assertThat(statisticsAccumulator.isPending(user.getId())).isFalse();
+        assertThat(jdbcTemplate.queryForMap(SELECT_TOTALS, user.getId()))
+                .containsEntry("TOTAL_TRAININGS", 160)
+                .containsEntry("TOTAL_DISTANCE", 80.0);
+    }
+
+    @Test
+    void shouldReadPendingChanges_withoutWritingThem() {
+        User user = existingUser(generateClient());
+        persistTraining(new Training(user, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 10.0, 10.0));
+        statisticsAccumulator.markChanged(user.getId());
+
+        assertThat(statisticsProvider.getUserStatistics(user.getId()))
+                .hasValueSatisfying(statistics -> {
+                    assertThat(statistics.getTotalTrainings()).isEqualTo(1);
+                    assertThat(statistics.getTotalDistance()).isEqualTo(10.0);
+                });
+        assertThat(jdbcTemplate.queryForList(SELECT_TOTALS, user.getId())).isEmpty();
+
+        statisticsAccumulator.flush();
+
+        assertThat(jdbcTemplate.queryForMap(SELECT_TOTALS, user.getId())).containsEntry("TOTAL_TRAININGS", 1);
+    }
+
+    @Test
+    void shouldDropChanges_whenUserNoLongerExists() {
+        statisticsAccumulator.markChanged(Long.MAX_VALUE);
+
+        statisticsAccumulator.flush();
+
+        assertThat(jdbcTemplate.queryForList(SELECT_TOTALS, Long.MAX_VALUE)).isEmpty();
+        assertThat(statisticsAccumulator.isPending(Long.MAX_VALUE)).isFalse();
+    }
+
+    @Test
+    void shouldRebuildStatisticsFromTrainings_whenAnotherNodeCrashedWithoutFlushing() {
+        User user = existingUser(generateClient());
+        persistTraining(new Training(user, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 10.0, 10.0));
+        persistTraining(new Training(user, new Date(7_200_000), new Date(10_800_000), ActivityType.RUNNING, 5.0, 5.0));
+        jdbcTemplate.update("INSERT INTO statistics (user_id, total_trainings, total_distance, total_calories_burned) VALUES (?, 1, 10.0, 0)", user.getId());
+        jdbcTemplate.update("INSERT INTO statistics_checkpoints (node_id, flushed_at) VALUES (?, ?)",
+                            "crashed", Timestamp.from(Instant.now().minus(Duration.ofHours(1))));
+
+        statisticsAccumulator.flush();
+
+        Map<String, Object> totals = jdbcTemplate.queryForMap(SELECT_TOTALS, user.getId());
+        assertThat(totals).containsEntry("TOTAL_TRAININGS", 2).containsEntry("TOTAL_DISTANCE", 15.0);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM statistics_checkpoints WHERE node_id = 'crashed'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    void shouldRebuildStatisticsFromTrainings_whenCrashedNodeRestartedBeforeItsCheckpointExpired() throws Exception {
+        User user = existingUser(generateClient());
+        persistTraining(new Training(user, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 10.0, 10.0));
+        persistTraining(new Training(user, new Date(7_200_000), new Date(10_800_000), ActivityType.RUNNING, 5.0, 5.0));
+        jdbcTemplate.update("INSERT INTO statistics (user_id, total_trainings, total_distance, total_calories_burned) VALUES (?, 1, 10.0, 0)", user.getId());
+        jdbcTemplate.update("INSERT INTO statistics_checkpoints (node_id, flushed_at) VALUES (?, ?)",
+                            "crashed", Timestamp.from(Instant.now().minusSeconds(10)));
+        StatisticsAccumulator restartedNode = new StatisticsAccumulator(statisticsWriter, checkpointRepository, transactionTemplate, properties);
+        restartedNode.flush();
+        assertThat(jdbcTemplate.queryForMap(SELECT_TOTALS, user.getId())).containsEntry("TOTAL_TRAININGS", 1);
+
+        jdbcTemplate.update("UPDATE statistics_checkpoints SET flushed_at = ? WHERE node_id = 'crashed'",
+                            Timestamp.from(Instant.now().minus(Duration.ofHours(1))));
+        statisticsAccumulator.flush();
+
+        Map<String, Object> totals = jdbcTemplate.queryForMap(SELECT_TOTALS, user.getId());
+        assertThat(totals).containsEntry("TOTAL_TRAININGS", 2).containsEntry("TOTAL_DISTANCE", 15.0);
+        restartedNode.shutdown();
+    }
+
+    @Test
+    void shouldNotCountChangesTwice_whenRebuiltAndFlushedAgain() throws Exception {
+        User user = existingUser(generateClient());
+        persistTraining(new Training(user, new Date(0), new Date(3_600_000), ActivityType.RUNNING, 10.0, 10.0));
+        persistTraining(new Training(user, new Date(7_200_000), new Date(10_800_000), ActivityType.RUNNING, 5.0, 5.0));
+        statisticsAccumulator.markChanged(user.getId());
+        jdbcTemplate.update("INSERT INTO statistics_checkpoints (node_id, flushed_at) VALUES (?, ?)",
+                            "crashed", Timestamp.from(Instant.now().minus(Duration.ofHours(1))));
+        StatisticsAccumulator rebuildingNode = new StatisticsAccumulator(statisticsWriter, checkpointRepository, transactionTemplate, properties);
+
+        rebuildingNode.flush();
+        statisticsAccumulator.flush();
+        rebuildingNode.rebuild();
+        statisticsAccumulator.flush();
+
+        Map<String, Object> totals = jdbcTemplate.queryForMap(SELECT_TOTALS, user.getId());
+        assertThat(totals).containsEntry("TOTAL_TRAININGS", 2).containsEntry("TOTAL_DISTANCE", 15.0);
+        rebuildingNode.shutdown();
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+}
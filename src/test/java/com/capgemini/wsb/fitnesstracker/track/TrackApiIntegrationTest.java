@@ -0,0 +1,145 @@
+package com.capgemini.wsb.fitnesstracker.track;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.StringJoiner;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@Transactional
+@AutoConfigureMockMvc(addFilters = false)
+class TrackApiIntegrationTest extends IntegrationTestBase {
+
+    private static final long START_TIME = 1_713_949_200_000L;
+    private static final double START_LATITUDE = 52.2297;
+    private static final double START_LONGITUDE = 21.0122;
+    // 10 km/h due north, sampled at 1 Hz
+    private static final double LATITUDE_STEP_PER_SECOND = 10.0 / 3600 / 111.19508;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldComputeDistanceSpeedAndSplits_whenUploadingTrack() throws Exception {
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}/track", training1.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(generateTrack(3601)))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value(3601))
+                .andExpect(jsonPath("$.durationSeconds").value(3600.0))
+                .andExpect(jsonPath("$.distance", closeTo(10.0, 0.01)))
+                .andExpect(jsonPath("$.averageSpeed", closeTo(10.0, 0.01)))
+                .andExpect(jsonPath("$.splits", hasSize(9)))
+                .andExpect(jsonPath("$.splits[0]", closeTo(360.0, 1.0)));
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].distance", closeTo(10.0, 0.01)))
+                .andExpect(jsonPath("$[0].averageSpeed", closeTo(10.0, 0.01)));
+
+        mockMvc.perform(get("/v1/trainings/{trainingId}/track/summary", training1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points").value(3601))
+                .andExpect(jsonPath("$.distance", closeTo(10.0, 0.01)));
+    }
+
+    @Test
+    void shouldReturnUploadedPoints_whenDownloadingTrack() throws Exception {
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}/track", training1.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(generateTrack(3)))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/v1/trainings/{trainingId}/track", training1.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].time").value(START_TIME))
+                .andExpect(jsonPath("$[0].lat").value(START_LATITUDE))
+                .andExpect(jsonPath("$[0].lon").value(START_LONGITUDE))
+                .andExpect(jsonPath("$[2].time").value(START_TIME + 2000))
+                .andExpect(jsonPath("$[2].ele").value(101.0));
+    }
+
+    @Test
+    void shouldDeleteTrack_whenDeletingTraining() throws Exception {
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+        mockMvc.perform(put("/v1/trainings/{trainingId}/track", training1.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(generateTrack(3)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/v1/trainings/{trainingId}", training1.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/trainings/{trainingId}/track/summary", training1.getId()))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRejectTrack_whenPointsAreNotOrderedByTime() throws Exception {
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}/track", training1.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                        [{"time": 2000, "lat": 52.0, "lon": 21.0}, {"time": 1000, "lat": 52.0, "lon": 21.0}]
+                                        """))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String generateTrack(int points) {
+        StringJoiner track = new StringJoiner(",", "[", "]");
+        for (int second = 0; second < points; second++) {
+            track.add("{\"time\": %d, \"lat\": %s, \"lon\": %s, \"ele\": %s}".formatted(
+                    START_TIME + second * 1000L,
+                    START_LATITUDE + second * LATITUDE_STEP_PER_SECOND,
+                    START_LONGITUDE,
+                    100.0 + second * 0.5));
+        }
+        return track.toString();
+    }
+
+    private static User generateClient() {
+        return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
+    }
+
+    private static Training generateTraining(User user) {
+        return new Training(user, new Date(START_TIME), new Date(START_TIME + 3_600_000L), ActivityType.RUNNING, 0, 0);
+    }
+}
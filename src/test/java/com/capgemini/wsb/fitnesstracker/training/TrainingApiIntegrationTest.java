@@ -5,20 +5,34 @@ import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static java.time.LocalDate.now;
 import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,6 +44,16 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
     @Test
     void shouldReturnAllTrainings_whenGettingAllTrainings() throws Exception {
 
@@ -78,6 +102,80 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$[1]").doesNotExist());;
     }
 
+    @Test
+    void shouldReturnNotModified_whenGettingUnchangedTrainingsOfUserWithEtag() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+
+        String eTag = mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isNotModified());
+
+        training1.setDistance(42.0);
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].distance").value(42.0));
+    }
+
+    @Test
+    void shouldReturnModifiedTrainings_whenEmbeddedUserChanged() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        persistTraining(generateTraining(user1));
+
+        String eTag = mockMvc.perform(get("/v1/trainings"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        user1.setFirstName("Changed");
+
+        mockMvc.perform(get("/v1/trainings").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].user.firstName").value("Changed"));
+    }
+
+    @Test
+    void shouldApplyPartialModificationAndRecalculateCalories_whenPatchingTraining() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTraining(user1));
+
+        mockMvc.perform(patch("/v1/trainings/{id}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {
+                            "activityType": "RUNNING",
+                            "averageSpeed": 10.0,
+                            "version": 0
+                        }
+                        """))
+                .andDo(log())
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].averageSpeed").value(10.0))
+                .andExpect(jsonPath("$[0].distance").value(training1.getDistance()))
+                .andExpect(jsonPath("$[0].caloriesBurned").value(1050))
+                .andExpect(jsonPath("$[0].version").value(1));
+
+        mockMvc.perform(patch("/v1/trainings/{id}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {
+                            "distance": 1.0,
+                            "version": 0
+                        }
+                        """))
+                .andDo(log())
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void shouldReturnAllFinishedTrainingsAfterTime_whenGettingAllFinishedTrainingsAfterTime() throws Exception {
 
@@ -155,6 +253,150 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
 
     }
 
+    @Test
+    void shouldReturnOriginalTraining_whenRetryingCreationWithSameIdempotencyKey() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String idempotencyKey = randomUUID().toString();
+        String requestBody = """
+                {
+                    "userId": "%s",
+                    "startTime": "2024-04-01T11:00:00",
+                    "endTime": "2024-04-01T12:00:00",
+                    "activityType": "RUNNING",
+                    "distance": 10.52,
+                    "averageSpeed": 8.2
+                }
+                """.formatted(user1.getId());
+
+        String created = mockMvc.perform(post("/v1/trainings").header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "false"))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/v1/trainings").header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(created, true));
+
+        assertThat(getAllTrainings()).hasSize(1);
+    }
+
+    @Test
+    void shouldReturnConflict_whenIdempotencyKeyWasUsedByAnotherUser() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        String idempotencyKey = randomUUID().toString();
+        String requestBody = """
+                {
+                    "userId": "%s",
+                    "startTime": "2024-04-01T11:00:00",
+                    "endTime": "2024-04-01T12:00:00",
+                    "activityType": "RUNNING",
+                    "distance": 10.52,
+                    "averageSpeed": 8.2
+                }
+                """;
+
+        mockMvc.perform(post("/v1/trainings").header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON).content(requestBody.formatted(user1.getId())))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/v1/trainings").header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON).content(requestBody.formatted(user2.getId())))
+                .andDo(log())
+                .andExpect(status().isConflict());
+
+        assertThat(getAllTrainings()).hasSize(1);
+    }
+
+    @Test
+    void shouldReturnConflict_whenCreatingTrainingOverlappingAnotherTrainingOfUser() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        User user2 = existingUser(generateClient());
+        persistTraining(generateTrainingWithDetails(user1, "2024-04-01 10:00:00", "2024-04-01 11:00:00", ActivityType.RUNNING, 10.0, 10.0));
+        String requestBody = """
+                {
+                    "userId": "%s",
+                    "startTime": "2024-04-01T10:30:00",
+                    "endTime": "2024-04-01T11:30:00",
+                    "activityType": "CYCLING",
+                    "distance": 20.0,
+                    "averageSpeed": 20.0
+                }
+                """;
+
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(requestBody.formatted(user1.getId())))
+                .andDo(log())
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(requestBody.formatted(user2.getId())))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldCreateOneTraining_whenOverlappingTrainingsOfUserAreCreatedConcurrently() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        String requestBody = """
+                {
+                    "userId": "%s",
+                    "startTime": "2024-04-01T10:%02d:00",
+                    "endTime": "2024-04-01T11:30:00",
+                    "activityType": "CYCLING",
+                    "distance": 20.0,
+                    "averageSpeed": 20.0
+                }
+                """;
+        int requests = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                String body = requestBody.formatted(user1.getId(), i);
+                statuses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> status : statuses) {
+                results.add(status.get(30, TimeUnit.SECONDS));
+            }
+
+            assertThat(results).containsOnlyOnce(201).containsOnly(201, 409);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(getAllTrainings()).hasSize(1);
+    }
+
+    @Test
+    void shouldReturnTrainingsActiveAtTime_whenGettingActiveTrainings() throws Exception {
+
+        User user1 = existingUser(generateClient());
+        persistTraining(generateTrainingWithDetails(user1, "2024-04-01 10:00:00", "2024-04-01 11:00:00", ActivityType.RUNNING, 10.0, 10.0));
+        Training afternoon = persistTraining(generateTrainingWithDetails(user1, "2024-04-01 14:00:00", "2024-04-01 16:00:00", ActivityType.CYCLING, 40.0, 20.0));
+
+        mockMvc.perform(get("/v1/trainings/{userId}/active", user1.getId()).param("at", "2024-04-01T15:00:00"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(afternoon.getId()))
+                .andExpect(jsonPath("$[1]").doesNotExist());
+        mockMvc.perform(get("/v1/trainings/{userId}/active", user1.getId()).param("at", "2024-04-01T12:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").doesNotExist());
+    }
+
     @Test
     void shouldUpdateTraining_whenUpdatingTraining() throws Exception {
 
@@ -167,9 +409,10 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 "endTime": "2022-04-01T11:00:00",
                 "activityType": "TENNIS",
                 "distance": 0.0,
-                "averageSpeed": 0.0
+                "averageSpeed": 0.0,
+                "version": %s
                 }
-                """.formatted(user1.getId());
+                """.formatted(user1.getId(), training1.getVersion());
         mockMvc.perform(put("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON).content(requestBody))
                 .andDo(log())
                 .andExpect(status().isOk())
@@ -182,6 +425,37 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
                 .andExpect(jsonPath("$.averageSpeed").value(0.0));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldRejectSecondUpdate_whenUpdatingTrainingWithStaleVersion() throws Exception {
+        User user1 = existingUser(generateClient());
+        Training training1 = persistTraining(generateTrainingWithActivityType(user1, ActivityType.RUNNING));
+        String requestBody = """
+                {
+                "userId": "%s",
+                "startTime": "2022-04-01T10:00:00",
+                "endTime": "2022-04-01T11:00:00",
+                "activityType": "%s",
+                "distance": 10.0,
+                "averageSpeed": 10.0,
+                "version": %s
+                }
+                """;
+
+        mockMvc.perform(put("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON)
+                                .content(requestBody.formatted(user1.getId(), "TENNIS", training1.getVersion())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(training1.getVersion() + 1));
+        mockMvc.perform(put("/v1/trainings/{trainingId}", training1.getId()).contentType(MediaType.APPLICATION_JSON)
+                                .content(requestBody.formatted(user1.getId(), "CYCLING", training1.getVersion())))
+                .andDo(log())
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].activityType").value(ActivityType.TENNIS.toString()));
+    }
+
     private static User generateClient() {
         return new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString());
     }
@@ -0,0 +1,155 @@
+package com.capgemini.wsb.fitnesstracker.training;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class TrainingIngestIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpStatistics() {
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+    }
+
+    @Test
+    void shouldStoreTrainingsInBackground_whenCreatingTrainingsAsynchronously() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString()));
+
+        String first = submit(user.getId(), "2024-04-01T11:00:00");
+        String second = submit(user.getId(), "2024-04-01T12:00:00");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            mockMvc.perform(get("/v1/trainings/ingest/{trackingId}", first))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.status").value("COMPLETED"))
+                    .andExpect(jsonPath("$.trainingId").isNumber());
+            mockMvc.perform(get("/v1/trainings/ingest/{trackingId}", second))
+                    .andExpect(jsonPath("$.status").value("COMPLETED"));
+        });
+        mockMvc.perform(get("/v1/trainings/{userId}", user.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].distance").value(10.52))
+                .andExpect(jsonPath("$[1].distance").value(10.52))
+                .andExpect(jsonPath("$[2]").doesNotExist());
+    }
+
+    @Test
+    void shouldStoreTrainingOnce_whenRetryingSubmissionWithSameIdempotencyKey() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString()));
+        LocalDateTime start = LocalDateTime.parse("2024-04-01T11:00:00");
+        String requestBody = trainingRequest(user.getId(), "RUNNING", start, start.plusMinutes(30), 10.52, 8.2);
+        String idempotencyKey = randomUUID().toString();
+
+        String first = submitWithKey(requestBody, idempotencyKey);
+        String retried = submitWithKey(requestBody, idempotencyKey);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                mockMvc.perform(get("/v1/trainings/ingest/{trackingId}", first))
+                        .andExpect(jsonPath("$.status").value("COMPLETED")));
+        Integer trainingId = JsonPath.read(mockMvc.perform(get("/v1/trainings/ingest/{trackingId}", first))
+                                                   .andReturn().getResponse().getContentAsString(), "$.trainingId");
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                mockMvc.perform(get("/v1/trainings/ingest/{trackingId}", retried))
+                        .andExpect(jsonPath("$.status").value("COMPLETED"))
+                        .andExpect(jsonPath("$.trainingId").value(trainingId)));
+        String replayed = submitWithKey(requestBody, idempotencyKey);
+        mockMvc.perform(get("/v1/trainings/ingest/{trackingId}", replayed))
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.trainingId").value(trainingId));
+
+        mockMvc.perform(get("/v1/trainings/{userId}", user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(trainingId))
+                .andExpect(jsonPath("$[1]").doesNotExist());
+    }
+
+    @Test
+    void shouldMarkSubmissionAsFailed_whenUserDoesNotExist() throws Exception {
+        String trackingId = submit(-1L, "2024-04-01T11:00:00");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                mockMvc.perform(get("/v1/trainings/ingest/{trackingId}", trackingId))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.status").value("FAILED"))
+                        .andExpect(jsonPath("$.error").isNotEmpty()));
+    }
+
+    @Test
+    void shouldRejectIncompleteTraining_whenCreatingTrainingAsynchronously() throws Exception {
+        mockMvc.perform(post("/v1/trainings")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\": 1, \"activityType\": \"RUNNING\"}"))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnNotFound_whenGettingUnknownSubmission() throws Exception {
+        mockMvc.perform(get("/v1/trainings/ingest/{trackingId}", randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    private String submit(Long userId, String startTime) throws Exception {
+        LocalDateTime start = LocalDateTime.parse(startTime);
+        String requestBody = trainingRequest(userId, "RUNNING", start, start.plusMinutes(30), 10.52, 8.2);
+        MockHttpServletResponse response = mockMvc.perform(post("/v1/trainings")
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andDo(log())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse();
+        String trackingId = JsonPath.read(response.getContentAsString(), "$.trackingId");
+        assertThat(response.getHeader(HttpHeaders.LOCATION)).endsWith("/v1/trainings/ingest/" + trackingId);
+        return trackingId;
+    }
+
+    private String submitWithKey(String requestBody, String idempotencyKey) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(post("/v1/trainings")
+                        .header("Prefer", "respond-async")
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody))
+                .andDo(log())
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse();
+        return JsonPath.read(response.getContentAsString(), "$.trackingId");
+    }
+}
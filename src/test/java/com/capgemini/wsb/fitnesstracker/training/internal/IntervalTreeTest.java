@@ -0,0 +1,64 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntervalTreeTest {
+
+    private final IntervalTree tree = new IntervalTree();
+
+    @Test
+    void shouldFindOverlappingIntervals_whenIntervalsAreHalfOpen() {
+        tree.insert(1, 10, 20);
+        tree.insert(2, 20, 30);
+        tree.insert(3, 0, 100);
+
+        assertThat(tree.overlapping(15, 25)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(tree.overlapping(20, 21)).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(tree.containing(19)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(tree.overlapping(100, 200)).isEmpty();
+    }
+
+    @Test
+    void shouldNoLongerFindInterval_whenRemoved() {
+        tree.insert(1, 10, 20);
+        tree.insert(2, 10, 30);
+
+        tree.remove(1, 10);
+
+        assertThat(tree.containing(15)).containsExactly(2L);
+        assertThat(tree.size()).isOne();
+    }
+
+    @Test
+    void shouldMatchBruteForce_whenIntervalsAreRandom() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 2_000; id++) {
+            long start = random.nextInt(100_000);
+            long[] interval = {id, start, start + random.nextInt(500)};
+            intervals.add(interval);
+            tree.insert(interval[0], interval[1], interval[2]);
+        }
+        for (int i = 0; i < 500; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            tree.remove(removed[0], removed[1]);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + random.nextInt(1_000);
+            List<Long> expected = intervals.stream()
+                    .filter(interval -> interval[1] < end && interval[2] > start)
+                    .map(interval -> interval[0])
+                    .toList();
+            assertThat(tree.overlapping(start, end)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+        assertThat(tree.size()).isEqualTo(intervals.size());
+    }
+}
@@ -0,0 +1,98 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = {
+        "training.ingest.batch-size=3",
+        "training.ingest.max-delay=10s"
+})
+class TrainingIngestBatchIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private TrainingIngestService ingestService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void limitDistance() {
+        jdbcTemplate.execute("ALTER TABLE trainings ADD CONSTRAINT test_distance_limit CHECK (distance < 1000)");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("ALTER TABLE trainings DROP CONSTRAINT test_distance_limit");
+        jdbcTemplate.update("DELETE FROM statistics");
+        jdbcTemplate.update("DELETE FROM personal_records");
+        jdbcTemplate.update("DELETE FROM inactivity_reminders");
+    }
+
+    @Test
+    void shouldFailOnlyTheFaultyTraining_whenTheDatabaseRejectsItsBatch() throws Exception {
+        User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString()));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        UUID first = submit(user, today, 6, 10.0);
+        UUID second = submit(user, today, 8, 20.0);
+        UUID rejected = submit(user, today, 10, 5_000.0);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(ingestService.getStatus(first).orElseThrow().status()).isEqualTo(TrainingIngestDto.Status.COMPLETED);
+            assertThat(ingestService.getStatus(second).orElseThrow().status()).isEqualTo(TrainingIngestDto.Status.COMPLETED);
+            assertThat(ingestService.getStatus(rejected).orElseThrow().status()).isEqualTo(TrainingIngestDto.Status.FAILED);
+        });
+        mockMvc.perform(get("/v1/trainings/{userId}", user.getId()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                mockMvc.perform(get("/v1/statistics/users/{userId}", user.getId()))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.totalTrainings").value(2))
+                        .andExpect(jsonPath("$.totalDistance").value(30.0)));
+        mockMvc.perform(get("/v1/leaderboards/{activityType}/users/{userId}", "RUNNING", user.getId()).param("week", today.toString()))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalDistance").value(30.0))
+                .andExpect(jsonPath("$.trainings").value(2));
+        mockMvc.perform(get("/v1/statistics/users/{userId}/records/{activityType}", user.getId(), "RUNNING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.longestDistance").value(20.0));
+    }
+
+    private UUID submit(User user, LocalDate day, int hour, double distance) {
+        Date startTime = Date.from(day.atTime(hour, 0).toInstant(ZoneOffset.UTC));
+        TrainingDto training = new TrainingDto(null, user.getId(), null, startTime, new Date(startTime.getTime() + 3_600_000),
+                                               ActivityType.RUNNING, distance, 10.0, 0, null);
+        return ingestService.submit(training, null).orElseThrow().trackingId();
+    }
+}
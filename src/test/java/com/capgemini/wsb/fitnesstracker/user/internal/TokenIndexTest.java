@@ -0,0 +1,83 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenIndexTest {
+
+    private final TokenIndex index = new TokenIndex();
+
+    @Test
+    void shouldRankExactBeforePrefixBeforeFuzzyMatches_whenSearchingTerm() {
+        put(1, "Annabel Smith annabel@domain.com");
+        put(2, "Anna Jones anna.jones@domain.com");
+        put(3, "Ana Brown ana@domain.com");
+        put(4, "Bob Annan bob@domain.com");
+
+        assertThat(search("anna")).containsExactly(2L, 1L, 4L, 3L);
+        assertThat(search("an")).containsExactly(3L, 2L, 1L, 4L);
+    }
+
+    @Test
+    void shouldMatchAllTerms_whenQueryHasSeveralWords() {
+        put(1, "Anna Smith anna@domain.com");
+        put(2, "Anna Jones anna.jones@domain.com");
+        put(3, "John Smith john@domain.com");
+
+        assertThat(search("anna smi")).containsExactly(1L);
+        assertThat(search("SMITH, John")).containsExactly(3L);
+        assertThat(search("jones@domain")).containsExactly(2L);
+    }
+
+    @Test
+    void shouldTolerateTypos_whenTermIsLongEnough() {
+        put(1, "Katarzyna Nowak kasia@domain.com");
+        put(2, "Zoë Müller zoe@domain.com");
+
+        assertThat(search("katrzyna")).containsExactly(1L);
+        assertThat(search("nowka")).containsExactly(1L);
+        assertThat(search("muller zoe")).containsExactly(2L);
+        assertThat(search("nk")).isEmpty();
+    }
+
+    @Test
+    void shouldNoLongerFindDocument_whenRemovedOrReplaced() {
+        put(1, "Anna Smith anna@domain.com");
+        put(2, "Anna Jones jones@domain.com");
+
+        index.remove(1);
+        put(2, "Maria Jones maria@domain.com");
+
+        assertThat(search("anna")).isEmpty();
+        assertThat(search("maria")).containsExactly(2L);
+        assertThat(index.size()).isOne();
+    }
+
+    @Test
+    void shouldReturnPage_whenOffsetAndLimitAreGiven() {
+        for (long id = 1; id <= 10; id++) {
+            put(id, "User" + id + " Test user" + id + "@domain.com");
+        }
+
+        assertThat(index.search(TokenIndex.tokenize("test"), 3, 4)).containsExactly(4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void shouldComputeEditDistanceToClosestPrefix() {
+        assertThat(TokenIndex.prefixEdits("kat", "katarzyna", 1)).isZero();
+        assertThat(TokenIndex.prefixEdits("katr", "katarzyna", 1)).isOne();
+        assertThat(TokenIndex.prefixEdits("aknn", "ankna", 2)).isOne();
+        assertThat(TokenIndex.prefixEdits("xyz", "anna", 1)).isEqualTo(2);
+    }
+
+    private void put(long id, String text) {
+        index.put(id, TokenIndex.tokenize(text));
+    }
+
+    private List<Long> search(String query) {
+        return index.search(TokenIndex.tokenize(query), 0, 10);
+    }
+}
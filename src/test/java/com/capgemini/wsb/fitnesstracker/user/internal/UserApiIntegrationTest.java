@@ -6,8 +6,10 @@ import com.capgemini.wsb.fitnesstracker.user.api.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -17,8 +19,11 @@ import static java.time.format.DateTimeFormatter.ISO_DATE;
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -181,14 +186,16 @@ class UserApiIntegrationTest extends IntegrationTestBase {
                 "firstName": "%s",
                 "lastName": "%s",
                 "birthdate": "%s",
-                "email": "%s"
+                "email": "%s",
+                "version": %s
                 }
                 """.formatted(
                 USER_NAME,
 
                 USER_LAST_NAME,
                 USER_BIRTHDATE,
-                USER_EMAIL);
+                USER_EMAIL,
+                user1.getVersion());
 
         mockMvc.perform(put("/v1/users/{userId}", user1.getId())
                 .contentType(MediaType.APPLICATION_JSON)
@@ -203,6 +210,171 @@ class UserApiIntegrationTest extends IntegrationTestBase {
         assertThat(user.getEmail()).isEqualTo(USER_EMAIL);
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldRejectSecondUpdate_whenUpdatingUserWithStaleVersion() throws Exception {
+        User user1 = existingUser(generateUser());
+        String updateRequest = """
+                {
+                    "firstName": "%s",
+                    "lastName": "%s",
+                    "birthdate": "%s",
+                    "email": "%s",
+                    "version": %s
+                }
+                """;
+
+        mockMvc.perform(put("/v1/users/{id}", user1.getId()).contentType(MediaType.APPLICATION_JSON)
+                                .content(updateRequest.formatted("First", user1.getLastName(), ISO_DATE.format(user1.getBirthdate()),
+                                                                 user1.getEmail(), user1.getVersion())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(user1.getVersion() + 1));
+        mockMvc.perform(put("/v1/users/{id}", user1.getId()).contentType(MediaType.APPLICATION_JSON)
+                                .content(updateRequest.formatted("Second", user1.getLastName(), ISO_DATE.format(user1.getBirthdate()),
+                                                                 user1.getEmail(), user1.getVersion())))
+                .andDo(log())
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/v1/users/{id}", user1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {
+                            "firstName": "Third",
+                            "lastName": "%s",
+                            "birthdate": "%s",
+                            "email": "%s"
+                        }
+                        """.formatted(user1.getLastName(), ISO_DATE.format(user1.getBirthdate()), user1.getEmail())))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/v1/users/{id}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("First"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldUpdateUserAtVersionOfIfMatch_whenBodyHasNoVersion() throws Exception {
+        User user1 = existingUser(generateUser());
+        String eTag = mockMvc.perform(get("/v1/users/{id}", user1.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String updateRequest = """
+                {
+                    "firstName": "%s",
+                    "lastName": "%s",
+                    "birthdate": "%s",
+                    "email": "%s"
+                }
+                """;
+
+        mockMvc.perform(put("/v1/users/{id}", user1.getId()).header(HttpHeaders.IF_MATCH, eTag).contentType(MediaType.APPLICATION_JSON)
+                                .content(updateRequest.formatted("First", user1.getLastName(), ISO_DATE.format(user1.getBirthdate()), user1.getEmail())))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(user1.getVersion() + 1));
+        mockMvc.perform(put("/v1/users/{id}", user1.getId()).header(HttpHeaders.IF_MATCH, eTag).contentType(MediaType.APPLICATION_JSON)
+                                .content(updateRequest.formatted("Second", user1.getLastName(), ISO_DATE.format(user1.getBirthdate()), user1.getEmail())))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/v1/users/{id}", user1.getId()).header(HttpHeaders.IF_MATCH, "*").contentType(MediaType.APPLICATION_JSON)
+                                .content(updateRequest.formatted("Third", user1.getLastName(), ISO_DATE.format(user1.getBirthdate()), user1.getEmail())))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/v1/users/{id}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("First"));
+    }
+
+    @Test
+    void shouldReturnNotModified_whenGettingUnchangedUserWithEtag() throws Exception {
+        User user1 = existingUser(generateUser());
+
+        String eTag = mockMvc.perform(get("/v1/users/{id}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/users/{id}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(put("/v1/users/{id}", user1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {
+                            "firstName": "Changed",
+                            "lastName": "%s",
+                            "birthdate": "%s",
+                            "email": "%s",
+                            "version": %s
+                        }
+                        """.formatted(user1.getLastName(), ISO_DATE.format(user1.getBirthdate()), user1.getEmail(), user1.getVersion())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/users/{id}", user1.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Changed"))
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void shouldReturnNotModified_whenGettingUnchangedUserListWithEtag() throws Exception {
+        existingUser(generateUser());
+
+        String eTag = mockMvc.perform(get("/v1/users/simple"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/users/simple").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        existingUser(generateUser());
+
+        mockMvc.perform(get("/v1/users/simple").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void shouldApplyPartialModification_whenPatchingUserAtCurrentVersion() throws Exception {
+        User user1 = existingUser(generateUser());
+
+        mockMvc.perform(patch("/v1/users/{id}", user1.getId()).contentType(MediaType.APPLICATION_JSON).content("""
+                        {
+                            "firstName": "Patched",
+                            "version": 0
+                        }
+                        """))
+                .andDo(log())
+                .andExpect(status().isNoContent())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        mockMvc.perform(get("/v1/users/{id}", user1.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Patched"))
+                .andExpect(jsonPath("$.lastName").value(user1.getLastName()))
+                .andExpect(jsonPath("$.email").value(user1.getEmail()))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void shouldReturnConflict_whenPatchingUserAtOutdatedVersion() throws Exception {
+        User user1 = existingUser(generateUser());
+        String patch = """
+                {
+                    "lastName": "Patched",
+                    "version": 0
+                }
+                """;
+
+        mockMvc.perform(patch("/v1/users/{id}", user1.getId()).contentType(MediaType.APPLICATION_JSON).content(patch))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(patch("/v1/users/{id}", user1.getId()).contentType(MediaType.APPLICATION_JSON).content(patch))
+                .andDo(log())
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch("/v1/users/{id}", Long.MAX_VALUE).contentType(MediaType.APPLICATION_JSON).content(patch))
+                .andExpect(status().isNotFound());
+    }
+
     public static User generateUser() {
         return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.now(), randomUUID().toString());
     }
@@ -0,0 +1,74 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+@TestPropertySource(properties = "user.purge.batch-size=2")
+class UserPurgeIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldHideUserAndPurgeItsDataInBatches_whenDeletingUser() throws Exception {
+        User deleted = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString()));
+        User kept = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString()));
+        for (int i = 0; i < 5; i++) {
+            persistTraining(new Training(deleted, new Date(), new Date(), ActivityType.RUNNING, 1.0, 1.0));
+        }
+        persistTraining(new Training(kept, new Date(), new Date(), ActivityType.RUNNING, 1.0, 1.0));
+        double purgedTrainingsBefore = meterRegistry.counter("user.purge.rows", "data", "trainings").count();
+
+        mockMvc.perform(delete("/v1/users/{userId}", deleted.getId()))
+                .andDo(log())
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/v1/users/simple"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value(kept.getFirstName()))
+                .andExpect(jsonPath("$[1]").doesNotExist());
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(count("SELECT COUNT(*) FROM user_purge_tasks")).isZero();
+            assertThat(count("SELECT COUNT(*) FROM users WHERE id = " + deleted.getId())).isZero();
+        });
+        assertThat(count("SELECT COUNT(*) FROM trainings WHERE user_id = " + deleted.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM trainings WHERE user_id = " + kept.getId())).isOne();
+        assertThat(meterRegistry.counter("user.purge.rows", "data", "trainings").count() - purgedTrainingsBefore).isEqualTo(5);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,113 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingService;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Stops and starts the application on an H2 file database while the data of a deleted user waits to be purged,
+ * as after a crash between the deletion and the purge.
+ */
+@IntegrationTest
+class UserPurgeRestartIntegrationTest {
+
+    @TempDir
+    Path database;
+
+    @Test
+    void shouldHideTrainingsOfDeletedUser_andPurgeThemAfterRestart() throws Exception {
+        long deletedUserId;
+        long keptUserId;
+        try (ConfigurableApplicationContext node = start()) {
+            UserService userService = node.getBean(UserService.class);
+            TrainingService trainingService = node.getBean(TrainingService.class);
+            User deleted = userService.createUser(newUser());
+            User kept = userService.createUser(newUser());
+            for (int i = 0; i < 3; i++) {
+                trainingService.createTraining(newTraining(deleted, i));
+            }
+            trainingService.createTraining(newTraining(kept, 0));
+            deletedUserId = deleted.getId();
+            keptUserId = kept.getId();
+            markDeletedWithoutPurging(node.getBean(JdbcTemplate.class), deletedUserId);
+
+            assertOnlyTrainingsOf(node, keptUserId);
+        }
+
+        try (ConfigurableApplicationContext node = start()) {
+            assertOnlyTrainingsOf(node, keptUserId);
+            JdbcTemplate jdbcTemplate = node.getBean(JdbcTemplate.class);
+            await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                    assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_purge_tasks", Long.class)).isZero());
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trainings WHERE user_id = ?", Long.class, deletedUserId)).isZero();
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(FitnessTracker.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("spring.datasource.url=jdbc:h2:file:" + database.resolve("restart").toAbsolutePath(),
+                            "spring.jpa.hibernate.ddl-auto=update",
+                            "server.port=0",
+                            "journal.directory=" + database.resolve("journal").toAbsolutePath(),
+                            "snapshot.directory=" + database.resolve("snapshots").toAbsolutePath())
+                .run();
+    }
+
+    /**
+     * Deletes a user as {@link UserServiceImpl#deleteUser} does, without announcing it, so nothing is purged until
+     * the application is started again.
+     */
+    private static void markDeletedWithoutPurging(JdbcTemplate jdbcTemplate, long userId) {
+        jdbcTemplate.update("UPDATE users SET deleted = TRUE WHERE id = ?", userId);
+        jdbcTemplate.update("INSERT INTO user_purge_tasks (user_id, requested_at, purged_rows) VALUES (?, ?, 0)",
+                            userId, Timestamp.from(Instant.now()));
+    }
+
+    private static void assertOnlyTrainingsOf(ConfigurableApplicationContext node, long userId) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) node).build();
+        mockMvc.perform(get("/v1/trainings"))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].userId").value(userId));
+    }
+
+    private static User newUser() {
+        return new User(randomUUID().toString(), randomUUID().toString(), LocalDate.of(1990, 1, 1), randomUUID() + "@domain.com");
+    }
+
+    private static Training newTraining(User user, int hour) {
+        Instant start = Instant.now().minus(Duration.ofDays(1)).plus(Duration.ofHours(2L * hour));
+        return new Training(user, Date.from(start), Date.from(start.plus(Duration.ofHours(1))), ActivityType.RUNNING, 5.0, 10.0);
+    }
+}
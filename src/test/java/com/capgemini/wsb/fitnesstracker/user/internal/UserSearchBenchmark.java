@@ -0,0 +1,92 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.Benchmark;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Searches 1M users with generated names, measuring the latency of prefix, multi-word and misspelled queries
+ * of the {@link TokenIndex}.
+ */
+@Benchmark
+class UserSearchBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int QUERIES = 20_000;
+    private static final int LIMIT = 20;
+
+    private static final String[] FIRST_NAMES = {"anna", "maria", "katarzyna", "malgorzata", "agnieszka", "barbara", "ewa",
+            "krystyna", "elzbieta", "magdalena", "piotr", "krzysztof", "andrzej", "tomasz", "pawel", "jan", "michal",
+            "marcin", "jakub", "adam", "alexander", "john", "emily", "oliver", "sophia", "lucas", "amelia", "noah"};
+    private static final String[] SYLLABLES = {"ko", "wal", "ski", "now", "ak", "wis", "niew", "lew", "and", "row", "zie",
+            "lin", "mar", "czyk", "dab", "row", "sz", "ew", "ic", "ba", "ran", "sen", "ton", "ber", "man"};
+    private static final String[] DOMAINS = {"gmail.com", "wp.pl", "onet.pl", "outlook.com", "domain.com"};
+
+    @Test
+    void searchOneMillionUsers() {
+        Random random = new Random(42);
+        TokenIndex index = new TokenIndex();
+        String[] lastNames = new String[USERS];
+        long start = System.nanoTime();
+        for (int id = 0; id < USERS; id++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            lastNames[id] = lastName(random);
+            String email = firstName + "." + lastNames[id] + id % 1000 + "@" + DOMAINS[random.nextInt(DOMAINS.length)];
+            index.put(id, TokenIndex.tokenize(firstName + " " + lastNames[id] + " " + email));
+        }
+        double buildMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.printf("indexed %d users in %.0f ms%n", USERS, buildMillis);
+        System.out.printf("%-12s %16s%n", "query", "per query [us]");
+        run("prefix", index, id -> lastNames[id].substring(0, Math.min(4, lastNames[id].length())));
+        run("exact", index, id -> lastNames[id]);
+        run("two words", index, id -> FIRST_NAMES[id % FIRST_NAMES.length] + " " + lastNames[id].substring(0, 3));
+        run("typo", index, id -> typo(lastNames[id]));
+    }
+
+    private static void run(String name, TokenIndex index, QueryGenerator generator) {
+        Random random = new Random(7);
+        List<List<String>> queries = random.ints(QUERIES, 0, USERS).mapToObj(id -> TokenIndex.tokenize(generator.query(id))).toList();
+        long found = 0;
+        for (List<String> query : queries) {
+            found += index.search(query, 0, LIMIT).size();
+        }
+        long start = System.nanoTime();
+        for (List<String> query : queries) {
+            found += index.search(query, 0, LIMIT).size();
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / QUERIES;
+        System.out.printf("%-12s %16.1f%n", name, micros);
+        assertThat(found).isPositive();
+    }
+
+    private static String lastName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+
+    private static String typo(String word) {
+        if (word.length() < 4) {
+            return word;
+        }
+        char[] chars = word.toCharArray();
+        char swapped = chars[1];
+        chars[1] = chars[2];
+        chars[2] = swapped;
+        return new String(chars);
+    }
+
+    @FunctionalInterface
+    private interface QueryGenerator {
+
+        String query(int id);
+    }
+}
@@ -0,0 +1,136 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static java.util.UUID.randomUUID;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Not transactional, as the search index is updated once the modifications of users are committed.
+ * Every test searches a random family name, the users of other tests stay in the index until the next start.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class UserSearchIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    private final String family = randomUUID().toString().replace("-", "");
+
+    @Test
+    void shouldRankExactBeforePrefixMatches_whenSearchingUsers() throws Exception {
+        createUser("Alexandra", "alexandra." + family);
+        createUser("Alex", "alex." + family);
+        createUser("Sandra", "sandra." + family);
+
+        mockMvc.perform(get("/v1/users/search").param("q", "alex " + family))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].firstName").value("Alex"))
+                .andExpect(jsonPath("$[1].firstName").value("Alexandra"));
+        mockMvc.perform(get("/v1/users/search").param("q", family).param("offset", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void shouldFindUserDespiteTypo_whenSearchingUsers() throws Exception {
+        createUser("Alexandra", "alexandra." + family);
+
+        mockMvc.perform(get("/v1/users/search").param("q", "Alexnadra " + family.substring(0, 8)))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].email").value("alexandra." + family + "@domain.com"));
+    }
+
+    @Test
+    void shouldIgnoreStaleReads_whenUserWasReadBeforeItsModificationOrDeletion() throws Exception {
+        String id = createUser("Alexandra", "alexandra." + family);
+        UserDto created = new UserDto(Long.parseLong(id), "Alexandra", family, LocalDate.of(2000, 1, 1), "alexandra." + family + "@domain.com", 0L);
+        mockMvc.perform(put("/v1/users/{id}", id).contentType(MediaType.APPLICATION_JSON).content(userRequest("Beatrix", "beatrix." + family)))
+                .andExpect(status().isOk());
+
+        userSearchIndex.put(created);
+
+        mockMvc.perform(get("/v1/users/search").param("q", family))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].firstName").value("Beatrix"));
+
+        mockMvc.perform(delete("/v1/users/{id}", id))
+                .andExpect(status().isNoContent());
+        userSearchIndex.put(created);
+
+        mockMvc.perform(get("/v1/users/search").param("q", family))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void shouldFollowModificationsOfUsers_whenUsersAreUpdatedOrDeleted() throws Exception {
+        String id = createUser("Alexandra", "alexandra." + family);
+
+        mockMvc.perform(put("/v1/users/{id}", id).contentType(MediaType.APPLICATION_JSON).content(userRequest("Beatrix", "beatrix." + family)))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/v1/users/search").param("q", "alexandra " + family))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/v1/users/search").param("q", "beatrix " + family))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].firstName").value("Beatrix"));
+
+        mockMvc.perform(delete("/v1/users/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/v1/users/search").param("q", family))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void shouldRejectSearch_whenQueryHasNoWord() throws Exception {
+        mockMvc.perform(get("/v1/users/search").param("q", " .@ "))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/users/search").param("q", family).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String createUser(String firstName, String emailName) throws Exception {
+        String response = mockMvc.perform(post("/v1/users").contentType(MediaType.APPLICATION_JSON).content(userRequest(firstName, emailName)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return response.replaceAll(".*?\"id\":(\\d+),.*", "$1");
+    }
+
+    private String userRequest(String firstName, String emailName) {
+        return """
+                {
+                    "firstName": "%s",
+                    "lastName": "%s",
+                    "birthdate": "1990-01-01",
+                    "email": "%s@domain.com",
+                    "version": 0
+                }
+                """.formatted(firstName, family, emailName);
+    }
+}
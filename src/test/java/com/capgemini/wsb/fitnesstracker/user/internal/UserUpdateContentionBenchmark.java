@@ -0,0 +1,122 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.Benchmark;
+import com.capgemini.wsb.fitnesstracker.exception.api.ConflictException;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserPatch;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import com.capgemini.wsb.fitnesstracker.user.api.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many concurrent writers modifying the same user, comparing the read-copy-save PUT path with the
+ * single guarded statement of the PATCH path. Every writer reads the user (as a client would GET it),
+ * modifies it and retries after a conflict.
+ */
+@Benchmark
+@SpringBootTest
+class UserUpdateContentionBenchmark {
+
+    private static final int WRITERS = 16;
+    private static final int UPDATES_PER_WRITER = 200;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserProvider userProvider;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = userService.createUser(new User("First", "Last", LocalDate.of(1990, 1, 1), randomUUID().toString()));
+    }
+
+    @AfterEach
+    void deleteUser() {
+        userService.deleteUser(user.getId());
+    }
+
+    @Test
+    void compareUpdatePathsUnderContention() throws Exception {
+        Result put = run("PUT", writer -> {
+            User current = userProvider.getUser(user.getId()).orElseThrow();
+            userService.updateUser(user.getId(), new User(writer, current.getLastName(), current.getBirthdate(), current.getEmail()),
+                                   current.getVersion());
+        });
+        long versionBeforePatch = currentVersion();
+        Result patch = run("PATCH", writer -> {
+            long version = currentVersion();
+            userService.patchUser(user.getId(), new UserPatch(writer, null, null, null, version));
+        });
+
+        System.out.printf("%-6s %10s %10s %12s%n", "path", "updates", "conflicts", "updates/s");
+        for (Result result : List.of(put, patch)) {
+            System.out.printf("%-6s %10d %10d %12.0f%n", result.path, result.updates, result.conflicts, result.updatesPerSecond());
+        }
+        assertThat(currentVersion() - versionBeforePatch)
+                .as("every successful PATCH is accounted for, none is lost")
+                .isEqualTo(patch.updates);
+    }
+
+    private Result run(String path, Update update) throws Exception {
+        AtomicLong conflicts = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                String writer = "writer-" + i;
+                writers.add(executor.submit(() -> {
+                    for (int done = 0; done < UPDATES_PER_WRITER; ) {
+                        try {
+                            update.apply(writer);
+                            done++;
+                        } catch (ConflictException e) {
+                            conflicts.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            return new Result(path, (long) WRITERS * UPDATES_PER_WRITER, conflicts.get(), System.nanoTime() - start);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long currentVersion() {
+        return userProvider.getUser(user.getId()).orElseThrow().getVersion();
+    }
+
+    private interface Update {
+
+        void apply(String writer);
+    }
+
+    private record Result(String path, long updates, long conflicts, long nanos) {
+
+        double updatesPerSecond() {
+            return updates * 1_000_000_000.0 / nanos;
+        }
+    }
+}